@@ -0,0 +1,178 @@
+package com.miniide;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic inputs for the JMH benchmarks: prose, outlines, workspaces and tool
+ * calls shaped like what the app sees from real projects and models. Every generator takes a
+ * seeded {@link Random} so runs are comparable against the baseline.
+ */
+public final class BenchCorpus {
+
+    public static final long SEED = 20240611L;
+
+    private static final String[] WORDS = {
+        "the", "lantern", "harbor", "Mara", "Elias", "whispered", "storm", "against", "glass", "ledger",
+        "quietly", "bridge", "silver", "forgotten", "courier", "north", "tower", "debt", "promise", "river",
+        "smoke", "letter", "captain", "shadow", "market", "cold", "morning", "against", "door", "key",
+        "was", "had", "never", "always", "across", "beneath", "within", "suddenly", "slowly", "again",
+        "she", "he", "they", "it", "her", "his", "their", "and", "but", "because",
+        "remembered", "refused", "carried", "burned", "opened", "waited", "counted", "ran", "fell", "watched"
+    };
+    private static final String[] NAMES = {"Mara", "Elias", "Captain Voss", "Ilse", "The Courier", "Brother Aldo"};
+    private static final String[] TAGS = {"continuity", "timeline", "character", "pacing", "canon", "dialogue", "setting"};
+
+    private BenchCorpus() {
+    }
+
+    /**
+     * Services grab {@link AppLogger#get()} at construction; give them a file logger with the
+     * console off so benchmark output stays readable.
+     */
+    public static void initLogger() throws IOException {
+        AppLogger.initialize(Files.createTempFile("control-room-bench", ".log"), false);
+    }
+
+    public static String sentence(Random random, int minWords, int maxWords) {
+        int count = minWords + random.nextInt(Math.max(1, maxWords - minWords + 1));
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0) {
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            } else {
+                out.append(' ');
+            }
+            out.append(word);
+        }
+        out.append(random.nextInt(8) == 0 ? '?' : '.');
+        return out.toString();
+    }
+
+    /**
+     * Scene prose: narrative paragraphs with roughly one in four being attributed dialogue.
+     */
+    public static String prose(Random random, int paragraphs) {
+        StringBuilder out = new StringBuilder();
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0) {
+                out.append("\n\n");
+            }
+            if (random.nextInt(4) == 0) {
+                out.append('"').append(sentence(random, 4, 12)).append("\" ")
+                    .append(NAMES[random.nextInt(NAMES.length)]).append(" said.");
+                continue;
+            }
+            int sentences = 2 + random.nextInt(5);
+            for (int s = 0; s < sentences; s++) {
+                if (s > 0) {
+                    out.append(' ');
+                }
+                out.append(sentence(random, 6, 22));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Markdown outline in the "## Scene N: Title" shape the outline parser prefers.
+     */
+    public static String outline(Random random, int scenes) {
+        StringBuilder out = new StringBuilder("# Outline\n\n");
+        for (int i = 1; i <= scenes; i++) {
+            out.append("## Scene ").append(i).append(": ").append(sentence(random, 2, 5).replaceAll("[.?]$", ""))
+                .append("\n\n");
+            int lines = 2 + random.nextInt(4);
+            for (int l = 0; l < lines; l++) {
+                out.append(sentence(random, 8, 20)).append('\n');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a project tree (Story chapters with scenes, Compendium entries, an outline) and
+     * returns the relative paths of the scene files.
+     */
+    public static List<String> writeWorkspace(Path root, int chapters, int scenesPerChapter, Random random)
+            throws IOException {
+        List<String> scenes = new ArrayList<>();
+        for (int c = 1; c <= chapters; c++) {
+            for (int s = 1; s <= scenesPerChapter; s++) {
+                String relative = String.format("Story/Chapter-%02d/SCN-%02d-%02d.md", c, c, s);
+                write(root.resolve(relative), "# Scene " + s + "\n\n" + prose(random, 12 + random.nextInt(12)));
+                scenes.add(relative);
+            }
+        }
+        for (int i = 0; i < NAMES.length; i++) {
+            String name = NAMES[i].replace(' ', '-');
+            write(root.resolve("Compendium/Characters/" + name + ".md"), "# " + NAMES[i] + "\n\n" + prose(random, 4));
+        }
+        write(root.resolve("Story/SCN-outline.md"), outline(random, chapters * scenesPerChapter));
+        return scenes;
+    }
+
+    /**
+     * Strict tool-call JSON as models emit it; every fourth call is wrapped in a code fence.
+     */
+    public static String toolCall(Random random, String nonce) {
+        String json;
+        switch (random.nextInt(3)) {
+            case 0:
+                json = "{\"tool\":\"file_locator\",\"args\":{\"search_criteria\":\"" + WORDS[random.nextInt(WORDS.length)]
+                    + "\",\"scan_mode\":\"FAST_SCAN\",\"max_results\":" + (1 + random.nextInt(10)) + "},\"nonce\":\"" + nonce + "\"}";
+                break;
+            case 1:
+                json = "{\"tool\":\"file_reader\",\"args\":{\"path\":\"Story/Chapter-01/SCN-01-0" + (1 + random.nextInt(9))
+                    + ".md\",\"start_line\":" + (1 + random.nextInt(50)) + ",\"end_line\":" + (60 + random.nextInt(200))
+                    + "},\"nonce\":\"" + nonce + "\"}";
+                break;
+            default:
+                json = "{\"tool\":\"search_issues\",\"args\":{\"tags\":[\"" + TAGS[random.nextInt(TAGS.length)]
+                    + "\"],\"status\":\"open\"},\"nonce\":\"" + nonce + "\"}";
+                break;
+        }
+        return random.nextInt(4) == 0 ? "```json\n" + json + "\n```" : json;
+    }
+
+    public static List<String> tags(Random random) {
+        List<String> tags = new ArrayList<>();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            String tag = TAGS[random.nextInt(TAGS.length)];
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    public static String tag(Random random) {
+        return TAGS[random.nextInt(TAGS.length)];
+    }
+
+    public static void deleteTree(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+}
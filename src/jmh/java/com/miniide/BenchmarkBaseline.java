@@ -0,0 +1,120 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the checked-in baseline and prints one line per
+ * benchmark with the relative change. Run through {@code ./gradlew jmhCompare}.
+ * <p>
+ * Usage: {@code BenchmarkBaseline <baseline.json> <results.json> [thresholdPercent] [--fail]}.
+ * With {@code --fail} the exit status is 1 when any benchmark regressed past the threshold.
+ */
+public final class BenchmarkBaseline {
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkBaseline <baseline.json> <results.json> [thresholdPercent] [--fail]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 && !args[2].startsWith("--") ? Double.parseDouble(args[2]) : 10.0;
+        boolean fail = args[args.length - 1].equals("--fail");
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = load(mapper, Paths.get(args[0]));
+        Map<String, JsonNode> current = load(mapper, Paths.get(args[1]));
+        if (current.isEmpty()) {
+            System.err.println("No results in " + args[1] + "; run ./gradlew jmh first.");
+            System.exit(2);
+        }
+
+        int regressions = 0;
+        System.out.printf("%-72s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText("");
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-72s %14s %14s %9s%n", entry.getKey(), "-", format(score, unit), "new");
+                continue;
+            }
+            double base = before.path("primaryMetric").path("score").asDouble();
+            // Throughput modes improve upwards; time modes improve downwards
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double change = base == 0 ? 0 : (score - base) / base * 100.0;
+            double worse = higherIsBetter ? -change : change;
+            String marker = worse > threshold ? "  REGRESSION" : (worse < -threshold ? "  improved" : "");
+            if (worse > threshold) {
+                regressions++;
+            }
+            System.out.printf("%-72s %14s %14s %+8.1f%%%s%n", entry.getKey(), format(base, unit), format(score, unit),
+                change, marker);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-72s %14s %14s %9s%n", missing, "", "-", "not run");
+            }
+        }
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if (fail && regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> load(ObjectMapper mapper, Path path) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        if (!Files.exists(path)) {
+            return results;
+        }
+        JsonNode root = mapper.readTree(path.toFile());
+        if (root == null || !root.isArray()) {
+            return results;
+        }
+        for (JsonNode node : root) {
+            results.put(key(node), node);
+        }
+        return results;
+    }
+
+    // Benchmark method (without the package) plus its @Param values, e.g. "WorkspaceBenchmark.getTree[scenes=1000]"
+    private static String key(JsonNode node) {
+        String benchmark = node.path("benchmark").asText();
+        int dot = benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1);
+        StringBuilder key = new StringBuilder(dot >= 0 ? benchmark.substring(dot + 1) : benchmark);
+        JsonNode params = node.path("params");
+        if (params.isObject() && params.size() > 0) {
+            Map<String, String> sorted = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                sorted.put(field.getKey(), field.getValue().asText());
+            }
+            key.append('[');
+            boolean first = true;
+            for (Map.Entry<String, String> param : sorted.entrySet()) {
+                if (!first) {
+                    key.append(',');
+                }
+                key.append(param.getKey()).append('=').append(param.getValue());
+                first = false;
+            }
+            key.append(']');
+        }
+        return key.toString();
+    }
+
+    private static String format(double score, String unit) {
+        return String.format("%.3f %s", score, unit);
+    }
+}
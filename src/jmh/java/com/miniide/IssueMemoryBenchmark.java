@@ -0,0 +1,108 @@
+package com.miniide;
+
+import com.miniide.models.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-side issue queries used by the issue board, the search_issues tool and prompt
+ * grounding, on a store seeded with commented issues.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssueMemoryBenchmark {
+
+    private static final String[] AGENTS = {"planner", "writer", "editor", "critic", "continuity"};
+    private static final String[] PRIORITIES = {"low", "normal", "high", "urgent"};
+    private static final String[] EPISTEMIC = {"tentative", "proposed", "agreed", "verified"};
+
+    @Param({"100", "1000"})
+    public int issues;
+
+    private Path workspace;
+    private IssueMemoryService service;
+    private String tag;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchCorpus.initLogger();
+        workspace = Files.createTempDirectory("bench-issues");
+        service = new IssueMemoryService(workspace);
+        Random random = new Random(BenchCorpus.SEED);
+        for (int i = 0; i < issues; i++) {
+            Issue issue = service.createIssue(BenchCorpus.sentence(random, 3, 8), BenchCorpus.prose(random, 2),
+                AGENTS[random.nextInt(AGENTS.length)], AGENTS[random.nextInt(AGENTS.length)],
+                BenchCorpus.tags(random), PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            // Roughly half resolved, spread over the epistemic ladder so grounding and compression have work
+            if (i % 2 == 0) {
+                issue.setStatus("closed");
+                issue.setEpistemicStatus(EPISTEMIC[random.nextInt(EPISTEMIC.length)]);
+                service.updateIssue(issue);
+            }
+            if (i % 3 == 0) {
+                service.addComment(issue.getId(), AGENTS[random.nextInt(AGENTS.length)],
+                    BenchCorpus.sentence(random, 8, 20), null, null, null);
+            }
+        }
+        tag = BenchCorpus.tag(random);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchCorpus.deleteTree(workspace);
+    }
+
+    @Benchmark
+    public List<Issue> listIssues() {
+        return service.listIssues();
+    }
+
+    @Benchmark
+    public List<Issue> listByTag() {
+        return service.listIssuesByTag(tag);
+    }
+
+    @Benchmark
+    public List<Issue> listByAssignee() {
+        return service.listIssuesByAssignee("writer");
+    }
+
+    @Benchmark
+    public List<Issue> listByEpistemicStatus() {
+        return service.listIssuesByEpistemicStatus("proposed");
+    }
+
+    @Benchmark
+    public List<Issue> listNeedingCompression() {
+        return service.listIssuesNeedingCompression(false);
+    }
+
+    /**
+     * Served from the per-version cache once warm; a regression here means the cache misses.
+     */
+    @Benchmark
+    public List<IssueMemoryService.GroundingEntry> groundingEntries() {
+        return service.getGroundingEntries();
+    }
+}
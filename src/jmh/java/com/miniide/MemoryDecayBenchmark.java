@@ -0,0 +1,69 @@
+package com.miniide;
+
+import com.miniide.models.MemoryItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full decay sweep (dry run) against an idle due-queue tick on a large in-memory store.
+ * The idle tick should stay flat as the store grows; the sweep is linear in it.
+ * The 1M-item store needs the larger fork heap; narrow it with {@code -p items=10000,200000}
+ * on machines with less memory. Correctness of the ticks is covered by {@code MemoryDecayTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class MemoryDecayBenchmark {
+
+    private static final int AGENTS = 8;
+
+    @Param({"10000", "200000", "1000000"})
+    public int items;
+
+    private MemoryService service;
+    private MemoryService.DecaySettings settings;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchCorpus.initLogger();
+        service = new MemoryService(null);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < items; i++) {
+            MemoryItem item = service.createMemoryItem("agent-" + (i % AGENTS), "topic-" + (i % 100), 3, null, null);
+            if (i % 1000 == 0) {
+                // ~0.1% of the store is stale enough to archive
+                item.setLastAccessedAt(now - TimeUnit.DAYS.toMillis(20));
+            }
+        }
+        settings = new MemoryService.DecaySettings();
+        settings.setArchiveAfterMs(TimeUnit.DAYS.toMillis(14));
+        settings.setExpireAfterMs(TimeUnit.DAYS.toMillis(30));
+        // First tick builds the due queues and archives the stale items
+        service.runDecay(settings, false);
+    }
+
+    @Benchmark
+    public MemoryService.DecayResult fullSweepDryRun() {
+        return service.runDecay(settings, true);
+    }
+
+    @Benchmark
+    public MemoryService.DecayResult idleTick() {
+        return service.runDecay(settings, false);
+    }
+}
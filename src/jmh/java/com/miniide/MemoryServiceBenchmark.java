@@ -0,0 +1,93 @@
+package com.miniide;
+
+import com.miniide.models.MemoryItem;
+import com.miniide.models.MemoryVersion;
+import com.miniide.models.R5Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory store write paths on a pre-seeded store. With {@code persist=true} every write also
+ * pays for the snapshot rewrite, which is what grows with store size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryServiceBenchmark {
+
+    private static final int AGENTS = 8;
+
+    @Param({"100", "2000"})
+    public int items;
+
+    @Param({"false", "true"})
+    public boolean persist;
+
+    private Path storeDir;
+    private MemoryService service;
+    private String[] memoryIds;
+    private Random random;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchCorpus.initLogger();
+        storeDir = Files.createTempDirectory("bench-memory");
+        service = new MemoryService(persist ? storeDir.resolve("memory.json") : null);
+        random = new Random(BenchCorpus.SEED);
+        memoryIds = new String[items];
+        for (int i = 0; i < items; i++) {
+            MemoryItem item = service.createMemoryItem("agent-" + (i % AGENTS), "topic-" + i, 3, null,
+                BenchCorpus.tags(random));
+            service.addVersion(item.getId(), 3, BenchCorpus.prose(random, 2), "summary", null);
+            memoryIds[i] = item.getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchCorpus.deleteTree(storeDir);
+    }
+
+    @Benchmark
+    public MemoryItem createItem() {
+        return service.createMemoryItem("agent-" + (next++ % AGENTS), "bench-topic-" + next, 3, null, null);
+    }
+
+    @Benchmark
+    public MemoryVersion addVersion() {
+        String id = memoryIds[next++ % memoryIds.length];
+        return service.addVersion(id, 2, BenchCorpus.sentence(random, 10, 30), "summary", null);
+    }
+
+    @Benchmark
+    public R5Event addEvent() {
+        String id = memoryIds[next++ % memoryIds.length];
+        return service.addEvent(id, "bench", "agent-1", BenchCorpus.sentence(random, 10, 30), Map.of());
+    }
+
+    @Benchmark
+    public int recordAgentActivation() {
+        return service.recordAgentActivation("agent-" + (next++ % AGENTS));
+    }
+}
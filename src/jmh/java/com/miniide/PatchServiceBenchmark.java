@@ -0,0 +1,92 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.models.PatchFileChange;
+import com.miniide.models.PatchProposal;
+import com.miniide.models.TextEdit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unified diff computation for a pending patch ({@link PatchService#get} recomputes diffs on
+ * every read), with edits spread through a scene file of the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatchServiceBenchmark {
+
+    private static final String TARGET = "Story/Chapter-01/SCN-long.md";
+
+    @Param({"200", "5000"})
+    public int lines;
+
+    @Param({"3", "40"})
+    public int edits;
+
+    private Path workspace;
+    private PatchService patches;
+    private String patchId;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchCorpus.initLogger();
+        workspace = Files.createTempDirectory("bench-patches");
+        Random random = new Random(BenchCorpus.SEED);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            content.append(BenchCorpus.sentence(random, 6, 18)).append('\n');
+        }
+        Path file = workspace.resolve(TARGET);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content.toString(), StandardCharsets.UTF_8);
+
+        WorkspaceService workspaceService = new WorkspaceService(workspace);
+        patches = new PatchService(workspaceService, new PreparedWorkspaceService(workspace, new ObjectMapper()));
+        List<TextEdit> textEdits = new ArrayList<>();
+        int stride = Math.max(1, lines / edits);
+        for (int i = 0; i < edits; i++) {
+            int line = Math.min(lines, 1 + i * stride);
+            textEdits.add(new TextEdit(line, line, BenchCorpus.sentence(random, 6, 18)));
+        }
+        PatchFileChange change = new PatchFileChange();
+        change.setFilePath(TARGET);
+        change.setEdits(textEdits);
+        PatchProposal proposal = new PatchProposal();
+        proposal.setTitle("Bench patch");
+        proposal.setFiles(List.of(change));
+        patchId = patches.create(proposal).getId();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchCorpus.deleteTree(workspace);
+    }
+
+    @Benchmark
+    public PatchProposal computeDiff() {
+        return patches.get(patchId);
+    }
+}
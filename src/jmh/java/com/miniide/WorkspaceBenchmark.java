@@ -0,0 +1,73 @@
+package com.miniide;
+
+import com.miniide.models.FileNode;
+import com.miniide.models.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File tree listing and full-text search over a generated project on disk. Timings include
+ * the filesystem, so compare runs from the same machine only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkspaceBenchmark {
+
+    private static final int SCENES_PER_CHAPTER = 20;
+
+    @Param({"100", "1000"})
+    public int scenes;
+
+    private Path root;
+    private WorkspaceService workspace;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchCorpus.initLogger();
+        root = Files.createTempDirectory("bench-workspace");
+        BenchCorpus.writeWorkspace(root, Math.max(1, scenes / SCENES_PER_CHAPTER), SCENES_PER_CHAPTER,
+            new Random(BenchCorpus.SEED));
+        workspace = new WorkspaceService(root);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchCorpus.deleteTree(root);
+    }
+
+    @Benchmark
+    public FileNode getTree() throws IOException {
+        return workspace.getTree("");
+    }
+
+    @Benchmark
+    public List<SearchResult> searchCommonWord() throws IOException {
+        return workspace.search("lantern", null);
+    }
+
+    @Benchmark
+    public List<SearchResult> searchRarePhraseWithGlob() throws IOException {
+        return workspace.search("captain voss said", "*.md");
+    }
+}
@@ -0,0 +1,579 @@
+package com.miniide.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.miniide.BenchCorpus;
+import com.miniide.Main;
+import com.miniide.metrics.Histogram;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load generator: starts a {@link StubLlmServer}, starts the app in-process on a
+ * generated workspace (or targets a running one with {@code --target}), prepares the project and
+ * a pool of agents wired to the stub, then drives {@code /api/ai/chat},
+ * {@code /api/ai/task/execute} and {@code /api/runs} concurrently for a fixed duration.
+ * <p>
+ * Reports turns/sec, p50/p99 latency and outcome counts per endpoint, plus the app JVM's
+ * allocation rate and GC time when it runs in-process. Results also go to
+ * {@code build/reports/load/results.json} so runs before and after a change can be diffed.
+ * <p>
+ * A turn only counts as {@code ok} when it completed normally: a task turn must come back with a
+ * valid receipt whose stop hook did not fire. When any endpoint's share of other outcomes exceeds
+ * {@code --max-error-rate} (default 0) the run is reported as failed and exits non-zero, so the
+ * latency numbers of an error path are never mistaken for the real one.
+ * <p>
+ * {@code user.home} is redirected into the temp directory before the app starts so logs,
+ * settings and the persisted workspace selection never touch the developer's real profile.
+ */
+public final class LoadHarness {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] KINDS = {"chat", "task", "run"};
+    private static final String[] ROLES = {"writer", "editor", "critic", "continuity", "planner"};
+
+    private final Config config;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final List<String> agentIds = new ArrayList<>();
+    private final List<String> scenes = new ArrayList<>();
+    private Histogram allTurns = new Histogram();
+    private String baseUrl;
+    private String issueId = "1";
+
+    private LoadHarness(Config config) {
+        this.config = config;
+        for (String kind : KINDS) {
+            endpoints.put(kind, new Endpoint());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        Map<String, Object> report = new LoadHarness(config).run(args);
+        Path out = Path.of(config.out);
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        MAPPER.writeValue(out.toFile(), report);
+        System.out.println("Report written to " + out.toAbsolutePath());
+        // The in-process app keeps non-daemon server threads alive
+        System.exit(Boolean.TRUE.equals(report.get("passed")) ? 0 : 1);
+    }
+
+    private Map<String, Object> run(String[] args) throws Exception {
+        Path temp = Files.createTempDirectory("control-room-load");
+        StubLlmServer.Options stubOptions = StubLlmServer.Options.parse(args, 0);
+        try (StubLlmServer stub = new StubLlmServer(stubOptions).start()) {
+            System.out.println("Stub LLM on " + stub.baseUrl() + " latency=" + stubOptions.latency
+                + " toolCalls=" + stubOptions.toolCallsPerTurn + " 429=" + stubOptions.rate429 + " 5xx=" + stubOptions.rate5xx);
+            if (config.target != null) {
+                baseUrl = config.target.replaceAll("/+$", "");
+            } else {
+                baseUrl = startApp(temp);
+            }
+            System.out.println("App under test: " + baseUrl);
+            setUp(stub.baseUrl());
+
+            if (config.warmupSeconds > 0) {
+                System.out.println("Warmup " + config.warmupSeconds + "s...");
+                drive(config.warmupSeconds, null);
+                for (String kind : KINDS) {
+                    endpoints.put(kind, new Endpoint());
+                }
+                allTurns = new Histogram();
+            }
+            System.out.println("Measuring " + config.durationSeconds + "s at concurrency " + config.concurrency
+                + " mix " + config.mixSpec + "...");
+            Map<String, Object> jvm = new LinkedHashMap<>();
+            double seconds = drive(config.durationSeconds, jvm);
+
+            Map<String, Object> report = report(seconds, jvm, stub.stats().toMap());
+            print(report);
+            return report;
+        } finally {
+            if (config.target == null && !config.keepWorkspace) {
+                BenchCorpus.deleteTree(temp);
+            }
+        }
+    }
+
+    private String startApp(Path temp) throws Exception {
+        System.setProperty("user.home", temp.resolve("home").toString());
+        Path root = temp.resolve("workspace");
+        Path project = root.resolve("load-project");
+        Files.createDirectories(project.resolve(".control-room"));
+        scenes.addAll(BenchCorpus.writeWorkspace(project, config.chapters, config.scenesPerChapter, new Random(BenchCorpus.SEED)));
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Main.main(new String[] {
+            "--workspace-root", root.toString(), "--workspace-name", "load-project",
+            "--port", String.valueOf(port), "--no-browser"
+        });
+        return "http://127.0.0.1:" + port;
+    }
+
+    /**
+     * Prepares the project, unlocks agents and registers agents pointing at the stub. Conflicts
+     * from an already prepared target are fine.
+     */
+    private void setUp(String stubUrl) throws Exception {
+        post("/api/preparation/empty", "{\"premise\":\"A courier carries a letter that must not arrive.\",\"genre\":\"mystery\","
+            + "\"protagonistName\":\"Mara\"}");
+        post("/api/preparation/finalize", "{}");
+
+        for (int i = 0; i < config.agents; i++) {
+            ObjectNode agent = MAPPER.createObjectNode();
+            agent.put("name", "Load Agent " + (i + 1));
+            agent.put("role", ROLES[i % ROLES.length]);
+            agent.put("enabled", true);
+            ObjectNode endpoint = agent.putObject("endpoint");
+            endpoint.put("provider", config.provider);
+            endpoint.put("baseUrl", stubUrl);
+            endpoint.put("model", "stub-model");
+            endpoint.put("timeoutMs", 120000);
+            endpoint.put("maxRetries", 2);
+            HttpResponse<String> response = post("/api/agents", MAPPER.writeValueAsString(agent));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Agent setup failed (" + response.statusCode() + "): " + response.body());
+            }
+            agentIds.add(MAPPER.readTree(response.body()).path("id").asText());
+        }
+
+        HttpResponse<String> issue = post("/api/issues", "{\"title\":\"Load harness issue\",\"body\":\"Receipts from the load run.\"}");
+        if (issue.statusCode() == 201) {
+            issueId = MAPPER.readTree(issue.body()).path("id").asText(issueId);
+        }
+        if (scenes.isEmpty()) {
+            scenes.add("Story/SCN-outline.md");
+        }
+    }
+
+    /**
+     * Runs workers until the deadline and returns the elapsed seconds. When {@code jvm} is given
+     * the in-process allocation and GC deltas are recorded into it.
+     */
+    private double drive(int seconds, Map<String, Object> jvm) throws InterruptedException {
+        long allocatedBefore = allocatedBytes();
+        long[] gcBefore = gcTotals();
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(config.concurrency);
+        long started = System.nanoTime();
+        for (int w = 0; w < config.concurrency; w++) {
+            int worker = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        String kind = config.pick(ThreadLocalRandom.current());
+                        String agentId = agentIds.get(ThreadLocalRandom.current().nextInt(agentIds.size()));
+                        execute(kind, agentId, worker);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + w);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        stop.set(true);
+        done.await();
+        double elapsed = (System.nanoTime() - started) / 1_000_000_000.0;
+        if (jvm != null && config.target == null) {
+            long allocated = allocatedBytes() - allocatedBefore;
+            long[] gcAfter = gcTotals();
+            jvm.put("allocatedMB", round(allocated / 1_048_576.0));
+            jvm.put("allocationMBPerSec", round(allocated / 1_048_576.0 / elapsed));
+            jvm.put("gcCount", gcAfter[0] - gcBefore[0]);
+            jvm.put("gcTimeMs", gcAfter[1] - gcBefore[1]);
+            jvm.put("heapUsedMB", round(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1_048_576.0));
+        }
+        return elapsed;
+    }
+
+    private void execute(String kind, String agentId, int worker) {
+        Endpoint endpoint = endpoints.get(kind);
+        long started = System.nanoTime();
+        String outcome;
+        try {
+            switch (kind) {
+                case "chat":
+                    outcome = chat(agentId, worker);
+                    break;
+                case "task":
+                    outcome = task(agentId);
+                    break;
+                default:
+                    outcome = pipelineRun();
+                    break;
+            }
+        } catch (Exception e) {
+            outcome = "exception";
+        }
+        long elapsed = System.nanoTime() - started;
+        endpoint.latency.recordNanos(elapsed);
+        allTurns.recordNanos(elapsed);
+        endpoint.count(outcome);
+    }
+
+    private String chat(String agentId, int worker) throws Exception {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.put("agentId", agentId);
+        body.put("message", "Check " + scenes.get(ThreadLocalRandom.current().nextInt(scenes.size()))
+            + " against the outline and summarize any continuity problems.");
+        body.put("turnId", "load-" + worker + "-" + UUID.randomUUID().toString().substring(0, 8));
+        HttpResponse<String> response = post("/api/ai/chat", MAPPER.writeValueAsString(body));
+        if (response.statusCode() != 200) {
+            return "http_" + response.statusCode();
+        }
+        String content = MAPPER.readTree(response.body()).path("content").asText("");
+        return content.startsWith("STOP_HOOK") ? "stop_hook" : "ok";
+    }
+
+    private String task(String agentId) throws Exception {
+        String packetId = "pkt-load-" + UUID.randomUUID().toString().substring(0, 12);
+        ObjectNode packet = MAPPER.createObjectNode();
+        packet.put("packet_id", packetId);
+        packet.put("parent_issue_id", issueId);
+        packet.put("intent", "continuity_check");
+        packet.putObject("target")
+            .put("scene_ref", scenes.get(ThreadLocalRandom.current().nextInt(scenes.size())))
+            .put("resolution_method", "path");
+        packet.putObject("scope");
+        packet.putObject("inputs");
+        packet.putObject("constraints");
+        packet.putObject("output_contract").put("output_mode", "json_only").putArray("expected_artifacts");
+        packet.putObject("handoff");
+        packet.put("timestamp", Instant.now().toString());
+        packet.putObject("requested_by").put("agent_id", "load-harness");
+
+        ObjectNode body = MAPPER.createObjectNode();
+        body.set("packet", packet);
+        body.put("agentId", agentId);
+        HttpResponse<String> response = post("/api/ai/task/execute", MAPPER.writeValueAsString(body));
+        if (response.statusCode() != 200) {
+            return "http_" + response.statusCode();
+        }
+        JsonNode json = MAPPER.readTree(response.body());
+        if (json.hasNonNull("error")) {
+            return json.path("stopHook").asBoolean(false) ? "stop_hook" : "error";
+        }
+        if (!json.path("receipt").isObject() || json.path("receipt").path("stop_hook").path("triggered").asBoolean(false)) {
+            return "stop_hook";
+        }
+        return "ok";
+    }
+
+    /**
+     * Starts a run and polls it to completion; latency covers the whole run, not just the POST.
+     */
+    private String pipelineRun() throws Exception {
+        String scene = scenes.get(ThreadLocalRandom.current().nextInt(scenes.size()));
+        ObjectNode body = MAPPER.createObjectNode();
+        body.put("recipe_id", "creative_draft_scene");
+        body.put("description", "draft scene " + scene);
+        ObjectNode runArgs = body.putObject("args");
+        runArgs.put("scene_path", scene);
+        runArgs.putArray("canon_paths").add("Compendium/Characters/Mara.md");
+        HttpResponse<String> started = post("/api/runs", MAPPER.writeValueAsString(body));
+        if (started.statusCode() != 201) {
+            return "http_" + started.statusCode();
+        }
+        String runId = MAPPER.readTree(started.body()).path("run_id").asText();
+        long deadline = System.nanoTime() + Duration.ofSeconds(config.runTimeoutSeconds).toNanos();
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> poll = get("/api/runs/" + runId);
+            if (poll.statusCode() == 200) {
+                String status = MAPPER.readTree(poll.body()).path("status").asText("");
+                if (!"running".equals(status)) {
+                    return "done".equals(status) ? "ok" : status;
+                }
+            }
+            Thread.sleep(config.pollMillis);
+        }
+        return "timeout";
+    }
+
+    private Map<String, Object> report(double seconds, Map<String, Object> jvm, Map<String, Object> stubStats) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("target", config.target != null ? config.target : "in-process");
+        settings.put("provider", config.provider);
+        settings.put("concurrency", config.concurrency);
+        settings.put("agents", config.agents);
+        settings.put("mix", config.mixSpec);
+        settings.put("durationSeconds", round(seconds));
+        report.put("settings", settings);
+
+        long turns = 0;
+        List<String> failing = new ArrayList<>();
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            long count = endpoint.latency.count();
+            if (count == 0) {
+                continue;
+            }
+            turns += count;
+            Map<String, Object> row = latencyRow(endpoint.latency, seconds);
+            Map<String, Long> outcomes = endpoint.outcomes();
+            double errorRate = 1.0 - outcomes.getOrDefault("ok", 0L) / (double) count;
+            row.put("outcomes", outcomes);
+            row.put("errorRate", round(errorRate));
+            byEndpoint.put(entry.getKey(), row);
+            if (errorRate > config.maxErrorRate) {
+                failing.add(entry.getKey());
+            }
+        }
+        Map<String, Object> overall = latencyRow(allTurns, seconds);
+        overall.put("turns", turns);
+        report.put("overall", overall);
+        report.put("endpoints", byEndpoint);
+        if (!jvm.isEmpty()) {
+            jvm.put("allocatedKBPerTurn", turns > 0 ? round(((Double) jvm.get("allocatedMB")) * 1024.0 / turns) : 0.0);
+            report.put("jvm", jvm);
+        }
+        report.put("stub", stubStats);
+        report.put("passed", failing.isEmpty());
+        report.put("failingEndpoints", failing);
+        return report;
+    }
+
+    private static Map<String, Object> latencyRow(Histogram histogram, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        long count = histogram.count();
+        row.put("count", count);
+        row.put("perSecond", round(count / seconds));
+        row.put("meanMs", count > 0 ? round(histogram.sumMicros() / 1000.0 / count) : 0.0);
+        row.put("p50Ms", round(histogram.quantileMicros(0.50) / 1000.0));
+        row.put("p99Ms", round(histogram.quantileMicros(0.99) / 1000.0));
+        row.put("maxMs", round(histogram.maxMicros() / 1000.0));
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        Map<String, Object> overall = (Map<String, Object>) report.get("overall");
+        System.out.println();
+        System.out.printf("%-8s %8s %9s %9s %9s %9s  %s%n", "endpoint", "count", "per sec", "p50 ms", "p99 ms", "max ms", "outcomes");
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) report.get("endpoints")).entrySet()) {
+            Map<String, Object> row = (Map<String, Object>) entry.getValue();
+            System.out.printf("%-8s %8d %9.2f %9.1f %9.1f %9.1f  %s%n", entry.getKey(), row.get("count"), row.get("perSecond"),
+                row.get("p50Ms"), row.get("p99Ms"), row.get("maxMs"), row.get("outcomes"));
+        }
+        System.out.printf("%-8s %8d %9.2f %9.1f %9.1f %9.1f%n", "all", overall.get("count"), overall.get("perSecond"),
+            overall.get("p50Ms"), overall.get("p99Ms"), overall.get("maxMs"));
+        if (report.containsKey("jvm")) {
+            System.out.println("jvm: " + report.get("jvm"));
+        }
+        System.out.println("stub: " + report.get("stub"));
+        if (!Boolean.TRUE.equals(report.get("passed"))) {
+            System.out.println("RUN FAILED: turns did not complete normally on " + report.get("failingEndpoints")
+                + "; their latency measures an error path (see outcomes)");
+        }
+        System.out.println();
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(config.requestTimeoutSeconds))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(config.requestTimeoutSeconds))
+            .GET()
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Bytes allocated by all live threads. Threads that exit during the window are not counted,
+     * so short-lived pools read low; the server's worker threads are long-lived.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0L;
+        }
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) threads;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) {
+            return 0L;
+        }
+        long total = 0;
+        for (long bytes : sun.getThreadAllocatedBytes(sun.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] {count, time};
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latency = new Histogram();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        private void count(String outcome) {
+            outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+        }
+
+        private Map<String, Long> outcomes() {
+            Map<String, Long> out = new TreeMap<>();
+            outcomes.forEach((k, v) -> out.put(k, v.sum()));
+            return out;
+        }
+    }
+
+    private static final class Config {
+        String target;
+        String provider = "custom";
+        String out = "build/reports/load/results.json";
+        String mixSpec = "chat=6,task=2,run=2";
+        int[] mix = {6, 2, 2};
+        int concurrency = 8;
+        int agents = 4;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int chapters = 4;
+        int scenesPerChapter = 6;
+        int requestTimeoutSeconds = 300;
+        int runTimeoutSeconds = 120;
+        int pollMillis = 50;
+        double maxErrorRate;
+        boolean keepWorkspace;
+
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ("--keep-workspace".equals(arg)) {
+                    config.keepWorkspace = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    break;
+                }
+                String value = args[i + 1];
+                switch (arg) {
+                    case "--target":
+                        config.target = value;
+                        break;
+                    case "--provider":
+                        config.provider = value;
+                        break;
+                    case "--out":
+                        config.out = value;
+                        break;
+                    case "--mix":
+                        config.setMix(value);
+                        break;
+                    case "--concurrency":
+                        config.concurrency = Integer.parseInt(value);
+                        break;
+                    case "--agents":
+                        config.agents = Integer.parseInt(value);
+                        break;
+                    case "--duration":
+                        config.durationSeconds = Integer.parseInt(value);
+                        break;
+                    case "--warmup":
+                        config.warmupSeconds = Integer.parseInt(value);
+                        break;
+                    case "--chapters":
+                        config.chapters = Integer.parseInt(value);
+                        break;
+                    case "--scenes":
+                        config.scenesPerChapter = Integer.parseInt(value);
+                        break;
+                    case "--run-timeout":
+                        config.runTimeoutSeconds = Integer.parseInt(value);
+                        break;
+                    case "--max-error-rate":
+                        config.maxErrorRate = Double.parseDouble(value);
+                        break;
+                    default:
+                        // Stub flags (--latency, --tool-calls, ...) are read by StubLlmServer.Options
+                        continue;
+                }
+                i++;
+            }
+            if (config.concurrency < 1 || config.agents < 1) {
+                throw new IllegalArgumentException("--concurrency and --agents must be at least 1");
+            }
+            return config;
+        }
+
+        private void setMix(String spec) {
+            int[] weights = new int[KINDS.length];
+            for (String part : spec.split(",")) {
+                String[] kv = part.trim().split("=");
+                int index = List.of(KINDS).indexOf(kv[0].trim());
+                if (index < 0 || kv.length != 2) {
+                    throw new IllegalArgumentException("--mix expects chat=N,task=N,run=N, got " + spec);
+                }
+                weights[index] = Integer.parseInt(kv[1].trim());
+            }
+            if (weights[0] + weights[1] + weights[2] <= 0) {
+                throw new IllegalArgumentException("--mix needs at least one positive weight");
+            }
+            mix = weights;
+            mixSpec = spec;
+        }
+
+        String pick(Random random) {
+            int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+            for (int i = 0; i < KINDS.length; i++) {
+                roll -= mix[i];
+                if (roll < 0) {
+                    return KINDS[i];
+                }
+            }
+            return KINDS[0];
+        }
+    }
+}
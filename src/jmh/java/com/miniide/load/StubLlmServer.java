@@ -0,0 +1,536 @@
+package com.miniide.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.miniide.BenchCorpus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for an LLM server, speaking enough of the OpenAI
+ * ({@code /v1/chat/completions}, {@code /v1/models}) and Ollama ({@code /api/chat},
+ * {@code /api/generate}, {@code /api/ps}, {@code /api/tags}) APIs for the app's chat providers.
+ * <p>
+ * Replies follow the app's own prompt protocol: the first step of a tool loop gets a strict JSON
+ * tool call carrying the prompt's {@code TOOL_NONCE}, later steps answer the decision envelope
+ * until {@link Options#toolCallsPerTurn} tools have run, and final prompts get prose with an
+ * Evidence line (or a Receipt JSON when the prompt carries a task packet). A script of
+ * regex-matched rules can override any of this. Latency, 429s and 5xx errors are injected per
+ * request according to {@link Options}.
+ * <p>
+ * Run standalone to point a real app instance at it:
+ * {@code java -cp ... com.miniide.load.StubLlmServer --port 11434 --latency lognormal:400:0.6}
+ */
+public final class StubLlmServer implements AutoCloseable {
+
+    private static final Pattern NONCE = Pattern.compile("TOOL_NONCE: ([0-9a-fA-F]+)");
+    private static final Pattern PACKET_ID = Pattern.compile("\"packet_id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ISSUE_ID = Pattern.compile("\"parent_issue_id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String TOOL_CALL_MARKER = "\n\nTool call detected:\n";
+    private static final String TASK_MARKER = "Task Packet JSON:";
+    private static final String DECISION_MARKER = "respond with a decision object";
+    private static final String FINAL_MARKER = "FINAL RESPONSE REQUIRED:";
+
+    private final Options options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Rule> rules;
+    private final Stats stats = new Stats();
+
+    public StubLlmServer(Options options) throws IOException {
+        this.options = options;
+        this.rules = options.scriptPath != null ? loadScript(options.scriptPath) : List.of();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port), 256);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "stub-llm-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", exchange -> handleChat(exchange, false));
+        server.createContext("/api/chat", exchange -> handleChat(exchange, true));
+        server.createContext("/api/generate", this::handleGenerate);
+        server.createContext("/api/ps", exchange -> handleModelList(exchange, true));
+        server.createContext("/api/tags", exchange -> handleModelList(exchange, true));
+        server.createContext("/v1/models", exchange -> handleModelList(exchange, false));
+    }
+
+    public StubLlmServer start() {
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Stats stats() {
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleChat(HttpExchange exchange, boolean ollama) throws IOException {
+        try (exchange) {
+            stats.requests.increment();
+            JsonNode request = mapper.readTree(readBody(exchange));
+            String model = request.path("model").asText("stub-model");
+            String prompt = lastUserMessage(request.path("messages"));
+
+            Rule rule = matchRule(prompt);
+            LatencyModel latency = rule != null && rule.latency != null ? rule.latency : options.latency;
+            sleep(latency.sampleMillis(ThreadLocalRandom.current()));
+
+            int status = rule != null && rule.status > 0 ? rule.status : injectedStatus();
+            if (status >= 400) {
+                sendError(exchange, status, ollama);
+                return;
+            }
+            String content = rule != null && rule.respond != null
+                ? expand(rule.respond, prompt, model)
+                : reply(prompt, model);
+            stats.promptChars.add(prompt.length());
+            stats.completionChars.add(content.length());
+
+            ObjectNode response = mapper.createObjectNode();
+            if (ollama) {
+                response.put("model", model);
+                response.put("created_at", Instant.now().toString());
+                response.putObject("message").put("role", "assistant").put("content", content);
+                response.put("done", true);
+            } else {
+                response.put("id", "chatcmpl-stub-" + stats.requests.sum());
+                response.put("object", "chat.completion");
+                response.put("created", Instant.now().getEpochSecond());
+                response.put("model", model);
+                ObjectNode choice = response.putArray("choices").addObject();
+                choice.put("index", 0);
+                choice.putObject("message").put("role", "assistant").put("content", content);
+                choice.put("finish_reason", "stop");
+                ObjectNode usage = response.putObject("usage");
+                usage.put("prompt_tokens", prompt.length() / 4);
+                usage.put("completion_tokens", content.length() / 4);
+            }
+            send(exchange, 200, mapper.writeValueAsBytes(response), null);
+        } catch (RuntimeException e) {
+            stats.failures.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Ollama warm-up and keep-alive calls; nothing to generate.
+     */
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            readBody(exchange);
+            send(exchange, 200, "{\"response\":\"\",\"done\":true}".getBytes(StandardCharsets.UTF_8), null);
+        }
+    }
+
+    private void handleModelList(HttpExchange exchange, boolean ollama) throws IOException {
+        try (exchange) {
+            ObjectNode response = mapper.createObjectNode();
+            ArrayNode models = response.putArray(ollama ? "models" : "data");
+            for (String model : options.models) {
+                ObjectNode row = models.addObject();
+                if (ollama) {
+                    row.put("name", model);
+                    row.put("model", model);
+                } else {
+                    row.put("id", model);
+                    row.put("object", "model");
+                }
+            }
+            send(exchange, 200, mapper.writeValueAsBytes(response), null);
+        }
+    }
+
+    /**
+     * The default script: what a well-behaved model does at each step of the app's tool loop.
+     */
+    String reply(String prompt, String model) throws IOException {
+        String nonce = find(NONCE, prompt, "");
+        boolean task = prompt.contains(TASK_MARKER);
+        int toolsRun = count(prompt, TOOL_CALL_MARKER);
+
+        if (prompt.contains(FINAL_MARKER)) {
+            stats.finals.increment();
+            return task ? receipt(prompt, model) : prose();
+        }
+        if (prompt.contains(DECISION_MARKER)) {
+            if (toolsRun < options.toolCallsPerTurn) {
+                stats.toolCalls.increment();
+                return "{\"action\":\"tool\"," + toolCallBody(toolsRun) + ",\"nonce\":\"" + nonce + "\"}";
+            }
+            return "{\"action\":\"final\",\"nonce\":\"" + nonce + "\"}";
+        }
+        if (!nonce.isEmpty() && toolsRun == 0 && options.toolCallsPerTurn > 0) {
+            stats.toolCalls.increment();
+            return "{" + toolCallBody(0) + ",\"nonce\":\"" + nonce + "\"}";
+        }
+        stats.finals.increment();
+        return task ? receipt(prompt, model) : prose();
+    }
+
+    private String toolCallBody(int step) {
+        if (step % 2 == 0) {
+            return "\"tool\":\"file_locator\",\"args\":{\"search_criteria\":\"" + BenchCorpus.tag(ThreadLocalRandom.current())
+                + "\",\"scan_mode\":\"FAST_SCAN\",\"max_results\":8}";
+        }
+        return "\"tool\":\"file_reader\",\"args\":{\"file_path\":\"Story/SCN-outline.md\",\"start_line\":1,\"end_line\":40}";
+    }
+
+    private String prose() {
+        Random random = ThreadLocalRandom.current();
+        return BenchCorpus.prose(random, options.replyParagraphs)
+            + "\n\nEvidence: Story/SCN-outline.md L1-L" + (5 + random.nextInt(30));
+    }
+
+    private String receipt(String prompt, String model) throws IOException {
+        stats.receipts.increment();
+        String packetSection = prompt.substring(prompt.indexOf(TASK_MARKER));
+        String now = Instant.now().toString();
+        ObjectNode receipt = mapper.createObjectNode();
+        receipt.put("receipt_id", "rcpt-stub-" + stats.receipts.sum());
+        receipt.put("packet_id", find(PACKET_ID, packetSection, "unknown"));
+        receipt.put("issue_id", find(ISSUE_ID, packetSection, "unknown"));
+        ObjectNode actor = receipt.putObject("actor");
+        actor.put("agent_id", "stub");
+        actor.put("provider", "stub");
+        actor.put("model", model);
+        ObjectNode decoding = actor.putObject("decoding");
+        decoding.putObject("requested");
+        decoding.putObject("effective");
+        decoding.put("source", "provider_defaults");
+        receipt.put("started_at", now);
+        receipt.put("finished_at", now);
+        receipt.putArray("inputs_used").add("Story/SCN-outline.md");
+        receipt.putArray("outputs_produced");
+        receipt.put("reasoning_summary", BenchCorpus.sentence(ThreadLocalRandom.current(), 8, 16));
+        receipt.putArray("decisions");
+        receipt.putArray("checks_performed");
+        receipt.putArray("assumptions");
+        receipt.putArray("risks");
+        receipt.putObject("next_recommended_action").put("intent", "finalize").put("reason", "Stub run complete.");
+        receipt.putObject("stop_hook").put("triggered", false);
+        receipt.putArray("citations");
+        receipt.put("report_excerpt", BenchCorpus.sentence(ThreadLocalRandom.current(), 10, 20));
+        return mapper.writeValueAsString(receipt);
+    }
+
+    private int injectedStatus() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < options.rate429) {
+            return 429;
+        }
+        if (roll < options.rate429 + options.rate5xx) {
+            return 503;
+        }
+        return 200;
+    }
+
+    private void sendError(HttpExchange exchange, int status, boolean ollama) throws IOException {
+        String message = status == 429 ? "Rate limit exceeded (stub)" : "Upstream unavailable (stub)";
+        if (status == 429) {
+            stats.rateLimited.increment();
+        } else {
+            stats.serverErrors.increment();
+        }
+        String body = ollama
+            ? "{\"error\":\"" + message + "\"}"
+            : "{\"error\":{\"message\":\"" + message + "\",\"type\":\"stub_error\",\"code\":\"" + status + "\"}}";
+        send(exchange, status, body.getBytes(StandardCharsets.UTF_8),
+            status == 429 ? String.valueOf(options.retryAfterSeconds) : null);
+    }
+
+    private Rule matchRule(String prompt) {
+        for (Rule rule : rules) {
+            if (rule.match.matcher(prompt).find()) {
+                stats.scripted.increment();
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String expand(String template, String prompt, String model) {
+        int packetAt = prompt.indexOf(TASK_MARKER);
+        String packetSection = packetAt >= 0 ? prompt.substring(packetAt) : "";
+        return template
+            .replace("${nonce}", find(NONCE, prompt, ""))
+            .replace("${packet_id}", find(PACKET_ID, packetSection, ""))
+            .replace("${issue_id}", find(ISSUE_ID, packetSection, ""))
+            .replace("${model}", model);
+    }
+
+    private String lastUserMessage(JsonNode messages) {
+        if (messages.isArray()) {
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                JsonNode message = messages.get(i);
+                if ("user".equals(message.path("role").asText())) {
+                    return message.path("content").asText("");
+                }
+            }
+        }
+        return "";
+    }
+
+    private List<Rule> loadScript(Path path) throws IOException {
+        JsonNode root = mapper.readTree(Files.readString(path, StandardCharsets.UTF_8));
+        if (!root.isArray()) {
+            throw new IllegalArgumentException("Stub script must be a JSON array of rules: " + path);
+        }
+        List<Rule> parsed = new ArrayList<>();
+        for (JsonNode node : root) {
+            String match = node.path("match").asText(null);
+            if (match == null) {
+                throw new IllegalArgumentException("Stub script rule missing \"match\": " + node);
+            }
+            parsed.add(new Rule(Pattern.compile(match, Pattern.DOTALL),
+                node.path("respond").asText(null),
+                node.path("status").asInt(0),
+                node.hasNonNull("latency") ? LatencyModel.parse(node.get("latency").asText()) : null));
+        }
+        return parsed;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body, String retryAfter) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (retryAfter != null) {
+            exchange.getResponseHeaders().set("Retry-After", retryAfter);
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String find(Pattern pattern, String text, String fallback) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(1) : fallback;
+    }
+
+    private static int count(String text, String needle) {
+        int found = 0;
+        for (int at = text.indexOf(needle); at >= 0; at = text.indexOf(needle, at + needle.length())) {
+            found++;
+        }
+        return found;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, 11434);
+        StubLlmServer stub = new StubLlmServer(options).start();
+        System.out.println("Stub LLM listening on " + stub.baseUrl() + " (latency " + options.latency + ")");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println(stub.stats().toMap());
+            stub.close();
+        }));
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Stub behaviour; {@link #parse} reads it from {@code --flag value} pairs and ignores flags it
+     * does not know so the load harness can share one argument list.
+     */
+    public static final class Options {
+        int port;
+        LatencyModel latency = LatencyModel.parse("lognormal:250:0.5");
+        int toolCallsPerTurn = 1;
+        double rate429;
+        double rate5xx;
+        int retryAfterSeconds = 1;
+        int replyParagraphs = 3;
+        Path scriptPath;
+        List<String> models = List.of("stub-model");
+
+        public static Options parse(String[] args, int defaultPort) {
+            Options options = new Options();
+            options.port = defaultPort;
+            for (int i = 0; i + 1 < args.length; i++) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--stub-port":
+                    case "--port":
+                        options.port = Integer.parseInt(value);
+                        break;
+                    case "--latency":
+                        options.latency = LatencyModel.parse(value);
+                        break;
+                    case "--tool-calls":
+                        options.toolCallsPerTurn = Integer.parseInt(value);
+                        break;
+                    case "--rate-429":
+                        options.rate429 = Double.parseDouble(value);
+                        break;
+                    case "--rate-5xx":
+                        options.rate5xx = Double.parseDouble(value);
+                        break;
+                    case "--retry-after":
+                        options.retryAfterSeconds = Integer.parseInt(value);
+                        break;
+                    case "--reply-paragraphs":
+                        options.replyParagraphs = Integer.parseInt(value);
+                        break;
+                    case "--script":
+                        options.scriptPath = Path.of(value);
+                        break;
+                    case "--model":
+                        options.models = List.of(value);
+                        break;
+                    default:
+                        continue;
+                }
+                i++;
+            }
+            return options;
+        }
+    }
+
+    /**
+     * Per-request delay: {@code none}, {@code fixed:MS}, {@code uniform:MIN:MAX} or
+     * {@code lognormal:MEDIAN:SIGMA} (heavy right tail, like real generation times).
+     */
+    public static final class LatencyModel {
+        private final String spec;
+        private final String kind;
+        private final double a;
+        private final double b;
+
+        private LatencyModel(String spec, String kind, double a, double b) {
+            this.spec = spec;
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+
+        public static LatencyModel parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            try {
+                switch (parts[0]) {
+                    case "none":
+                        return new LatencyModel(spec, "none", 0, 0);
+                    case "fixed":
+                        return new LatencyModel(spec, "fixed", Double.parseDouble(parts[1]), 0);
+                    case "uniform":
+                        return new LatencyModel(spec, "uniform", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                    case "lognormal":
+                        return new LatencyModel(spec, "lognormal", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                    default:
+                        break;
+                }
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                // fall through to the error below
+            }
+            throw new IllegalArgumentException("Latency must be none, fixed:MS, uniform:MIN:MAX or lognormal:MEDIAN:SIGMA, got " + spec);
+        }
+
+        public long sampleMillis(Random random) {
+            switch (kind) {
+                case "fixed":
+                    return (long) a;
+                case "uniform":
+                    return (long) (a + random.nextDouble() * Math.max(0, b - a));
+                case "lognormal":
+                    return (long) (a * Math.exp(b * random.nextGaussian()));
+                default:
+                    return 0L;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return spec;
+        }
+    }
+
+    private static final class Rule {
+        private final Pattern match;
+        private final String respond;
+        private final int status;
+        private final LatencyModel latency;
+
+        private Rule(Pattern match, String respond, int status, LatencyModel latency) {
+            this.match = match;
+            this.respond = respond;
+            this.status = status;
+            this.latency = latency;
+        }
+    }
+
+    public static final class Stats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder toolCalls = new LongAdder();
+        final LongAdder finals = new LongAdder();
+        final LongAdder receipts = new LongAdder();
+        final LongAdder scripted = new LongAdder();
+        final LongAdder rateLimited = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder promptChars = new LongAdder();
+        final LongAdder completionChars = new LongAdder();
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("requests", requests.sum());
+            out.put("toolCalls", toolCalls.sum());
+            out.put("finals", finals.sum());
+            out.put("receipts", receipts.sum());
+            out.put("scripted", scripted.sum());
+            out.put("injected429", rateLimited.sum());
+            out.put("injected5xx", serverErrors.sum());
+            out.put("failures", failures.sum());
+            out.put("promptChars", promptChars.sum());
+            out.put("completionChars", completionChars.sum());
+            return out;
+        }
+    }
+}
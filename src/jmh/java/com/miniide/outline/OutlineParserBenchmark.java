@@ -0,0 +1,45 @@
+package com.miniide.outline;
+
+import com.miniide.BenchCorpus;
+import com.miniide.models.OutlineDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outline parsing from raw source, as done on outline import and project preparation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutlineParserBenchmark {
+
+    @Param({"20", "200"})
+    public int scenes;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = BenchCorpus.outline(new Random(BenchCorpus.SEED), scenes);
+    }
+
+    @Benchmark
+    public OutlineDocument parseOutline() {
+        return OutlineParser.parseOutlineFromSourceContent(source, null);
+    }
+}
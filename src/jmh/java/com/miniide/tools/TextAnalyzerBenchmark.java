@@ -0,0 +1,93 @@
+package com.miniide.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.AuditStore;
+import com.miniide.BenchCorpus;
+import com.miniide.IssueMemoryService;
+import com.miniide.ProjectContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text-analysis tools end to end through {@link ToolExecutionService#execute}, on a
+ * generated project. Receipt writing is switched off so timings cover reading and analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextAnalyzerBenchmark {
+
+    private Path workspace;
+    private ToolExecutionService tools;
+    private ToolCall proseAnalyzer;
+    private ToolCall consistencyChecker;
+    private ToolCall sceneImpact;
+    private ToolCall readerExperience;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchCorpus.initLogger();
+        workspace = Files.createTempDirectory("bench-analyzers");
+        List<String> scenes = BenchCorpus.writeWorkspace(workspace, 2, 10, new Random(BenchCorpus.SEED));
+        ObjectMapper mapper = new ObjectMapper();
+        ProjectContext context = new ProjectContext(workspace, mapper) {
+            @Override
+            public AuditStore audit() {
+                return null;
+            }
+        };
+        tools = new ToolExecutionService(context, new IssueMemoryService(workspace), mapper);
+        proseAnalyzer = new ToolCall("prose_analyzer", Map.of("scene_path", scenes.get(0)), null, null);
+        consistencyChecker = new ToolCall("consistency_checker",
+            Map.of("file_paths", List.of(scenes.get(0), scenes.get(1), scenes.get(2))), null, null);
+        sceneImpact = new ToolCall("scene_impact_analyzer",
+            Map.of("scene_path", scenes.get(3), "outline_path", "Story/SCN-outline.md"), null, null);
+        readerExperience = new ToolCall("reader_experience_simulator",
+            Map.of("scene_paths", scenes.subList(0, 5)), null, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchCorpus.deleteTree(workspace);
+    }
+
+    @Benchmark
+    public ToolExecutionResult proseAnalyzer() {
+        return tools.execute(proseAnalyzer, null);
+    }
+
+    @Benchmark
+    public ToolExecutionResult consistencyChecker() {
+        return tools.execute(consistencyChecker, null);
+    }
+
+    @Benchmark
+    public ToolExecutionResult sceneImpactAnalyzer() {
+        return tools.execute(sceneImpact, null);
+    }
+
+    @Benchmark
+    public ToolExecutionResult readerExperienceSimulator() {
+        return tools.execute(readerExperience, null);
+    }
+}
@@ -0,0 +1,75 @@
+package com.miniide.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.BenchCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strict tool-call parsing as run on every model response in the tool loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolCallParserBenchmark {
+
+    private static final String NONCE = "n-7f3a";
+    private static final int CALLS = 256;
+
+    private ToolCallParser parser;
+    private String[] calls;
+    private String prose;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ToolSchemaRegistry registry = new ToolSchemaRegistry()
+            .register(new ToolSchema("file_locator")
+                .arg("search_criteria", ToolArgSpec.Type.STRING, true)
+                .arg("scan_mode", ToolArgSpec.Type.STRING, false)
+                .arg("max_results", ToolArgSpec.Type.INT, false))
+            .register(new ToolSchema("file_reader")
+                .arg("path", ToolArgSpec.Type.STRING, true)
+                .arg("start_line", ToolArgSpec.Type.INT, false)
+                .arg("end_line", ToolArgSpec.Type.INT, false))
+            .register(new ToolSchema("search_issues")
+                .arg("tags", ToolArgSpec.Type.STRING_ARRAY, false)
+                .arg("status", ToolArgSpec.Type.STRING, false));
+        parser = new ToolCallParser(new ObjectMapper(), registry);
+        Random random = new Random(BenchCorpus.SEED);
+        calls = new String[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            calls[i] = BenchCorpus.toolCall(random, NONCE);
+        }
+        prose = BenchCorpus.prose(random, 20);
+    }
+
+    @Benchmark
+    public ToolCallParseResult parseToolCall() {
+        String call = calls[next];
+        next = (next + 1) % CALLS;
+        return parser.parseStrict(call, NONCE);
+    }
+
+    /**
+     * Final answers are plain prose; rejecting them must stay cheap.
+     */
+    @Benchmark
+    public ToolCallParseResult parseProseAnswer() {
+        return parser.parseStrict(prose, NONCE);
+    }
+}
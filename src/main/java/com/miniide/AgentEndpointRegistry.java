@@ -7,7 +7,9 @@ import com.miniide.models.AgentEndpointsFile;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class AgentEndpointRegistry {
@@ -42,6 +44,27 @@ public class AgentEndpointRegistry {
         return endpointsFile.getAgents().get(agentId);
     }
 
+    /**
+     * The endpoint followed by its configured fallbacks, in routing order. Fallbacks without a
+     * provider or model are skipped.
+     */
+    public static List<AgentEndpointConfig> endpointPool(AgentEndpointConfig primary) {
+        List<AgentEndpointConfig> pool = new ArrayList<>();
+        if (primary == null) {
+            return pool;
+        }
+        pool.add(primary);
+        if (primary.getFallbacks() != null) {
+            for (AgentEndpointConfig fallback : primary.getFallbacks()) {
+                if (fallback != null && fallback.getProvider() != null && !fallback.getProvider().isBlank()
+                    && fallback.getModel() != null && !fallback.getModel().isBlank()) {
+                    pool.add(fallback);
+                }
+            }
+        }
+        return pool;
+    }
+
     public AgentEndpointConfig upsertEndpoint(String agentId, AgentEndpointConfig config) {
         if (agentId == null || agentId.isBlank() || config == null) {
             return null;
@@ -49,6 +72,19 @@ public class AgentEndpointRegistry {
         if (endpointsFile == null) {
             endpointsFile = new AgentEndpointsFile();
         }
+        AgentEndpointConfig existing = endpointsFile.getAgents().get(agentId);
+        if (existing != null) {
+            // Editors that only know the primary endpoint must not wipe the failover pool or budgets
+            if (config.getFallbacks() == null) {
+                config.setFallbacks(existing.getFallbacks());
+            }
+            if (config.getHedgeRequests() == null) {
+                config.setHedgeRequests(existing.getHedgeRequests());
+            }
+            if (config.getContextBudgetTokens() == null) {
+                config.setContextBudgetTokens(existing.getContextBudgetTokens());
+            }
+        }
         endpointsFile.getAgents().put(agentId, config);
         saveToDisk();
         return config;
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class AgentRegistry {
@@ -26,6 +27,7 @@ public class AgentRegistry {
     private final ObjectMapper objectMapper;
     private AgentsFile agentsFile;
     private final AppLogger logger;
+    private final AtomicLong revision = new AtomicLong();
 
     public AgentRegistry(Path workspaceRoot, ObjectMapper objectMapper) {
         this.registryPath = workspaceRoot.resolve(".control-room").resolve("agents").resolve("agents.json");
@@ -39,6 +41,14 @@ public class AgentRegistry {
         }
     }
 
+    /**
+     * Bumped whenever the registry is loaded or saved, so callers can cache derived agent data
+     * (roles, memory profiles) and drop it when agents change.
+     */
+    public long getRevision() {
+        return revision.get();
+    }
+
     public List<Agent> listEnabledAgents() {
         if (agentsFile == null || agentsFile.getAgents() == null) {
             return Collections.emptyList();
@@ -427,6 +437,7 @@ public class AgentRegistry {
     }
 
     private boolean saveToDisk() {
+        revision.incrementAndGet();
         try {
             objectMapper.writerWithDefaultPrettyPrinter().writeValue(registryPath.toFile(), agentsFile);
             logger.info("Saved agent registry to " + registryPath);
@@ -466,6 +477,7 @@ public class AgentRegistry {
     }
 
     private void loadFromDisk() {
+        revision.incrementAndGet();
         if (!hasWorkspaceMarker()) {
             initializeEmptyRegistry();
             return;
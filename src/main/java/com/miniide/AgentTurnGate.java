@@ -1,25 +1,158 @@
 package com.miniide;
 
+import com.miniide.metrics.MetricsRegistry;
+import com.miniide.metrics.TurnTracer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Enforces serialized agent turns so only one agent runs at a time.
+ * <p>
+ * Turns are admitted in arrival order, except that a waiting turn on the same local model as
+ * the last one (its affinity key) may go ahead, so a loaded model is used again before another
+ * is swapped in. A turn is passed over at most {@link #MAX_BYPASS} times, so none starves.
+ * <p>
+ * Waiting uses a {@link ReentrantLock} rather than a monitor: queued turns can wait for minutes,
+ * and a virtual thread blocked in {@code Object.wait} would pin its carrier thread.
  */
 public class AgentTurnGate {
-    private final Semaphore semaphore = new Semaphore(1, true);
+    private static final int MAX_BYPASS = 3;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition handedOff = lock.newCondition();
+    private final Deque<Waiter> waiting = new ArrayDeque<>();
+    private boolean busy;
+    private String lastAffinity;
 
     public <T> T run(Callable<T> task) throws Exception {
-        try {
-            semaphore.acquire();
+        return run(null, task);
+    }
+
+    /**
+     * @param affinity model the turn will load (see {@code OllamaResidencyManager.affinityKey}); null if none
+     */
+    public <T> T run(String affinity, Callable<T> task) throws Exception {
+        long started = System.nanoTime();
+        try (TurnTracer.Span waitSpan = TurnTracer.span("gate.wait")) {
+            acquire(affinity);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw e;
         }
+        MetricsRegistry.get().histogram("agent_turn_gate_wait_seconds", "Time an agent turn waited for the turn gate",
+                "model", affinity != null ? "local" : "remote")
+            .recordNanos(System.nanoTime() - started);
         try {
             return task.call();
         } finally {
-            semaphore.release();
+            release(affinity);
+        }
+    }
+
+    public int waitingCount() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(String affinity) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!busy && waiting.isEmpty()) {
+                busy = true;
+                return;
+            }
+            Waiter self = new Waiter(affinity);
+            waiting.addLast(self);
+            try {
+                while (!self.granted) {
+                    handedOff.await();
+                }
+            } catch (InterruptedException e) {
+                if (self.granted) {
+                    // Turn was handed over as we were interrupted; pass it on
+                    handOff();
+                } else {
+                    waiting.remove(self);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String affinity) {
+        lock.lock();
+        try {
+            if (affinity != null) {
+                // Remote turns leave the last local model loaded, so they do not reset affinity
+                lastAffinity = affinity;
+            }
+            handOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the lock
+    private void handOff() {
+        Waiter next = pickNext();
+        if (next == null) {
+            busy = false;
+            return;
+        }
+        next.granted = true;
+        handedOff.signalAll();
+    }
+
+    private Waiter pickNext() {
+        Waiter head = waiting.peekFirst();
+        if (head == null) {
+            return null;
+        }
+        if (lastAffinity != null && !lastAffinity.equals(head.affinity)) {
+            Waiter match = null;
+            for (Waiter waiter : waiting) {
+                if (waiter.bypassed >= MAX_BYPASS) {
+                    break;
+                }
+                if (lastAffinity.equals(waiter.affinity)) {
+                    match = waiter;
+                    break;
+                }
+            }
+            if (match != null) {
+                Iterator<Waiter> it = waiting.iterator();
+                while (it.hasNext()) {
+                    Waiter waiter = it.next();
+                    if (waiter == match) {
+                        it.remove();
+                        break;
+                    }
+                    waiter.bypassed++;
+                }
+                return match;
+            }
+        }
+        return waiting.removeFirst();
+    }
+
+    private static final class Waiter {
+        private final String affinity;
+        private int bypassed;
+        private boolean granted;
+
+        private Waiter(String affinity) {
+            this.affinity = affinity;
         }
     }
 }
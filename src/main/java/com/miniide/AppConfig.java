@@ -19,12 +19,17 @@ public class AppConfig {
     private final Path logPath;
     private final int port;
     private final boolean devMode;
+    private final boolean openBrowser;
+    private final boolean exitAfterStartup;
 
-    private AppConfig(Path workspacePath, Path logPath, int port, boolean devMode) {
+    private AppConfig(Path workspacePath, Path logPath, int port, boolean devMode, boolean openBrowser,
+                      boolean exitAfterStartup) {
         this.workspacePath = workspacePath;
         this.logPath = logPath;
         this.port = port;
         this.devMode = devMode;
+        this.openBrowser = openBrowser;
+        this.exitAfterStartup = exitAfterStartup;
     }
 
     public Path getWorkspacePath() {
@@ -43,6 +48,17 @@ public class AppConfig {
         return devMode;
     }
 
+    public boolean isOpenBrowser() {
+        return openBrowser;
+    }
+
+    /**
+     * Stop once the server is up and a few requests have been served (AppCDS training runs).
+     */
+    public boolean isExitAfterStartup() {
+        return exitAfterStartup;
+    }
+
     /**
      * Get the default workspace root path based on the current working directory.
      * Default: ./workspace
@@ -207,6 +223,8 @@ public class AppConfig {
         private String workspaceName = null;
         private int preferredPort = 8080;
         private boolean devMode = false;
+        private boolean openBrowser = true;
+        private boolean exitAfterStartup = false;
 
         public Builder workspacePath(String path) {
             if (path != null && !path.isEmpty()) {
@@ -239,6 +257,16 @@ public class AppConfig {
             return this;
         }
 
+        public Builder openBrowser(boolean openBrowser) {
+            this.openBrowser = openBrowser;
+            return this;
+        }
+
+        public Builder exitAfterStartup(boolean exitAfterStartup) {
+            this.exitAfterStartup = exitAfterStartup;
+            return this;
+        }
+
         public Builder parseArgs(String[] args) {
             for (int i = 0; i < args.length; i++) {
                 String arg = args[i];
@@ -279,6 +307,17 @@ public class AppConfig {
                 else if ("--dev".equals(arg)) {
                     this.devMode = true;
                 }
+
+                // Handle --no-browser flag (headless runs, load tests)
+                else if ("--no-browser".equals(arg)) {
+                    this.openBrowser = false;
+                }
+
+                // Handle --exit-after-startup flag (AppCDS training run)
+                else if ("--exit-after-startup".equals(arg)) {
+                    this.exitAfterStartup = true;
+                    this.openBrowser = false;
+                }
             }
             return this;
         }
@@ -293,7 +332,7 @@ public class AppConfig {
             // Ensure log directory exists
             Path logPath = ensureLogDirectory();
 
-            return new AppConfig(workspace, logPath, port, devMode);
+            return new AppConfig(workspace, logPath, port, devMode, openBrowser, exitAfterStartup);
         }
 
         private Path resolveWorkspacePath() throws IOException {
@@ -1,44 +1,94 @@
 package com.miniide;
 
-import java.io.FileOutputStream;
+import com.miniide.logging.LogRingBuffer;
+import com.miniide.logging.RollingLogFile;
+import com.miniide.metrics.MetricsRegistry;
+
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Simple logging utility that writes to both console and file.
+ * Logging utility that writes to both console and file.
+ * <p>
+ * Callers only enqueue: lines go into a bounded lock-free ring buffer and a single daemon
+ * writer thread formats them, writes them in batches and flushes once per batch. When the
+ * buffer is full INFO lines are dropped immediately; WARN/ERROR and console lines spin briefly
+ * for the writer to make room before being dropped, so a request thread never waits on disk.
+ * Drops are counted and reported in the log itself once the writer catches up.
+ * <p>
+ * The file rotates by size and by day; old segments are gzipped and pruned
+ * (see {@link RollingLogFile}).
  */
 public class AppLogger {
 
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int BUFFER_CAPACITY = 16_384;
+    private static final int MAX_BATCH = 1_024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final int BACKPRESSURE_SPINS = 200;
+    private static final long MAX_FILE_BYTES = 10L * 1024 * 1024;
+    private static final int MAX_SEGMENTS = 10;
 
-    private final PrintStream fileOutput;
+    private final RollingLogFile file;
     private final PrintStream consoleOutput;
     private final boolean consoleEnabled;
+    private final LogRingBuffer<Entry> buffer = new LogRingBuffer<>(BUFFER_CAPACITY);
+    private final Thread writerThread;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder backpressure = new LongAdder();
+    private long droppedReported;
+    private volatile boolean closed;
+
+    // Writer-thread state: timestamps only change once a second, so reuse the formatted text
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp = "";
+    private final StringBuilder batch = new StringBuilder(16 * 1024);
 
     private static AppLogger instance;
 
     private AppLogger(Path logFile, boolean consoleEnabled) throws IOException {
         this.consoleOutput = System.out;
         this.consoleEnabled = consoleEnabled;
-
-        // Open log file in append mode
-        FileOutputStream fos = new FileOutputStream(logFile.toFile(), true);
-        this.fileOutput = new PrintStream(fos, true, "UTF-8");
+        this.file = new RollingLogFile(logFile, MAX_FILE_BYTES, MAX_SEGMENTS);
 
         // Log startup
         String separator = "=".repeat(60);
-        fileOutput.println();
-        fileOutput.println(separator);
-        fileOutput.println("Control Room Started at " + LocalDateTime.now().format(TIME_FORMAT));
-        fileOutput.println(separator);
+        file.write("\n" + separator + "\n"
+            + "Control Room Started at " + LocalDateTime.now().format(TIME_FORMAT) + "\n"
+            + separator + "\n");
+        file.flush();
+
+        this.writerThread = new Thread(this::runWriter, "app-logger");
+        writerThread.setDaemon(true);
+        writerThread.start();
     }
 
     public static synchronized void initialize(Path logFile, boolean consoleEnabled) throws IOException {
         if (instance == null) {
             instance = new AppLogger(logFile, consoleEnabled);
+            AppLogger logger = instance;
+            // Flush whatever is queued on any exit path, including System.exit after a startup failure
+            Runtime.getRuntime().addShutdownHook(new Thread(logger::close, "app-logger-flush"));
+            MetricsRegistry metrics = MetricsRegistry.get();
+            metrics.gauge("app_log_written_total", "Log lines written", () -> logger.written.sum());
+            metrics.gauge("app_log_dropped_total", "Log lines dropped because the buffer was full",
+                () -> logger.dropped.sum());
+            metrics.gauge("app_log_backpressure_total", "Log calls that found the buffer full",
+                () -> logger.backpressure.sum());
+            metrics.gauge("app_log_queue_depth", "Log lines waiting for the writer thread", () -> logger.buffer.size());
         }
     }
 
@@ -47,55 +97,165 @@ public class AppLogger {
     }
 
     public void info(String message) {
-        log("INFO", message);
+        log("INFO", message, null);
     }
 
     public void warn(String message) {
-        log("WARN", message);
+        log("WARN", message, null);
     }
 
     public void error(String message) {
-        log("ERROR", message);
+        log("ERROR", message, null);
     }
 
     public void error(String message, Throwable t) {
-        log("ERROR", message);
-        if (fileOutput != null) {
-            t.printStackTrace(fileOutput);
+        log("ERROR", message, t);
+    }
+
+    /**
+     * Print to console only (for startup banners, etc.)
+     */
+    public void console(String message) {
+        enqueue(new Entry(0L, null, message, null), true);
+    }
+
+    /**
+     * Counters for the buffer and writer: written, dropped, backpressure, queueDepth, rotations,
+     * rotationFailures.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("backpressure", backpressure.sum());
+        stats.put("queueDepth", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("rotations", file.getRotations());
+        stats.put("rotationFailures", file.getRotationFailures());
+        return stats;
+    }
+
+    /**
+     * Drains the buffer, flushes and stops the writer. Safe to call more than once.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
         }
-        if (consoleEnabled) {
-            t.printStackTrace(consoleOutput);
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    private void log(String level, String message) {
-        String timestamp = LocalDateTime.now().format(TIME_FORMAT);
-        String line = String.format("[%s] [%s] %s", timestamp, level, message);
+    private void log(String level, String message, Throwable t) {
+        enqueue(new Entry(System.currentTimeMillis(), level, message, t), !"INFO".equals(level));
+    }
+
+    private void enqueue(Entry entry, boolean important) {
+        if (buffer.offer(entry)) {
+            return;
+        }
+        backpressure.increment();
+        LockSupport.unpark(writerThread);
+        if (important) {
+            for (int i = 0; i < BACKPRESSURE_SPINS; i++) {
+                Thread.onSpinWait();
+                if (buffer.offer(entry)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
 
-        if (fileOutput != null) {
-            fileOutput.println(line);
+    private void runWriter() {
+        while (true) {
+            boolean stopping = closed;
+            int drained = buffer.drain(this::append, MAX_BATCH);
+            if (drained > 0 || batch.length() > 0) {
+                writeBatch();
+            }
+            if (stopping && drained == 0) {
+                break;
+            }
+            if (drained < MAX_BATCH && !stopping) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
         }
+        try {
+            file.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log file: " + e.getMessage());
+        }
+    }
 
+    private void append(Entry entry) {
+        String line;
+        if (entry.level == null) {
+            line = entry.message;
+        } else {
+            line = "[" + timestamp(entry.time) + "] [" + entry.level + "] " + entry.message;
+        }
+        batch.append(line).append('\n');
+        if (entry.error != null) {
+            StringWriter trace = new StringWriter();
+            entry.error.printStackTrace(new PrintWriter(trace));
+            batch.append(trace);
+        }
         if (consoleEnabled) {
             consoleOutput.println(line);
+            if (entry.error != null) {
+                entry.error.printStackTrace(consoleOutput);
+            }
         }
+        written.increment();
     }
 
-    /**
-     * Print to console only (for startup banners, etc.)
-     */
-    public void console(String message) {
-        if (consoleEnabled) {
-            consoleOutput.println(message);
+    private void writeBatch() {
+        long droppedNow = dropped.sum();
+        if (droppedNow > droppedReported) {
+            batch.append("[").append(timestamp(System.currentTimeMillis())).append("] [WARN] Logger dropped ")
+                .append(droppedNow - droppedReported).append(" line(s); buffer full\n");
+            droppedReported = droppedNow;
+        }
+        try {
+            file.write(batch.toString());
+            file.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to write log file: " + e.getMessage());
         }
-        if (fileOutput != null) {
-            fileOutput.println(message);
+        batch.setLength(0);
+        if (batch.capacity() > 1024 * 1024) {
+            batch.trimToSize();
         }
     }
 
-    public void close() {
-        if (fileOutput != null) {
-            fileOutput.close();
+    private String timestamp(long millis) {
+        long second = millis / 1000L;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = TIME_FORMAT.format(Instant.ofEpochSecond(second).atZone(ZoneId.systemDefault()));
+        }
+        return cachedTimestamp;
+    }
+
+    private static final class Entry {
+        private final long time;
+        private final String level;
+        private final String message;
+        private final Throwable error;
+
+        private Entry(long time, String level, String message, Throwable error) {
+            this.time = time;
+            this.level = level;
+            this.message = message;
+            this.error = error;
         }
     }
 }
@@ -1,13 +1,23 @@
 package com.miniide;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.miniide.models.AuditIndexEntry;
 import com.miniide.models.AuditIndexFile;
+import com.miniide.models.AuditSessionIndexEntry;
+import com.miniide.metrics.TurnTracer;
+import com.miniide.models.AuditSessionIndexFile;
+import com.miniide.storage.ReverseLineReader;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -18,7 +28,10 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -27,13 +40,19 @@ public class AuditStore {
     private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS")
         .withLocale(Locale.US)
         .withZone(ZoneOffset.UTC);
+    private static final String RECEIPTS_FILE = "tool_receipts.jsonl";
+    private static final String RECEIPT_OFFSETS_FILE = "receipt_offsets.jsonl";
 
     private final ObjectMapper objectMapper;
     private final Path auditBaseRoot;
     private final Path auditRoot;
     private final Path sessionsRoot;
     private final Path secretPath;
+    private final Path sessionIndexPath;
     private byte[] secretKey;
+    // Lazily loaded; maintained by appendSessionToolReceipt so lookups never rescan session directories
+    private AuditSessionIndexFile sessionIndex;
+    private final Map<String, Map<String, long[]>> receiptOffsets = new HashMap<>();
 
     public AuditStore(Path workspaceRoot, ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -41,6 +60,7 @@ public class AuditStore {
         this.auditRoot = auditBaseRoot.resolve("issues");
         this.sessionsRoot = auditBaseRoot.resolve("sessions");
         this.secretPath = auditBaseRoot.resolve("secret.key");
+        this.sessionIndexPath = auditBaseRoot.resolve("sessions-index.json");
         this.secretKey = loadOrCreateSecret();
     }
 
@@ -53,6 +73,12 @@ public class AuditStore {
     }
 
     public String signPayload(String payload) throws IOException {
+        try (TurnTracer.Span span = TurnTracer.span("audit.sign")) {
+            return sign(payload);
+        }
+    }
+
+    private String sign(String payload) throws IOException {
         if (payload == null) {
             payload = "";
         }
@@ -71,46 +97,139 @@ public class AuditStore {
     }
 
     public void appendSessionToolReceipt(String sessionId, String jsonLine) throws IOException {
+        // Span covers waiting for the store lock as well as the append
+        try (TurnTracer.Span span = TurnTracer.span("audit.append_receipt")) {
+            appendReceiptLine(sessionId, jsonLine);
+        }
+    }
+
+    private synchronized void appendReceiptLine(String sessionId, String jsonLine) throws IOException {
         if (sessionId == null || sessionId.isBlank()) {
             throw new IOException("sessionId required");
         }
-        Path sessionDir = sessionsRoot.resolve(sanitizeSegment(sessionId));
+        String safeSession = sanitizeSegment(sessionId);
+        Path sessionDir = sessionsRoot.resolve(safeSession);
         Files.createDirectories(sessionDir);
-        Path target = sessionDir.resolve("tool_receipts.jsonl");
-        try (BufferedWriter writer = Files.newBufferedWriter(
-            target,
-            StandardCharsets.UTF_8,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.WRITE,
-            StandardOpenOption.APPEND
-        )) {
-            writer.write(jsonLine == null ? "" : jsonLine);
-            writer.newLine();
+        Path target = sessionDir.resolve(RECEIPTS_FILE);
+        AuditSessionIndexEntry entry = currentSessionEntry(safeSession);
+
+        String line = jsonLine == null ? "" : jsonLine;
+        byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        long offset = entry.getSizeBytes();
+        Files.write(target, bytes, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        entry.setSizeBytes(offset + bytes.length);
+        entry.setLastModified(Files.getLastModifiedTime(target).toMillis());
+        if (!line.isBlank()) {
+            entry.setReceiptCount(entry.getReceiptCount() + 1);
+        }
+        String receiptId = extractReceiptId(line);
+        if (receiptId != null) {
+            entry.setLastReceiptId(receiptId);
+            appendReceiptOffset(safeSession, receiptId, offset, bytes.length);
         }
+        saveSessionIndex();
     }
 
-    public List<String> listSessionReceiptIds(String sessionId) throws IOException {
+    public synchronized List<String> listSessionReceiptIds(String sessionId) throws IOException {
         if (sessionId == null || sessionId.isBlank()) {
             return List.of();
         }
-        Path target = sessionsRoot.resolve(sanitizeSegment(sessionId)).resolve("tool_receipts.jsonl");
+        String safeSession = sanitizeSegment(sessionId);
+        if (!Files.exists(sessionsRoot.resolve(safeSession).resolve(RECEIPTS_FILE))) {
+            return List.of();
+        }
+        currentSessionEntry(safeSession);
+        return new ArrayList<>(loadReceiptOffsets(safeSession).keySet());
+    }
+
+    /**
+     * Session whose receipts were appended most recently, answered from the sessions index.
+     */
+    public synchronized String findLatestSessionWithReceipts() throws IOException {
+        AuditSessionIndexFile index = sessionIndex();
+        AuditSessionIndexEntry newest = null;
+        for (AuditSessionIndexEntry entry : index.getSessions().values()) {
+            if (entry.getReceiptCount() <= 0) continue;
+            if (newest == null || entry.getLastModified() > newest.getLastModified()) {
+                newest = entry;
+            }
+        }
+        if (newest != null && !Files.exists(sessionsRoot.resolve(newest.getSessionId()).resolve(RECEIPTS_FILE))) {
+            // Session removed behind our back; drop it and fall back to a rescan
+            index.getSessions().remove(newest.getSessionId());
+            rebuildSessionIndex();
+            return findLatestSessionWithReceipts();
+        }
+        return newest != null ? newest.getSessionId() : null;
+    }
+
+    public synchronized AuditSessionIndexEntry getSessionSummary(String sessionId) throws IOException {
+        if (sessionId == null || sessionId.isBlank()) {
+            return null;
+        }
+        String safeSession = sanitizeSegment(sessionId);
+        if (!Files.exists(sessionsRoot.resolve(safeSession).resolve(RECEIPTS_FILE))) {
+            return null;
+        }
+        return currentSessionEntry(safeSession);
+    }
+
+    /**
+     * Last {@code limit} non-blank receipt lines of a session in chronological order,
+     * read backwards from the end of the file so cost tracks {@code limit}, not session size.
+     */
+    public List<String> readRecentSessionReceipts(String sessionId, int limit) throws IOException {
+        if (limit <= 0 || sessionId == null || sessionId.isBlank()) {
+            return List.of();
+        }
+        Path target = sessionsRoot.resolve(sanitizeSegment(sessionId)).resolve(RECEIPTS_FILE);
         if (!Files.exists(target)) {
             return List.of();
         }
-        List<String> ids = new ArrayList<>();
-        List<String> lines = Files.readAllLines(target, StandardCharsets.UTF_8);
-        for (String line : lines) {
-            if (line == null || line.isBlank()) continue;
-            try {
-                Map<?, ?> node = objectMapper.readValue(line, Map.class);
-                Object id = node.get("receipt_id");
-                if (id != null) {
-                    ids.add(id.toString());
+        List<String> lines = new ArrayList<>();
+        try (ReverseLineReader reader = new ReverseLineReader(target)) {
+            String line;
+            while (lines.size() < limit && (line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    lines.add(line);
                 }
-            } catch (Exception ignored) {
             }
         }
-        return ids;
+        Collections.reverse(lines);
+        return lines;
+    }
+
+    /**
+     * Reads a single receipt line by id using the byte offset recorded at append time.
+     */
+    public String readSessionReceipt(String sessionId, String receiptId) throws IOException {
+        if (sessionId == null || sessionId.isBlank() || receiptId == null || receiptId.isBlank()) {
+            return null;
+        }
+        String safeSession = sanitizeSegment(sessionId);
+        Path target = sessionsRoot.resolve(safeSession).resolve(RECEIPTS_FILE);
+        long[] location;
+        synchronized (this) {
+            if (!Files.exists(target)) {
+                return null;
+            }
+            currentSessionEntry(safeSession);
+            location = loadReceiptOffsets(safeSession).get(receiptId);
+        }
+        if (location == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) location[1]);
+            long position = location[0];
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) break;
+                position += read;
+            }
+            return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).stripTrailing();
+        }
     }
 
     public AuditEntry linkSessionToIssue(String sessionId, String issueId) throws IOException {
@@ -120,7 +239,7 @@ public class AuditStore {
         if (issueId == null || issueId.isBlank()) {
             throw new IOException("issueId required");
         }
-        Path sessionFile = sessionsRoot.resolve(sanitizeSegment(sessionId)).resolve("tool_receipts.jsonl");
+        Path sessionFile = sessionsRoot.resolve(sanitizeSegment(sessionId)).resolve(RECEIPTS_FILE);
         if (!Files.exists(sessionFile)) {
             throw new IOException("Session receipts not found");
         }
@@ -169,6 +288,13 @@ public class AuditStore {
     }
 
     private AuditEntry writeEntry(String issueId, String packetId, String kind, String extension, String content) throws IOException {
+        try (TurnTracer.Span span = TurnTracer.span("audit.write")) {
+            span.attr("kind", kind);
+            return writeEntryFile(issueId, packetId, kind, extension, content);
+        }
+    }
+
+    private AuditEntry writeEntryFile(String issueId, String packetId, String kind, String extension, String content) throws IOException {
         if (issueId == null || issueId.isBlank()) {
             throw new IOException("issueId required");
         }
@@ -188,6 +314,175 @@ public class AuditStore {
         return entry;
     }
 
+    private AuditSessionIndexFile sessionIndex() throws IOException {
+        if (sessionIndex != null) {
+            return sessionIndex;
+        }
+        if (objectMapper != null && Files.exists(sessionIndexPath)) {
+            try {
+                sessionIndex = objectMapper.readValue(sessionIndexPath.toFile(), AuditSessionIndexFile.class);
+            } catch (Exception e) {
+                sessionIndex = null;
+            }
+        }
+        if (sessionIndex == null) {
+            rebuildSessionIndex();
+        }
+        return sessionIndex;
+    }
+
+    private void rebuildSessionIndex() throws IOException {
+        sessionIndex = new AuditSessionIndexFile();
+        receiptOffsets.clear();
+        if (Files.isDirectory(sessionsRoot)) {
+            try (var stream = Files.list(sessionsRoot)) {
+                for (Path dir : stream.filter(Files::isDirectory).toList()) {
+                    if (Files.exists(dir.resolve(RECEIPTS_FILE))) {
+                        rebuildSessionEntry(dir.getFileName().toString());
+                    }
+                }
+            }
+        }
+        saveSessionIndex();
+    }
+
+    /**
+     * Index entry for a session, rebuilt from the receipts file if it was written outside this store.
+     */
+    private AuditSessionIndexEntry currentSessionEntry(String safeSession) throws IOException {
+        AuditSessionIndexFile index = sessionIndex();
+        AuditSessionIndexEntry entry = index.getSessions().get(safeSession);
+        Path target = sessionsRoot.resolve(safeSession).resolve(RECEIPTS_FILE);
+        long size = Files.exists(target) ? Files.size(target) : 0L;
+        boolean offsetsMissing = !receiptOffsets.containsKey(safeSession)
+            && !Files.exists(sessionsRoot.resolve(safeSession).resolve(RECEIPT_OFFSETS_FILE));
+        if (entry == null || entry.getSizeBytes() != size || offsetsMissing) {
+            entry = rebuildSessionEntry(safeSession);
+            saveSessionIndex();
+        }
+        return entry;
+    }
+
+    private AuditSessionIndexEntry rebuildSessionEntry(String safeSession) throws IOException {
+        Path sessionDir = sessionsRoot.resolve(safeSession);
+        Path target = sessionDir.resolve(RECEIPTS_FILE);
+        AuditSessionIndexEntry entry = new AuditSessionIndexEntry(safeSession);
+        Map<String, long[]> offsets = new LinkedHashMap<>();
+        StringBuilder offsetLines = new StringBuilder();
+        if (Files.exists(target)) {
+            long offset = 0L;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(target))) {
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int b;
+                boolean more = true;
+                while (more) {
+                    b = in.read();
+                    if (b != -1) {
+                        line.write(b);
+                        if (b != '\n') continue;
+                    } else {
+                        more = false;
+                        if (line.size() == 0) break;
+                    }
+                    int length = line.size();
+                    String text = line.toString(StandardCharsets.UTF_8).strip();
+                    if (!text.isEmpty()) {
+                        entry.setReceiptCount(entry.getReceiptCount() + 1);
+                        String receiptId = extractReceiptId(text);
+                        if (receiptId != null) {
+                            offsets.put(receiptId, new long[] {offset, length});
+                            offsetLines.append(offsetLine(receiptId, offset, length)).append('\n');
+                            entry.setLastReceiptId(receiptId);
+                        }
+                    }
+                    offset += length;
+                    line.reset();
+                }
+            }
+            entry.setSizeBytes(offset);
+            entry.setLastModified(Files.getLastModifiedTime(target).toMillis());
+        }
+        if (Files.isDirectory(sessionDir)) {
+            Files.writeString(sessionDir.resolve(RECEIPT_OFFSETS_FILE), offsetLines.toString(), StandardCharsets.UTF_8);
+        }
+        receiptOffsets.put(safeSession, offsets);
+        sessionIndex().getSessions().put(safeSession, entry);
+        return entry;
+    }
+
+    private Map<String, long[]> loadReceiptOffsets(String safeSession) throws IOException {
+        Map<String, long[]> cached = receiptOffsets.get(safeSession);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, long[]> offsets = new LinkedHashMap<>();
+        Path offsetsPath = sessionsRoot.resolve(safeSession).resolve(RECEIPT_OFFSETS_FILE);
+        if (!Files.exists(offsetsPath)) {
+            rebuildSessionEntry(safeSession);
+            return receiptOffsets.get(safeSession);
+        }
+        for (String line : Files.readAllLines(offsetsPath, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                offsets.put(node.path("receipt_id").asText(),
+                    new long[] {node.path("offset").asLong(), node.path("length").asLong()});
+            } catch (Exception ignored) {
+            }
+        }
+        receiptOffsets.put(safeSession, offsets);
+        return offsets;
+    }
+
+    private void appendReceiptOffset(String safeSession, String receiptId, long offset, long length) throws IOException {
+        Map<String, long[]> offsets = loadReceiptOffsets(safeSession);
+        if (offsets.containsKey(receiptId)) {
+            // Keep first-seen order for listSessionReceiptIds while pointing at the newest copy
+            offsets.get(receiptId)[0] = offset;
+            offsets.get(receiptId)[1] = length;
+        } else {
+            offsets.put(receiptId, new long[] {offset, length});
+        }
+        Files.writeString(sessionsRoot.resolve(safeSession).resolve(RECEIPT_OFFSETS_FILE),
+            offsetLine(receiptId, offset, length) + "\n", StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private String offsetLine(String receiptId, long offset, long length) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("receipt_id", receiptId);
+        node.put("offset", offset);
+        node.put("length", length);
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (Exception e) {
+            return "{}";
+        }
+    }
+
+    private String extractReceiptId(String jsonLine) {
+        if (objectMapper == null || jsonLine == null || jsonLine.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(jsonLine).get("receipt_id");
+            return id != null && !id.isNull() ? id.asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void saveSessionIndex() {
+        if (objectMapper == null || sessionIndex == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(auditBaseRoot);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(sessionIndexPath.toFile(), sessionIndex);
+        } catch (Exception ignored) {
+        }
+    }
+
     private Path issueDirectory(String issueId) {
         return auditRoot.resolve(sanitizeSegment(issueId));
     }
@@ -0,0 +1,379 @@
+package com.miniide;
+
+import com.miniide.models.CanonCard;
+import com.miniide.prompt.Bm25Index;
+import com.miniide.prompt.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds the grounding prefix for agent prompts: agreed issues (R1 + R3), prompt tools, the
+ * agent's memory and canon cards, ranked by BM25 against the current message and packed under
+ * a token budget.
+ * <p>
+ * Prompt tools and agreed issues were always sent; they still are when the budget allows, with
+ * the relevant ones first when it does not. Memory and canon cards are only added when they
+ * match the message. Tool and issue blocks come pre-rendered from {@link PromptRegistry} and
+ * {@link IssueMemoryService}, and the scored corpus is keyed by their write versions (plus the
+ * canon and memory fingerprints); assembled prefixes are cached per (corpus, message, budget),
+ * so repeated turns are a cache lookup.
+ */
+public class ContextAssembler {
+
+    public static final int DEFAULT_BUDGET_TOKENS = 4000;
+
+    private static final String ISSUES_HEADER = "Early Grounding (R1 + R3, epistemicStatus >= agreed):";
+    private static final String TOOLS_HEADER = "Tool Catalog (prompt tools):";
+    private static final String MEMORY_HEADER = "Relevant Memory:";
+    private static final String CANON_HEADER = "Relevant Canon Cards:";
+    private static final int MAX_ISSUES = 10;
+    private static final int MAX_MEMORY = 5;
+    private static final int MAX_CANON = 5;
+    private static final int MAX_CORPORA = 8;
+    private static final int MAX_ASSEMBLIES = 64;
+
+    // Output order: the least volatile sections first, so the prompt prefix stays byte-stable
+    private enum Section { TOOLS, ISSUES, MEMORY, CANON }
+
+    private final ProjectContext projectContext;
+    private final IssueMemoryService issueService;
+    private final MemoryService memoryService;
+    private final AppLogger logger = AppLogger.get();
+    private final Map<String, Corpus> corpora = lruMap(MAX_CORPORA);
+    private final Map<String, Assembly> assemblies = lruMap(MAX_ASSEMBLIES);
+    private long canonFingerprint = Long.MIN_VALUE;
+    private Object canonOwner;
+    private List<Candidate> canonCandidates = List.of();
+
+    public ContextAssembler(ProjectContext projectContext, IssueMemoryService issueService, MemoryService memoryService) {
+        this.projectContext = projectContext;
+        this.issueService = issueService;
+        this.memoryService = memoryService;
+    }
+
+    /**
+     * @param query         text the grounding should be relevant to (usually the user message)
+     * @param agentId       whose memory to consider; null for none
+     * @param allowedTools  tool policy; when it names prompt tools, only those are offered
+     * @param budgetTokens  cap for the whole prefix; null or non-positive uses {@link #DEFAULT_BUDGET_TOKENS}
+     */
+    public synchronized Assembly assemble(String query, String agentId, Set<String> allowedTools, Integer budgetTokens,
+                                          boolean includeTools, boolean includeGrounding) {
+        if (!includeTools && !includeGrounding) {
+            return Assembly.EMPTY;
+        }
+        int budget = budgetTokens != null && budgetTokens > 0 ? budgetTokens : DEFAULT_BUDGET_TOKENS;
+        PromptRegistry prompts = includeTools && projectContext != null ? projectContext.promptTools() : null;
+        IssueMemoryService issues = includeGrounding ? issueService : null;
+        List<Candidate> memory = includeGrounding ? memoryCandidates(agentId) : List.of();
+        List<Candidate> canon = includeGrounding ? canonCandidates() : List.of();
+
+        // Sources are versioned, so the corpus key is a handful of counters rather than a rescan
+        StringBuilder key = new StringBuilder();
+        if (prompts != null) {
+            key.append("p").append(System.identityHashCode(prompts)).append(':').append(prompts.getVersion())
+                .append(':').append(allowedTools != null ? new TreeSet<>(allowedTools) : "*");
+        }
+        if (issues != null) {
+            key.append("|i").append(System.identityHashCode(issues)).append(':').append(issues.getVersion());
+        }
+        if (includeGrounding) {
+            key.append("|c").append(System.identityHashCode(canonOwner)).append(':').append(canonFingerprint)
+                .append("|m").append(agentId).append(':').append(fingerprint(memory));
+        }
+        String corpusKey = key.toString();
+        Corpus corpus = corpora.get(corpusKey);
+        if (corpus == null) {
+            List<Candidate> candidates = new ArrayList<>();
+            candidates.addAll(toolCandidates(prompts, allowedTools));
+            candidates.addAll(issueCandidates(issues));
+            candidates.addAll(memory);
+            candidates.addAll(canon);
+            corpus = new Corpus(candidates);
+            corpora.put(corpusKey, corpus);
+        }
+        // Keyed on the full message: a hash collision would hand one turn another turn's context
+        String assemblyKey = corpusKey + "|" + budget + "|" + (query != null ? query : "");
+        Assembly cached = assemblies.get(assemblyKey);
+        if (cached != null) {
+            return cached;
+        }
+        Assembly assembly = pack(corpus, query, budget);
+        assemblies.put(assemblyKey, assembly);
+        return assembly;
+    }
+
+    private List<Candidate> toolCandidates(PromptRegistry prompts, Set<String> allowedTools) {
+        if (prompts == null) {
+            return List.of();
+        }
+        List<PromptRegistry.CatalogEntry> entries = prompts.getCatalogEntries();
+        boolean restrict = allowedTools != null && entries.stream()
+            .anyMatch(entry -> allowedTools.contains(entry.getId()) || allowedTools.contains(entry.getName()));
+        List<Candidate> candidates = new ArrayList<>();
+        for (PromptRegistry.CatalogEntry entry : entries) {
+            if (restrict && !allowedTools.contains(entry.getId()) && !allowedTools.contains(entry.getName())) {
+                continue;
+            }
+            candidates.add(new Candidate(Section.TOOLS, entry.getBlock(), entry.getBlock().hashCode(), entry.getBlock()));
+        }
+        return candidates;
+    }
+
+    private List<Candidate> issueCandidates(IssueMemoryService issues) {
+        if (issues == null) {
+            return List.of();
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (IssueMemoryService.GroundingEntry entry : issues.getGroundingEntries()) {
+            candidates.add(new Candidate(Section.ISSUES, entry.getBlock(), entry.getBlock().hashCode(), entry.getSearchText()));
+        }
+        return candidates;
+    }
+
+    private List<Candidate> memoryCandidates(String agentId) {
+        if (memoryService == null || agentId == null) {
+            return List.of();
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (MemoryService.MemoryResult result : memoryService.peekActiveMemory(agentId)) {
+            String content = result.getVersion().getContent();
+            String topic = safe(result.getItem().getTopicKey());
+            candidates.add(new Candidate(Section.MEMORY,
+                "- [" + (topic.isBlank() ? result.getItem().getId() : topic) + "] " + truncate(content, 400),
+                Objects.hash(result.getItem().getId(), result.getVersion().getId()),
+                topic + " " + content));
+        }
+        return candidates;
+    }
+
+    private List<Candidate> canonCandidates() {
+        PreparedWorkspaceService prepared = projectContext != null ? projectContext.preparedWorkspace() : null;
+        if (prepared == null) {
+            canonOwner = null;
+            canonCandidates = List.of();
+            return canonCandidates;
+        }
+        try {
+            long fingerprint = prepared.canonCardsFingerprint();
+            if (prepared != canonOwner || fingerprint != canonFingerprint) {
+                List<Candidate> candidates = new ArrayList<>();
+                for (CanonCard card : prepared.listCanonCards()) {
+                    String title = safe(card.getTitle());
+                    String label = safe(card.getDisplayId()) + (title.isBlank() ? "" : " " + title)
+                        + (card.getType() != null ? " (" + card.getType() + ")" : "");
+                    String content = safe(card.getContent());
+                    String aliases = card.getAliases() != null ? String.join(" ", card.getAliases()) : "";
+                    candidates.add(new Candidate(Section.CANON, "- " + label + ": " + truncate(content, 400),
+                        Objects.hash(card.getStableId(), card.getDisplayId(), card.getUpdatedAt()),
+                        title + " " + aliases + " " + content));
+                }
+                canonCandidates = candidates;
+                canonFingerprint = fingerprint;
+                canonOwner = prepared;
+            }
+        } catch (Exception e) {
+            if (logger != null) {
+                logger.warn("Failed to read canon cards for grounding: " + e.getMessage());
+            }
+            canonCandidates = List.of();
+        }
+        return canonCandidates;
+    }
+
+    private Assembly pack(Corpus corpus, String query, int budget) {
+        List<Candidate> candidates = corpus.candidates;
+        double[] scores = corpus.index.score(query != null ? query : "");
+        List<Integer> ranked = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Section section = candidates.get(i).section;
+            // Memory and canon are optional extras: only when they actually match
+            if ((section == Section.MEMORY || section == Section.CANON) && scores[i] <= 0) {
+                continue;
+            }
+            ranked.add(i);
+        }
+        // Highest score first; unmatched items keep their natural order (issues by recency, tools by name)
+        ranked.sort(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i));
+
+        boolean[] chosen = new boolean[candidates.size()];
+        Map<Section, Integer> counts = new LinkedHashMap<>();
+        int used = 0;
+        for (int i : ranked) {
+            Candidate candidate = candidates.get(i);
+            int count = counts.getOrDefault(candidate.section, 0);
+            if (count >= limit(candidate.section)) {
+                continue;
+            }
+            int cost = candidate.tokens + (count == 0 ? TokenEstimator.estimate(header(candidate.section)) + 2 : 0);
+            if (used + cost > budget) {
+                continue;
+            }
+            chosen[i] = true;
+            used += cost;
+            counts.put(candidate.section, count + 1);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int included = 0;
+        for (Section section : Section.values()) {
+            if (!counts.containsKey(section)) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append("\n\n");
+            }
+            builder.append(header(section)).append("\n");
+            // Stable source order inside a section keeps the prefix bytes stable across turns
+            for (int i = 0; i < candidates.size(); i++) {
+                if (chosen[i] && candidates.get(i).section == section) {
+                    builder.append(candidates.get(i).block).append("\n");
+                    included++;
+                }
+            }
+        }
+        String text = builder.toString().trim();
+        return new Assembly(text, TokenEstimator.estimate(text), candidates.size(), included);
+    }
+
+    private static int limit(Section section) {
+        switch (section) {
+            case ISSUES:
+                return MAX_ISSUES;
+            case MEMORY:
+                return MAX_MEMORY;
+            case CANON:
+                return MAX_CANON;
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
+
+    private static String header(Section section) {
+        switch (section) {
+            case ISSUES:
+                return ISSUES_HEADER;
+            case TOOLS:
+                return TOOLS_HEADER;
+            case MEMORY:
+                return MEMORY_HEADER;
+            default:
+                return CANON_HEADER;
+        }
+    }
+
+    private static String fingerprint(List<Candidate> candidates) {
+        long hash = 1L;
+        for (Candidate candidate : candidates) {
+            hash = hash * 31 + candidate.section.ordinal() * 7L + candidate.version;
+        }
+        return candidates.size() + ":" + Long.toHexString(hash);
+    }
+
+    private static String truncate(String text, int limit) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.trim();
+        if (trimmed.length() <= limit) {
+            return trimmed;
+        }
+        return trimmed.substring(0, Math.max(0, limit - 3)) + "...";
+    }
+
+    private static String safe(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static <K, V> Map<K, V> lruMap(int capacity) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    private static final class Candidate {
+        private final Section section;
+        private final String block;
+        private final long version;
+        private final String searchText;
+        private final int tokens;
+
+        private Candidate(Section section, String block, long version, String searchText) {
+            this.section = section;
+            this.block = block;
+            this.version = version;
+            this.searchText = searchText;
+            this.tokens = TokenEstimator.estimate(block) + 1;
+        }
+    }
+
+    private static final class Corpus {
+        private final List<Candidate> candidates;
+        private final Bm25Index index;
+
+        private Corpus(List<Candidate> candidates) {
+            this.candidates = candidates;
+            List<String> documents = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates) {
+                documents.add(candidate.searchText);
+            }
+            this.index = new Bm25Index(documents);
+        }
+    }
+
+    /**
+     * An assembled grounding prefix.
+     */
+    public static final class Assembly {
+        static final Assembly EMPTY = new Assembly("", 0, 0, 0);
+
+        private final String text;
+        private final int tokens;
+        private final int candidates;
+        private final int included;
+
+        private Assembly(String text, int tokens, int candidates, int included) {
+            this.text = text;
+            this.tokens = tokens;
+            this.candidates = candidates;
+            this.included = included;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getTokens() {
+            return tokens;
+        }
+
+        public int getCandidates() {
+            return candidates;
+        }
+
+        public int getIncluded() {
+            return included;
+        }
+
+        /**
+         * @return prefix + blank line + prompt, or the prompt unchanged when nothing was selected
+         */
+        public String prependTo(String prompt) {
+            if (text.isBlank()) {
+                return prompt;
+            }
+            return text + "\n\n" + (prompt != null ? prompt : "");
+        }
+    }
+}
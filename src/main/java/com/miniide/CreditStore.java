@@ -1,21 +1,40 @@
 package com.miniide;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.models.AgentCreditProfile;
 import com.miniide.models.CreditEvent;
 import com.miniide.storage.JsonStorage;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Credit events and the per-agent profiles derived from them.
+ * <p>
+ * Events are persisted to an append-only JSONL log (one event per line, last line wins for a
+ * repeated id); a legacy {@code credits.json} array is migrated into the log on first load.
+ * Profiles are running aggregates updated on {@link #award(CreditEvent)}, with per-day rollups
+ * for windowed views, so profile reads cost O(agents) rather than O(events).
+ */
 public class CreditStore {
     private static final Set<String> SYSTEM_ONLY_REASONS = Set.of(
         "evidence-verified",
@@ -40,8 +59,17 @@ public class CreditStore {
         "hallucination-detected"
     );
 
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     private final Map<String, CreditEvent> events = new ConcurrentHashMap<>();
+    // Per-agent events in timestamp order; aggregates are rebuilt from these when order breaks
+    private final Map<String, List<CreditEvent>> eventsByAgent = new ConcurrentHashMap<>();
+    private final Map<String, CreditAggregate> aggregates = new ConcurrentHashMap<>();
     private Path storagePath;
+    private Path logPath;
+    // The event log is replayed on first use rather than at startup or on every switch
+    private volatile boolean loaded;
 
     public CreditStore(Path workspaceRoot) {
         switchWorkspace(workspaceRoot);
@@ -49,43 +77,61 @@ public class CreditStore {
 
     public synchronized void switchWorkspace(Path workspaceRoot) {
         this.storagePath = resolveStoragePath(workspaceRoot);
-        loadFromDisk();
+        this.logPath = storagePath.resolveSibling("credits.jsonl");
+        loaded = false;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                loadFromDisk();
+                loaded = true;
+            }
+        }
     }
 
     public List<CreditEvent> listAll() {
+        ensureLoaded();
         List<CreditEvent> results = new ArrayList<>(events.values());
         results.sort(Comparator.comparingLong(CreditEvent::getTimestamp).reversed());
         return results;
     }
 
     public List<CreditEvent> listByAgent(String agentId) {
+        ensureLoaded();
         List<CreditEvent> results = new ArrayList<>();
         if (agentId == null || agentId.isBlank()) {
             return results;
         }
-        for (CreditEvent event : events.values()) {
-            if (agentId.equals(event.getAgentId())) {
-                results.add(event);
+        List<CreditEvent> agentEvents = eventsByAgent.get(agentId);
+        if (agentEvents != null) {
+            synchronized (this) {
+                results.addAll(agentEvents);
             }
         }
-        results.sort(Comparator.comparingLong(CreditEvent::getTimestamp).reversed());
+        Collections.reverse(results);
         return results;
     }
 
     public CreditEvent get(String id) {
+        ensureLoaded();
         if (id == null) {
             return null;
         }
         return events.get(id);
     }
 
-    public CreditEvent award(CreditEvent event) {
+    public synchronized CreditEvent award(CreditEvent event) {
+        ensureLoaded();
         validateEvent(event);
         CreditEvent normalized = normalizeEvent(event);
-        events.put(normalized.getId(), normalized);
+        index(normalized);
         log("Credit awarded: " + normalized.getId() + " -> " + normalized.getAgentId()
             + " (" + normalized.getAmount() + ")");
-        saveAll();
+        append(normalized);
         return normalized;
     }
 
@@ -97,26 +143,37 @@ public class CreditStore {
     }
 
     public List<AgentCreditProfile> listProfiles() {
-        Map<String, List<CreditEvent>> byAgent = groupByAgent();
+        return listProfiles(null);
+    }
+
+    /**
+     * @param windowDays when set, each profile also carries a rollup over the trailing N days
+     */
+    public List<AgentCreditProfile> listProfiles(Integer windowDays) {
+        ensureLoaded();
+        long today = epochDay(System.currentTimeMillis());
         List<AgentCreditProfile> results = new ArrayList<>();
-        for (Map.Entry<String, List<CreditEvent>> entry : byAgent.entrySet()) {
-            results.add(buildProfile(entry.getKey(), entry.getValue()));
+        for (Map.Entry<String, CreditAggregate> entry : aggregates.entrySet()) {
+            results.add(entry.getValue().toProfile(entry.getKey(), windowDays, today));
         }
         results.sort(Comparator.comparingDouble(AgentCreditProfile::getCurrentCredits).reversed());
         return results;
     }
 
     public AgentCreditProfile getProfile(String agentId) {
+        return getProfile(agentId, null);
+    }
+
+    public AgentCreditProfile getProfile(String agentId, Integer windowDays) {
+        ensureLoaded();
         if (agentId == null || agentId.isBlank()) {
             return null;
         }
-        List<CreditEvent> agentEvents = new ArrayList<>();
-        for (CreditEvent event : events.values()) {
-            if (agentId.equals(event.getAgentId())) {
-                agentEvents.add(event);
-            }
+        CreditAggregate aggregate = aggregates.get(agentId);
+        if (aggregate == null) {
+            aggregate = new CreditAggregate();
         }
-        return buildProfile(agentId, agentEvents);
+        return aggregate.toProfile(agentId, windowDays, epochDay(System.currentTimeMillis()));
     }
 
     private void validateEvent(CreditEvent event) {
@@ -161,43 +218,73 @@ public class CreditStore {
         return event;
     }
 
-    private Map<String, List<CreditEvent>> groupByAgent() {
-        Map<String, List<CreditEvent>> grouped = new HashMap<>();
-        for (CreditEvent event : events.values()) {
-            if (event == null || event.getAgentId() == null) {
-                continue;
+    /**
+     * Adds an event to the in-memory indexes; an event arriving in timestamp order is folded
+     * into its agent's aggregate, anything else (replaced id, backdated event) rebuilds it.
+     */
+    private void index(CreditEvent event) {
+        if (event == null || event.getId() == null || event.getAgentId() == null) {
+            return;
+        }
+        CreditEvent previous = events.put(event.getId(), event);
+        if (previous != null) {
+            List<CreditEvent> previousList = eventsByAgent.get(previous.getAgentId());
+            if (previousList != null) {
+                previousList.remove(previous);
+                rebuildAggregate(previous.getAgentId());
             }
-            grouped.computeIfAbsent(event.getAgentId(), key -> new ArrayList<>()).add(event);
         }
-        return grouped;
+        List<CreditEvent> agentEvents = eventsByAgent.computeIfAbsent(event.getAgentId(), key -> new ArrayList<>());
+        int position = agentEvents.size();
+        while (position > 0 && agentEvents.get(position - 1).getTimestamp() > event.getTimestamp()) {
+            position--;
+        }
+        agentEvents.add(position, event);
+        if (previous == null && position == agentEvents.size() - 1) {
+            aggregates.computeIfAbsent(event.getAgentId(), key -> new CreditAggregate()).add(event);
+        } else {
+            rebuildAggregate(event.getAgentId());
+        }
     }
 
-    private AgentCreditProfile buildProfile(String agentId, List<CreditEvent> agentEvents) {
-        AgentCreditProfile profile = new AgentCreditProfile();
-        profile.setAgentId(agentId);
+    private void rebuildAggregate(String agentId) {
+        List<CreditEvent> agentEvents = eventsByAgent.get(agentId);
         if (agentEvents == null || agentEvents.isEmpty()) {
-            profile.setReliabilityTier("none");
-            return profile;
+            eventsByAgent.remove(agentId);
+            aggregates.remove(agentId);
+            return;
         }
+        CreditAggregate aggregate = new CreditAggregate();
+        for (CreditEvent event : agentEvents) {
+            aggregate.add(event);
+        }
+        aggregates.put(agentId, aggregate);
+    }
 
-        double totalCredits = 0;
-        Map<String, Double> creditsByReason = new HashMap<>();
-        int verifiedCount = 0;
-        int failedVerificationCount = 0;
-        int penaltyCount = 0;
-
-        agentEvents.sort(Comparator.comparingLong(CreditEvent::getTimestamp));
-        int longestStreak = 0;
-        int currentStreak = 0;
-        double recentDelta = 0;
+    private static long epochDay(long timestamp) {
+        return Math.floorDiv(timestamp, DAY_MILLIS);
+    }
 
-        for (CreditEvent event : agentEvents) {
-            if (event == null) {
-                continue;
-            }
+    /**
+     * Running totals for one agent, fed events in timestamp order.
+     */
+    private final class CreditAggregate {
+        private double totalCredits;
+        private final Map<String, Double> creditsByReason = new HashMap<>();
+        private int eventCount;
+        private int verifiedCount;
+        private int failedVerificationCount;
+        private int penaltyCount;
+        private int currentStreak;
+        private int longestStreak;
+        private double recentDelta;
+        private final TreeMap<Long, DayRollup> days = new TreeMap<>();
+
+        synchronized void add(CreditEvent event) {
             double amount = event.getAmount();
             recentDelta = amount;
             totalCredits += amount;
+            eventCount++;
             String reason = event.getReason();
             if (reason != null) {
                 creditsByReason.put(reason, creditsByReason.getOrDefault(reason, 0.0) + amount);
@@ -205,58 +292,97 @@ public class CreditStore {
 
             boolean isVerified = reason != null && VERIFIED_REASONS.contains(reason);
             boolean isFailedVerification = reason != null && FAILED_VERIFICATION_REASONS.contains(reason);
+            boolean isPenalty = amount < 0 || isFailedVerification;
             if (isVerified) {
                 verifiedCount++;
+                currentStreak++;
+                if (currentStreak > longestStreak) {
+                    longestStreak = currentStreak;
+                }
+            } else {
+                currentStreak = 0;
             }
             if (isFailedVerification) {
                 failedVerificationCount++;
             }
-            if (amount < 0 || isFailedVerification) {
+            if (isPenalty) {
                 penaltyCount++;
             }
 
+            DayRollup day = days.computeIfAbsent(epochDay(event.getTimestamp()), key -> new DayRollup());
+            day.credits += amount;
+            day.events++;
             if (isVerified) {
-                currentStreak++;
-                if (currentStreak > longestStreak) {
-                    longestStreak = currentStreak;
-                }
-            } else {
-                currentStreak = 0;
+                day.verified++;
+            }
+            if (isFailedVerification) {
+                day.failedVerification++;
+            }
+            if (isPenalty) {
+                day.penalties++;
             }
         }
 
-        int totalVerificationAttempts = verifiedCount + failedVerificationCount;
-        double verificationRate = totalVerificationAttempts == 0
-            ? 0.0
-            : (double) verifiedCount / totalVerificationAttempts;
-        double penaltyRate = agentEvents.isEmpty()
-            ? 0.0
-            : (double) penaltyCount / agentEvents.size();
-
-        int trailingStreak = 0;
-        for (int i = agentEvents.size() - 1; i >= 0; i--) {
-            CreditEvent event = agentEvents.get(i);
-            String reason = event != null ? event.getReason() : null;
-            if (reason != null && VERIFIED_REASONS.contains(reason)) {
-                trailingStreak++;
-            } else {
-                break;
+        synchronized AgentCreditProfile toProfile(String agentId, Integer windowDays, long today) {
+            AgentCreditProfile profile = new AgentCreditProfile();
+            profile.setAgentId(agentId);
+            if (windowDays != null) {
+                applyWindow(profile, windowDays, today);
+            }
+            if (eventCount == 0) {
+                profile.setReliabilityTier("none");
+                return profile;
+            }
+            double verificationRate = rate(verifiedCount, verifiedCount + failedVerificationCount);
+            double penaltyRate = rate(penaltyCount, eventCount);
+
+            profile.setLifetimeCredits(totalCredits);
+            profile.setCurrentCredits(totalCredits);
+            profile.setCreditsByReason(new HashMap<>(creditsByReason));
+            profile.setCreditsThisSession(totalCredits);
+            profile.setCreditsThisChapter(0);
+            profile.setVerificationRate(verificationRate);
+            profile.setApplicationRate(0);
+            profile.setPenaltyRate(penaltyRate);
+            profile.setCurrentVerifiedStreak(currentStreak);
+            profile.setLongestVerifiedStreak(longestStreak);
+            profile.setReliabilityTier(computeReliabilityTier(verificationRate, penaltyRate));
+            profile.setRecentDelta(recentDelta);
+            return profile;
+        }
+
+        private void applyWindow(AgentCreditProfile profile, int windowDays, long today) {
+            int span = Math.max(1, windowDays);
+            double credits = 0;
+            int windowEvents = 0;
+            int verified = 0;
+            int failed = 0;
+            int penalties = 0;
+            for (DayRollup day : days.tailMap(today - span + 1, true).values()) {
+                credits += day.credits;
+                windowEvents += day.events;
+                verified += day.verified;
+                failed += day.failedVerification;
+                penalties += day.penalties;
             }
+            profile.setWindowDays(span);
+            profile.setWindowCredits(credits);
+            profile.setWindowEvents(windowEvents);
+            profile.setWindowVerificationRate(rate(verified, verified + failed));
+            profile.setWindowPenaltyRate(rate(penalties, windowEvents));
         }
 
-        profile.setLifetimeCredits(totalCredits);
-        profile.setCurrentCredits(totalCredits);
-        profile.setCreditsByReason(creditsByReason);
-        profile.setCreditsThisSession(totalCredits);
-        profile.setCreditsThisChapter(0);
-        profile.setVerificationRate(verificationRate);
-        profile.setApplicationRate(0);
-        profile.setPenaltyRate(penaltyRate);
-        profile.setCurrentVerifiedStreak(trailingStreak);
-        profile.setLongestVerifiedStreak(longestStreak);
-        profile.setReliabilityTier(computeReliabilityTier(verificationRate, penaltyRate));
-        profile.setRecentDelta(recentDelta);
-        return profile;
+        private double rate(int count, int total) {
+            return total == 0 ? 0.0 : (double) count / total;
+        }
+    }
+
+    private static final class DayRollup {
+        private double credits;
+        private int events;
+        private int verified;
+        private int failedVerification;
+        private int penalties;
     }
 
     private String computeReliabilityTier(double verificationRate, double penaltyRate) {
@@ -274,10 +400,16 @@ public class CreditStore {
 
     private void loadFromDisk() {
         events.clear();
+        eventsByAgent.clear();
+        aggregates.clear();
         if (storagePath == null) {
             logWarning("No credit storage path resolved; starting empty.");
             return;
         }
+        if (Files.exists(logPath)) {
+            loadLog();
+            return;
+        }
         Path path = storagePath;
         if (!Files.exists(path)) {
             logWarning("No credit storage found at " + path + "; starting empty.");
@@ -285,29 +417,102 @@ public class CreditStore {
         }
 
         try {
-            List<CreditEvent> stored = JsonStorage.readJsonList(path.toString(), CreditEvent[].class);
+            List<CreditEvent> stored = new ArrayList<>(JsonStorage.readJsonList(path.toString(), CreditEvent[].class));
+            stored.removeIf(event -> event == null || event.getId() == null);
+            stored.sort(Comparator.comparingLong(CreditEvent::getTimestamp));
             for (CreditEvent event : stored) {
-                if (event != null && event.getId() != null) {
-                    events.put(event.getId(), event);
-                }
+                index(event);
             }
             log("Loaded " + stored.size() + " credit event(s) from disk.");
+            migrateToLog(stored);
         } catch (Exception e) {
             logWarning("Failed to load credits from " + path + ": " + e.getMessage());
         }
     }
 
-    private void saveAll() {
-        if (storagePath == null) {
+    private void loadLog() {
+        repairLogTail();
+        int loaded = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    CreditEvent event = mapper.readValue(line, CreditEvent.class);
+                    if (event != null && event.getId() != null) {
+                        index(event);
+                        loaded++;
+                    }
+                } catch (IOException e) {
+                    // Torn trailing write or hand edit; keep the rest of the log
+                    skipped++;
+                }
+            }
+            log("Loaded " + loaded + " credit event(s) from " + logPath
+                + (skipped > 0 ? " (" + skipped + " unreadable line(s) skipped)" : ""));
+        } catch (IOException e) {
+            logWarning("Failed to load credits from " + logPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Terminates a torn last line so the next append starts on a line of its own.
+     */
+    private void repairLogTail() {
+        try (FileChannel channel = FileChannel.open(logPath,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            if (last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), size);
+            }
+        } catch (IOException e) {
+            logWarning("Failed to check credit log tail: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes legacy credits.json events into the log once; the old file is left untouched
+     * and ignored from then on.
+     */
+    private void migrateToLog(List<CreditEvent> stored) {
+        try {
+            Files.createDirectories(logPath.getParent());
+            Path tmp = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (CreditEvent event : stored) {
+                    writer.write(mapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log("Migrated " + stored.size() + " credit event(s) to " + logPath);
+        } catch (IOException e) {
+            logWarning("Failed to migrate credits to " + logPath + ": " + e.getMessage());
+        }
+    }
+
+    private void append(CreditEvent event) {
+        if (logPath == null) {
             logWarning("Skipping credit save: no storage path resolved.");
             return;
         }
         try {
-            Files.createDirectories(storagePath.getParent());
-            List<CreditEvent> data = new ArrayList<>(events.values());
-            JsonStorage.writeJsonList(storagePath.toString(), data);
+            Files.createDirectories(logPath.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                writer.write(mapper.writeValueAsString(event));
+                writer.newLine();
+            }
         } catch (Exception e) {
-            logWarning("Failed to save credits to " + storagePath + ": " + e.getMessage());
+            logWarning("Failed to save credits to " + logPath + ": " + e.getMessage());
         }
     }
 
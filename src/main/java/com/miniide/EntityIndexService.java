@@ -0,0 +1,460 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.models.EntityIndexEntry;
+import com.miniide.models.EntityIndexFile;
+import com.miniide.models.EntityMention;
+import com.miniide.tools.EntityExtractor;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Persistent entity/mention index over the manuscript (Story and Compendium files).
+ * <p>
+ * Each file is extracted once per revision stamp (size + mtime on disk, content hash for
+ * prepared/virtual projects) and stored under {@code .control-room/index/entities.json}.
+ * {@link #refresh()} re-extracts only files whose stamp changed, and an entity -> file
+ * aggregate is kept in memory so cross-file queries never touch raw text.
+ */
+public class EntityIndexService {
+    private static final int MAX_LINES_PER_MENTION = 50;
+    private static final int MAX_TERMS_PER_FILE = 200;
+    private static final int MAX_EVENTS_PER_FILE = 10;
+    private static final int HEAD_CHARS = 200;
+
+    private final Path workspaceRoot;
+    private final Path indexPath;
+    private final WorkspaceService workspaceService;
+    private final PreparedWorkspaceService preparedWorkspaceService;
+    private final ProjectPreparationService preparationService;
+    private final ObjectMapper objectMapper;
+    private final AppLogger logger = AppLogger.get();
+
+    private EntityIndexFile index;
+    private final Map<String, Map<String, EntityMention>> byEntity = new HashMap<>();
+    private long lastRefreshMs;
+    private int lastReindexed;
+
+    public EntityIndexService(Path workspaceRoot, WorkspaceService workspaceService,
+                              PreparedWorkspaceService preparedWorkspaceService,
+                              ProjectPreparationService preparationService, ObjectMapper objectMapper) {
+        this.workspaceRoot = workspaceRoot;
+        this.indexPath = workspaceRoot.resolve(".control-room").resolve("index").resolve("entities.json");
+        this.workspaceService = workspaceService;
+        this.preparedWorkspaceService = preparedWorkspaceService;
+        this.preparationService = preparationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Brings the index up to date with the manuscript and returns the number of files re-extracted.
+     * Unchanged files cost one stat (or one hash for virtual files).
+     */
+    public synchronized int refresh() throws IOException {
+        long started = System.currentTimeMillis();
+        ensureLoaded();
+        List<Source> sources = isVirtual() ? listVirtualSources() : listDiskSources();
+
+        Set<String> seen = new LinkedHashSet<>();
+        int reindexed = 0;
+        boolean dirty = false;
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            seen.add(source.path);
+            EntityIndexEntry existing = index.getFiles().get(source.path);
+            if (existing != null && source.stamp.equals(existing.getStamp())) {
+                if (existing.getOrder() != i) {
+                    existing.setOrder(i);
+                    dirty = true;
+                }
+                continue;
+            }
+            String content;
+            try {
+                content = source.content != null ? source.content : workspaceService.readFile(source.path);
+            } catch (IOException e) {
+                logger.warn("[EntityIndex] Skipping unreadable file " + source.path + ": " + e.getMessage());
+                continue;
+            }
+            EntityIndexEntry entry = buildEntry(source.path, content, source.stamp, i);
+            replace(source.path, entry);
+            reindexed++;
+            dirty = true;
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (String path : index.getFiles().keySet()) {
+            if (!seen.contains(path)) {
+                removed.add(path);
+            }
+        }
+        for (String path : removed) {
+            replace(path, null);
+            dirty = true;
+        }
+
+        if (dirty) {
+            save();
+        }
+        lastReindexed = reindexed;
+        lastRefreshMs = System.currentTimeMillis() - started;
+        if (reindexed > 0 || !removed.isEmpty()) {
+            logger.info("[EntityIndex] Refreshed in " + lastRefreshMs + "ms (reindexed=" + reindexed
+                + ", removed=" + removed.size() + ", files=" + index.getFiles().size() + ")");
+        }
+        return reindexed;
+    }
+
+    /**
+     * Drops a file's entry so the next refresh re-extracts it even if its stamp looks unchanged.
+     */
+    public synchronized void invalidate(String path) {
+        if (index == null || path == null) {
+            return;
+        }
+        EntityIndexEntry entry = index.getFiles().get(normalize(path));
+        if (entry != null) {
+            entry.setStamp("");
+        }
+    }
+
+    public synchronized EntityIndexEntry getEntry(String path) {
+        if (index == null || path == null) {
+            return null;
+        }
+        return index.getFiles().get(normalize(path));
+    }
+
+    /**
+     * Indexed paths in manuscript order.
+     */
+    public synchronized List<String> listPaths() {
+        if (index == null) {
+            return List.of();
+        }
+        return index.getFiles().values().stream()
+            .sorted(Comparator.comparingInt(EntityIndexEntry::getOrder))
+            .map(EntityIndexEntry::getPath)
+            .toList();
+    }
+
+    public synchronized int size() {
+        return index != null ? index.getFiles().size() : 0;
+    }
+
+    public synchronized long getLastRefreshMs() {
+        return lastRefreshMs;
+    }
+
+    public synchronized int getLastReindexed() {
+        return lastReindexed;
+    }
+
+    /**
+     * Aggregated statistics for every entity mentioned in the given entries.
+     * Passing {@code null} uses the whole index via the maintained entity aggregate.
+     */
+    public synchronized Map<String, EntityStats> entityStats(Collection<EntityIndexEntry> scope) {
+        Map<String, EntityStats> stats = new LinkedHashMap<>();
+        if (scope == null) {
+            if (index == null) {
+                return stats;
+            }
+            for (Map.Entry<String, Map<String, EntityMention>> e : byEntity.entrySet()) {
+                EntityStats s = new EntityStats(e.getKey());
+                for (Map.Entry<String, EntityMention> m : e.getValue().entrySet()) {
+                    EntityIndexEntry entry = index.getFiles().get(m.getKey());
+                    if (entry != null) {
+                        s.add(entry, m.getValue());
+                    }
+                }
+                stats.put(e.getKey(), s);
+            }
+            return stats;
+        }
+        for (EntityIndexEntry entry : scope) {
+            if (entry == null) continue;
+            for (Map.Entry<String, EntityMention> m : entry.getEntities().entrySet()) {
+                stats.computeIfAbsent(m.getKey(), EntityStats::new).add(entry, m.getValue());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Entities sharing a file with {@code entity}, counted by number of shared files, highest first.
+     */
+    public synchronized List<Map.Entry<String, Integer>> coOccurrences(String entity, Collection<EntityIndexEntry> scope, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        Collection<EntityIndexEntry> entries = scope;
+        if (entries == null) {
+            entries = new ArrayList<>();
+            Map<String, EntityMention> files = byEntity.get(entity);
+            if (files != null && index != null) {
+                for (String path : files.keySet()) {
+                    EntityIndexEntry entry = index.getFiles().get(path);
+                    if (entry != null) entries.add(entry);
+                }
+            }
+        }
+        for (EntityIndexEntry entry : entries) {
+            if (entry == null || !entry.getEntities().containsKey(entity)) continue;
+            for (String other : entry.getEntities().keySet()) {
+                if (!other.equals(entity)) {
+                    counts.merge(other, 1, Integer::sum);
+                }
+            }
+        }
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(Math.max(0, limit))
+            .toList();
+    }
+
+    /**
+     * Extracts an index entry from raw content. Also used for files outside the indexed folders.
+     */
+    public static EntityIndexEntry buildEntry(String path, String content, String stamp, int order) {
+        String text = content != null ? content : "";
+        EntityIndexEntry entry = new EntityIndexEntry();
+        entry.setPath(path);
+        entry.setStamp(stamp);
+        entry.setOrder(order);
+        entry.setWordCount(EntityExtractor.countWords(text));
+        entry.setCharCount(text.length());
+        entry.setHead(text.length() > HEAD_CHARS ? text.substring(0, HEAD_CHARS) : text);
+        entry.setIndexedAt(Instant.now().toString());
+
+        Map<String, EntityMention> entities = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> e : EntityExtractor.extractEntityLines(text).entrySet()) {
+            List<Integer> lines = e.getValue();
+            List<Integer> kept = lines.size() > MAX_LINES_PER_MENTION
+                ? new ArrayList<>(lines.subList(0, MAX_LINES_PER_MENTION))
+                : new ArrayList<>(lines);
+            entities.put(e.getKey(), new EntityMention(lines.size(), kept));
+        }
+        entry.setEntities(entities);
+
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        EntityExtractor.extractTermFrequencies(text).entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(MAX_TERMS_PER_FILE)
+            .forEach(t -> terms.put(t.getKey(), t.getValue()));
+        entry.setTerms(terms);
+
+        List<String> events = EntityExtractor.extractEventLines(text);
+        entry.setEvents(events.size() > MAX_EVENTS_PER_FILE
+            ? new ArrayList<>(events.subList(0, MAX_EVENTS_PER_FILE))
+            : events);
+        return entry;
+    }
+
+    private void replace(String path, EntityIndexEntry entry) {
+        EntityIndexEntry previous = entry != null
+            ? index.getFiles().put(path, entry)
+            : index.getFiles().remove(path);
+        if (previous != null) {
+            for (String entity : previous.getEntities().keySet()) {
+                Map<String, EntityMention> files = byEntity.get(entity);
+                if (files == null) continue;
+                files.remove(path);
+                if (files.isEmpty()) {
+                    byEntity.remove(entity);
+                }
+            }
+        }
+        if (entry != null) {
+            for (Map.Entry<String, EntityMention> e : entry.getEntities().entrySet()) {
+                byEntity.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(path, e.getValue());
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (index != null) {
+            return;
+        }
+        index = new EntityIndexFile();
+        if (Files.exists(indexPath)) {
+            try {
+                EntityIndexFile stored = objectMapper.readValue(indexPath.toFile(), EntityIndexFile.class);
+                if (stored != null && stored.getVersion() == index.getVersion()) {
+                    index = stored;
+                }
+            } catch (Exception e) {
+                logger.warn("[EntityIndex] Failed to read " + indexPath + ", rebuilding: " + e.getMessage());
+            }
+        }
+        byEntity.clear();
+        for (Map.Entry<String, EntityIndexEntry> e : index.getFiles().entrySet()) {
+            for (Map.Entry<String, EntityMention> m : e.getValue().getEntities().entrySet()) {
+                byEntity.computeIfAbsent(m.getKey(), k -> new HashMap<>()).put(e.getKey(), m.getValue());
+            }
+        }
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(indexPath.getParent());
+            Path tmp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), index);
+            Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("[EntityIndex] Failed to save index: " + e.getMessage());
+        }
+    }
+
+    private boolean isVirtual() {
+        return preparationService != null && preparationService.isVirtualReady() && preparedWorkspaceService != null;
+    }
+
+    private List<Source> listVirtualSources() throws IOException {
+        List<Source> sources = new ArrayList<>();
+        for (PreparedWorkspaceService.VirtualFile file : preparedWorkspaceService.listVirtualFiles()) {
+            String content = file.getContent() != null ? file.getContent() : "";
+            String stamp = "v:" + content.length() + ":" + Integer.toHexString(content.hashCode());
+            sources.add(new Source(normalize(file.getPath()), stamp, content));
+        }
+        return sources;
+    }
+
+    private List<Source> listDiskSources() throws IOException {
+        List<Source> sources = new ArrayList<>();
+        if (!Files.isDirectory(workspaceRoot)) {
+            return sources;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(workspaceRoot)) {
+            for (Path top : stream) {
+                String name = top.getFileName().toString().toLowerCase(Locale.ROOT);
+                if (!Files.isDirectory(top) || !(name.equals("story") || name.equals("compendium"))) {
+                    continue;
+                }
+                try (Stream<Path> walk = Files.walk(top)) {
+                    walk.forEach(file -> {
+                        try {
+                            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                            if (!attrs.isRegularFile()) return;
+                            String stamp = attrs.size() + ":" + attrs.lastModifiedTime().toMillis();
+                            sources.add(new Source(workspaceService.toRelativePath(file), stamp, null));
+                        } catch (IOException ignored) {
+                        }
+                    });
+                }
+            }
+        }
+        // Manuscript order: Story before Compendium, then by path
+        sources.sort(Comparator.<Source, Boolean>comparing(s -> s.path.toLowerCase(Locale.ROOT).startsWith("compendium/"))
+            .thenComparing(s -> s.path, String.CASE_INSENSITIVE_ORDER));
+        return sources;
+    }
+
+    private String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+        return normalized.startsWith("/") ? normalized.substring(1) : normalized;
+    }
+
+    private static final class Source {
+        private final String path;
+        private final String stamp;
+        private final String content;
+
+        private Source(String path, String stamp, String content) {
+            this.path = path;
+            this.stamp = stamp;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Cross-file view of one entity: where it appears, how often, and its first/last appearance
+     * in manuscript order.
+     */
+    public static final class EntityStats {
+        private final String entity;
+        private final Map<String, Integer> countsByPath = new HashMap<>();
+        private final Map<String, Integer> orderByPath = new HashMap<>();
+        private int mentionCount;
+        private int firstOrder = Integer.MAX_VALUE;
+        private String firstPath;
+        private int firstLine;
+        private int lastOrder = Integer.MIN_VALUE;
+        private String lastPath;
+        private int lastLine;
+
+        private EntityStats(String entity) {
+            this.entity = entity;
+        }
+
+        private void add(EntityIndexEntry entry, EntityMention mention) {
+            countsByPath.put(entry.getPath(), mention.getCount());
+            orderByPath.put(entry.getPath(), entry.getOrder());
+            mentionCount += mention.getCount();
+            if (entry.getOrder() < firstOrder) {
+                firstOrder = entry.getOrder();
+                firstPath = entry.getPath();
+                firstLine = mention.firstLine();
+            }
+            if (entry.getOrder() > lastOrder) {
+                lastOrder = entry.getOrder();
+                lastPath = entry.getPath();
+                lastLine = mention.lastLine();
+            }
+        }
+
+        public String getEntity() {
+            return entity;
+        }
+
+        /**
+         * Mention counts keyed by path, in manuscript order.
+         */
+        public Map<String, Integer> getFiles() {
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            orderByPath.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(e -> ordered.put(e.getKey(), countsByPath.get(e.getKey())));
+            return ordered;
+        }
+
+        public int getFileCount() {
+            return countsByPath.size();
+        }
+
+        public int getMentionCount() {
+            return mentionCount;
+        }
+
+        public String getFirstPath() {
+            return firstPath;
+        }
+
+        public int getFirstLine() {
+            return firstLine;
+        }
+
+        public String getLastPath() {
+            return lastPath;
+        }
+
+        public int getLastLine() {
+            return lastLine;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.miniide;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * In-process publish/subscribe channel for state changes the UI mirrors
+ * (notifications, issues, patches, runs, telemetry).
+ * <p>
+ * Every event gets a global, monotonically increasing sequence number and is kept in a
+ * bounded replay buffer, so a reconnecting client can resume from the last sequence it saw.
+ * Publishing never blocks on subscribers: each subscription has a bounded queue that is filled
+ * under the bus lock (so every subscriber sees events in sequence order) and drained by its own
+ * writer task outside it. A subscriber that falls more than its queue capacity behind is sent a
+ * resync and dropped; listeners that throw are dropped.
+ */
+public class EventBus {
+
+    public static final String TOPIC_NOTIFICATIONS = "notifications";
+    public static final String TOPIC_ISSUES = "issues";
+    public static final String TOPIC_PATCHES = "patches";
+    public static final String TOPIC_RUNS = "runs";
+    public static final String TOPIC_TELEMETRY = "telemetry";
+    public static final String TOPIC_PREPARATION = "preparation";
+
+    private static final int DEFAULT_REPLAY_CAPACITY = 1000;
+    private static final int WRITER_FALLBACK_THREADS = 32;
+
+    /**
+     * Receives events on the subscription's writer thread, one at a time and in sequence order.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onEvent(Event event) throws Exception;
+
+        /**
+         * The subscriber can no longer be brought up to date from the event stream and should
+         * refetch full state. {@code dropped} is true when the subscription ends after this call
+         * because it fell too far behind.
+         */
+        default void onResync(long latestSequence, boolean dropped) throws Exception {
+        }
+    }
+
+    private final int replayCapacity;
+    private final int queueCapacity;
+    private final Executor writers;
+    private final Deque<Event> replay = new ArrayDeque<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    public EventBus() {
+        this(DEFAULT_REPLAY_CAPACITY);
+    }
+
+    public EventBus(int replayCapacity) {
+        // A full replay must fit in a fresh subscriber's queue
+        this(replayCapacity, Math.max(1, replayCapacity) * 2,
+            WorkerPools.virtualOrBounded("event-writers", WRITER_FALLBACK_THREADS));
+    }
+
+    EventBus(int replayCapacity, int queueCapacity, Executor writers) {
+        this.replayCapacity = Math.max(1, replayCapacity);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.writers = writers;
+    }
+
+    public void publish(String topic, String type, Object payload) {
+        if (topic == null || topic.isBlank()) {
+            return;
+        }
+        synchronized (this) {
+            Event event = new Event(++sequence, topic, type, System.currentTimeMillis(), payload);
+            replay.addLast(event);
+            while (replay.size() > replayCapacity) {
+                replay.removeFirst();
+            }
+            for (Subscription subscription : subscriptions) {
+                subscription.enqueue(event);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for the given topics (empty or null means all topics).
+     * Buffered events after {@code afterSequence} are queued first, in order, before any live
+     * event. When the buffer no longer reaches back that far, or {@code afterSequence} is ahead of
+     * the bus (the server restarted since the client last saw an event), the listener gets
+     * {@link Listener#onResync} before anything else.
+     */
+    public Subscription subscribe(Collection<String> topics, long afterSequence, Listener listener) {
+        Subscription subscription = new Subscription(topics, listener);
+        synchronized (this) {
+            if (afterSequence >= 0) {
+                Event oldest = replay.peekFirst();
+                boolean ahead = afterSequence > sequence;
+                boolean evicted = oldest != null ? oldest.getSequence() > afterSequence + 1 : afterSequence < sequence;
+                if (ahead || evicted) {
+                    subscription.requestResync();
+                }
+                for (Event event : replay) {
+                    if (event.getSequence() > afterSequence) {
+                        subscription.enqueue(event);
+                    }
+                }
+            }
+            // Registered under the same lock so no event falls between replay and live delivery
+            subscriptions.add(subscription);
+        }
+        return subscription;
+    }
+
+    public synchronized long latestSequence() {
+        return sequence;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final Set<String> topics;
+        private final Listener listener;
+        private final Deque<Event> pending = new ArrayDeque<>();
+        private volatile boolean closed;
+        private boolean resync;
+        private boolean overflowed;
+        private boolean draining;
+
+        private Subscription(Collection<String> topics, Listener listener) {
+            this.topics = topics == null ? Set.of() : Set.copyOf(topics);
+            this.listener = listener;
+        }
+
+        private void requestResync() {
+            synchronized (this) {
+                resync = true;
+            }
+            schedule();
+        }
+
+        private void enqueue(Event event) {
+            if (closed || (!topics.isEmpty() && !topics.contains(event.getTopic()))) {
+                return;
+            }
+            synchronized (this) {
+                if (overflowed) {
+                    return;
+                }
+                if (pending.size() >= queueCapacity) {
+                    pending.clear();
+                    overflowed = true;
+                } else {
+                    pending.addLast(event);
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (draining || closed) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Event next = null;
+                boolean sendResync = false;
+                boolean drop = false;
+                synchronized (this) {
+                    if (closed) {
+                        pending.clear();
+                        draining = false;
+                        return;
+                    }
+                    if (overflowed) {
+                        drop = true;
+                    } else if (resync) {
+                        sendResync = true;
+                        resync = false;
+                    } else {
+                        next = pending.pollFirst();
+                        if (next == null) {
+                            draining = false;
+                            return;
+                        }
+                    }
+                }
+                try {
+                    if (drop) {
+                        listener.onResync(latestSequence(), true);
+                    } else if (sendResync) {
+                        listener.onResync(latestSequence(), false);
+                    } else {
+                        listener.onEvent(next);
+                    }
+                } catch (Exception e) {
+                    drop = true;
+                }
+                if (drop) {
+                    close();
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+
+    public static final class Event {
+        private final long sequence;
+        private final String topic;
+        private final String type;
+        private final long timestamp;
+        private final Object payload;
+
+        private Event(long sequence, String topic, String type, long timestamp, Object payload) {
+            this.sequence = sequence;
+            this.topic = topic;
+            this.type = type;
+            this.timestamp = timestamp;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Object getPayload() {
+            return payload;
+        }
+    }
+}
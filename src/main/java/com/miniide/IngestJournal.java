@@ -0,0 +1,167 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only record of an ingest in progress ({@code .control-room/ingest/progress.jsonl}).
+ * The first line holds the ingest id, project salt and mode; each further line is a finished
+ * file. Stable ids derive from those ids plus the content hash, so a retry that reuses them
+ * recognizes the files listed here. Every upload is still read and hashed (the hash is what
+ * identifies it) and scenes are rebuilt, since scenes.json is only committed at the end; what a
+ * resume saves is the excerpt write (excerpts are content-addressed) and, for canon files, building
+ * and annotating the card, which is reused from {@code ingest/staged-cards}. The journal is deleted
+ * once the ingest completes; one that is still present marks an interrupted ingest.
+ * <p>
+ * {@link #isCompleted} may be called from the ingest pool while the request thread appends.
+ * <p>
+ * The manifests are deliberately not used for this: any ingest manifest on disk already counts
+ * as a prepared project (see {@link WorkspaceService#loadMetadata()}).
+ */
+final class IngestJournal implements AutoCloseable {
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+    private BufferedWriter writer;
+
+    private IngestJournal(Path path, ObjectMapper mapper) {
+        this.path = path;
+        this.mapper = mapper;
+    }
+
+    /**
+     * The header of a journal left behind by an interrupted ingest, or null when there is none.
+     */
+    static Header readHeader(Path path, ObjectMapper mapper) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (var lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            String first = lines.findFirst().orElse(null);
+            if (first == null || first.isBlank()) {
+                return null;
+            }
+            JsonNode node = mapper.readTree(first);
+            if (!node.hasNonNull("ingestId") || !node.hasNonNull("projectSalt")) {
+                return null;
+            }
+            return new Header(node.get("ingestId").asText(), node.get("projectSalt").asText(),
+                node.hasNonNull("mode") ? node.get("mode").asText() : null);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens the journal for {@code header}. Entries from an earlier run with the same ingest id
+     * and salt are kept; anything else is discarded and a new journal is started.
+     */
+    static IngestJournal open(Path path, ObjectMapper mapper, Header header) throws IOException {
+        IngestJournal journal = new IngestJournal(path, mapper);
+        Header previous = readHeader(path, mapper);
+        if (previous != null && previous.ingestId.equals(header.ingestId) && previous.projectSalt.equals(header.projectSalt)) {
+            String content = Files.readString(path, StandardCharsets.UTF_8);
+            for (String line : content.split("\\R")) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = mapper.readTree(line);
+                    if (node.hasNonNull("stableId")) {
+                        journal.completed.add(node.get("stableId").asText());
+                    }
+                } catch (IOException e) {
+                    // A torn last line from a crash; everything before it still counts
+                }
+            }
+            journal.openWriter();
+            if (!content.endsWith("\n")) {
+                // Keep the next entry off the torn line so a later resume can still read it
+                journal.writer.newLine();
+            }
+        } else {
+            Files.deleteIfExists(path);
+            journal.openWriter();
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("ingestId", header.ingestId);
+            line.put("projectSalt", header.projectSalt);
+            line.put("mode", header.mode);
+            journal.append(line);
+        }
+        return journal;
+    }
+
+    int size() {
+        return completed.size();
+    }
+
+    boolean isCompleted(String stableId) {
+        return completed.contains(stableId);
+    }
+
+    /**
+     * Records a finished file. Flushed per line so a crash loses at most the file in progress.
+     */
+    void markCompleted(String stableId, String filename, String excerptHash) throws IOException {
+        if (!completed.add(stableId)) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("stableId", stableId);
+        line.put("file", filename);
+        line.put("hash", excerptHash);
+        append(line);
+    }
+
+    /**
+     * Closes and removes the journal; called after the manifests are written.
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void openWriter() throws IOException {
+        Files.createDirectories(path.getParent());
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void append(Map<String, Object> line) throws IOException {
+        writer.write(mapper.writeValueAsString(line));
+        writer.newLine();
+        writer.flush();
+    }
+
+    static final class Header {
+        final String ingestId;
+        final String projectSalt;
+        final String mode;
+
+        Header(String ingestId, String projectSalt, String mode) {
+            this.ingestId = ingestId;
+            this.projectSalt = projectSalt;
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.models.Issue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compresses every issue that needs level 1-3 summaries through the assistant agent, in the
+ * background.
+ * <p>
+ * Small issues are packed into one request up to the endpoint's {@link IssueCompressionService.BatchLimits};
+ * packs run on a bounded pool, capped lower for local providers where parallel requests only
+ * queue on one GPU (remote providers are additionally paced by the shared provider rate
+ * limiter). Issues a pack fails to cover are retried one by one. Results are saved per pack,
+ * and a checkpoint next to issues.json records what is left, so an interrupted job resumes
+ * where it stopped.
+ */
+public class IssueCompressionJob {
+
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int MAX_CONCURRENCY = 16;
+    private static final int LOCAL_CONCURRENCY = 2;
+    private static final String CHECKPOINT_FILE = "compression-checkpoint.json";
+
+    private final IssueMemoryService issueService;
+    private final IssueCompressionService compressionService;
+    private final ObjectMapper objectMapper;
+    private final AppLogger logger = AppLogger.get();
+    private volatile Run current;
+
+    public IssueCompressionJob(IssueMemoryService issueService, IssueCompressionService compressionService,
+                               ObjectMapper objectMapper) {
+        this.issueService = issueService;
+        this.compressionService = compressionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Starts a job unless one is running. Without {@code force}, issues left pending by an
+     * interrupted job are picked up first.
+     *
+     * @throws IllegalStateException if a job is running or no compression endpoint is configured
+     */
+    public synchronized Map<String, Object> start(String agentId, Integer concurrency, Integer limit, boolean force) {
+        Run running = current;
+        if (running != null && "running".equals(running.state)) {
+            throw new IllegalStateException("Compression job already running: " + running.jobId);
+        }
+        IssueCompressionService.BatchLimits limits = compressionService.batchLimits(agentId);
+
+        Path stateDir = issueService.getStateDirectory();
+        Set<Integer> ids = new LinkedHashSet<>();
+        String resumedFrom = null;
+        JsonNode checkpoint = force ? null : readCheckpoint(stateDir);
+        if (checkpoint != null && !"completed".equals(checkpoint.path("state").asText())) {
+            checkpoint.path("pending").forEach(id -> ids.add(id.asInt()));
+            if (!ids.isEmpty()) {
+                resumedFrom = checkpoint.path("jobId").asText(null);
+            }
+        }
+        for (Issue issue : issueService.listIssuesNeedingCompression(force)) {
+            ids.add(issue.getId());
+        }
+        List<Issue> selected = new ArrayList<>();
+        for (Integer id : ids) {
+            Optional<Issue> issue = issueService.getIssue(id);
+            if (issue.isPresent() && !"open".equalsIgnoreCase(issue.get().getStatus())) {
+                selected.add(issue.get());
+            }
+            if (limit != null && limit > 0 && selected.size() >= limit) {
+                break;
+            }
+        }
+
+        int requested = concurrency != null && concurrency > 0 ? Math.min(concurrency, MAX_CONCURRENCY) : DEFAULT_CONCURRENCY;
+        int parallelism = limits.isLocal() ? Math.min(requested, LOCAL_CONCURRENCY) : requested;
+        List<List<Issue>> packs = pack(selected, limits);
+
+        Run run = new Run(UUID.randomUUID().toString(), agentId, stateDir, limits, parallelism, resumedFrom);
+        selected.forEach(issue -> run.pending.add(issue.getId()));
+        run.total = selected.size();
+        run.packs = packs.size();
+        current = run;
+        writeCheckpoint(run);
+        log("Issue compression job " + run.jobId + " started: " + run.total + " issue(s) in " + packs.size()
+            + " request(s), parallelism " + parallelism + " on " + limits.getProvider()
+            + (resumedFrom != null ? " (resuming " + resumedFrom + ")" : ""));
+
+        if (packs.isEmpty()) {
+            finish(run, "completed");
+            return status();
+        }
+        ExecutorService executor = WorkerPools.bounded("issue-compress", parallelism, 0);
+        run.executor = executor;
+        AtomicInteger remaining = new AtomicInteger(packs.size());
+        for (List<Issue> pack : packs) {
+            executor.submit(() -> {
+                try {
+                    process(run, pack);
+                } catch (Exception e) {
+                    logWarning("Issue compression pack failed: " + e.getMessage());
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        finish(run, run.cancelled ? "cancelled" : "completed");
+                        executor.shutdown();
+                    }
+                }
+            });
+        }
+        return status();
+    }
+
+    public boolean cancel() {
+        Run run = current;
+        if (run == null || !"running".equals(run.state)) {
+            return false;
+        }
+        run.cancelled = true;
+        log("Issue compression job " + run.jobId + " cancelling");
+        return true;
+    }
+
+    /**
+     * Progress and throughput of the current or last job; {@code state: idle} if none ran yet.
+     */
+    public Map<String, Object> status() {
+        Run run = current;
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (run == null) {
+            status.put("state", "idle");
+            return status;
+        }
+        long end = run.finishedAt > 0 ? run.finishedAt : System.currentTimeMillis();
+        long elapsedMs = Math.max(1, end - run.startedAt);
+        int completed = run.completed.get();
+        int requests = run.requests.get();
+        status.put("jobId", run.jobId);
+        status.put("state", run.state);
+        status.put("agentId", run.agentId);
+        status.put("provider", run.limits.getProvider());
+        status.put("parallelism", run.parallelism);
+        status.put("maxIssuesPerRequest", run.limits.getMaxIssuesPerRequest());
+        status.put("total", run.total);
+        status.put("completed", completed);
+        status.put("failed", run.failed.size());
+        status.put("pending", run.pending.size());
+        status.put("packs", run.packs);
+        status.put("requests", requests);
+        status.put("issuesPerRequest", requests > 0 ? Math.round(completed * 100.0 / requests) / 100.0 : 0.0);
+        status.put("issuesPerMinute", Math.round(completed * 60_000.0 / elapsedMs * 10) / 10.0);
+        status.put("promptTokens", run.promptTokens.get());
+        status.put("startedAt", run.startedAt);
+        status.put("elapsedMs", elapsedMs);
+        if (run.resumedFrom != null) {
+            status.put("resumedFrom", run.resumedFrom);
+        }
+        if (!run.failed.isEmpty()) {
+            status.put("failedIssueIds", new ArrayList<>(run.failed.keySet()));
+            status.put("lastError", run.lastError);
+        }
+        return status;
+    }
+
+    /**
+     * Greedy packing in id order: a pack closes when it reaches the issue cap or the next issue
+     * would push it past the token cap. Oversized issues go alone.
+     */
+    private List<List<Issue>> pack(List<Issue> issues, IssueCompressionService.BatchLimits limits) {
+        List<List<Issue>> packs = new ArrayList<>();
+        List<Issue> currentPack = new ArrayList<>();
+        int tokens = 0;
+        for (Issue issue : issues) {
+            int cost = compressionService.estimateIssueTokens(issue);
+            if (!currentPack.isEmpty() && (currentPack.size() >= limits.getMaxIssuesPerRequest()
+                || tokens + cost > limits.getMaxInputTokensPerRequest())) {
+                packs.add(currentPack);
+                currentPack = new ArrayList<>();
+                tokens = 0;
+            }
+            currentPack.add(issue);
+            tokens += cost;
+        }
+        if (!currentPack.isEmpty()) {
+            packs.add(currentPack);
+        }
+        return packs;
+    }
+
+    private void process(Run run, List<Issue> pack) {
+        if (run.cancelled) {
+            return;
+        }
+        if (!run.stateDir.equals(issueService.getStateDirectory())) {
+            // Workspace switched underneath the job; these ids now belong to another project
+            run.cancelled = true;
+            logWarning("Issue compression job " + run.jobId + " cancelled: workspace changed");
+            return;
+        }
+        Map<Integer, IssueCompressionService.CompressionResult> results = new LinkedHashMap<>();
+        try {
+            run.requests.incrementAndGet();
+            pack.forEach(issue -> run.promptTokens.addAndGet(compressionService.estimateIssueTokens(issue)));
+            results.putAll(compressionService.compressIssues(pack, run.agentId));
+        } catch (Exception e) {
+            run.lastError = e.getMessage();
+            if (pack.size() == 1) {
+                run.failed.put(pack.get(0).getId(), Boolean.TRUE);
+            }
+        }
+        if (pack.size() > 1) {
+            for (Issue issue : pack) {
+                if (results.containsKey(issue.getId()) || run.cancelled) {
+                    continue;
+                }
+                try {
+                    run.requests.incrementAndGet();
+                    results.put(issue.getId(), compressionService.compressIssue(issue, run.agentId));
+                } catch (Exception e) {
+                    run.lastError = e.getMessage();
+                    run.failed.put(issue.getId(), Boolean.TRUE);
+                }
+            }
+        }
+        issueService.applyCompressions(results);
+        run.completed.addAndGet(results.size());
+        for (Issue issue : pack) {
+            if (results.containsKey(issue.getId()) || run.failed.containsKey(issue.getId())) {
+                run.pending.remove(issue.getId());
+            }
+        }
+        writeCheckpoint(run);
+    }
+
+    private void finish(Run run, String state) {
+        run.state = state;
+        run.finishedAt = System.currentTimeMillis();
+        writeCheckpoint(run);
+        Map<String, Object> status = status();
+        log("Issue compression job " + run.jobId + " " + state + ": " + status.get("completed") + "/" + run.total
+            + " issue(s), " + status.get("failed") + " failed, " + status.get("requests") + " request(s), "
+            + status.get("issuesPerMinute") + " issues/min");
+    }
+
+    private synchronized void writeCheckpoint(Run run) {
+        try {
+            Files.createDirectories(run.stateDir);
+            Map<String, Object> checkpoint = new LinkedHashMap<>();
+            checkpoint.put("jobId", run.jobId);
+            checkpoint.put("state", run.state);
+            checkpoint.put("agentId", run.agentId);
+            checkpoint.put("startedAt", run.startedAt);
+            checkpoint.put("updatedAt", System.currentTimeMillis());
+            checkpoint.put("completed", run.completed.get());
+            checkpoint.put("pending", new ArrayList<>(run.pending));
+            checkpoint.put("failed", new ArrayList<>(run.failed.keySet()));
+            Path target = run.stateDir.resolve(CHECKPOINT_FILE);
+            Path temp = run.stateDir.resolve(CHECKPOINT_FILE + ".tmp");
+            objectMapper.writeValue(temp.toFile(), checkpoint);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logWarning("Failed to write compression checkpoint: " + e.getMessage());
+        }
+    }
+
+    private JsonNode readCheckpoint(Path stateDir) {
+        Path path = stateDir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(path.toFile());
+        } catch (Exception e) {
+            logWarning("Ignoring unreadable compression checkpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stops workers after their current request; used on shutdown.
+     */
+    public void shutdown() {
+        Run run = current;
+        if (run != null && run.executor != null) {
+            run.cancelled = true;
+            run.executor.shutdown();
+            try {
+                run.executor.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void log(String message) {
+        if (logger != null) {
+            logger.info(message);
+        }
+    }
+
+    private void logWarning(String message) {
+        if (logger != null) {
+            logger.warn(message);
+        }
+    }
+
+    private static final class Run {
+        private final String jobId;
+        private final String agentId;
+        private final Path stateDir;
+        private final IssueCompressionService.BatchLimits limits;
+        private final int parallelism;
+        private final String resumedFrom;
+        private final long startedAt = System.currentTimeMillis();
+        private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, Boolean> failed = new ConcurrentHashMap<>();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private volatile String state = "running";
+        private volatile boolean cancelled;
+        private volatile long finishedAt;
+        private volatile String lastError;
+        private int total;
+        private int packs;
+        private ExecutorService executor;
+
+        private Run(String jobId, String agentId, Path stateDir, IssueCompressionService.BatchLimits limits,
+                    int parallelism, String resumedFrom) {
+            this.jobId = jobId;
+            this.agentId = agentId;
+            this.stateDir = stateDir;
+            this.limits = limits;
+            this.parallelism = parallelism;
+            this.resumedFrom = resumedFrom;
+        }
+    }
+}
@@ -6,14 +6,20 @@ import com.miniide.models.Agent;
 import com.miniide.models.AgentEndpointConfig;
 import com.miniide.models.Comment;
 import com.miniide.models.Issue;
+import com.miniide.prompt.TokenEstimator;
 import com.miniide.providers.ProviderChatService;
 import com.miniide.settings.SettingsService;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class IssueCompressionService {
+    // Rough size of one issue's level1-3 answer, used to keep packed responses under maxOutputTokens
+    private static final int OUTPUT_TOKENS_PER_ISSUE = 350;
+
     private final ProjectContext projectContext;
     private final SettingsService settingsService;
     private final ProviderChatService providerChatService;
@@ -32,26 +38,100 @@ public class IssueCompressionService {
         if (issue == null) {
             throw new IllegalArgumentException("Issue is required");
         }
+        AgentEndpointConfig endpoint = requireEndpoint(agentId);
+        String cleaned = stripThinkingTags(call(endpoint, buildPrompt(issue)));
+        CompressionResult parsed = parseCompression(cleaned);
+        if (parsed == null || parsed.isEmpty()) {
+            throw new IllegalStateException("Compression response did not contain valid JSON");
+        }
+        validateCompression(parsed);
+        return parsed;
+    }
+
+    /**
+     * Compresses several issues in one request. Issues whose entry is missing or fails
+     * validation are left out of the result, so the caller can retry them on their own.
+     */
+    public Map<Integer, CompressionResult> compressIssues(List<Issue> issues, String agentId) {
+        if (issues == null || issues.isEmpty()) {
+            return Map.of();
+        }
+        if (issues.size() == 1) {
+            Issue issue = issues.get(0);
+            return Map.of(issue.getId(), compressIssue(issue, agentId));
+        }
+        AgentEndpointConfig endpoint = requireEndpoint(agentId);
+        String cleaned = stripThinkingTags(call(endpoint, buildBatchPrompt(issues)));
+        String json = extractJson(cleaned);
+        if (json == null) {
+            throw new IllegalStateException("Compression response did not contain valid JSON");
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Compression response did not contain valid JSON", e);
+        }
+        Map<Integer, CompressionResult> results = new LinkedHashMap<>();
+        for (Issue issue : issues) {
+            JsonNode node = root.path(String.valueOf(issue.getId()));
+            if (!node.isObject()) {
+                continue;
+            }
+            CompressionResult parsed = toResult(node);
+            try {
+                validateCompression(parsed);
+                results.put(issue.getId(), parsed);
+            } catch (IllegalStateException e) {
+                logger.warn("Batch compression rejected issue #" + issue.getId() + ": " + e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * How many issues one request to this agent's endpoint can carry. Local models get small
+     * packs (short context, slow prefill); an explicit maxOutputTokens caps the pack so all
+     * answers fit in one response.
+     */
+    public BatchLimits batchLimits(String agentId) {
+        AgentEndpointConfig endpoint = requireEndpoint(agentId);
+        String provider = endpoint.getProvider().trim().toLowerCase(Locale.ROOT);
+        boolean local = isLocalProvider(provider);
+        int maxIssues = local ? 3 : 8;
+        int maxInputTokens = local ? 3000 : 8000;
+        Integer maxOutput = endpoint.getMaxOutputTokens();
+        if (maxOutput != null && maxOutput > 0) {
+            maxIssues = Math.max(1, Math.min(maxIssues, maxOutput / OUTPUT_TOKENS_PER_ISSUE));
+        }
+        return new BatchLimits(provider, local, maxIssues, maxInputTokens);
+    }
+
+    /**
+     * Estimated prompt tokens one issue adds to a batch request.
+     */
+    public int estimateIssueTokens(Issue issue) {
+        StringBuilder builder = new StringBuilder();
+        appendIssue(builder, issue);
+        return TokenEstimator.estimate(builder.toString());
+    }
+
+    private AgentEndpointConfig requireEndpoint(String agentId) {
         AgentEndpointConfig endpoint = resolveEndpoint(agentId);
         if (endpoint == null || isBlank(endpoint.getProvider()) || isBlank(endpoint.getModel())) {
             throw new IllegalStateException("No configured agent endpoint for compression");
         }
+        return endpoint;
+    }
+
+    private String call(AgentEndpointConfig endpoint, String prompt) {
         String provider = endpoint.getProvider().trim().toLowerCase(Locale.ROOT);
         String apiKey = resolveApiKey(provider, endpoint.getApiKeyRef());
-        String prompt = buildPrompt(issue);
-        String response;
         try {
-            response = providerChatService.chat(provider, apiKey, endpoint, prompt);
+            return providerChatService.chat(provider, apiKey, endpoint, prompt);
         } catch (Exception e) {
             throw new IllegalStateException("Compression provider call failed", e);
         }
-        String cleaned = stripThinkingTags(response);
-        CompressionResult parsed = parseCompression(cleaned);
-        if (parsed == null || parsed.isEmpty()) {
-            throw new IllegalStateException("Compression response did not contain valid JSON");
-        }
-        validateCompression(parsed);
-        return parsed;
     }
 
     private AgentEndpointConfig resolveEndpoint(String agentId) {
@@ -115,6 +195,18 @@ public class IssueCompressionService {
         return null;
     }
 
+    private boolean isLocalProvider(String provider) {
+        switch (provider) {
+            case "ollama":
+            case "lmstudio":
+            case "jan":
+            case "koboldcpp":
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private boolean requiresApiKey(String provider) {
         if (provider == null) return false;
         switch (provider.toLowerCase(Locale.ROOT)) {
@@ -141,6 +233,32 @@ public class IssueCompressionService {
         builder.append("- level2\n");
         builder.append("- level3\n\n");
         builder.append("No markdown. No extra keys. No commentary.\n\n");
+        appendRules(builder);
+        builder.append("Issue:\n");
+        appendIssue(builder, issue);
+        return builder.toString();
+    }
+
+    private String buildBatchPrompt(List<Issue> issues) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("You are compressing several independent issue threads into long-term memory representations.\n\n");
+        builder.append("This is a LOSSY compression task.\n");
+        builder.append("Each lower level must REMOVE information, not rephrase it.\n");
+        builder.append("Treat every issue separately; never mix facts between issues.\n\n");
+        builder.append("Return ONLY one valid JSON object keyed by issue ID, for example:\n");
+        builder.append("{\"12\": {\"level1\": \"...\", \"level2\": \"...\", \"level3\": \"...\"}}\n");
+        builder.append("Include every issue ID below exactly once.\n\n");
+        builder.append("No markdown. No extra keys. No commentary.\n\n");
+        appendRules(builder);
+        for (Issue issue : issues) {
+            builder.append("Issue:\n");
+            appendIssue(builder, issue);
+            builder.append("\n");
+        }
+        return builder.toString();
+    }
+
+    private void appendRules(StringBuilder builder) {
         builder.append("Rules by level:\n\n");
         builder.append("LEVEL 1 -- Semantic Trace\n");
         builder.append("- ONE sentence only.\n");
@@ -166,7 +284,9 @@ public class IssueCompressionService {
         builder.append("- Do NOT paraphrase the same sentence across levels.\n");
         builder.append("- Each level must introduce fewer facts than the level above it.\n");
         builder.append("- Prefer specific nouns over generic abstractions.\n\n");
-        builder.append("Issue:\n");
+    }
+
+    private void appendIssue(StringBuilder builder, Issue issue) {
         builder.append("ID: ").append(issue.getId()).append("\n");
         builder.append("Title: ").append(safe(issue.getTitle())).append("\n");
         builder.append("Tags: ");
@@ -188,7 +308,6 @@ public class IssueCompressionService {
                     .append("\n");
             }
         }
-        return builder.toString();
     }
 
     private CompressionResult parseCompression(String response) {
@@ -200,21 +319,21 @@ public class IssueCompressionService {
             return null;
         }
         try {
-            JsonNode node = objectMapper.readTree(json);
-            String level1 = pick(node, "level1", "L1", "semanticTrace");
-            String level2 = pick(node, "level2", "L2", "resolutionSummary");
-            String level3 = pick(node, "level3", "L3", "compressedSummary");
-            CompressionResult result = new CompressionResult();
-            result.level1 = clean(level1);
-            result.level2 = clean(level2);
-            result.level3 = clean(level3);
-            return result;
+            return toResult(objectMapper.readTree(json));
         } catch (Exception e) {
             logger.warn("Failed to parse compression JSON: " + e.getMessage());
             return null;
         }
     }
 
+    private CompressionResult toResult(JsonNode node) {
+        CompressionResult result = new CompressionResult();
+        result.level1 = clean(pick(node, "level1", "L1", "semanticTrace"));
+        result.level2 = clean(pick(node, "level2", "L2", "resolutionSummary"));
+        result.level3 = clean(pick(node, "level3", "L3", "compressedSummary"));
+        return result;
+    }
+
     private void validateCompression(CompressionResult result) {
         if (result == null) {
             throw new IllegalStateException("Compression response missing levels");
@@ -298,4 +417,34 @@ public class IssueCompressionService {
                 && (level3 == null || level3.isBlank());
         }
     }
+
+    public static class BatchLimits {
+        private final String provider;
+        private final boolean local;
+        private final int maxIssuesPerRequest;
+        private final int maxInputTokensPerRequest;
+
+        public BatchLimits(String provider, boolean local, int maxIssuesPerRequest, int maxInputTokensPerRequest) {
+            this.provider = provider;
+            this.local = local;
+            this.maxIssuesPerRequest = maxIssuesPerRequest;
+            this.maxInputTokensPerRequest = maxInputTokensPerRequest;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public boolean isLocal() {
+            return local;
+        }
+
+        public int getMaxIssuesPerRequest() {
+            return maxIssuesPerRequest;
+        }
+
+        public int getMaxInputTokensPerRequest() {
+            return maxInputTokensPerRequest;
+        }
+    }
 }
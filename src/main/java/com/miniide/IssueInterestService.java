@@ -1,5 +1,6 @@
 package com.miniide;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.miniide.models.Agent;
 import com.miniide.models.AgentMemoryProfile;
 import com.miniide.models.Issue;
@@ -12,11 +13,23 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Per-agent interest in issues (levels 1-5), decayed by agent activations and project epochs.
+ * <p>
+ * Activation decay is lazy: activations only bump a counter. Reads report the effective level
+ * computed from a record's stored activation stamp without changing it; the decay is applied
+ * (and demotions recorded) when the record is next changed or by {@link #decayAll()}, which
+ * {@link IssueMemoryDecayScheduler} runs on its schedule. Records are indexed by
+ * agent and by issue, and issue tags are cached per issue (refreshed from issue events), so an
+ * epoch touching one tag only visits the records of issues carrying it.
+ */
 public class IssueInterestService {
     private static final int DEFAULT_INTEREST_LEVEL = 3;
     private static final int EPOCH_BASE_AGE = 50;
@@ -37,10 +50,22 @@ public class IssueInterestService {
         "worldbuilding_locked", 0.5
     );
 
+    private static final Map<String, Map<String, Integer>> ROLE_FLOORS = buildRoleFloors();
+
     private final Map<String, IssueMemoryRecord> records = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, IssueMemoryRecord>> recordsByAgent = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<String, IssueMemoryRecord>> recordsByIssue = new ConcurrentHashMap<>();
     private final Map<String, Integer> agentActivationCounts = new ConcurrentHashMap<>();
+    // Normalized tags per issue and the reverse tag index; only kept while issue events keep them fresh
+    private final Object tagIndexLock = new Object();
+    private final Map<Integer, List<String>> issueTags = new HashMap<>();
+    private final Map<String, Set<Integer>> issuesByTag = new HashMap<>();
+    private final Map<String, AgentProfile> agentProfiles = new ConcurrentHashMap<>();
+    private volatile long agentProfilesRevision = -1L;
     private final AgentRegistry agentRegistry;
     private IssueMemoryService issueMemoryService;
+    private EventBus issueBus;
+    private EventBus.Subscription issueSubscription;
     private TelemetryStore telemetryStore;
     private NotificationStore notificationStore;
     private Path storagePath;
@@ -53,6 +78,54 @@ public class IssueInterestService {
 
     public void setIssueMemoryService(IssueMemoryService issueMemoryService) {
         this.issueMemoryService = issueMemoryService;
+        reindexIssueTags();
+    }
+
+    /**
+     * Subscribes to issue events so cached issue tags follow tag edits; without a bus tags are
+     * resolved from {@link IssueMemoryService} on every use. A subscription the bus drops for
+     * falling behind is replaced and the cache rebuilt; one dropped because the listener failed
+     * leaves tags resolved directly.
+     */
+    public void setEventBus(EventBus eventBus) {
+        synchronized (tagIndexLock) {
+            issueBus = eventBus;
+            subscribeToIssues();
+        }
+        reindexIssueTags();
+    }
+
+    private void subscribeToIssues() {
+        synchronized (tagIndexLock) {
+            if (issueSubscription != null) {
+                issueSubscription.close();
+                issueSubscription = null;
+            }
+            EventBus bus = issueBus;
+            if (bus == null) {
+                return;
+            }
+            issueSubscription = bus.subscribe(List.of(EventBus.TOPIC_ISSUES), -1L, new EventBus.Listener() {
+                @Override
+                public void onEvent(EventBus.Event event) {
+                    onIssueEvent(event);
+                }
+
+                @Override
+                public void onResync(long latestSequence, boolean dropped) {
+                    if (dropped) {
+                        synchronized (tagIndexLock) {
+                            if (issueBus != bus) {
+                                return;
+                            }
+                            // Subscribe again before rebuilding so no edit falls in between
+                            subscribeToIssues();
+                        }
+                    }
+                    reindexIssueTags();
+                }
+            });
+        }
     }
 
     public void setTelemetryStore(TelemetryStore telemetryStore) {
@@ -71,15 +144,18 @@ public class IssueInterestService {
             .resolve("issues")
             .resolve("issue-activations.json");
         records.clear();
+        recordsByAgent.clear();
+        recordsByIssue.clear();
         agentActivationCounts.clear();
         loadFromDisk();
+        reindexIssueTags();
     }
 
     public IssueMemoryRecord getRecord(String agentId, int issueId) {
         if (agentId == null || agentId.isBlank() || issueId <= 0) {
             return null;
         }
-        return records.get(key(agentId, issueId));
+        return effective(records.get(key(agentId, issueId)));
     }
 
     public List<IssueMemoryRecord> listForAgent(String agentId) {
@@ -87,9 +163,9 @@ public class IssueInterestService {
             return Collections.emptyList();
         }
         List<IssueMemoryRecord> results = new ArrayList<>();
-        for (IssueMemoryRecord record : records.values()) {
-            if (record != null && agentId.equalsIgnoreCase(record.getAgentId())) {
-                results.add(record);
+        for (IssueMemoryRecord record : agentRecords(agentId)) {
+            if (record != null) {
+                results.add(effective(record));
             }
         }
         results.sort(Comparator.comparingInt(IssueMemoryRecord::getIssueId));
@@ -122,7 +198,7 @@ public class IssueInterestService {
     }
 
     public IssueMemoryRecord recordApplied(String agentId, int issueId) {
-        IssueMemoryRecord record = getOrCreate(agentId, issueId);
+        IssueMemoryRecord record = settle(getOrCreate(agentId, issueId));
         long now = System.currentTimeMillis();
         record.setAppliedInWork(true);
         record.setWasUseful(true);
@@ -237,11 +313,9 @@ public class IssueInterestService {
             return 0;
         }
         int decayed = 0;
-        for (IssueMemoryRecord record : records.values()) {
-            if (record != null && agentId.equalsIgnoreCase(record.getAgentId())) {
-                if (decayRecord(record, getAgentActivationCount(agentId))) {
-                    decayed++;
-                }
+        for (IssueMemoryRecord record : agentRecords(agentId)) {
+            if (record != null && decayRecord(record, getAgentActivationCount(agentId))) {
+                decayed++;
             }
         }
         if (decayed > 0) {
@@ -263,8 +337,8 @@ public class IssueInterestService {
         if (telemetryStore != null) {
             telemetryStore.recordActivation(agentId, safeCount);
         }
-        saveAll();
-        decayAgent(agentId);
+        // Records catch up with the new count when next changed or decayed (see settle)
+        saveActivationCounts();
         return next;
     }
 
@@ -296,17 +370,19 @@ public class IssueInterestService {
             return 0;
         }
         int demoted = 0;
-        for (IssueMemoryRecord record : records.values()) {
-            if (record == null) {
+        long artificialAge = Math.round(EPOCH_BASE_AGE * multiplier);
+        for (int issueId : issuesWithAnyTag(tags)) {
+            Map<String, IssueMemoryRecord> issueRecords = recordsByIssue.get(issueId);
+            if (issueRecords == null) {
                 continue;
             }
-            if (!issueHasAnyTag(record.getIssueId(), tags)) {
-                continue;
-            }
-            long activationCount = getAgentActivationCount(record.getAgentId());
-            long artificialAge = Math.round(EPOCH_BASE_AGE * multiplier);
-            if (applyEpochDecay(record, activationCount, artificialAge)) {
-                demoted++;
+            for (IssueMemoryRecord record : issueRecords.values()) {
+                long activationCount = getAgentActivationCount(record.getAgentId());
+                // Catch up on plain activation decay first so only the epoch's own demotions count
+                decayRecord(record, activationCount);
+                if (applyEpochDecay(record, activationCount, artificialAge)) {
+                    demoted++;
+                }
             }
         }
         if (demoted > 0) {
@@ -317,13 +393,13 @@ public class IssueInterestService {
 
     public List<IssueMemoryRecord> listLeechCandidates(String agentId) {
         List<IssueMemoryRecord> results = new ArrayList<>();
-        for (IssueMemoryRecord record : records.values()) {
+        Iterable<IssueMemoryRecord> candidates = agentId != null && !agentId.isBlank()
+            ? agentRecords(agentId)
+            : records.values();
+        for (IssueMemoryRecord record : candidates) {
             if (record == null) {
                 continue;
             }
-            if (agentId != null && !agentId.isBlank() && !agentId.equalsIgnoreCase(record.getAgentId())) {
-                continue;
-            }
             if (Boolean.TRUE.equals(record.getLeechReviewPending())) {
                 results.add(record);
             }
@@ -417,13 +493,13 @@ public class IssueInterestService {
         }
         String normalizedType = triggerType.trim().toLowerCase();
         int updated = 0;
-        for (IssueMemoryRecord record : records.values()) {
+        Iterable<IssueMemoryRecord> candidates = agentId != null && !agentId.isBlank()
+            ? agentRecords(agentId)
+            : records.values();
+        for (IssueMemoryRecord record : candidates) {
             if (record == null || !Boolean.TRUE.equals(record.getDeferredAccess())) {
                 continue;
             }
-            if (agentId != null && !agentId.isBlank() && !agentId.equalsIgnoreCase(record.getAgentId())) {
-                continue;
-            }
             if (!matchesTrigger(record, normalizedType, triggerValue.trim())) {
                 continue;
             }
@@ -491,23 +567,84 @@ public class IssueInterestService {
         record.setCreatedAt(now);
         record.setUpdatedAt(now);
         records.put(key, record);
+        index(record);
+        return record;
+    }
+
+    /**
+     * The record as a reader should see it: unchanged when no decay is due, otherwise a copy at
+     * the decayed level. Never mutates the stored record or records telemetry.
+     */
+    private IssueMemoryRecord effective(IssueMemoryRecord record) {
+        if (record == null) {
+            return null;
+        }
+        int level = decayedLevel(record, getAgentActivationCount(record.getAgentId()));
+        if (level == record.getInterestLevel()) {
+            return record;
+        }
+        IssueMemoryRecord view = record.copy();
+        view.setInterestLevel(level);
+        return view;
+    }
+
+    /**
+     * Applies activation decay accrued since the record was last stamped, ahead of a change that
+     * depends on the current level. The settled level is persisted with that write.
+     */
+    private IssueMemoryRecord settle(IssueMemoryRecord record) {
+        if (record != null) {
+            decayRecord(record, getAgentActivationCount(record.getAgentId()));
+        }
         return record;
     }
 
+    private Iterable<IssueMemoryRecord> agentRecords(String agentId) {
+        Map<Integer, IssueMemoryRecord> byIssue = recordsByAgent.get(agentId.toLowerCase());
+        return byIssue != null ? byIssue.values() : Collections.emptyList();
+    }
+
+    private void index(IssueMemoryRecord record) {
+        String agentKey = record.getAgentId().toLowerCase();
+        recordsByAgent.computeIfAbsent(agentKey, k -> new ConcurrentHashMap<>()).put(record.getIssueId(), record);
+        boolean newIssue = !recordsByIssue.containsKey(record.getIssueId());
+        recordsByIssue.computeIfAbsent(record.getIssueId(), k -> new ConcurrentHashMap<>()).put(agentKey, record);
+        if (newIssue && tagCacheEnabled()) {
+            tagsForIssue(record.getIssueId());
+        }
+    }
+
     private boolean decayRecord(IssueMemoryRecord record, long activationCount) {
         if (record == null) {
             return false;
         }
+        int nextLevel = decayedLevel(record, activationCount);
+        if (nextLevel != record.getInterestLevel()) {
+            record.setInterestLevel(nextLevel);
+            touch(record, System.currentTimeMillis());
+            if (telemetryStore != null) {
+                telemetryStore.recordIssueDemotion(record.getAgentId());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Level the record decays to at {@code activationCount}; its current level when nothing is due.
+     */
+    private int decayedLevel(IssueMemoryRecord record, long activationCount) {
+        int current = record.getInterestLevel();
         if (isLeechLocked(record) || isDeferred(record)) {
-            return false;
+            return current;
         }
-        int level = normalizeLevel(record.getInterestLevel());
+        int level = normalizeLevel(current);
         if (level <= 1) {
-            return false;
+            return current;
         }
         int floor = calculateFloor(record.getAgentId(), record.getIssueId());
         if (level <= floor) {
-            return false;
+            return current;
         }
         long lastAccessActivation = record.getLastAccessedAtActivation() != null
             ? record.getLastAccessedAtActivation()
@@ -521,25 +658,14 @@ public class IssueInterestService {
             }
             nextLevel -= 1;
         }
-
-        if (nextLevel != level) {
-            record.setInterestLevel(nextLevel);
-            touch(record, System.currentTimeMillis());
-            if (telemetryStore != null) {
-                telemetryStore.recordIssueDemotion(record.getAgentId());
-            }
-            return true;
-        }
-        return false;
+        return nextLevel != level ? nextLevel : current;
     }
 
     private int capInterest(String agentId, int level) {
         int capped = normalizeLevel(level);
-        Agent agent = agentRegistry != null ? agentRegistry.getAgent(agentId) : null;
-        AgentMemoryProfile profile = agent != null ? agent.getMemoryProfile() : null;
-        if (profile != null && profile.getMaxInterestLevel() != null) {
-            int maxLevel = normalizeLevel(profile.getMaxInterestLevel());
-            return Math.min(capped, maxLevel);
+        Integer maxInterestLevel = agentProfile(agentId).maxInterestLevel;
+        if (maxInterestLevel != null) {
+            return Math.min(capped, normalizeLevel(maxInterestLevel));
         }
         return capped;
     }
@@ -549,15 +675,15 @@ public class IssueInterestService {
     }
 
     private int calculateFloor(String agentId, int issueId) {
-        List<String> tags = normalizePersonalTags(resolveIssueTags(issueId));
+        List<String> tags = tagsForIssue(issueId);
         if (tags.contains("canon") || tags.contains("worldbuilding") || tags.contains("character_core") || tags.contains("character-core")) {
             return 3;
         }
-        String role = resolveAgentRole(agentId);
+        String role = agentProfile(agentId).role;
         if (role == null) {
             return 1;
         }
-        Map<String, Integer> roleFloors = roleFloorMap().get(role);
+        Map<String, Integer> roleFloors = ROLE_FLOORS.get(role);
         if (roleFloors == null) {
             return 1;
         }
@@ -574,7 +700,7 @@ public class IssueInterestService {
         return 1;
     }
 
-    private Map<String, Map<String, Integer>> roleFloorMap() {
+    private static Map<String, Map<String, Integer>> buildRoleFloors() {
         Map<String, Map<String, Integer>> floors = new HashMap<>();
         floors.put("planner", Map.of(
             "plot_point", 3,
@@ -606,7 +732,7 @@ public class IssueInterestService {
             "style_guide", 3,
             "style-guide", 3
         ));
-        return floors;
+        return Collections.unmodifiableMap(floors);
     }
 
     private String normalizeTagKey(String tag) {
@@ -616,15 +742,27 @@ public class IssueInterestService {
         return tag.trim().toLowerCase().replace('-', '_');
     }
 
-    private String resolveAgentRole(String agentId) {
+    /**
+     * Role and interest cap for an agent, cached until the registry's revision changes.
+     */
+    private AgentProfile agentProfile(String agentId) {
         if (agentRegistry == null || agentId == null) {
-            return null;
+            return AgentProfile.NONE;
         }
-        Agent agent = agentRegistry.getAgent(agentId);
-        if (agent == null || agent.getRole() == null) {
-            return null;
+        long revision = agentRegistry.getRevision();
+        if (revision != agentProfilesRevision) {
+            agentProfiles.clear();
+            agentProfilesRevision = revision;
         }
-        return agent.getRole().trim().toLowerCase();
+        return agentProfiles.computeIfAbsent(agentId, id -> {
+            Agent agent = agentRegistry.getAgent(id);
+            if (agent == null) {
+                return AgentProfile.NONE;
+            }
+            String role = agent.getRole() != null ? agent.getRole().trim().toLowerCase() : null;
+            AgentMemoryProfile profile = agent.getMemoryProfile();
+            return new AgentProfile(role, profile != null ? profile.getMaxInterestLevel() : null);
+        });
     }
 
     private List<String> resolveIssueTags(int issueId) {
@@ -648,7 +786,7 @@ public class IssueInterestService {
         if (tags == null || tags.isEmpty()) {
             return false;
         }
-        List<String> issueTags = normalizePersonalTags(resolveIssueTags(issueId));
+        List<String> issueTags = tagsForIssue(issueId);
         for (String tag : tags) {
             if (issueTags.contains(tag)) {
                 return true;
@@ -657,6 +795,98 @@ public class IssueInterestService {
         return false;
     }
 
+    /**
+     * Normalized tags of an issue; cached (and entered into the tag index) while issue events
+     * keep the cache fresh.
+     */
+    private List<String> tagsForIssue(int issueId) {
+        synchronized (tagIndexLock) {
+            if (!tagCacheEnabled()) {
+                return normalizePersonalTags(resolveIssueTags(issueId));
+            }
+            List<String> cached = issueTags.get(issueId);
+            if (cached != null) {
+                return cached;
+            }
+            List<String> tags = Collections.unmodifiableList(normalizePersonalTags(resolveIssueTags(issueId)));
+            issueTags.put(issueId, tags);
+            for (String tag : tags) {
+                issuesByTag.computeIfAbsent(tag, k -> new LinkedHashSet<>()).add(issueId);
+            }
+            return tags;
+        }
+    }
+
+    private Set<Integer> issuesWithAnyTag(List<String> tags) {
+        Set<Integer> issueIds = new LinkedHashSet<>();
+        synchronized (tagIndexLock) {
+            if (tagCacheEnabled()) {
+                for (String tag : tags) {
+                    issueIds.addAll(issuesByTag.getOrDefault(tag, Set.of()));
+                }
+                return issueIds;
+            }
+        }
+        for (int issueId : recordsByIssue.keySet()) {
+            if (issueHasAnyTag(issueId, tags)) {
+                issueIds.add(issueId);
+            }
+        }
+        return issueIds;
+    }
+
+    private boolean tagCacheEnabled() {
+        return issueSubscription != null && !issueSubscription.isClosed() && issueMemoryService != null;
+    }
+
+    private void onIssueEvent(EventBus.Event event) {
+        String type = event.getType();
+        Object payload = event.getPayload();
+        if ("issues.reloaded".equals(type)) {
+            reindexIssueTags();
+        } else if (("issue.created".equals(type) || "issue.updated".equals(type) || "issue.deleted".equals(type))
+            && payload instanceof JsonNode) {
+            // Issue payloads are snapshots; created/updated carry the issue, deleted carries just its id
+            JsonNode id = ((JsonNode) payload).path("id");
+            if (id.canConvertToInt()) {
+                refreshIssueTags(id.asInt());
+            }
+        }
+    }
+
+    private void refreshIssueTags(int issueId) {
+        synchronized (tagIndexLock) {
+            List<String> previous = issueTags.remove(issueId);
+            if (previous != null) {
+                for (String tag : previous) {
+                    Set<Integer> ids = issuesByTag.get(tag);
+                    if (ids != null) {
+                        ids.remove(issueId);
+                        if (ids.isEmpty()) {
+                            issuesByTag.remove(tag);
+                        }
+                    }
+                }
+            }
+            if (recordsByIssue.containsKey(issueId)) {
+                tagsForIssue(issueId);
+            }
+        }
+    }
+
+    private void reindexIssueTags() {
+        synchronized (tagIndexLock) {
+            issueTags.clear();
+            issuesByTag.clear();
+            if (!tagCacheEnabled()) {
+                return;
+            }
+            for (int issueId : recordsByIssue.keySet()) {
+                tagsForIssue(issueId);
+            }
+        }
+    }
+
     private boolean applyEpochDecay(IssueMemoryRecord record, long activationCount, long artificialAge) {
         if (record == null) {
             return false;
@@ -894,6 +1124,7 @@ public class IssueInterestService {
                 }
                 String key = key(record.getAgentId(), record.getIssueId());
                 records.put(key, record);
+                index(record);
             }
         } catch (Exception ignored) {
         }
@@ -925,6 +1156,18 @@ public class IssueInterestService {
         }
     }
 
+    private static final class AgentProfile {
+        private static final AgentProfile NONE = new AgentProfile(null, null);
+
+        private final String role;
+        private final Integer maxInterestLevel;
+
+        private AgentProfile(String role, Integer maxInterestLevel) {
+            this.role = role;
+            this.maxInterestLevel = maxInterestLevel;
+        }
+    }
+
     private void saveActivationCounts() {
         if (activationPath == null) {
             return;
@@ -1,16 +1,20 @@
 package com.miniide;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Background decay runner for issue memory compression.
+ * Background decay runner for issue memory compression. Also applies the activation decay that
+ * {@link IssueInterestService} only computes on read, so demotions are persisted and recorded
+ * on schedule rather than whenever a record happens to change.
  */
 public class IssueMemoryDecayScheduler {
     private final IssueMemoryService issueService;
+    private final Supplier<IssueInterestService> interestService;
     private final ScheduledExecutorService executor;
     private java.util.concurrent.ScheduledFuture<?> future;
     private long intervalMs;
@@ -18,7 +22,13 @@ public class IssueMemoryDecayScheduler {
     private volatile long lastRunAt = 0L;
 
     public IssueMemoryDecayScheduler(IssueMemoryService issueService, long intervalMs) {
+        this(issueService, null, intervalMs);
+    }
+
+    public IssueMemoryDecayScheduler(IssueMemoryService issueService, Supplier<IssueInterestService> interestService,
+                                     long intervalMs) {
         this.issueService = Objects.requireNonNull(issueService, "issueService");
+        this.interestService = interestService;
         this.intervalMs = intervalMs > 0 ? intervalMs : TimeUnit.HOURS.toMillis(24);
         this.executor = Executors.newSingleThreadScheduledExecutor(decayThreadFactory());
     }
@@ -51,7 +61,12 @@ public class IssueMemoryDecayScheduler {
         try {
             IssueMemoryService.DecayResult result = issueService.runDecay(false);
             lastRunAt = System.currentTimeMillis();
-            log("Issue decay run: decayed=" + result.getDecayed());
+            int demoted = 0;
+            IssueInterestService interest = interestService != null ? interestService.get() : null;
+            if (interest != null) {
+                demoted = interest.decayAll();
+            }
+            log("Issue decay run: decayed=" + result.getDecayed() + ", interestDemoted=" + demoted);
         } catch (Exception e) {
             logWarning("Issue decay failed: " + e.getMessage());
         }
@@ -1,5 +1,6 @@
 package com.miniide;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.models.Comment;
 import com.miniide.models.Issue;
 import com.miniide.storage.JsonStorage;
@@ -11,6 +12,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -32,16 +34,31 @@ public class IssueMemoryService {
     private final Map<Integer, Issue> issues = new ConcurrentHashMap<>();
     private final AtomicInteger idCounter = new AtomicInteger(0);
     private Path storagePath;
+    private static final ObjectMapper snapshotMapper = new ObjectMapper();
+    private volatile EventBus eventBus;
+    // Bumped after every content write; grounding blocks are rendered once per version
+    private final AtomicLong version = new AtomicLong();
+    // Shared across instances; bumped on every save or reload, including access bookkeeping
+    private static final AtomicLong MOD_STAMPS = new AtomicLong();
+    private volatile long modStamp = MOD_STAMPS.incrementAndGet();
+    private volatile Grounding grounding;
 
     public IssueMemoryService(Path workspacePath) {
         switchWorkspace(workspacePath);
     }
 
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
     public synchronized void switchWorkspace(Path workspacePath) {
         this.storagePath = workspacePath.resolve(".controlroom").resolve("state").resolve("issues.json");
         issues.clear();
         idCounter.set(0);
         loadFromDisk();
+        version.incrementAndGet();
+        modStamp = MOD_STAMPS.incrementAndGet();
+        publish("issues.reloaded", Map.of("count", issues.size()));
     }
 
     public Issue createIssue(String title, String body, String openedBy, String assignedTo,
@@ -66,7 +83,9 @@ public class IssueMemoryService {
         issues.put(id, issue);
         applyMemoryDefaults(issue);
         log("Issue created: #" + issue.getId() + " – " + issue.getTitle());
+        version.incrementAndGet();
         saveAll();
+        publish("issue.created", issue);
         return issue;
     }
 
@@ -162,11 +181,13 @@ public class IssueMemoryService {
         touchAccess(existing);
         applyMemoryDefaults(existing);
 
+        version.incrementAndGet();
         saveAll();
+        publish("issue.updated", existing);
         return existing;
     }
 
-    public Issue updateIssueCompressionFields(int issueId, String level1, String level2, String level3) {
+    public synchronized Issue updateIssueCompressionFields(int issueId, String level1, String level2, String level3) {
         Issue issue = issues.get(issueId);
         if (issue == null) {
             throw new IllegalArgumentException("Issue not found: #" + issueId);
@@ -181,10 +202,91 @@ public class IssueMemoryService {
             issue.setCompressedSummary(level3);
         }
         issue.setLastCompressedAt(System.currentTimeMillis());
+        version.incrementAndGet();
         saveAll();
+        publish("issue.updated", issue);
         return issue;
     }
 
+    /**
+     * Closed issues whose level 1-3 summaries are missing or older than the issue's last edit or
+     * comment; with {@code force}, every closed issue. Oldest first.
+     */
+    public List<Issue> listIssuesNeedingCompression(boolean force) {
+        List<Issue> results = new ArrayList<>();
+        for (Issue issue : issues.values()) {
+            if (issue == null || "open".equalsIgnoreCase(issue.getStatus())) {
+                continue;
+            }
+            if (force || needsCompression(issue)) {
+                results.add(issue);
+            }
+        }
+        results.sort(Comparator.comparingInt(Issue::getId));
+        return results;
+    }
+
+    /**
+     * Applies level 1-3 summaries to many issues with a single save, for batch compression.
+     * Synchronized because compression packs finish on several threads at once.
+     *
+     * @return the issues that were updated (unknown ids are skipped)
+     */
+    public synchronized List<Issue> applyCompressions(Map<Integer, IssueCompressionService.CompressionResult> results) {
+        List<Issue> updated = new ArrayList<>();
+        if (results == null || results.isEmpty()) {
+            return updated;
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Integer, IssueCompressionService.CompressionResult> entry : results.entrySet()) {
+            Issue issue = issues.get(entry.getKey());
+            IssueCompressionService.CompressionResult result = entry.getValue();
+            if (issue == null || result == null) {
+                continue;
+            }
+            if (result.level1 != null) {
+                issue.setSemanticTrace(result.level1);
+            }
+            if (result.level2 != null) {
+                issue.setResolutionSummary(result.level2);
+            }
+            if (result.level3 != null) {
+                issue.setCompressedSummary(result.level3);
+            }
+            issue.setLastCompressedAt(now);
+            updated.add(issue);
+        }
+        if (!updated.isEmpty()) {
+            version.incrementAndGet();
+            saveAll();
+            List<Integer> ids = new ArrayList<>();
+            updated.forEach(issue -> ids.add(issue.getId()));
+            publish("issues.compressed", Map.of("issueIds", ids));
+        }
+        return updated;
+    }
+
+    Path getStateDirectory() {
+        return storagePath.getParent();
+    }
+
+    private boolean needsCompression(Issue issue) {
+        if (isBlankValue(issue.getSemanticTrace()) || isBlankValue(issue.getResolutionSummary())
+            || isBlankValue(issue.getCompressedSummary()) || issue.getLastCompressedAt() == null) {
+            return true;
+        }
+        long changedAt = issue.getUpdatedAt();
+        List<Comment> comments = issue.getComments();
+        if (comments != null && !comments.isEmpty()) {
+            changedAt = Math.max(changedAt, comments.get(comments.size() - 1).getTimestamp());
+        }
+        return issue.getLastCompressedAt() < changedAt;
+    }
+
+    private boolean isBlankValue(String value) {
+        return value == null || value.isBlank();
+    }
+
     public Comment addComment(int issueId, String author, String body, Comment.CommentAction action,
                               String impactLevel, Comment.CommentEvidence evidence) {
         Issue issue = issues.get(issueId);
@@ -198,7 +300,9 @@ public class IssueMemoryService {
         issue.addComment(comment);
         touchAccess(issue);
         log("Comment added to Issue #" + issueId + " by " + author);
+        version.incrementAndGet();
         saveAll();
+        publish("issue.comment_added", Map.of("issueId", issueId, "comment", comment));
         return comment;
     }
 
@@ -206,11 +310,21 @@ public class IssueMemoryService {
         Issue removed = issues.remove(id);
         if (removed != null) {
             log("Issue deleted: #" + removed.getId() + " – " + removed.getTitle());
+            version.incrementAndGet();
             saveAll();
+            publish("issue.deleted", Map.of("id", id));
         }
         return removed != null;
     }
 
+    private void publish(String type, Object payload) {
+        EventBus bus = eventBus;
+        if (bus != null) {
+            // Copy the payload: the event is replayed and serialized later, on subscriber threads
+            bus.publish(EventBus.TOPIC_ISSUES, type, snapshotMapper.valueToTree(payload));
+        }
+    }
+
     private void loadFromDisk() {
         if (!Files.exists(storagePath)) {
             log("No issue storage found at " + storagePath + "; starting empty.");
@@ -236,7 +350,11 @@ public class IssueMemoryService {
         }
     }
 
-    private void saveAll() {
+    /**
+     * Writes a snapshot of every issue; serialized so concurrent savers never interleave writes.
+     */
+    private synchronized void saveAll() {
+        modStamp = MOD_STAMPS.incrementAndGet();
         try {
             // Ensure parent directories exist
             Path parent = storagePath.getParent();
@@ -315,6 +433,71 @@ public class IssueMemoryService {
         return results;
     }
 
+    /**
+     * Changes whenever an issue is created, edited, commented on, compressed or deleted
+     * (not on plain access).
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Changes whenever the issue list is saved or reloaded, access bookkeeping included; backs the
+     * ETag on the issue list. Stamps never repeat within a process.
+     */
+    public long getModStamp() {
+        return modStamp;
+    }
+
+    /**
+     * Early-grounding blocks (title, R1 trace, R3 summary) for issues at epistemicStatus &gt;=
+     * agreed, most recently updated first. Rendered once per {@link #getVersion()} and shared
+     * until the next write, so prompt assembly does not rescan or re-summarize issues.
+     */
+    public List<GroundingEntry> getGroundingEntries() {
+        long current = version.get();
+        Grounding cached = grounding;
+        if (cached != null && cached.version == current) {
+            return cached.entries;
+        }
+        List<GroundingEntry> entries = new ArrayList<>();
+        for (Issue issue : listIssuesByEpistemicStatus("agreed")) {
+            entries.add(new GroundingEntry(issue.getId(), renderGrounding(issue),
+                safe(issue.getTitle()) + " " + safe(issue.getBody()) + " " + safe(issue.getCompressedSummary())));
+        }
+        // Tagged with the version read before rendering, so a concurrent write forces a rebuild
+        Grounding built = new Grounding(current, List.copyOf(entries));
+        grounding = built;
+        return built.entries;
+    }
+
+    private String renderGrounding(Issue issue) {
+        String title = safe(issue.getTitle());
+        String trace = issue.getSemanticTrace();
+        if (trace == null || trace.isBlank()) {
+            String base = safe(issue.getResolutionSummary());
+            if (base.isBlank()) {
+                base = truncate(safe(issue.getBody()), 200);
+            }
+            if (base.isBlank()) {
+                base = truncate(title, 200);
+            }
+            trace = title.isBlank() ? base : (title + ": " + base).trim();
+        }
+        String summary = issue.getCompressedSummary();
+        if (summary == null || summary.isBlank()) {
+            summary = buildCompressedSummary(issue);
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append("- #").append(issue.getId());
+        if (!title.isBlank()) {
+            builder.append(" ").append(truncate(title, 120));
+        }
+        builder.append("\n  R1: ").append(truncate(trace, 220));
+        builder.append("\n  R3: ").append(truncate(summary, 240));
+        return builder.toString();
+    }
+
     public Issue reviveIssue(int issueId) {
         Issue issue = issues.get(issueId);
         if (issue == null) {
@@ -326,7 +509,9 @@ public class IssueMemoryService {
         issue.setSemanticTrace(buildSemanticTrace(issue));
         issue.setLastCompressedAt(System.currentTimeMillis());
         touchAccess(issue);
+        version.incrementAndGet();
         saveAll();
+        publish("issue.updated", issue);
         return issue;
     }
 
@@ -364,7 +549,9 @@ public class IssueMemoryService {
             }
         }
         if (!dryRun && decayed > 0) {
+            version.incrementAndGet();
             saveAll();
+            publish("issues.decayed", Map.of("issueIds", List.copyOf(updated)));
         }
         DecayResult result = new DecayResult();
         result.decayed = decayed;
@@ -547,4 +734,38 @@ public class IssueMemoryService {
             return updatedIssueIds;
         }
     }
+
+    public static final class GroundingEntry {
+        private final int issueId;
+        private final String block;
+        private final String searchText;
+
+        private GroundingEntry(int issueId, String block, String searchText) {
+            this.issueId = issueId;
+            this.block = block;
+            this.searchText = searchText;
+        }
+
+        public int getIssueId() {
+            return issueId;
+        }
+
+        public String getBlock() {
+            return block;
+        }
+
+        public String getSearchText() {
+            return searchText;
+        }
+    }
+
+    private static final class Grounding {
+        private final long version;
+        private final List<GroundingEntry> entries;
+
+        private Grounding(long version, List<GroundingEntry> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
 }
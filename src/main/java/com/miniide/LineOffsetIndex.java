@@ -0,0 +1,127 @@
+package com.miniide;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+import com.miniide.models.FileLineRange;
+
+/**
+ * Byte offsets of every line start in a UTF-8 file, so a line window can be read without
+ * decoding the rest of the file. Line numbering matches {@code content.split("\n", -1)}:
+ * a file with N newline bytes has N + 1 lines and line text excludes the '\n'.
+ * <p>
+ * An index is only valid for the size and mtime it was built from; callers check
+ * {@link #matches(BasicFileAttributes)} before reuse.
+ */
+public final class LineOffsetIndex {
+    private static final int SCAN_BUFFER_BYTES = 64 * 1024;
+
+    private final long size;
+    private final long modifiedMillis;
+    private final long[] lineStarts;
+    private final int lineCount;
+
+    private LineOffsetIndex(long size, long modifiedMillis, long[] lineStarts, int lineCount) {
+        this.size = size;
+        this.modifiedMillis = modifiedMillis;
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Scans the file once, recording the offset following each '\n'.
+     * UTF-8 never uses 0x0A inside a multi-byte sequence, so byte scanning is safe.
+     */
+    public static LineOffsetIndex build(Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long[] starts = new long[1024];
+        int count = 1;
+        starts[0] = 0L;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+            long position = 0L;
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                buffer.flip();
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        if (count == starts.length) {
+                            starts = Arrays.copyOf(starts, starts.length * 2);
+                        }
+                        starts[count++] = position + i + 1;
+                    }
+                }
+                position += read;
+                buffer.clear();
+            }
+        }
+        return new LineOffsetIndex(attrs.size(), attrs.lastModifiedTime().toMillis(), starts, count);
+    }
+
+    public boolean matches(BasicFileAttributes attrs) {
+        return attrs != null
+            && attrs.size() == size
+            && attrs.lastModifiedTime().toMillis() == modifiedMillis;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Reads lines {@code startLine..endLine} (1-based, inclusive, clamped to the file) as text
+     * joined with '\n'. Returns an empty string when the window starts past the last line.
+     */
+    public String read(Path file, int startLine, int endLine) throws IOException {
+        int start = Math.max(1, startLine);
+        int end = Math.min(lineCount, Math.max(start, endLine));
+        if (start > lineCount) {
+            return "";
+        }
+        long from = lineStarts[start - 1];
+        // Exclude the newline that terminates the last requested line
+        long to = end < lineCount ? lineStarts[end] - 1 : size;
+        int length = (int) Math.max(0L, to - from);
+        if (length == 0) {
+            return "";
+        }
+        // Positional reads into a heap array rather than channel.map(): a mapping stays live
+        // until GC and on Windows blocks later writes, renames and deletes of the file.
+        byte[] bytes = new byte[length];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = from;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) break;
+                position += read;
+            }
+        }
+        return new String(bytes, 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Same windowing rules as {@link #read(Path, int, int)} applied to content already in memory,
+     * for virtual (prepared) workspaces that have no file on disk to index.
+     */
+    public static FileLineRange slice(String path, String content, int startLine, int endLine) {
+        String text = content != null ? content : "";
+        String[] lines = text.split("\n", -1);
+        int start = Math.max(1, startLine);
+        int end = Math.min(lines.length, Math.max(start, endLine));
+        String window = start > lines.length ? "" : String.join("\n", Arrays.copyOfRange(lines, start - 1, end));
+        long size = text.getBytes(StandardCharsets.UTF_8).length;
+        return new FileLineRange(path, start, Math.max(start, end), lines.length, size, window);
+    }
+}
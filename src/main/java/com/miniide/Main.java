@@ -1,9 +1,13 @@
 package com.miniide;
 
+import com.aayushatharva.brotli4j.Brotli4jLoader;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.miniide.controllers.*;
+import com.miniide.metrics.MetricsRegistry;
+import com.miniide.metrics.StartupTimer;
+import com.miniide.metrics.TurnTracer;
 import com.miniide.pipeline.RecipeRegistry;
 import com.miniide.pipeline.RefResolver;
 import com.miniide.pipeline.RunStore;
@@ -13,16 +17,26 @@ import com.miniide.providers.ProviderModelsService;
 import com.miniide.settings.SettingsService;
 import com.miniide.tools.ToolExecutionService;
 import io.javalin.Javalin;
+import io.javalin.http.Context;
 import io.javalin.json.JavalinJackson;
 import io.javalin.http.staticfiles.Location;
+import org.eclipse.jetty.server.Server;
 
 import java.io.FileNotFoundException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Main {
 
     private static final String VERSION = "1.0.0";
+    private static final String REQUEST_START_ATTRIBUTE = "metrics.requestStart";
     private static final ObjectMapper objectMapper = createObjectMapper();
 
     private static ObjectMapper createObjectMapper() {
@@ -52,64 +66,63 @@ public class Main {
             // Print startup banner
             printBanner(config);
 
-            // Initialize project-scoped services
-            ProjectContext projectContext = new ProjectContext(config.getWorkspacePath(), objectMapper);
+            // Independent stores load from disk concurrently; wiring waits for all of them
+            StartupTimer startup = new StartupTimer();
+            CompletableFuture<ProjectContext> projectFuture = startup.async("project",
+                () -> new ProjectContext(config.getWorkspacePath(), objectMapper));
+            CompletableFuture<IssueMemoryService> issueFuture = startup.async("issues",
+                () -> new IssueMemoryService(config.getWorkspacePath()));
+            CompletableFuture<SettingsService> settingsFuture = startup.async("settings",
+                () -> new SettingsService(AppConfig.getSettingsDirectory(), objectMapper));
+            CompletableFuture<ProviderChatService> providerFuture = startup.async("providers",
+                () -> new ProviderChatService(objectMapper));
+            CompletableFuture<Javalin> appFuture = startup.async("http-config", Main::createApp);
+            NotificationStore notificationStore = startup.phase("notifications", NotificationStore::new);
+            ProviderModelsService providerModelsService = new ProviderModelsService(objectMapper);
+
+            ProjectContext projectContext = StartupTimer.join(projectFuture);
             logger.info("Workspace initialized: " + config.getWorkspacePath());
+            IssueMemoryService issueService = StartupTimer.join(issueFuture);
+            SettingsService settingsService = StartupTimer.join(settingsFuture);
+            ProviderChatService providerChatService = StartupTimer.join(providerFuture);
+            Javalin app = StartupTimer.join(appFuture);
 
-            // Initialize notification and issue services
-            NotificationStore notificationStore = new NotificationStore();
-            // Set current project ID for scoped notifications
-            String projectName = projectContext.workspace().getWorkspaceRoot().getFileName().toString();
-            notificationStore.setCurrentProjectId(projectName);
-            IssueMemoryService issueService = new IssueMemoryService(config.getWorkspacePath());
-            if (projectContext.issueInterest() != null) {
-            projectContext.issueInterest().setIssueMemoryService(issueService);
-            projectContext.issueInterest().setNotificationStore(notificationStore);
-            }
+            // Credit events, the memory store and telemetry history are read on first use
             CreditStore creditStore = new CreditStore(config.getWorkspacePath());
             MemoryService memoryService = new MemoryService();
-            logger.info("Notification and Issue services initialized");
-            logger.info("Memory service initialized");
-            decayConfigStore = new DecayConfigStore(objectMapper);
-            patchCleanupConfigStore = new PatchCleanupConfigStore(objectMapper);
+            EventBus eventBus = new EventBus();
+            startup.step("wiring", () -> {
+                // Set current project ID for scoped notifications
+                String projectName = projectContext.workspace().getWorkspaceRoot().getFileName().toString();
+                notificationStore.setCurrentProjectId(projectName);
+                notificationStore.setEventBus(eventBus);
+                issueService.setEventBus(eventBus);
+                projectContext.setEventBus(eventBus);
+                if (projectContext.issueInterest() != null) {
+                    projectContext.issueInterest().setIssueMemoryService(issueService);
+                    projectContext.issueInterest().setNotificationStore(notificationStore);
+                }
+                decayConfigStore = new DecayConfigStore(objectMapper);
+                patchCleanupConfigStore = new PatchCleanupConfigStore(objectMapper);
 
-            // Initialize settings and provider services
-            SettingsService settingsService = new SettingsService(AppConfig.getSettingsDirectory(), objectMapper);
-            ProviderModelsService providerModelsService = new ProviderModelsService(objectMapper);
-            ProviderChatService providerChatService = new ProviderChatService(objectMapper);
-            logger.info("Settings services initialized");
-
-            // Create and configure Javalin
-            Javalin app = Javalin.create(cfg -> {
-                cfg.jsonMapper(new JavalinJackson(objectMapper));
-                cfg.staticFiles.add("/public", Location.CLASSPATH);
-                cfg.http.defaultContentType = "application/json";
-                // Increase max request size for avatar uploads (10MB)
-                cfg.http.maxRequestSize = 10_000_000L;
+                // Pre-load local models for enabled agents now and after each workspace switch
+                providerChatService.getResidencyManager().warmAgents(projectContext.agents(), projectContext.agentEndpoints());
+                projectContext.addLoadListener(ctx ->
+                    providerChatService.getResidencyManager().warmAgents(ctx.agents(), ctx.agentEndpoints()));
+            });
+            logger.info("Notification, Issue and Settings services initialized");
+
+            logger.info("HTTP requests run on " + (WorkerPools.virtualThreadsAvailable() ? "virtual threads" : "a platform thread pool"));
+            registerRequestMetrics(app);
+            // Finished agent turns go to the active project's trace log
+            TurnTracer.setSink(trace -> {
+                TraceStore traces = projectContext.traces();
+                if (traces != null) {
+                    traces.record(trace);
+                }
             });
 
-            // Start memory decay scheduler (runs in background)
-            DecayConfigStore.DecayConfig defaultDecayConfig = buildDefaultDecayConfig();
-            DecayConfigStore.DecayConfig decayConfig = decayConfigStore.loadOrDefault(defaultDecayConfig);
-            MemoryService.DecaySettings decaySettings = decayConfig.toDecaySettings();
-            long intervalMs = decayConfig.toIntervalMs();
-            if (intervalMs <= 0) {
-                intervalMs = defaultDecayConfig.toIntervalMs();
-            }
-            decayScheduler = new MemoryDecayScheduler(memoryService, notificationStore, intervalMs, decaySettings);
-            decayScheduler.start();
-            long issueDecayIntervalMs = getIssueDecayIntervalMinutesFromEnv() * 60_000L;
-            issueDecayScheduler = new IssueMemoryDecayScheduler(issueService, issueDecayIntervalMs);
-            issueDecayScheduler.start();
-
-            PatchCleanupConfigStore.PatchCleanupConfig defaultPatchCleanupConfig = buildDefaultPatchCleanupConfig();
-            PatchCleanupConfigStore.PatchCleanupConfig patchCleanupConfig = patchCleanupConfigStore.loadOrDefault(defaultPatchCleanupConfig);
-            long patchIntervalMs = patchCleanupConfig.toIntervalMs();
-            if (patchIntervalMs <= 0) {
-                patchIntervalMs = defaultPatchCleanupConfig.toIntervalMs();
-            }
-            patchCleanupScheduler = new PatchCleanupScheduler(projectContext, notificationStore, patchIntervalMs, patchCleanupConfig);
-            patchCleanupScheduler.start();
+            startup.step("schedulers", () -> startSchedulers(memoryService, issueService, projectContext, notificationStore));
 
             // Initialize dashboard layout store
             DashboardLayoutStore dashboardLayoutStore = new DashboardLayoutStore(config.getWorkspacePath(), objectMapper);
@@ -120,19 +133,23 @@ public class Main {
             RunStore runStore = new RunStore(config.getWorkspacePath(), objectMapper);
             RefResolver refResolver = new RefResolver(objectMapper);
             StepRunner stepRunner = new StepRunner(toolExecutionService, runStore, refResolver, recipeRegistry, objectMapper);
+            stepRunner.setEventBus(eventBus);
 
             // Create and register controllers
             MemoryController memoryController = new MemoryController(memoryService, projectContext, decayScheduler, decayConfigStore, objectMapper);
             IssueCompressionService issueCompressionService = new IssueCompressionService(projectContext, settingsService, providerChatService, objectMapper);
-            List<Controller> controllers = List.of(
+            IssueCompressionJob issueCompressionJob = new IssueCompressionJob(issueService, issueCompressionService, objectMapper);
+            IssueController issueController = new IssueController(issueService, issueCompressionService, projectContext, creditStore, notificationStore, objectMapper);
+            issueController.setCompressionJob(issueCompressionJob);
+            List<Controller> controllers = startup.phase("controllers", () -> List.of(
                 new FileController(projectContext, objectMapper),
                 new WorkspaceController(projectContext, creditStore, issueService, notificationStore, objectMapper, config.isDevMode()),
                 new PreparationController(projectContext, objectMapper),
                 new AgentController(projectContext, objectMapper),
                 new PromptController(projectContext, objectMapper),
-                new SettingsController(settingsService, providerModelsService, objectMapper),
+                new SettingsController(settingsService, providerModelsService, providerChatService, objectMapper),
                 new NotificationController(notificationStore, objectMapper),
-                new IssueController(issueService, issueCompressionService, projectContext, creditStore, notificationStore, objectMapper),
+                issueController,
                 new IssueMemoryController(projectContext, objectMapper),
                 new CreditController(creditStore, objectMapper),
                 memoryController,
@@ -146,8 +163,11 @@ public class Main {
                 new TtsController(objectMapper),
                 new VersioningController(objectMapper, config.getWorkspacePath(), issueService, projectContext),
                 new AudioController(),
-                new RunController(stepRunner, runStore, objectMapper)
-            );
+                new RunController(stepRunner, runStore, objectMapper),
+                new EventController(eventBus, objectMapper),
+                new MetricsController(),
+                new StaticAssetController()
+            ));
 
             controllers.forEach(c -> c.registerRoutes(app));
             logger.info("Registered " + controllers.size() + " controllers");
@@ -156,7 +176,7 @@ public class Main {
             registerExceptionHandlers(app);
 
             // Start the server
-            app.start(config.getPort());
+            startup.step("http-start", () -> app.start(config.getPort()));
 
             String url = "http://localhost:" + config.getPort() + "/";
             logger.info("Server started on " + url);
@@ -168,9 +188,25 @@ public class Main {
             logger.console("========================================");
             logger.console("  Press Ctrl+C to stop");
             logger.console("========================================");
+            startup.finish(logger);
+
+            // Warm the memory store in the background so the first chat turn does not parse it
+            Thread memoryPreload = new Thread(() -> {
+                long begin = System.nanoTime();
+                memoryService.preload();
+                logger.info("Memory store loaded in " + (System.nanoTime() - begin) / 1_000_000 + " ms");
+            }, "memory-preload");
+            memoryPreload.setDaemon(true);
+            memoryPreload.start();
+
+            if (config.isExitAfterStartup()) {
+                exerciseAndExit(url);
+            }
 
             // Open browser (with small delay to ensure server is ready)
-            BrowserLauncher.openBrowserDelayed(url, 500);
+            if (config.isOpenBrowser()) {
+                BrowserLauncher.openBrowserDelayed(url, 500);
+            }
 
             // Add shutdown hook for clean shutdown
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -178,7 +214,11 @@ public class Main {
                 decayScheduler.stop();
                 issueDecayScheduler.stop();
                 patchCleanupScheduler.stop();
+                issueCompressionJob.shutdown();
                 app.stop();
+                if (projectContext.tiering() != null) {
+                    projectContext.tiering().flush();
+                }
                 logger.close();
             }));
 
@@ -189,6 +229,72 @@ public class Main {
         }
     }
 
+    private static Javalin createApp() {
+        return Javalin.create(cfg -> {
+            cfg.jsonMapper(new JavalinJackson(objectMapper));
+            cfg.staticFiles.add("/public", Location.CLASSPATH);
+            // Compression applies to JSON, scripts and styles alike; media types are skipped
+            if (brotliAvailable()) {
+                cfg.compression.brotliAndGzip();
+            } else {
+                cfg.compression.gzipOnly();
+            }
+            cfg.http.defaultContentType = "application/json";
+            // Increase max request size for avatar uploads (10MB)
+            cfg.http.maxRequestSize = 10_000_000L;
+            // Virtual threads on Java 21+, a bounded platform pool otherwise (see WorkerPools)
+            cfg.jetty.server(() -> new Server(WorkerPools.httpThreadPool()));
+        });
+    }
+
+    private static void startSchedulers(MemoryService memoryService, IssueMemoryService issueService,
+                                        ProjectContext projectContext, NotificationStore notificationStore) {
+        // Start memory decay scheduler (runs in background)
+        DecayConfigStore.DecayConfig defaultDecayConfig = buildDefaultDecayConfig();
+        DecayConfigStore.DecayConfig decayConfig = decayConfigStore.loadOrDefault(defaultDecayConfig);
+        MemoryService.DecaySettings decaySettings = decayConfig.toDecaySettings();
+        long intervalMs = decayConfig.toIntervalMs();
+        if (intervalMs <= 0) {
+            intervalMs = defaultDecayConfig.toIntervalMs();
+        }
+        decayScheduler = new MemoryDecayScheduler(memoryService, notificationStore, intervalMs, decaySettings);
+        decayScheduler.start();
+        long issueDecayIntervalMs = getIssueDecayIntervalMinutesFromEnv() * 60_000L;
+        issueDecayScheduler = new IssueMemoryDecayScheduler(issueService, projectContext::issueInterest, issueDecayIntervalMs);
+        issueDecayScheduler.start();
+
+        PatchCleanupConfigStore.PatchCleanupConfig defaultPatchCleanupConfig = buildDefaultPatchCleanupConfig();
+        PatchCleanupConfigStore.PatchCleanupConfig patchCleanupConfig = patchCleanupConfigStore.loadOrDefault(defaultPatchCleanupConfig);
+        long patchIntervalMs = patchCleanupConfig.toIntervalMs();
+        if (patchIntervalMs <= 0) {
+            patchIntervalMs = defaultPatchCleanupConfig.toIntervalMs();
+        }
+        patchCleanupScheduler = new PatchCleanupScheduler(projectContext, notificationStore, patchIntervalMs, patchCleanupConfig);
+        patchCleanupScheduler.start();
+    }
+
+    /**
+     * AppCDS training run: fetch the shell and the main read endpoints so their classes are
+     * loaded and land in the archive, then exit.
+     */
+    private static void exerciseAndExit(String url) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        for (String path : List.of("", "api/tree", "api/issues", "api/agents", "api/metrics")) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Accept-Encoding", "gzip")
+                    .build();
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                logger.info("Startup check " + (path.isEmpty() ? "/" : "/" + path) + " -> " + response.statusCode());
+            } catch (Exception e) {
+                logger.warn("Startup check /" + path + " failed: " + e.getMessage());
+            }
+        }
+        logger.info("Exiting after startup (--exit-after-startup)");
+        System.exit(0);
+    }
+
     private static void printBanner(AppConfig config) {
         logger.console("");
         logger.console("========================================");
@@ -200,6 +306,54 @@ public class Main {
         }
     }
 
+    /**
+     * Latency per matched route (not raw path, so ids do not explode the label set) plus an
+     * in-flight gauge, exposed through {@code /api/metrics}.
+     */
+    private static void registerRequestMetrics(Javalin app) {
+        MetricsRegistry metrics = MetricsRegistry.get();
+        AtomicInteger inFlight = new AtomicInteger();
+        metrics.gauge("http_server_requests_in_flight", "HTTP requests currently being handled", inFlight::get);
+        app.before(ctx -> {
+            inFlight.incrementAndGet();
+            ctx.attribute(REQUEST_START_ATTRIBUTE, System.nanoTime());
+        });
+        app.after(ctx -> {
+            Long started = ctx.attribute(REQUEST_START_ATTRIBUTE);
+            if (started == null) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            metrics.histogram("http_server_request_seconds", "HTTP request latency by route",
+                    "method", ctx.method().name(), "route", routeLabel(ctx), "status", String.valueOf(ctx.statusCode()))
+                .recordNanos(System.nanoTime() - started);
+        });
+    }
+
+    /**
+     * Brotli needs brotli4j's native library for this platform. The build bundles the Windows
+     * x86_64 and Linux/macOS x86_64 and aarch64 natives; on anything else gzip alone is used.
+     */
+    private static boolean brotliAvailable() {
+        try {
+            return Brotli4jLoader.isAvailable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static String routeLabel(Context ctx) {
+        try {
+            String route = ctx.endpointHandlerPath();
+            if (route != null && !route.isBlank() && !"*".equals(route)) {
+                return route;
+            }
+        } catch (RuntimeException ignored) {
+            // No endpoint matched (static file or 404)
+        }
+        return ctx.path().startsWith("/api/") ? "unmatched" : "static";
+    }
+
     private static void registerExceptionHandlers(Javalin app) {
         app.exception(FileNotFoundException.class, (e, ctx) -> {
             logger.warn("File not found: " + e.getMessage());
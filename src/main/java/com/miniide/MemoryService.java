@@ -11,11 +11,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -28,6 +31,7 @@ public class MemoryService {
     private static final String STORAGE_PATH = "data/memory-store.json";
     private static final int DEFAULT_LEVEL = 3;
     private static final long DEFAULT_LOCK_MILLIS = 90 * 60 * 1000L; // 90 minutes
+    private static final long NEVER_DUE = Long.MAX_VALUE;
     private static final ObjectMapper mapper = new ObjectMapper();
 
     private final Map<String, MemoryItem> items = new ConcurrentHashMap<>();
@@ -41,19 +45,48 @@ public class MemoryService {
     private final AtomicInteger versionIdCounter = new AtomicInteger(0);
     private final AtomicInteger eventIdCounter = new AtomicInteger(0);
 
+    // Decay schedule: lazily invalidated entries, an entry is live while its stamp matches decayStamps
+    private final Object decayLock = new Object();
+    private final PriorityQueue<DecayDue> clockQueue = new PriorityQueue<>();
+    private final Map<String, PriorityQueue<DecayDue>> activationQueues = new HashMap<>();
+    private final Map<String, Long> decayStamps = new HashMap<>();
+    private long decayStampCounter;
+    private DecaySettings scheduleSettings;
+    private List<Object> scheduleFingerprint;
+
+    private final Path storagePath;
+    // The snapshot is parsed on first use, off the startup path
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
     private final AppLogger logger = AppLogger.get();
 
     public MemoryService() {
-        loadFromDisk();
+        this(Paths.get(STORAGE_PATH));
+    }
+
+    /**
+     * @param storagePath snapshot file; null keeps the store in memory only (benchmarks)
+     */
+    MemoryService(Path storagePath) {
+        this.storagePath = storagePath;
+    }
+
+    /**
+     * Loads the snapshot now instead of on first use; safe to call from a background thread.
+     */
+    public void preload() {
+        ensureLoaded();
     }
 
     // ----- Public API used by controllers -----
 
     public boolean memoryExists(String memoryId) {
+        ensureLoaded();
         return items.containsKey(memoryId);
     }
 
     public MemoryItem getMemoryItem(String memoryId) {
+        ensureLoaded();
         if (memoryId == null) {
             return null;
         }
@@ -62,6 +95,7 @@ public class MemoryService {
 
     public MemoryItem createMemoryItem(String agentId, String topicKey, Integer defaultLevel, Integer pinnedMinLevel,
                                        List<String> tags) {
+        ensureLoaded();
         String id = "mem-" + memoryIdCounter.incrementAndGet();
         long now = System.currentTimeMillis();
 
@@ -79,11 +113,13 @@ public class MemoryService {
         item.setTags(tags != null ? new ArrayList<>(tags) : new ArrayList<>());
 
         items.put(id, item);
+        scheduleDecay(item);
         saveSnapshot();
         return item;
     }
 
     public MemoryVersion addVersion(String memoryId, int repLevel, String content, String derivationKind, String derivedFromVersionId) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         if (item == null) {
             throw new IllegalArgumentException("Memory item not found: " + memoryId);
@@ -105,6 +141,7 @@ public class MemoryService {
     }
 
     public R5Event addEvent(String memoryId, String author, String agent, String text, Map<String, Object> meta) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         if (item == null) {
             throw new IllegalArgumentException("Memory item not found: " + memoryId);
@@ -127,6 +164,7 @@ public class MemoryService {
     }
 
     public int recordAgentActivation(String agentId) {
+        ensureLoaded();
         if (agentId == null || agentId.isBlank()) {
             return 0;
         }
@@ -136,6 +174,7 @@ public class MemoryService {
     }
 
     public int getAgentActivationCount(String agentId) {
+        ensureLoaded();
         if (agentId == null || agentId.isBlank()) {
             return 0;
         }
@@ -143,6 +182,7 @@ public class MemoryService {
     }
 
     public MemoryResult getMemoryAtAutoLevel(String memoryId) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         if (item == null) {
             return null;
@@ -156,6 +196,7 @@ public class MemoryService {
     }
 
     public MemoryResult getMemoryAtNextLevel(String memoryId) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         if (item == null) {
             return null;
@@ -183,7 +224,32 @@ public class MemoryService {
         return new MemoryResult(item, chosen, escalated);
     }
 
+    /**
+     * The agent's active memory items at their auto level, without counting as an access.
+     * Used to rank grounding candidates; only items actually handed to the agent should be touched.
+     */
+    public List<MemoryResult> peekActiveMemory(String agentId) {
+        ensureLoaded();
+        List<MemoryResult> results = new ArrayList<>();
+        if (agentId == null || agentId.isBlank()) {
+            return results;
+        }
+        for (MemoryItem item : items.values()) {
+            if (!agentId.equals(item.getAgentId())
+                || (item.getState() != null && !"active".equalsIgnoreCase(item.getState()))) {
+                continue;
+            }
+            MemoryVersion version = selectAutoVersion(item);
+            if (version != null && version.getContent() != null && !version.getContent().isBlank()) {
+                results.add(new MemoryResult(item, version, false));
+            }
+        }
+        results.sort(Comparator.comparing(result -> result.getItem().getId()));
+        return results;
+    }
+
     public List<MemoryVersion> getVersions(String memoryId) {
+        ensureLoaded();
         List<MemoryVersion> versions = new ArrayList<>(versionsByItem.getOrDefault(memoryId, List.of()));
         versions.sort(Comparator
             .comparingInt(MemoryVersion::getRepLevel)
@@ -192,6 +258,7 @@ public class MemoryService {
     }
 
     public R5Event getEvidence(String memoryId, String witness) {
+        ensureLoaded();
         if (witness == null || witness.isBlank()) {
             return null;
         }
@@ -215,6 +282,7 @@ public class MemoryService {
     }
 
     public boolean setActiveVersion(String memoryId, String versionId, long lockMillis, String reason) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         MemoryVersion version = versionsById.get(versionId);
 
@@ -234,6 +302,7 @@ public class MemoryService {
     }
 
     public boolean setPinnedMinLevel(String memoryId, Integer level) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         if (item == null) {
             return false;
@@ -245,6 +314,7 @@ public class MemoryService {
     }
 
     public boolean setState(String memoryId, String state) {
+        ensureLoaded();
         MemoryItem item = items.get(memoryId);
         if (item == null) {
             return false;
@@ -259,124 +329,323 @@ public class MemoryService {
         return runDecay(settings, false);
     }
 
+    /**
+     * Applies activation demotion, archiving and expiry.
+     * <p>
+     * Dry runs and runs that collect a report sweep every item so filtered/locked ids are listed.
+     * Otherwise only items whose next decay point has passed are visited: each item's wall-clock
+     * due time (archive/expire, pushed back by an active lock) and its activation due count
+     * (agent activations at which the current level's threshold is reached) sit in priority
+     * queues that are re-keyed whenever the item is touched. In that mode the locked/filtered
+     * counters only cover items that were visited.
+     */
     public DecayResult runDecay(DecaySettings settings, boolean dryRun) {
+        ensureLoaded();
         long now = System.currentTimeMillis();
         DecayResult result = new DecayResult();
-
-        long archiveAfterMs = settings.getArchiveAfterMs();
-        long expireAfterMs = settings.getExpireAfterMs();
-        boolean pruneExpiredR5 = settings.isPruneExpiredR5();
         boolean collectReport = dryRun || settings.isCollectReport();
-        List<String> excludeTopicKeys = settings.getExcludeTopicKeys();
-        List<String> excludeAgentIds = settings.getExcludeAgentIds();
-        Map<Integer, Integer> decayThresholds = settings.getDecayThresholds();
-        Map<String, Double> relevanceWeights = settings.getRelevanceWeights();
-        Map<String, Double> epochMultipliers = settings.getEpochMultipliers();
-        double defaultRelevanceWeight = settings.getDefaultRelevanceWeight();
-        double globalEpochMultiplier = settings.getGlobalEpochMultiplier();
 
-        for (MemoryItem item : items.values()) {
-            if (isExcluded(item, excludeTopicKeys, excludeAgentIds)) {
-                result.filteredItems++;
-                if (collectReport) {
-                    result.filteredIds.add(item.getId());
+        if (collectReport) {
+            if (!dryRun) {
+                synchronized (decayLock) {
+                    ensureDecaySchedule(settings);
                 }
-                continue;
             }
-
-            if (settings.isUseActivationDecay()) {
-                int currentLevel = normalizeLevel(item.getDefaultLevel());
-                int floorLevel = item.getPinnedMinLevel() != null
-                    ? Math.max(1, item.getPinnedMinLevel())
-                    : 1;
-                if (currentLevel < floorLevel) {
-                    currentLevel = floorLevel;
+            boolean changed = false;
+            for (MemoryItem item : items.values()) {
+                if (evaluateDecay(item, settings, result, dryRun, collectReport, now)) {
+                    scheduleDecay(item);
+                    changed = true;
                 }
+            }
+            if (changed) {
+                saveSnapshot();
+            }
+            return result;
+        }
 
-                int activationCount = getAgentActivationCount(item.getAgentId());
-                long lastAccessActivation = item.getLastAccessedActivation() != null
-                    ? item.getLastAccessedActivation()
-                    : 0L;
-                long activationsSince = Math.max(0L, activationCount - lastAccessActivation);
-                int accessCount = item.getTotalAccessCount() != null ? item.getTotalAccessCount() : 0;
-
-                double relevanceWeight = resolveRelevanceWeight(item, relevanceWeights, defaultRelevanceWeight);
-                double epochMultiplier = resolveEpochMultiplier(item, epochMultipliers, globalEpochMultiplier);
-
-                double decayScore = (activationsSince * relevanceWeight * epochMultiplier)
-                    / (accessCount + 1.0);
-
-                int nextLevel = currentLevel;
-                while (nextLevel > floorLevel) {
-                    int threshold = decayThresholds.getOrDefault(nextLevel, defaultDecayThreshold(nextLevel));
-                    if (decayScore < threshold) {
-                        break;
-                    }
-                    nextLevel -= 1;
-                }
+        List<MemoryItem> due;
+        synchronized (decayLock) {
+            ensureDecaySchedule(settings);
+            due = drainDue(now);
+        }
+        boolean changed = false;
+        for (MemoryItem item : due) {
+            changed |= evaluateDecay(item, settings, result, false, false, now);
+            synchronized (decayLock) {
+                // Anything still due after evaluation waits for the next tick or activation
+                scheduleLocked(item, settings, now + 1, getAgentActivationCount(item.getAgentId()) + 1L);
+            }
+        }
+        if (changed) {
+            saveSnapshot();
+        }
+        return result;
+    }
 
-                if (nextLevel != currentLevel) {
-                    if (!dryRun) {
-                        item.setDefaultLevel(nextLevel);
-                        touch(item, now, false);
-                    }
-                    result.demotedIds.add(item.getId());
-                    if (collectReport) {
-                        result.items.add(new DecayItemReport(item.getId(), "demoted", currentLevel, nextLevel));
-                    }
-                }
+    private boolean evaluateDecay(MemoryItem item, DecaySettings settings, DecayResult result,
+                                  boolean dryRun, boolean collectReport, long now) {
+        boolean changed = false;
+        if (isExcluded(item, settings.getExcludeTopicKeys(), settings.getExcludeAgentIds())) {
+            result.filteredItems++;
+            if (collectReport) {
+                result.filteredIds.add(item.getId());
+            }
+            return false;
+        }
+
+        if (settings.isUseActivationDecay()) {
+            int currentLevel = normalizeLevel(item.getDefaultLevel());
+            int floorLevel = floorLevel(item);
+            if (currentLevel < floorLevel) {
+                currentLevel = floorLevel;
             }
 
-            long lastAccess = item.getLastAccessedAt() != null
-                ? item.getLastAccessedAt()
-                : (item.getCreatedAt() != null ? item.getCreatedAt() : now);
+            int activationCount = getAgentActivationCount(item.getAgentId());
+            long lastAccessActivation = item.getLastAccessedActivation() != null
+                ? item.getLastAccessedActivation()
+                : 0L;
+            long activationsSince = Math.max(0L, activationCount - lastAccessActivation);
 
-            if (item.getActiveLockUntil() != null && item.getActiveLockUntil() > now) {
-                result.lockedItems++;
-                if (collectReport) {
-                    result.lockedIds.add(item.getId());
+            double decayScore = decayScore(item, settings, activationsSince);
+
+            int nextLevel = currentLevel;
+            while (nextLevel > floorLevel) {
+                int threshold = decayThreshold(settings, nextLevel);
+                if (decayScore < threshold) {
+                    break;
                 }
-                continue;
+                nextLevel -= 1;
             }
 
-            if ("active".equalsIgnoreCase(item.getState())
-                && archiveAfterMs > 0
-                && now - lastAccess >= archiveAfterMs) {
+            if (nextLevel != currentLevel) {
                 if (!dryRun) {
-                    item.setState("archived");
-                    touch(item, now, false);
+                    item.setDefaultLevel(nextLevel);
+                    markAccessed(item, now, false);
+                    changed = true;
                 }
-                result.archivedIds.add(item.getId());
+                result.demotedIds.add(item.getId());
                 if (collectReport) {
-                    result.items.add(new DecayItemReport(item.getId(), "archived"));
+                    result.items.add(new DecayItemReport(item.getId(), "demoted", currentLevel, nextLevel));
                 }
             }
+        }
 
-            if ("archived".equalsIgnoreCase(item.getState())
-                && expireAfterMs > 0
-                && now - lastAccess >= expireAfterMs) {
-                if (!dryRun) {
-                    item.setState("expired");
-                    touch(item, now, false);
-                }
-                result.expiredIds.add(item.getId());
-                if (collectReport) {
-                    result.items.add(new DecayItemReport(item.getId(), "expired"));
-                }
+        long lastAccess = item.getLastAccessedAt() != null
+            ? item.getLastAccessedAt()
+            : (item.getCreatedAt() != null ? item.getCreatedAt() : now);
 
-                if (!dryRun && pruneExpiredR5 && item.getPinnedMinLevel() == null) {
-                    int pruned = pruneR5(item.getId());
-                    result.prunedEvents += pruned;
-                } else if (dryRun && pruneExpiredR5 && item.getPinnedMinLevel() == null) {
-                    result.prunableIds.add(item.getId());
-                }
+        if (item.getActiveLockUntil() != null && item.getActiveLockUntil() > now) {
+            result.lockedItems++;
+            if (collectReport) {
+                result.lockedIds.add(item.getId());
             }
+            return changed;
         }
 
-        if (!dryRun) {
-            saveSnapshot();
+        long archiveAfterMs = settings.getArchiveAfterMs();
+        long expireAfterMs = settings.getExpireAfterMs();
+        boolean pruneExpiredR5 = settings.isPruneExpiredR5();
+
+        if ("active".equalsIgnoreCase(item.getState())
+            && archiveAfterMs > 0
+            && now - lastAccess >= archiveAfterMs) {
+            if (!dryRun) {
+                item.setState("archived");
+                markAccessed(item, now, false);
+                changed = true;
+            }
+            result.archivedIds.add(item.getId());
+            if (collectReport) {
+                result.items.add(new DecayItemReport(item.getId(), "archived"));
+            }
         }
-        return result;
+
+        if ("archived".equalsIgnoreCase(item.getState())
+            && expireAfterMs > 0
+            && now - lastAccess >= expireAfterMs) {
+            if (!dryRun) {
+                item.setState("expired");
+                markAccessed(item, now, false);
+                changed = true;
+            }
+            result.expiredIds.add(item.getId());
+            if (collectReport) {
+                result.items.add(new DecayItemReport(item.getId(), "expired"));
+            }
+
+            if (!dryRun && pruneExpiredR5 && item.getPinnedMinLevel() == null) {
+                int pruned = pruneR5(item.getId());
+                result.prunedEvents += pruned;
+            } else if (dryRun && pruneExpiredR5 && item.getPinnedMinLevel() == null) {
+                result.prunableIds.add(item.getId());
+            }
+        }
+        return changed;
+    }
+
+    // ----- Decay scheduling -----
+
+    /**
+     * Re-keys an item in the decay queues after it changed. No-op until the first decay run
+     * has established which settings the schedule follows.
+     */
+    private void scheduleDecay(MemoryItem item) {
+        synchronized (decayLock) {
+            if (scheduleSettings == null) {
+                return;
+            }
+            scheduleLocked(item, scheduleSettings, Long.MIN_VALUE, Long.MIN_VALUE);
+            // Every touch leaves the previous entries behind; compact once they dominate
+            if (queuedEntries() > 2 * items.size() + 1024) {
+                rebuildSchedule(scheduleSettings);
+            }
+        }
+    }
+
+    private void ensureDecaySchedule(DecaySettings settings) {
+        List<Object> fingerprint = decayFingerprint(settings);
+        if (!fingerprint.equals(scheduleFingerprint)) {
+            rebuildSchedule(settings);
+            scheduleFingerprint = fingerprint;
+        }
+        scheduleSettings = settings;
+    }
+
+    private void rebuildSchedule(DecaySettings settings) {
+        clockQueue.clear();
+        activationQueues.clear();
+        decayStamps.clear();
+        for (MemoryItem item : items.values()) {
+            scheduleLocked(item, settings, Long.MIN_VALUE, Long.MIN_VALUE);
+        }
+    }
+
+    private void scheduleLocked(MemoryItem item, DecaySettings settings, long minClockDue, long minActivationDue) {
+        long stamp = ++decayStampCounter;
+        decayStamps.put(item.getId(), stamp);
+        if (isExcluded(item, settings.getExcludeTopicKeys(), settings.getExcludeAgentIds())) {
+            return;
+        }
+        long clockDue = nextClockDue(item, settings);
+        if (clockDue != NEVER_DUE) {
+            clockQueue.add(new DecayDue(Math.max(clockDue, minClockDue), item.getId(), stamp));
+        }
+        if (settings.isUseActivationDecay()) {
+            long activationDue = nextActivationDue(item, settings);
+            if (activationDue != NEVER_DUE) {
+                activationQueues
+                    .computeIfAbsent(activationKey(item.getAgentId()), k -> new PriorityQueue<>())
+                    .add(new DecayDue(Math.max(activationDue, minActivationDue), item.getId(), stamp));
+            }
+        }
+    }
+
+    private List<MemoryItem> drainDue(long now) {
+        Map<String, MemoryItem> due = new LinkedHashMap<>();
+        while (!clockQueue.isEmpty() && clockQueue.peek().due <= now) {
+            collectDue(clockQueue.poll(), due);
+        }
+        for (Map.Entry<String, PriorityQueue<DecayDue>> entry : activationQueues.entrySet()) {
+            PriorityQueue<DecayDue> queue = entry.getValue();
+            int activations = getAgentActivationCount(entry.getKey());
+            while (!queue.isEmpty() && queue.peek().due <= activations) {
+                collectDue(queue.poll(), due);
+            }
+        }
+        return new ArrayList<>(due.values());
+    }
+
+    private void collectDue(DecayDue entry, Map<String, MemoryItem> due) {
+        if (!isCurrent(entry)) {
+            return;
+        }
+        MemoryItem item = items.get(entry.itemId);
+        if (item != null) {
+            due.putIfAbsent(entry.itemId, item);
+        }
+    }
+
+    private boolean isCurrent(DecayDue entry) {
+        Long stamp = decayStamps.get(entry.itemId);
+        return stamp != null && stamp == entry.stamp;
+    }
+
+    private int queuedEntries() {
+        int total = clockQueue.size();
+        for (PriorityQueue<DecayDue> queue : activationQueues.values()) {
+            total += queue.size();
+        }
+        return total;
+    }
+
+    /**
+     * Wall-clock time at which the item can next be archived or expired, or {@link #NEVER_DUE}.
+     */
+    private long nextClockDue(MemoryItem item, DecaySettings settings) {
+        Long lastAccess = item.getLastAccessedAt() != null ? item.getLastAccessedAt() : item.getCreatedAt();
+        if (lastAccess == null) {
+            return NEVER_DUE;
+        }
+        long due;
+        if ("active".equalsIgnoreCase(item.getState()) && settings.getArchiveAfterMs() > 0) {
+            due = lastAccess + settings.getArchiveAfterMs();
+        } else if ("archived".equalsIgnoreCase(item.getState()) && settings.getExpireAfterMs() > 0) {
+            due = lastAccess + settings.getExpireAfterMs();
+        } else {
+            return NEVER_DUE;
+        }
+        if (item.getActiveLockUntil() != null && item.getActiveLockUntil() > due) {
+            due = item.getActiveLockUntil();
+        }
+        return due;
+    }
+
+    /**
+     * Agent activation count at which the item's decay score reaches the threshold of its
+     * current level, or {@link #NEVER_DUE}. Rounded a step early so floating-point error never
+     * delays a demotion; evaluation makes the actual decision.
+     */
+    private long nextActivationDue(MemoryItem item, DecaySettings settings) {
+        int currentLevel = Math.max(normalizeLevel(item.getDefaultLevel()), floorLevel(item));
+        if (currentLevel <= floorLevel(item)) {
+            return NEVER_DUE;
+        }
+        long lastAccessActivation = item.getLastAccessedActivation() != null
+            ? item.getLastAccessedActivation()
+            : 0L;
+        int threshold = decayThreshold(settings, currentLevel);
+        if (threshold <= 0) {
+            return 0L;
+        }
+        double rate = decayScore(item, settings, 1.0);
+        if (rate <= 0) {
+            return NEVER_DUE;
+        }
+        double needed = threshold / rate;
+        if (needed >= Long.MAX_VALUE / 4.0) {
+            return NEVER_DUE;
+        }
+        return lastAccessActivation + Math.max(0L, (long) Math.floor(needed) - 1);
+    }
+
+    private List<Object> decayFingerprint(DecaySettings settings) {
+        return Arrays.asList(
+            settings.getArchiveAfterMs(),
+            settings.getExpireAfterMs(),
+            settings.isUseActivationDecay(),
+            new ArrayList<>(settings.getExcludeTopicKeys()),
+            new ArrayList<>(settings.getExcludeAgentIds()),
+            new HashMap<>(settings.getDecayThresholds()),
+            new HashMap<>(settings.getRelevanceWeights()),
+            new HashMap<>(settings.getEpochMultipliers()),
+            settings.getDefaultRelevanceWeight(),
+            settings.getGlobalEpochMultiplier()
+        );
+    }
+
+    private static String activationKey(String agentId) {
+        return agentId != null ? agentId : "";
     }
 
     private boolean isExcluded(MemoryItem item, Collection<String> topicKeys, Collection<String> agentIds) {
@@ -457,6 +726,11 @@ public class MemoryService {
     }
 
     private void touch(MemoryItem item, long timestamp, boolean countAccess) {
+        markAccessed(item, timestamp, countAccess);
+        scheduleDecay(item);
+    }
+
+    private void markAccessed(MemoryItem item, long timestamp, boolean countAccess) {
         item.setUpdatedAt(timestamp);
         item.setLastAccessedAt(timestamp);
         if (countAccess) {
@@ -466,9 +740,21 @@ public class MemoryService {
         }
     }
 
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (!loaded) {
+                loadFromDisk();
+                loaded = true;
+            }
+        }
+    }
+
     private void loadFromDisk() {
-        Path path = Paths.get(STORAGE_PATH);
-        if (!Files.exists(path)) {
+        Path path = storagePath;
+        if (path == null || !Files.exists(path)) {
             return;
         }
 
@@ -512,6 +798,9 @@ public class MemoryService {
     }
 
     private void saveSnapshot() {
+        if (storagePath == null) {
+            return;
+        }
         MemoryStoreSnapshot snapshot = new MemoryStoreSnapshot();
         snapshot.items = new ArrayList<>(items.values());
         snapshot.agentActivationCounts = new HashMap<>(agentActivationCounts);
@@ -525,7 +814,7 @@ public class MemoryService {
         snapshot.events = events;
 
         try {
-            Path filePath = Paths.get(STORAGE_PATH);
+            Path filePath = storagePath;
             Path parent = filePath.getParent();
             if (parent != null) {
                 Files.createDirectories(parent);
@@ -556,6 +845,23 @@ public class MemoryService {
         return Math.max(1, Math.min(5, level));
     }
 
+    private int floorLevel(MemoryItem item) {
+        return item.getPinnedMinLevel() != null ? Math.max(1, item.getPinnedMinLevel()) : 1;
+    }
+
+    private int decayThreshold(DecaySettings settings, int level) {
+        return settings.getDecayThresholds().getOrDefault(level, defaultDecayThreshold(level));
+    }
+
+    private double decayScore(MemoryItem item, DecaySettings settings, double activationsSince) {
+        int accessCount = item.getTotalAccessCount() != null ? item.getTotalAccessCount() : 0;
+        double relevanceWeight = resolveRelevanceWeight(item, settings.getRelevanceWeights(),
+            settings.getDefaultRelevanceWeight());
+        double epochMultiplier = resolveEpochMultiplier(item, settings.getEpochMultipliers(),
+            settings.getGlobalEpochMultiplier());
+        return (activationsSince * relevanceWeight * epochMultiplier) / (accessCount + 1.0);
+    }
+
     private int defaultDecayThreshold(int level) {
         switch (level) {
             case 5:
@@ -895,6 +1201,23 @@ public class MemoryService {
         }
     }
 
+    private static final class DecayDue implements Comparable<DecayDue> {
+        private final long due;
+        private final String itemId;
+        private final long stamp;
+
+        private DecayDue(long due, String itemId, long stamp) {
+            this.due = due;
+            this.itemId = itemId;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public int compareTo(DecayDue other) {
+            return Long.compare(due, other.due);
+        }
+    }
+
     // ----- Snapshot DTO for persistence -----
     private static class MemoryStoreSnapshot {
         public List<MemoryItem> items;
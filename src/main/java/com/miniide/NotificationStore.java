@@ -1,5 +1,6 @@
 package com.miniide;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.models.Notification;
 import com.miniide.models.Notification.Category;
 import com.miniide.models.Notification.Level;
@@ -22,11 +23,17 @@ public class NotificationStore {
     private static final String STORAGE_PATH = "data/notifications.json";
     private final Map<String, Notification> notifications = new ConcurrentHashMap<>();
     private volatile String currentProjectId;
+    private static final ObjectMapper snapshotMapper = new ObjectMapper();
+    private volatile EventBus eventBus;
 
     public NotificationStore() {
         loadFromDisk();
     }
 
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
     public void setCurrentProjectId(String projectId) {
         this.currentProjectId = projectId;
     }
@@ -47,6 +54,7 @@ public class NotificationStore {
         notifications.put(notification.getId(), notification);
         log("Notification pushed: " + notification.getId() + " – " + notification.getMessage());
         saveAll();
+        publish("notification.created", notification);
         return notification;
     }
 
@@ -159,6 +167,7 @@ public class NotificationStore {
         if (notification != null) {
             notification.setRead(true);
             saveAll();
+            publish("notification.updated", notification);
         }
     }
 
@@ -171,6 +180,7 @@ public class NotificationStore {
             notification.setRead(true);
             notification.setPersistent(false);
             saveAll();
+            publish("notification.updated", notification);
         }
     }
 
@@ -179,16 +189,19 @@ public class NotificationStore {
             notification.setRead(true);
         }
         saveAll();
+        publish("notifications.read_all", Map.of());
     }
 
     public void clearNonErrors() {
         notifications.values().removeIf(n -> n.getLevel() != Level.ERROR);
         saveAll();
+        publish("notifications.cleared", Map.of("errorsKept", true));
     }
 
     public void clearAll() {
         notifications.clear();
         saveAll();
+        publish("notifications.cleared", Map.of("errorsKept", false));
     }
 
     public boolean delete(String id) {
@@ -199,6 +212,7 @@ public class NotificationStore {
         if (removed != null) {
             log("Notification deleted: " + id);
             saveAll();
+            publish("notification.deleted", Map.of("id", id));
             return true;
         }
         return false;
@@ -217,6 +231,14 @@ public class NotificationStore {
         clearAll();
     }
 
+    private void publish(String type, Object payload) {
+        EventBus bus = eventBus;
+        if (bus != null) {
+            // Copy the payload: the event is replayed and serialized later, on subscriber threads
+            bus.publish(EventBus.TOPIC_NOTIFICATIONS, type, snapshotMapper.valueToTree(payload));
+        }
+    }
+
     private void loadFromDisk() {
         Path path = Paths.get(STORAGE_PATH);
         if (!Files.exists(path)) {
@@ -17,14 +17,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class PatchService {
 
+    // Shared across instances so a stamp never repeats after a project switch
+    private static final AtomicLong MOD_STAMPS = new AtomicLong();
+
     private final List<PatchProposal> patches = new ArrayList<>();
     private final AtomicInteger counter = new AtomicInteger(0);
     private final ObjectMapper mapper = new ObjectMapper();
@@ -32,6 +39,8 @@ public class PatchService {
     private final PreparedWorkspaceService preparedWorkspaceService;
     private final Path storagePath;
     private final Path legacyStoragePath = Paths.get("data/patches.json");
+    private volatile EventBus eventBus;
+    private volatile long modStamp = MOD_STAMPS.incrementAndGet();
 
     public PatchService(WorkspaceService workspaceService, PreparedWorkspaceService preparedWorkspaceService) {
         this.workspaceService = workspaceService;
@@ -44,6 +53,17 @@ public class PatchService {
         load();
     }
 
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Changes whenever the stored proposals are loaded or saved; backs the ETag on the patch list.
+     */
+    public long getModStamp() {
+        return modStamp;
+    }
+
     public synchronized List<PatchProposal> list() {
         List<PatchProposal> sorted = patches.stream()
             .map(this::normalizeProposal)
@@ -91,6 +111,7 @@ public class PatchService {
         appendAudit(proposal, "created", "pending", proposal.getDescription());
         patches.add(proposal);
         save();
+        publish("patch.created", proposal);
         return proposal;
     }
 
@@ -128,6 +149,7 @@ public class PatchService {
         proposal.setStatus("applied");
         appendAudit(proposal, "applied", "applied", "Applied " + computations.size() + " file(s)");
         save();
+        publish("patch.updated", proposal);
         return ApplyOutcome.success(proposal, fileResults);
     }
 
@@ -139,6 +161,7 @@ public class PatchService {
         proposal.setStatus("rejected");
         appendAudit(proposal, "rejected", "rejected", "Patch rejected");
         save();
+        publish("patch.updated", proposal);
         return proposal;
     }
 
@@ -146,6 +169,7 @@ public class PatchService {
         boolean removed = patches.removeIf(p -> id != null && id.equals(p.getId()));
         if (removed) {
             save();
+            publish("patch.deleted", Map.of("id", id));
         }
         return removed;
     }
@@ -162,6 +186,7 @@ public class PatchService {
         int removed = before - patches.size();
         if (removed > 0) {
             save();
+            publish("patches.cleaned", Map.of("removed", removed));
         }
         return removed;
     }
@@ -198,6 +223,7 @@ public class PatchService {
                 && p.getCreatedAt() <= cutoff);
             if (removed > 0) {
                 save();
+                publish("patches.cleaned", Map.of("removed", removed, "ids", eligibleIds));
             }
         }
 
@@ -276,11 +302,33 @@ public class PatchService {
         }
     }
 
+    /**
+     * Publishes a summary rather than the full proposal; clients fetch diffs on demand.
+     */
+    private void publish(String type, Object payload) {
+        EventBus bus = eventBus;
+        if (bus == null) {
+            return;
+        }
+        if (payload instanceof PatchProposal proposal) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", proposal.getId());
+            summary.put("title", proposal.getTitle());
+            summary.put("status", proposal.getStatus());
+            summary.put("issueId", proposal.getIssueId());
+            summary.put("filePath", proposal.getFilePath());
+            summary.put("createdAt", proposal.getCreatedAt());
+            payload = summary;
+        }
+        bus.publish(EventBus.TOPIC_PATCHES, type, payload);
+    }
+
     private void save() throws IOException {
         Path path = resolveStoragePath();
         if (path.getParent() != null) {
             Files.createDirectories(path.getParent());
         }
+        modStamp = MOD_STAMPS.incrementAndGet();
         mapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), patches);
     }
 
@@ -342,13 +390,21 @@ public class PatchService {
 
     private void computeDiffs(PatchProposal proposal) {
         if (proposal == null || proposal.getFiles() == null) return;
+        boolean changed = false;
         for (PatchFileChange change : proposal.getFiles()) {
+            String diff;
             try {
                 FileChangeComputation computation = computeFileChange(change, false);
-                change.setDiff(computation.diff());
+                diff = computation.diff();
             } catch (Exception e) {
-                change.setDiff("Unable to compute diff: " + e.getMessage());
+                diff = "Unable to compute diff: " + e.getMessage();
             }
+            changed |= !Objects.equals(diff, change.getDiff());
+            change.setDiff(diff);
+        }
+        // Diffs live on the stored proposal and show up in list(), so a fresh one is a change too
+        if (changed) {
+            modStamp = MOD_STAMPS.incrementAndGet();
         }
     }
 
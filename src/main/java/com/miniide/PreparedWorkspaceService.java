@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 public class PreparedWorkspaceService {
     private final Path workspaceRoot;
@@ -138,7 +139,23 @@ public class PreparedWorkspaceService {
         }
     }
 
-    public void writeFile(String relativePath, String content) throws IOException {
+    /**
+     * Checks the file against baseHash and writes {@code patch(current)} under the same lock as
+     * {@link #writeFile}, so a concurrent save cannot land between the check and the write.
+     * Returns the hash of the patched content.
+     */
+    public synchronized String applyDelta(String relativePath, String baseHash, UnaryOperator<String> patch)
+        throws IOException {
+        String current = readFile(relativePath);
+        if (baseHash == null || !baseHash.equalsIgnoreCase(WorkspaceService.sha256Hex(current))) {
+            throw new IllegalStateException("File changed since base revision: " + relativePath);
+        }
+        String patched = patch.apply(current);
+        writeFile(relativePath, patched);
+        return WorkspaceService.sha256Hex(patched);
+    }
+
+    public synchronized void writeFile(String relativePath, String content) throws IOException {
         CanonPath path = CanonPath.parse(relativePath);
         if (path == null) {
             throw new IOException("Invalid path: " + relativePath);
@@ -334,6 +351,31 @@ public class PreparedWorkspaceService {
         return results;
     }
 
+    public List<CanonCard> listCanonCards() throws IOException {
+        return loadAllCards();
+    }
+
+    /**
+     * Cheap change marker for the canon card set (file names, sizes and mtimes), so callers can
+     * cache derived data without parsing every card.
+     */
+    public long canonCardsFingerprint() throws IOException {
+        Path cardsDir = workspaceRoot.resolve(".control-room").resolve("canon").resolve("cards");
+        if (!Files.exists(cardsDir)) {
+            return 0L;
+        }
+        long fingerprint = 1L;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cardsDir, "*.json")) {
+            for (Path entry : stream) {
+                long entryHash = entry.getFileName().toString().hashCode() * 31L
+                    + Files.size(entry) * 17L + Files.getLastModifiedTime(entry).toMillis();
+                // Order-independent: directory listing order is not stable
+                fingerprint += entryHash * 0x9E3779B97F4A7C15L;
+            }
+        }
+        return fingerprint;
+    }
+
     public List<VirtualFile> listVirtualFiles() throws IOException {
         List<VirtualFile> files = new ArrayList<>();
         for (StoryScene scene : loadStoryRegistry().getScenes()) {
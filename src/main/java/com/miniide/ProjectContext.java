@@ -5,26 +5,35 @@ import com.miniide.FileService;
 import com.miniide.models.TelemetryConfig;
 
 import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Runtime holder for project-scoped services that need to refresh when
  * the active project/workspace changes.
+ * <p>
+ * Services are built lazily, on first use, so a switch only pays for what the UI then touches.
+ * The last few projects stay warm in an LRU: switching back reuses their services unless a
+ * stat-only fingerprint of the project's files shows they changed on disk in the meantime.
  */
 public class ProjectContext {
+    private static final int MAX_WARM_PROJECTS = 4;
+
     private final ObjectMapper objectMapper;
-    private WorkspaceService workspaceService;
-    private AgentRegistry agentRegistry;
-    private AgentEndpointRegistry agentEndpointRegistry;
-    private TieringService tieringService;
-    private IssueInterestService issueInterestService;
-    private TelemetryStore telemetryStore;
-    private TelemetryConfigStore telemetryConfigStore;
-    private PatchService patchService;
-    private PromptRegistry promptRegistry;
-    private ProjectPreparationService preparationService;
-    private PreparedWorkspaceService preparedWorkspaceService;
-    private AuditStore auditStore;
+    // Access-ordered, so the eldest entry is the least recently used project
+    private final LinkedHashMap<Path, Project> warmProjects = new LinkedHashMap<>(8, 0.75f, true);
+    private volatile Project current;
+    private EventBus eventBus;
+    private final List<Consumer<ProjectContext>> loadListeners = new CopyOnWriteArrayList<>();
     private final AppLogger logger = AppLogger.get();
 
     public ProjectContext(Path workspaceRoot, ObjectMapper objectMapper) throws IOException {
@@ -33,78 +42,321 @@ public class ProjectContext {
     }
 
     public synchronized void load(Path workspaceRoot) throws IOException {
-        new FileService(workspaceRoot.toString());
-        this.workspaceService = new WorkspaceService(workspaceRoot);
-        this.agentRegistry = new AgentRegistry(workspaceService.getWorkspaceRoot(), objectMapper);
-        this.agentEndpointRegistry = new AgentEndpointRegistry(workspaceService.getWorkspaceRoot(), objectMapper);
-        this.tieringService = new TieringService(workspaceService.getWorkspaceRoot(), objectMapper, agentRegistry);
-        this.issueInterestService = new IssueInterestService(workspaceService.getWorkspaceRoot(), agentRegistry);
-        this.telemetryConfigStore = new TelemetryConfigStore(workspaceService.getWorkspaceRoot(), objectMapper);
-        TelemetryConfig defaultTelemetryConfig = new TelemetryConfig();
-        TelemetryConfig telemetryConfig = telemetryConfigStore.loadOrDefault(defaultTelemetryConfig);
-        this.telemetryStore = new TelemetryStore(workspaceService.getWorkspaceRoot(), objectMapper, telemetryConfig);
-        this.issueInterestService.setTelemetryStore(telemetryStore);
-        this.preparedWorkspaceService = new PreparedWorkspaceService(workspaceService.getWorkspaceRoot(), objectMapper);
-        this.patchService = new PatchService(workspaceService, preparedWorkspaceService);
-        this.promptRegistry = new PromptRegistry(workspaceService.getWorkspaceRoot(), objectMapper);
-        this.preparationService = new ProjectPreparationService(workspaceService.getWorkspaceRoot(), workspaceService, objectMapper);
-        this.auditStore = new AuditStore(workspaceService.getWorkspaceRoot(), objectMapper);
-        logger.info("Project context loaded for " + workspaceRoot);
+        Path root = workspaceRoot.toAbsolutePath().normalize();
+        Project outgoing = current;
+        if (outgoing != null) {
+            // Write held-back performance updates and detach from the bus while inactive
+            outgoing.deactivate();
+        }
+        Project project = warmProjects.get(root);
+        boolean reused = false;
+        if (project != null && project != outgoing && project.unchangedOnDisk()) {
+            reused = true;
+        } else {
+            if (project != null && project != outgoing) {
+                logger.info("Project files changed since " + root + " was last active; reloading");
+            }
+            new FileService(root.toString());
+            project = new Project(root);
+        }
+        warmProjects.put(root, project);
+        Iterator<Map.Entry<Path, Project>> eldest = warmProjects.entrySet().iterator();
+        while (warmProjects.size() > MAX_WARM_PROJECTS && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+        current = project;
+        project.activate(eventBus);
+        logger.info("Project context " + (reused ? "reused (warm) for " : "loaded for ") + root);
+        for (Consumer<ProjectContext> listener : loadListeners) {
+            try {
+                listener.accept(this);
+            } catch (RuntimeException e) {
+                logger.warn("Project load listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs after every later {@link #load} (workspace switch); not called for the current load.
+     */
+    public void addLoadListener(Consumer<ProjectContext> listener) {
+        if (listener != null) {
+            loadListeners.add(listener);
+        }
     }
 
     public synchronized void switchWorkspace(Path workspaceRoot) throws IOException {
         load(workspaceRoot);
     }
 
+    /**
+     * Wires project-scoped publishers to the application event bus; reapplied on every load.
+     */
+    public synchronized void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+        current.activate(eventBus);
+    }
+
+    public EventBus events() {
+        return eventBus;
+    }
+
     public WorkspaceService workspace() {
-        return workspaceService;
+        return current.workspaceService;
     }
 
     public PreparedWorkspaceService preparedWorkspace() {
-        return preparedWorkspaceService;
+        return current.preparedWorkspace();
     }
 
     public ProjectPreparationService preparation() {
-        return preparationService;
+        return current.preparation();
     }
 
     public AgentRegistry agents() {
-        return agentRegistry;
+        return current.agents();
     }
 
     public AgentEndpointRegistry agentEndpoints() {
-        return agentEndpointRegistry;
+        return current.agentEndpoints();
     }
 
     public TieringService tiering() {
-        return tieringService;
+        return current.tiering();
     }
 
     public IssueInterestService issueInterest() {
-        return issueInterestService;
+        return current.issueInterest();
     }
 
     public TelemetryStore telemetry() {
-        return telemetryStore;
+        return current.telemetry();
+    }
+
+    public TraceStore traces() {
+        return current.traces();
     }
 
     public TelemetryConfigStore telemetryConfigStore() {
-        return telemetryConfigStore;
+        return current.telemetryConfigStore();
     }
 
     public PatchService patches() {
-        return patchService;
+        return current.patches();
     }
 
     public PromptRegistry promptTools() {
-        return promptRegistry;
+        return current.promptTools();
     }
 
     public AuditStore audit() {
-        return auditStore;
+        return current.audit();
+    }
+
+    public EntityIndexService entityIndex() {
+        return current.entityIndex();
     }
 
     public Path currentRoot() {
-        return workspaceService != null ? workspaceService.getWorkspaceRoot() : null;
+        Project project = current;
+        return project != null ? project.root : null;
+    }
+
+    /**
+     * One project's services. Each is created on first use under the project's lock; the event
+     * bus is attached only while the project is the active one.
+     */
+    private final class Project {
+        private final Path root;
+        private final WorkspaceService workspaceService;
+        private AgentRegistry agentRegistry;
+        private AgentEndpointRegistry agentEndpointRegistry;
+        private TieringService tieringService;
+        private IssueInterestService issueInterestService;
+        private TelemetryStore telemetryStore;
+        private TelemetryConfigStore telemetryConfigStore;
+        private TraceStore traceStore;
+        private PatchService patchService;
+        private PromptRegistry promptRegistry;
+        private ProjectPreparationService preparationService;
+        private PreparedWorkspaceService preparedWorkspaceService;
+        private AuditStore auditStore;
+        private EntityIndexService entityIndexService;
+        private EventBus bus;
+        private long fingerprint;
+
+        private Project(Path root) {
+            this.root = root;
+            this.workspaceService = new WorkspaceService(root);
+        }
+
+        synchronized void activate(EventBus eventBus) {
+            this.bus = eventBus;
+            applyEventBus();
+        }
+
+        synchronized void deactivate() {
+            if (tieringService != null) {
+                tieringService.flush();
+            }
+            this.bus = null;
+            applyEventBus();
+            fingerprint = fingerprint(root);
+        }
+
+        boolean unchangedOnDisk() {
+            return fingerprint(root) == fingerprint;
+        }
+
+        private void applyEventBus() {
+            if (patchService != null) {
+                patchService.setEventBus(bus);
+            }
+            if (telemetryStore != null) {
+                telemetryStore.setEventBus(bus);
+            }
+            if (issueInterestService != null) {
+                issueInterestService.setEventBus(bus);
+            }
+            if (preparationService != null) {
+                preparationService.setEventBus(bus);
+            }
+        }
+
+        synchronized AgentRegistry agents() {
+            if (agentRegistry == null) {
+                agentRegistry = new AgentRegistry(root, objectMapper);
+            }
+            return agentRegistry;
+        }
+
+        synchronized AgentEndpointRegistry agentEndpoints() {
+            if (agentEndpointRegistry == null) {
+                agentEndpointRegistry = new AgentEndpointRegistry(root, objectMapper);
+            }
+            return agentEndpointRegistry;
+        }
+
+        synchronized TieringService tiering() {
+            if (tieringService == null) {
+                tieringService = new TieringService(root, objectMapper, agents());
+            }
+            return tieringService;
+        }
+
+        synchronized IssueInterestService issueInterest() {
+            if (issueInterestService == null) {
+                issueInterestService = new IssueInterestService(root, agents());
+                issueInterestService.setTelemetryStore(telemetry());
+                issueInterestService.setEventBus(bus);
+            }
+            return issueInterestService;
+        }
+
+        synchronized TelemetryConfigStore telemetryConfigStore() {
+            if (telemetryConfigStore == null) {
+                telemetryConfigStore = new TelemetryConfigStore(root, objectMapper);
+            }
+            return telemetryConfigStore;
+        }
+
+        synchronized TelemetryStore telemetry() {
+            if (telemetryStore == null) {
+                TelemetryConfig telemetryConfig = telemetryConfigStore().loadOrDefault(new TelemetryConfig());
+                telemetryStore = new TelemetryStore(root, objectMapper, telemetryConfig);
+                telemetryStore.setEventBus(bus);
+            }
+            return telemetryStore;
+        }
+
+        synchronized TraceStore traces() {
+            if (traceStore == null) {
+                traceStore = new TraceStore(root, objectMapper);
+            }
+            return traceStore;
+        }
+
+        synchronized PreparedWorkspaceService preparedWorkspace() {
+            if (preparedWorkspaceService == null) {
+                preparedWorkspaceService = new PreparedWorkspaceService(root, objectMapper);
+            }
+            return preparedWorkspaceService;
+        }
+
+        synchronized PatchService patches() {
+            if (patchService == null) {
+                patchService = new PatchService(workspaceService, preparedWorkspace());
+                patchService.setEventBus(bus);
+            }
+            return patchService;
+        }
+
+        synchronized PromptRegistry promptTools() {
+            if (promptRegistry == null) {
+                promptRegistry = new PromptRegistry(root, objectMapper);
+            }
+            return promptRegistry;
+        }
+
+        synchronized ProjectPreparationService preparation() {
+            if (preparationService == null) {
+                preparationService = new ProjectPreparationService(root, workspaceService, objectMapper);
+                preparationService.setEventBus(bus);
+            }
+            return preparationService;
+        }
+
+        synchronized AuditStore audit() {
+            if (auditStore == null) {
+                auditStore = new AuditStore(root, objectMapper);
+            }
+            return auditStore;
+        }
+
+        synchronized EntityIndexService entityIndex() {
+            if (entityIndexService == null) {
+                entityIndexService = new EntityIndexService(root, workspaceService,
+                    preparedWorkspace(), preparation(), objectMapper);
+            }
+            return entityIndexService;
+        }
+    }
+
+    /**
+     * Order-independent digest of every file's path, size and modification time under
+     * {@code root} (skipping .git). Stat-only, so it is cheap next to reloading the stores.
+     */
+    private static long fingerprint(Path root) {
+        long[] digest = new long[2];
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return ".git".equals(String.valueOf(dir.getFileName())) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    long h = file.hashCode();
+                    h = h * 31 + attrs.size();
+                    h = h * 31 + attrs.lastModifiedTime().toMillis();
+                    // Mix before summing so swapped sizes/times across files still change the sum
+                    h *= 0x9E3779B97F4A7C15L;
+                    digest[0] += h ^ (h >>> 29);
+                    digest[1]++;
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // Unreadable root: force a reload next time
+            return System.nanoTime();
+        }
+        return digest[0] * 31 + digest[1];
     }
 }
@@ -1,5 +1,7 @@
 package com.miniide;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.models.CanonCard;
 import com.miniide.models.CanonManifest;
@@ -18,27 +20,51 @@ import com.miniide.models.WorkspaceMetadata;
 import com.miniide.outline.OutlineParser;
 import io.javalin.http.UploadedFile;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Deque;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ProjectPreparationService {
     private static final int SCHEMA_VERSION = 1;
+    // Reading, hashing and annotating uploads; a few files at a time keeps a local disk busy
+    private static final int INGEST_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // Files read ahead of the writer, which bounds how many uploads are in memory at once
+    private static final int INGEST_WINDOW = INGEST_THREADS * 2;
+    private static final long PROGRESS_INTERVAL_MS = 250;
+    private static final long MAX_PRESIZED_UPLOAD = 64L * 1024 * 1024;
+    private static final ExecutorService INGEST_POOL = WorkerPools.bounded("ingest", INGEST_THREADS, 0);
     private final Path workspaceRoot;
     private final WorkspaceService workspaceService;
     private final ObjectMapper mapper;
     private final AppLogger logger;
+    private final ReentrantLock ingestLock = new ReentrantLock();
+    private volatile EventBus eventBus;
+    private volatile java.util.Map<String, Object> ingestProgress;
 
     public ProjectPreparationService(Path workspaceRoot, WorkspaceService workspaceService, ObjectMapper mapper) {
         this.workspaceRoot = workspaceRoot;
@@ -160,6 +186,9 @@ public class ProjectPreparationService {
         writeOutlineDocument(scenes);
         writeEmptyIndices();
         markPrepared("empty", now);
+        // An import abandoned before this scaffold was chosen will not be resumed
+        Files.deleteIfExists(ingestJournalPath());
+        clearStagedCards();
 
         return PreparationResult.success("empty", cards.size(), scenes.size());
     }
@@ -171,105 +200,105 @@ public class ProjectPreparationService {
         if (payload == null || payload.totalFiles() == 0) {
             throw new IllegalArgumentException("No files provided for ingest.");
         }
+        if (!ingestLock.tryLock()) {
+            throw new IllegalStateException("An ingest is already running for this project.");
+        }
+        try {
+            // Another ingest may have finished between the check above and taking the lock
+            if (isPrepared()) {
+                return PreparationResult.alreadyPrepared();
+            }
+            return runIngest(payload);
+        } finally {
+            ingestLock.unlock();
+        }
+    }
 
-        logger.info("Preparing ingest in " + workspaceRoot + " (files=" + payload.totalFiles() + ")");
+    private PreparationResult runIngest(PrepareIngestPayload payload) throws IOException {
         String now = nowIso();
-        String ingestId = generateIngestId();
-        String projectSalt = generateSalt();
         ensurePrepDirectories();
 
-        List<CanonCard> cards = new ArrayList<>();
-        List<StoryScene> scenes = new ArrayList<>();
-        int excerptsStored = 0;
+        // An ingest that stopped part-way keeps its ids, so the cards it finished are reused
+        IngestJournal.Header previous = IngestJournal.readHeader(ingestJournalPath(), mapper);
+        boolean resume = previous != null && "ingest".equals(previous.mode);
+        String ingestId = resume ? previous.ingestId : generateIngestId();
+        String projectSalt = resume ? previous.projectSalt : generateSalt();
+        logger.info((resume ? "Resuming" : "Preparing") + " ingest " + ingestId + " in " + workspaceRoot
+            + " (files=" + payload.totalFiles() + ")");
 
-        if (payload != null) {
-            if (payload.manuscripts != null) {
-                for (UploadedFile file : payload.manuscripts) {
-                    if (file == null) continue;
-                    IngestEvidence evidence = storeEvidence(file, now);
-                    excerptsStored += 1;
-                    StoryScene scene = new StoryScene();
-                    scene.setOrigin("ingest");
-                    String displayId = "SCN:" + slugify(stripExtension(file.filename()));
-                    scene.setStableId(generateIngestStableId(projectSalt, ingestId, evidence.getExcerptHash(), displayId, "SCN"));
-                    scene.setDisplayId(displayId);
-                    scene.setTitle(prettifyName(file.filename()));
-                    scene.setOrder(scenes.size() + 1);
-                    scene.setContent(evidence.getContent());
-                    scene.setCreatedAt(now);
-                    scene.setUpdatedAt(now);
-                    scene.setStatus("active");
-                    scene.setIngestPointers(List.of(pointerForEvidence(evidence)));
-                    scenes.add(scene);
+        List<CanonCard> cards = new ArrayList<>();
+        List<OutlineScene> outlineScenes = new ArrayList<>();
+        int sceneCount;
+        try (IngestRun run = new IngestRun("ingest", ingestId, projectSalt, now, payload.totalFiles())) {
+            try {
+                try (SceneStream sceneStream = new SceneStream(List.of())) {
+                    ingestInOrder(payload.manuscripts, file -> buildIngestScene(run, file), (file, scene) -> {
+                        scene.setOrder(sceneStream.count() + 1);
+                        sceneStream.write(scene);
+                        addOutlineScene(outlineScenes, scene);
+                        run.completed(file, scene.getStableId(), excerptHash(scene.getIngestPointers()));
+                    });
+                    sceneStream.commit();
+                    sceneCount = sceneStream.count();
                 }
-            }
-            if (payload.outlines != null && !payload.outlines.isEmpty()) {
-                writeOutlineFromUploads(payload.outlines);
-            }
-            if (payload.canonFiles != null) {
-                for (UploadedFile file : payload.canonFiles) {
-                    if (file == null) continue;
-                    IngestEvidence evidence = storeEvidence(file, now);
-                    excerptsStored += 1;
-                    CanonCard card = new CanonCard();
-                    card.setOrigin("ingest");
-                    card.setType(inferCardType(file.filename(), evidence.getContent()));
-                    card.setTitle(prettifyName(file.filename()));
-                    String cardDisplayId = typePrefix(card.getType()) + ":" + slugify(card.getTitle());
-                    card.setDisplayId(cardDisplayId);
-                    card.setStableId(generateIngestStableId(projectSalt, ingestId, evidence.getExcerptHash(), cardDisplayId, "CAN"));
-                    card.setContent(evidence.getContent());
-                    card.setCreatedAt(now);
-                    card.setUpdatedAt(now);
-                    applyAnnotationDefaults(card, evidence.getContent());
-                    card.setAnnotationStatus("complete");
-                    card.setStatus("active");
-                    card.setIngestPointers(List.of(pointerForEvidence(evidence)));
+                if (payload.outlines != null && !payload.outlines.isEmpty()) {
+                    writeOutlineFromUploads(payload.outlines);
+                    run.skipped(payload.outlines.size());
+                }
+                ingestInOrder(payload.canonFiles, file -> buildIngestCard(run, file), (file, card) -> {
+                    writeIngestCard(run, card);
+                    run.completed(file, card.getStableId(), excerptHash(card.getIngestPointers()));
                     cards.add(card);
+                });
+                commitStagedCards(run);
+
+                CanonManifest canonManifest = new CanonManifest();
+                canonManifest.setSchemaVersion(SCHEMA_VERSION);
+                canonManifest.setPreparedAt(now);
+                canonManifest.setCardCount(cards.size());
+                canonManifest.setStatus("draft");
+                saveCanonManifest(canonManifest);
+
+                StoryManifest storyManifest = new StoryManifest();
+                storyManifest.setSchemaVersion(SCHEMA_VERSION);
+                storyManifest.setPreparedAt(now);
+                storyManifest.setSceneCount(sceneCount);
+                storyManifest.setStatus("prepared");
+                saveStoryManifest(storyManifest);
+
+                Path chaptersPath = workspaceRoot.resolve(".control-room").resolve("story").resolve("chapters.json");
+                mapper.writerWithDefaultPrettyPrinter().writeValue(chaptersPath.toFile(), new ArrayList<>());
+                writeCanonIndexes(buildEntitiesIndex(cards), buildHooksIndex(cards));
+                if (payload.outlines == null || payload.outlines.isEmpty()) {
+                    writeOutline(outlineScenes);
                 }
+                writeEmptyIndices();
+
+                IngestManifest ingestManifest = new IngestManifest();
+                ingestManifest.setSchemaVersion(SCHEMA_VERSION);
+                ingestManifest.setIngestId(ingestId);
+                ingestManifest.setIngestedAt(now);
+                ingestManifest.setProjectSalt(projectSalt);
+                ingestManifest.setStatus("complete");
+                ingestManifest.setMode("ingest");
+                IngestStats stats = new IngestStats();
+                stats.setFilesProcessed(payload.totalFiles());
+                stats.setExcerptsStored(run.excerptsStored);
+                stats.setScenesCreated(sceneCount);
+                stats.setCardsCreated(cards.size());
+                ingestManifest.setStats(stats);
+                ingestManifest.setIgnoredInputs(payload.ignoredInputs != null ? payload.ignoredInputs : new ArrayList<>());
+                // Written last: an ingest manifest on disk marks the project as prepared
+                saveIngestManifest(ingestManifest);
+                markPrepared("ingest", now);
+                run.finished();
+            } catch (IOException | RuntimeException e) {
+                run.failed(e);
+                throw e;
             }
         }
 
-        StoryRegistry storyRegistry = new StoryRegistry();
-        storyRegistry.setSchemaVersion(SCHEMA_VERSION);
-        storyRegistry.setScenes(scenes);
-
-        CanonManifest canonManifest = new CanonManifest();
-        canonManifest.setSchemaVersion(SCHEMA_VERSION);
-        canonManifest.setPreparedAt(now);
-        canonManifest.setCardCount(cards.size());
-        canonManifest.setStatus("draft");
-
-        StoryManifest storyManifest = new StoryManifest();
-        storyManifest.setSchemaVersion(SCHEMA_VERSION);
-        storyManifest.setPreparedAt(now);
-        storyManifest.setSceneCount(scenes.size());
-        storyManifest.setStatus("prepared");
-
-        IngestManifest ingestManifest = new IngestManifest();
-        ingestManifest.setSchemaVersion(SCHEMA_VERSION);
-        ingestManifest.setIngestId(ingestId);
-        ingestManifest.setIngestedAt(now);
-        ingestManifest.setProjectSalt(projectSalt);
-        ingestManifest.setStatus("complete");
-        ingestManifest.setMode("ingest");
-        IngestStats stats = new IngestStats();
-        stats.setFilesProcessed((payload != null ? payload.totalFiles() : 0));
-        stats.setExcerptsStored(excerptsStored);
-        stats.setScenesCreated(scenes.size());
-        stats.setCardsCreated(cards.size());
-        ingestManifest.setStats(stats);
-        ingestManifest.setIgnoredInputs(payload != null ? payload.ignoredInputs : new ArrayList<>());
-
-        saveManifests(ingestManifest, canonManifest, storyManifest, storyRegistry, cards,
-            buildEntitiesIndex(cards), buildHooksIndex(cards));
-        if (payload == null || payload.outlines == null || payload.outlines.isEmpty()) {
-            writeOutlineDocument(scenes);
-        }
-        writeEmptyIndices();
-        markPrepared("ingest", now);
-
-        return PreparationResult.success("ingest", cards.size(), scenes.size());
+        return PreparationResult.success("ingest", cards.size(), sceneCount);
     }
 
     private void ensurePrepDirectories() throws IOException {
@@ -317,6 +346,28 @@ public class ProjectPreparationService {
     }
 
     private void writeOutlineDocument(List<StoryScene> scenes) throws IOException {
+        List<OutlineScene> outlineScenes = new ArrayList<>();
+        if (scenes != null) {
+            for (StoryScene scene : scenes) {
+                addOutlineScene(outlineScenes, scene);
+            }
+        }
+        writeOutline(outlineScenes);
+    }
+
+    private void addOutlineScene(List<OutlineScene> outlineScenes, StoryScene scene) {
+        if (scene == null) return;
+        if ("SCN:outline".equalsIgnoreCase(scene.getDisplayId())) {
+            return;
+        }
+        OutlineScene outlineScene = new OutlineScene();
+        outlineScene.setSceneId(scene.getStableId());
+        outlineScene.setTitle(outlineTitleForScene(scene, outlineScenes.size()));
+        outlineScene.setSummary(outlineSummaryForScene(scene));
+        outlineScenes.add(outlineScene);
+    }
+
+    private void writeOutline(List<OutlineScene> outlineScenes) throws IOException {
         OutlineDocument outline = new OutlineDocument();
         outline.setId(UUID.randomUUID().toString());
         outline.setTitle("Story Outline");
@@ -324,23 +375,6 @@ public class ProjectPreparationService {
         long now = System.currentTimeMillis();
         outline.setCreatedAt(now);
         outline.setUpdatedAt(now);
-
-        List<OutlineScene> outlineScenes = new ArrayList<>();
-        if (scenes != null) {
-            int index = 0;
-            for (StoryScene scene : scenes) {
-                if (scene == null) continue;
-                if ("SCN:outline".equalsIgnoreCase(scene.getDisplayId())) {
-                    continue;
-                }
-                OutlineScene outlineScene = new OutlineScene();
-                outlineScene.setSceneId(scene.getStableId());
-                outlineScene.setTitle(outlineTitleForScene(scene, index));
-                outlineScene.setSummary(outlineSummaryForScene(scene));
-                outlineScenes.add(outlineScene);
-                index += 1;
-            }
-        }
         outline.setScenes(outlineScenes);
 
         Path outlinePath = workspaceRoot.resolve(".control-room").resolve("story").resolve("outline.json");
@@ -407,13 +441,30 @@ public class ProjectPreparationService {
     }
 
     public PreparationResult prepareSupplementalIngest(PrepareIngestPayload payload) throws IOException {
+        requireDraftStage();
+        if (payload == null || payload.totalFiles() == 0) {
+            throw new IllegalArgumentException("No files provided for ingest.");
+        }
+        if (!ingestLock.tryLock()) {
+            throw new IllegalStateException("An ingest is already running for this project.");
+        }
+        try {
+            // Preparation may have been finalized while we waited for the lock
+            requireDraftStage();
+            return runSupplementalIngest(payload);
+        } finally {
+            ingestLock.unlock();
+        }
+    }
+
+    private void requireDraftStage() {
         WorkspaceMetadata meta = workspaceService.loadMetadata();
         if (meta == null || !"draft".equalsIgnoreCase(meta.getPrepStage())) {
             throw new IllegalStateException("Supplemental ingest is only allowed during preparation.");
         }
-        if (payload == null || payload.totalFiles() == 0) {
-            throw new IllegalArgumentException("No files provided for ingest.");
-        }
+    }
+
+    private PreparationResult runSupplementalIngest(PrepareIngestPayload payload) throws IOException {
         ensurePrepDirectories();
         String now = nowIso();
 
@@ -441,110 +492,78 @@ public class ProjectPreparationService {
         }
         String projectSalt = ingestManifest.getProjectSalt();
         String ingestId = ingestManifest.getIngestId();
+        // Ids come from the existing ingest, so a journal left by an interrupted import still applies
+        logger.info("Preparing supplemental ingest " + ingestId + " in " + workspaceRoot
+            + " (files=" + payload.totalFiles() + ")");
 
         StoryRegistry storyRegistry = loadStoryRegistry();
-        List<StoryScene> scenes = storyRegistry.getScenes() != null
-            ? new ArrayList<>(storyRegistry.getScenes())
-            : new ArrayList<>();
-        int baseOrder = scenes.size();
-        List<StoryScene> newScenes = new ArrayList<>();
-        List<CanonCard> newCards = new ArrayList<>();
-        int excerptsStored = 0;
-
-        if (payload.manuscripts != null) {
-            for (UploadedFile file : payload.manuscripts) {
-                if (file == null) continue;
-                IngestEvidence evidence = storeEvidence(file, now);
-                excerptsStored += 1;
-                StoryScene scene = new StoryScene();
-                scene.setOrigin("ingest");
-                String displayId = "SCN:" + slugify(stripExtension(file.filename()));
-                scene.setStableId(generateIngestStableId(projectSalt, ingestId, evidence.getExcerptHash(), displayId, "SCN"));
-                scene.setDisplayId(displayId);
-                scene.setTitle(prettifyName(file.filename()));
-                scene.setOrder(baseOrder + newScenes.size() + 1);
-                scene.setContent(evidence.getContent());
-                scene.setCreatedAt(now);
-                scene.setUpdatedAt(now);
-                scene.setStatus("active");
-                scene.setIngestPointers(List.of(pointerForEvidence(evidence)));
-                newScenes.add(scene);
-            }
-        }
-
-        if (payload.canonFiles != null) {
-            for (UploadedFile file : payload.canonFiles) {
-                if (file == null) continue;
-                IngestEvidence evidence = storeEvidence(file, now);
-                excerptsStored += 1;
-                CanonCard card = new CanonCard();
-                card.setOrigin("ingest");
-                card.setType(inferCardType(file.filename(), evidence.getContent()));
-                card.setTitle(prettifyName(file.filename()));
-                String cardDisplayId = typePrefix(card.getType()) + ":" + slugify(card.getTitle());
-                card.setDisplayId(cardDisplayId);
-                card.setStableId(generateIngestStableId(projectSalt, ingestId, evidence.getExcerptHash(), cardDisplayId, "CAN"));
-                card.setContent(evidence.getContent());
-                card.setCreatedAt(now);
-                card.setUpdatedAt(now);
-                applyAnnotationDefaults(card, evidence.getContent());
-                card.setAnnotationStatus("complete");
-                card.setStatus("active");
-                card.setIngestPointers(List.of(pointerForEvidence(evidence)));
-                newCards.add(card);
+        List<StoryScene> existingScenes = storyRegistry.getScenes() != null ? storyRegistry.getScenes() : List.of();
+        int newSceneCount;
+        int newCardCount = 0;
+        int cardCount;
+        try (IngestRun run = new IngestRun("supplemental", ingestId, projectSalt, now, payload.totalFiles())) {
+            try {
+                int[] cardsWritten = new int[1];
+                try (SceneStream sceneStream = new SceneStream(existingScenes)) {
+                    ingestInOrder(payload.manuscripts, file -> buildIngestScene(run, file), (file, scene) -> {
+                        scene.setOrder(sceneStream.count() + 1);
+                        sceneStream.write(scene);
+                        run.completed(file, scene.getStableId(), excerptHash(scene.getIngestPointers()));
+                    });
+                    newSceneCount = sceneStream.count() - existingScenes.size();
+
+                    ingestInOrder(payload.canonFiles, file -> buildIngestCard(run, file), (file, card) -> {
+                        writeIngestCard(run, card);
+                        run.completed(file, card.getStableId(), excerptHash(card.getIngestPointers()));
+                        cardsWritten[0]++;
+                    });
+
+                    if (payload.outlines != null && !payload.outlines.isEmpty()) {
+                        writeOutlineFromUploads(payload.outlines);
+                        run.skipped(payload.outlines.size());
+                    }
+                    // The registry is replaced only once every new card is on disk
+                    commitStagedCards(run);
+                    sceneStream.commit();
+                }
+                newCardCount = cardsWritten[0];
+                cardCount = rebuildCanonIndexes();
+
+                CanonManifest canonManifest = loadCanonManifest();
+                if (canonManifest == null) {
+                    canonManifest = new CanonManifest();
+                    canonManifest.setSchemaVersion(SCHEMA_VERSION);
+                    canonManifest.setPreparedAt(now);
+                    canonManifest.setStatus("draft");
+                }
+                canonManifest.setCardCount(cardCount);
+                saveCanonManifest(canonManifest);
+
+                StoryManifest storyManifest = loadStoryManifest();
+                if (storyManifest == null) {
+                    storyManifest = new StoryManifest();
+                    storyManifest.setSchemaVersion(SCHEMA_VERSION);
+                    storyManifest.setPreparedAt(now);
+                    storyManifest.setStatus("prepared");
+                }
+                storyManifest.setSceneCount(existingScenes.size() + newSceneCount);
+                saveStoryManifest(storyManifest);
+
+                stats.setFilesProcessed(stats.getFilesProcessed() + payload.totalFiles());
+                stats.setExcerptsStored(stats.getExcerptsStored() + run.excerptsStored);
+                stats.setScenesCreated(stats.getScenesCreated() + newSceneCount);
+                stats.setCardsCreated(stats.getCardsCreated() + newCardCount);
+                ingestManifest.setIgnoredInputs(payload.ignoredInputs != null ? payload.ignoredInputs : new ArrayList<>());
+                ingestManifest.setIngestedAt(now);
+                saveIngestManifest(ingestManifest);
+                run.finished();
+            } catch (IOException | RuntimeException e) {
+                run.failed(e);
+                throw e;
             }
         }
 
-        if (payload.outlines != null && !payload.outlines.isEmpty()) {
-            writeOutlineFromUploads(payload.outlines);
-        }
-
-        scenes.addAll(newScenes);
-        storyRegistry.setScenes(scenes);
-        saveStoryRegistry(storyRegistry);
-
-        List<CanonCard> allCards = loadCanonCards();
-        allCards.addAll(newCards);
-        for (CanonCard card : newCards) {
-            saveCanonCard(card);
-        }
-
-        CanonManifest canonManifest = loadCanonManifest();
-        if (canonManifest == null) {
-            canonManifest = new CanonManifest();
-            canonManifest.setSchemaVersion(SCHEMA_VERSION);
-            canonManifest.setPreparedAt(now);
-            canonManifest.setStatus("draft");
-        }
-        canonManifest.setCardCount(allCards.size());
-        saveCanonManifest(canonManifest);
-
-        StoryManifest storyManifest = loadStoryManifest();
-        if (storyManifest == null) {
-            storyManifest = new StoryManifest();
-            storyManifest.setSchemaVersion(SCHEMA_VERSION);
-            storyManifest.setPreparedAt(now);
-            storyManifest.setStatus("prepared");
-        }
-        storyManifest.setSceneCount(scenes.size());
-        saveStoryManifest(storyManifest);
-
-        stats.setFilesProcessed(stats.getFilesProcessed() + payload.totalFiles());
-        stats.setExcerptsStored(stats.getExcerptsStored() + excerptsStored);
-        stats.setScenesCreated(stats.getScenesCreated() + newScenes.size());
-        stats.setCardsCreated(stats.getCardsCreated() + newCards.size());
-        ingestManifest.setIgnoredInputs(payload.ignoredInputs != null ? payload.ignoredInputs : new ArrayList<>());
-        ingestManifest.setIngestedAt(now);
-        saveIngestManifest(ingestManifest);
-
-        java.util.Map<String, java.util.List<String>> entitiesIndex = buildEntitiesIndex(allCards);
-        java.util.Map<String, java.util.List<String>> hooksIndex = buildHooksIndex(allCards);
-        Path entitiesPath = workspaceRoot.resolve(".control-room").resolve("canon").resolve("entities.json");
-        Path hooksPath = workspaceRoot.resolve(".control-room").resolve("canon").resolve("hooks-index.json");
-        mapper.writerWithDefaultPrettyPrinter().writeValue(entitiesPath.toFile(), entitiesIndex);
-        mapper.writerWithDefaultPrettyPrinter().writeValue(hooksPath.toFile(), hooksIndex);
-
-        return PreparationResult.success("ingest", newCards.size(), newScenes.size());
+        return PreparationResult.success("ingest", newCardCount, newSceneCount);
     }
 
     private String buildProtagonistContent(PrepareEmptyPayload payload) {
@@ -579,15 +598,27 @@ public class ProjectPreparationService {
         return builder.toString();
     }
 
-    private IngestEvidence storeEvidence(UploadedFile file, String now) throws IOException {
+    /**
+     * Reads the upload once, hashing the bytes as they stream in, and writes the excerpt unless it
+     * is already on disk. Excerpts are content-addressed, so an existing file (an earlier upload of
+     * the same text, or an interrupted ingest) is left as it is.
+     */
+    private IngestEvidence storeEvidence(UploadedFile file, String now, Set<String> claimed) throws IOException {
         String filename = file.filename();
-        String content = readUploadedFile(file);
-        String hash = "sha256:" + sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+        MessageDigest digest = sha256();
+        long size = file.size();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(size > 0 && size < MAX_PRESIZED_UPLOAD ? (int) size : 8192);
+        try (InputStream input = new DigestInputStream(file.content(), digest)) {
+            input.transferTo(buffer);
+        }
+        String hex = HexFormat.of().formatHex(digest.digest());
+        String hash = "sha256:" + hex;
+        String content = buffer.toString(StandardCharsets.UTF_8);
 
         IngestSourceContext context = new IngestSourceContext();
         context.setFilename(filename);
         context.setHeading("");
-        context.setByteRange(new int[] { 0, content.getBytes(StandardCharsets.UTF_8).length });
+        context.setByteRange(new int[] { 0, buffer.size() });
 
         IngestEvidence evidence = new IngestEvidence();
         evidence.setExcerptHash(hash);
@@ -596,9 +627,13 @@ public class ProjectPreparationService {
         evidence.setIngestedAt(now);
 
         Path evidencePath = workspaceRoot.resolve(".control-room").resolve("ingest")
-            .resolve("excerpts").resolve(hash.replace("sha256:", "") + ".json");
-        mapper.writerWithDefaultPrettyPrinter().writeValue(evidencePath.toFile(), evidence);
-
+            .resolve("excerpts").resolve(hex + ".json");
+        if (claimed.add(hex) && !Files.exists(evidencePath)) {
+            // Written aside and moved into place so a crash never leaves a truncated excerpt behind
+            Path temp = evidencePath.resolveSibling(hex + ".json.tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), evidence);
+            Files.move(temp, evidencePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
         return evidence;
     }
 
@@ -769,15 +804,13 @@ public class ProjectPreparationService {
     }
 
     private String sha256Hex(byte[] content) {
+        return HexFormat.of().formatHex(sha256().digest(content));
+    }
+
+    private static MessageDigest sha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashed = digest.digest(content);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashed) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("Failed to hash content", e);
         }
     }
@@ -1279,6 +1312,395 @@ public class ProjectPreparationService {
         }
     }
 
+    // ----- Streaming ingest -----
+
+    /**
+     * Reads, hashes and converts {@code files} on the ingest pool, at most {@link #INGEST_WINDOW}
+     * files ahead of the caller, and hands each result to {@code sink} on the calling thread in
+     * upload order. Only the files inside the window are held in memory at once.
+     */
+    static <T> void ingestInOrder(List<UploadedFile> files, IngestTask<T> task, IngestSink<T> sink) throws IOException {
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        Deque<Future<T>> window = new ArrayDeque<>();
+        Deque<UploadedFile> windowFiles = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < files.size() || !window.isEmpty()) {
+                while (next < files.size() && window.size() < INGEST_WINDOW) {
+                    UploadedFile file = files.get(next++);
+                    if (file == null) continue;
+                    window.addLast(INGEST_POOL.submit(() -> task.process(file)));
+                    windowFiles.addLast(file);
+                }
+                if (window.isEmpty()) {
+                    break;
+                }
+                T result = awaitIngest(window.removeFirst(), windowFiles.peekFirst());
+                sink.accept(windowFiles.removeFirst(), result);
+            }
+        } finally {
+            // On failure, stop the files still in flight
+            window.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <T> T awaitIngest(Future<T> future, UploadedFile file) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Ingest interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to ingest " + file.filename() + ": " + cause, cause);
+        }
+    }
+
+    private StoryScene buildIngestScene(IngestRun run, UploadedFile file) throws IOException {
+        IngestEvidence evidence = storeEvidence(file, run.now, run.evidenceClaimed);
+        StoryScene scene = new StoryScene();
+        scene.setOrigin("ingest");
+        String displayId = "SCN:" + slugify(stripExtension(file.filename()));
+        scene.setStableId(generateIngestStableId(run.projectSalt, run.ingestId, evidence.getExcerptHash(), displayId, "SCN"));
+        scene.setDisplayId(displayId);
+        scene.setTitle(prettifyName(file.filename()));
+        scene.setContent(evidence.getContent());
+        scene.setCreatedAt(run.now);
+        scene.setUpdatedAt(run.now);
+        scene.setStatus("active");
+        scene.setIngestPointers(List.of(pointerForEvidence(evidence)));
+        return scene;
+    }
+
+    private CanonCard buildIngestCard(IngestRun run, UploadedFile file) throws IOException {
+        IngestEvidence evidence = storeEvidence(file, run.now, run.evidenceClaimed);
+        CanonCard card = new CanonCard();
+        card.setOrigin("ingest");
+        card.setType(inferCardType(file.filename(), evidence.getContent()));
+        card.setTitle(prettifyName(file.filename()));
+        String cardDisplayId = typePrefix(card.getType()) + ":" + slugify(card.getTitle());
+        card.setDisplayId(cardDisplayId);
+        card.setStableId(generateIngestStableId(run.projectSalt, run.ingestId, evidence.getExcerptHash(), cardDisplayId, "CAN"));
+        CanonCard resumed = loadResumedCard(run, card);
+        if (resumed != null) {
+            return resumed;
+        }
+        card.setContent(evidence.getContent());
+        card.setCreatedAt(run.now);
+        card.setUpdatedAt(run.now);
+        applyAnnotationDefaults(card, evidence.getContent());
+        card.setAnnotationStatus("complete");
+        card.setStatus("active");
+        card.setIngestPointers(List.of(pointerForEvidence(evidence)));
+        return card;
+    }
+
+    /**
+     * The card an interrupted attempt of this ingest already built and staged, so a resume skips
+     * annotating it again; null when the file is new or its staged card is gone.
+     */
+    private CanonCard loadResumedCard(IngestRun run, CanonCard card) {
+        if (!run.journal.isCompleted(card.getStableId())) {
+            return null;
+        }
+        Path staged = stagedCardsDir().resolve(cardFileName(card));
+        if (!Files.exists(staged)) {
+            return null;
+        }
+        try {
+            CanonCard resumed = mapper.readValue(staged.toFile(), CanonCard.class);
+            return card.getStableId().equals(resumed.getStableId()) ? resumed : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stages the card unless a resumed ingest already did, then drops its content: the indexes
+     * built at the end only need titles, aliases and hooks. Staged cards only reach
+     * {@code canon/cards} through {@link #commitStagedCards}, so a failed run leaves none behind.
+     */
+    private void writeIngestCard(IngestRun run, CanonCard card) throws IOException {
+        String name = cardFileName(card);
+        Path staged = stagedCardsDir().resolve(name);
+        if (!run.journal.isCompleted(card.getStableId()) || !Files.exists(staged)) {
+            Files.createDirectories(staged.getParent());
+            mapper.writerWithDefaultPrettyPrinter().writeValue(staged.toFile(), card);
+        }
+        run.stagedCards.add(name);
+        card.setContent(null);
+    }
+
+    /**
+     * Moves this run's staged cards into {@code canon/cards}. Cards staged by an earlier attempt
+     * with other files are not part of the run and stay out.
+     */
+    private void commitStagedCards(IngestRun run) throws IOException {
+        Path cardsDir = workspaceRoot.resolve(".control-room").resolve("canon").resolve("cards");
+        Files.createDirectories(cardsDir);
+        for (String name : run.stagedCards) {
+            Files.move(stagedCardsDir().resolve(name), cardsDir.resolve(name),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        run.stagedCards.clear();
+    }
+
+    private Path stagedCardsDir() {
+        return workspaceRoot.resolve(".control-room").resolve("ingest").resolve("staged-cards");
+    }
+
+    private void clearStagedCards() throws IOException {
+        Path dir = stagedCardsDir();
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (java.nio.file.DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) {
+                Files.deleteIfExists(entry);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private String excerptHash(List<IngestPointer> pointers) {
+        return pointers == null || pointers.isEmpty() ? null : pointers.get(0).getExcerptHash();
+    }
+
+    private Path ingestJournalPath() {
+        return workspaceRoot.resolve(".control-room").resolve("ingest").resolve("progress.jsonl");
+    }
+
+    /**
+     * Streams the canon cards on disk into entities.json and hooks-index.json, one card at a time.
+     * Returns the number of cards.
+     */
+    private int rebuildCanonIndexes() throws IOException {
+        java.util.Map<String, java.util.List<String>> entitiesIndex = new java.util.LinkedHashMap<>();
+        java.util.Map<String, java.util.List<String>> hooksIndex = new java.util.LinkedHashMap<>();
+        int count = 0;
+        Path cardsDir = workspaceRoot.resolve(".control-room").resolve("canon").resolve("cards");
+        if (Files.exists(cardsDir)) {
+            try (java.nio.file.DirectoryStream<Path> stream = Files.newDirectoryStream(cardsDir, "*.json")) {
+                for (Path entry : stream) {
+                    CanonCard card;
+                    try {
+                        card = mapper.readValue(entry.toFile(), CanonCard.class);
+                    } catch (Exception e) {
+                        logger.error("Failed to load canon card " + entry.getFileName() + ": " + e.getMessage());
+                        continue;
+                    }
+                    addIndexEntry(entitiesIndex, card.getTitle(), card.getStableId());
+                    for (String alias : card.getAliases()) {
+                        addIndexEntry(entitiesIndex, alias, card.getStableId());
+                    }
+                    for (String hook : card.getCanonHooks()) {
+                        addIndexEntry(hooksIndex, hook, card.getStableId());
+                    }
+                    count += 1;
+                }
+            }
+        }
+        writeCanonIndexes(entitiesIndex, hooksIndex);
+        return count;
+    }
+
+    private void writeCanonIndexes(java.util.Map<String, java.util.List<String>> entitiesIndex,
+                                   java.util.Map<String, java.util.List<String>> hooksIndex) throws IOException {
+        Path entitiesPath = workspaceRoot.resolve(".control-room").resolve("canon").resolve("entities.json");
+        Path hooksPath = workspaceRoot.resolve(".control-room").resolve("canon").resolve("hooks-index.json");
+        mapper.writerWithDefaultPrettyPrinter().writeValue(entitiesPath.toFile(), entitiesIndex);
+        mapper.writerWithDefaultPrettyPrinter().writeValue(hooksPath.toFile(), hooksIndex);
+    }
+
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Progress of the running ingest, or of an interrupted one that a retry would resume;
+     * null when neither applies.
+     */
+    public java.util.Map<String, Object> getIngestProgress() {
+        java.util.Map<String, Object> running = ingestProgress;
+        if (running != null) {
+            return running;
+        }
+        IngestJournal.Header header = IngestJournal.readHeader(ingestJournalPath(), mapper);
+        if (header == null) {
+            return null;
+        }
+        java.util.Map<String, Object> interrupted = new java.util.LinkedHashMap<>();
+        interrupted.put("ingestId", header.ingestId);
+        interrupted.put("mode", header.mode);
+        interrupted.put("status", "interrupted");
+        return interrupted;
+    }
+
+    @FunctionalInterface
+    interface IngestTask<T> {
+        T process(UploadedFile file) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface IngestSink<T> {
+        void accept(UploadedFile file, T result) throws IOException;
+    }
+
+    /**
+     * One ingest request: ids, the resume journal and progress reporting. Counters are only
+     * touched from the request thread (the sink side of {@link #ingestInOrder}).
+     */
+    private final class IngestRun implements AutoCloseable {
+        private final String mode;
+        private final String ingestId;
+        private final String projectSalt;
+        private final String now;
+        private final int totalFiles;
+        private final IngestJournal journal;
+        // Card files staged by this run, committed together once every card is built
+        private final Set<String> stagedCards = new java.util.LinkedHashSet<>();
+        // Identical uploads in one request share an excerpt; only the first writes it
+        private final Set<String> evidenceClaimed = ConcurrentHashMap.newKeySet();
+        private int processed;
+        private int resumed;
+        private int excerptsStored;
+        private long lastPublished;
+
+        private IngestRun(String mode, String ingestId, String projectSalt, String now, int totalFiles) throws IOException {
+            this.mode = mode;
+            this.ingestId = ingestId;
+            this.projectSalt = projectSalt;
+            this.now = now;
+            this.totalFiles = totalFiles;
+            this.journal = IngestJournal.open(ingestJournalPath(), mapper, new IngestJournal.Header(ingestId, projectSalt, mode));
+            if (journal.size() > 0) {
+                logger.info("Ingest " + ingestId + " resuming; " + journal.size() + " file(s) already done");
+            } else {
+                // A fresh journal: cards staged by an abandoned ingest can never be committed
+                try {
+                    clearStagedCards();
+                } catch (IOException e) {
+                    journal.close();
+                    throw e;
+                }
+            }
+            publish("ingest.started", "running", null);
+        }
+
+        private void completed(UploadedFile file, String stableId, String excerptHash) throws IOException {
+            if (journal.isCompleted(stableId)) {
+                resumed += 1;
+            } else {
+                journal.markCompleted(stableId, file.filename(), excerptHash);
+            }
+            processed += 1;
+            excerptsStored += 1;
+            long nowMillis = System.currentTimeMillis();
+            if (nowMillis - lastPublished >= PROGRESS_INTERVAL_MS) {
+                publish("ingest.progress", "running", file.filename());
+            }
+        }
+
+        private void skipped(int count) {
+            processed += count;
+        }
+
+        private void finished() throws IOException {
+            journal.delete();
+            clearStagedCards();
+            publish("ingest.completed", "complete", null);
+            logger.info("Ingest " + ingestId + " complete (files=" + processed + ", resumed=" + resumed + ")");
+        }
+
+        private void failed(Exception e) {
+            publish("ingest.failed", "failed", e.getMessage());
+            logger.error("Ingest " + ingestId + " stopped after " + processed + " of " + totalFiles
+                + " file(s); a retry with the same files resumes it: " + e.getMessage());
+        }
+
+        private void publish(String type, String status, String detail) {
+            lastPublished = System.currentTimeMillis();
+            java.util.Map<String, Object> payload = new java.util.LinkedHashMap<>();
+            payload.put("ingestId", ingestId);
+            payload.put("mode", mode);
+            payload.put("status", status);
+            payload.put("processed", processed);
+            payload.put("total", totalFiles);
+            payload.put("resumed", resumed);
+            if (detail != null) {
+                payload.put("failed".equals(status) ? "error" : "file", detail);
+            }
+            ingestProgress = "running".equals(status) ? payload : null;
+            EventBus bus = eventBus;
+            if (bus != null) {
+                bus.publish(EventBus.TOPIC_PREPARATION, type, payload);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            ingestProgress = null;
+            journal.close();
+        }
+    }
+
+    /**
+     * Writes scenes.json one scene at a time: {@code existing} first, then each {@link #write}.
+     * Output goes to a temporary file that replaces scenes.json on {@link #commit}, so a failed
+     * ingest leaves the previous registry intact.
+     */
+    private final class SceneStream implements AutoCloseable {
+        private final Path target = workspaceRoot.resolve(".control-room").resolve("story").resolve("scenes.json");
+        private final Path temp = target.resolveSibling("scenes.json.tmp");
+        private final JsonGenerator generator;
+        private int count;
+        private boolean committed;
+
+        private SceneStream(List<StoryScene> existing) throws IOException {
+            Files.createDirectories(target.getParent());
+            generator = mapper.writerWithDefaultPrettyPrinter().createGenerator(temp.toFile(), JsonEncoding.UTF8);
+            generator.writeStartObject();
+            generator.writeNumberField("schemaVersion", SCHEMA_VERSION);
+            generator.writeArrayFieldStart("scenes");
+            for (StoryScene scene : existing) {
+                write(scene);
+            }
+        }
+
+        private void write(StoryScene scene) throws IOException {
+            generator.writeObject(scene);
+            count += 1;
+        }
+
+        private int count() {
+            return count;
+        }
+
+        private void commit() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                generator.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
     public static class PrepareEmptyPayload {
         public String premise;
         public String genre;
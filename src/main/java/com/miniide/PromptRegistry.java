@@ -10,6 +10,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PromptRegistry {
     private static final List<String> CORE_TOOL_IDS = List.of(
@@ -26,6 +27,9 @@ public class PromptRegistry {
     private PromptToolsFile globalPrompts;
     private PromptToolsFile userPrompts;
     private final AppLogger logger;
+    // Bumped on every write; the merged list and catalog blocks are rebuilt once per version
+    private final AtomicLong version = new AtomicLong();
+    private volatile Catalog catalog;
 
     public PromptRegistry(Path workspaceRoot, ObjectMapper objectMapper) {
         this.registryPath = workspaceRoot.resolve(".control-room").resolve("prompts").resolve("prompts.json");
@@ -46,10 +50,21 @@ public class PromptRegistry {
     }
 
     public List<PromptTool> listPrompts() {
-        List<PromptTool> prompts = new ArrayList<>();
-        prompts.addAll(mergedPrompts().values());
-        prompts.sort(Comparator.comparing(prompt -> prompt.getName() != null ? prompt.getName() : ""));
-        return prompts;
+        return new ArrayList<>(catalog().prompts);
+    }
+
+    /**
+     * Changes whenever a prompt tool is saved or deleted.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Rendered catalog block per prompt tool, in {@link #listPrompts()} order.
+     */
+    public List<CatalogEntry> getCatalogEntries() {
+        return catalog().entries;
     }
 
     public PromptTool getPrompt(String id) {
@@ -87,6 +102,7 @@ public class PromptRegistry {
             existing.setGuardrails(prompt.getGuardrails());
             existing.setPrompt(prompt.getPrompt());
             existing.setUpdatedAt(now);
+            version.incrementAndGet();
             saveToDisk();
             return existing;
         }
@@ -100,6 +116,7 @@ public class PromptRegistry {
         prompt.setUpdatedAt(now);
 
         projectPrompts.getPrompts().add(prompt);
+        version.incrementAndGet();
         if (!saveToDisk()) {
             throw new IllegalStateException("Failed to save prompt registry");
         }
@@ -113,6 +130,7 @@ public class PromptRegistry {
         }
         boolean removed = projectPrompts.getPrompts().removeIf(prompt -> id.equals(prompt.getId()));
         if (removed) {
+            version.incrementAndGet();
             saveToDisk();
             logger.info("Deleted prompt tool: " + id);
         }
@@ -120,40 +138,57 @@ public class PromptRegistry {
     }
 
     public String buildCatalogPrompt() {
-        List<PromptTool> prompts = listPrompts();
-        if (prompts.isEmpty()) {
-            return "";
+        return catalog().text;
+    }
+
+    private Catalog catalog() {
+        long current = version.get();
+        Catalog cached = catalog;
+        if (cached != null && cached.version == current) {
+            return cached;
         }
+        List<PromptTool> prompts = new ArrayList<>(mergedPrompts().values());
+        prompts.sort(Comparator.comparing(prompt -> prompt.getName() != null ? prompt.getName() : ""));
+        List<CatalogEntry> entries = new ArrayList<>();
         StringBuilder builder = new StringBuilder();
-        builder.append("Tool Catalog (prompt tools):\n");
         for (PromptTool prompt : prompts) {
             if (prompt == null) continue;
-            builder.append("- ").append(safe(prompt.getName()));
-            if (prompt.getId() != null && !prompt.getId().isBlank()) {
-                builder.append(" (id: ").append(prompt.getId()).append(")");
-            }
-            builder.append("\n");
-            if (prompt.getArchetype() != null && !prompt.getArchetype().isBlank()) {
-                builder.append("  Archetype: ").append(prompt.getArchetype()).append("\n");
-            }
-            if (prompt.getScope() != null && !prompt.getScope().isBlank()) {
-                builder.append("  Scope: ").append(prompt.getScope()).append("\n");
-            }
-            if (prompt.getUsageNotes() != null && !prompt.getUsageNotes().isBlank()) {
-                builder.append("  Use when: ").append(prompt.getUsageNotes().trim()).append("\n");
-            }
-            if (prompt.getGoals() != null && !prompt.getGoals().isBlank()) {
-                builder.append("  Goals: ").append(prompt.getGoals().trim()).append("\n");
-            }
-            if (prompt.getGuardrails() != null && !prompt.getGuardrails().isBlank()) {
-                builder.append("  Guardrails: ").append(prompt.getGuardrails().trim()).append("\n");
-            }
-            if (prompt.getPrompt() != null && !prompt.getPrompt().isBlank()) {
-                builder.append("  Prompt:\n");
-                builder.append(prompt.getPrompt().trim()).append("\n");
-            }
+            String block = renderCatalogEntry(prompt);
+            entries.add(new CatalogEntry(prompt.getId(), prompt.getName(), block));
+            builder.append(block).append("\n");
+        }
+        String text = entries.isEmpty() ? "" : ("Tool Catalog (prompt tools):\n" + builder).trim();
+        // Tagged with the version read before rendering, so a concurrent write forces a rebuild
+        Catalog built = new Catalog(current, List.copyOf(prompts), List.copyOf(entries), text);
+        catalog = built;
+        return built;
+    }
+
+    private String renderCatalogEntry(PromptTool prompt) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("- ").append(safe(prompt.getName()));
+        if (prompt.getId() != null && !prompt.getId().isBlank()) {
+            builder.append(" (id: ").append(prompt.getId()).append(")");
+        }
+        if (prompt.getArchetype() != null && !prompt.getArchetype().isBlank()) {
+            builder.append("\n  Archetype: ").append(prompt.getArchetype());
         }
-        return builder.toString().trim();
+        if (prompt.getScope() != null && !prompt.getScope().isBlank()) {
+            builder.append("\n  Scope: ").append(prompt.getScope());
+        }
+        if (prompt.getUsageNotes() != null && !prompt.getUsageNotes().isBlank()) {
+            builder.append("\n  Use when: ").append(prompt.getUsageNotes().trim());
+        }
+        if (prompt.getGoals() != null && !prompt.getGoals().isBlank()) {
+            builder.append("\n  Goals: ").append(prompt.getGoals().trim());
+        }
+        if (prompt.getGuardrails() != null && !prompt.getGuardrails().isBlank()) {
+            builder.append("\n  Guardrails: ").append(prompt.getGuardrails().trim());
+        }
+        if (prompt.getPrompt() != null && !prompt.getPrompt().isBlank()) {
+            builder.append("\n  Prompt:\n").append(prompt.getPrompt().trim());
+        }
+        return builder.toString();
     }
 
     private String safe(String value) {
@@ -348,4 +383,42 @@ public class PromptRegistry {
         slug = slug.replaceAll("(^_|_$)", "");
         return slug.isEmpty() ? "prompt" : slug;
     }
+
+    public static final class CatalogEntry {
+        private final String id;
+        private final String name;
+        private final String block;
+
+        private CatalogEntry(String id, String name, String block) {
+            this.id = id;
+            this.name = name;
+            this.block = block;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getBlock() {
+            return block;
+        }
+    }
+
+    private static final class Catalog {
+        private final long version;
+        private final List<PromptTool> prompts;
+        private final List<CatalogEntry> entries;
+        private final String text;
+
+        private Catalog(long version, List<PromptTool> prompts, List<CatalogEntry> entries, String text) {
+            this.version = version;
+            this.prompts = prompts;
+            this.entries = entries;
+            this.text = text;
+        }
+    }
 }
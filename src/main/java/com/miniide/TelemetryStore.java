@@ -7,6 +7,7 @@ import com.miniide.models.TelemetryIndex;
 import com.miniide.models.TelemetrySession;
 import com.miniide.models.TelemetrySessionInfo;
 import com.miniide.models.TelemetryTotals;
+import com.miniide.prompt.TokenEstimator;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -38,6 +39,10 @@ public class TelemetryStore {
     private TelemetrySession currentSession;
     private TelemetryIndex index;
     private String currentSessionId;
+    private volatile EventBus eventBus;
+    // History (totals + index) is read and the session opened on first use
+    private boolean loaded;
+    private long configuredAt;
 
     public TelemetryStore(Path workspaceRoot, ObjectMapper objectMapper, TelemetryConfig config) {
         this.objectMapper = objectMapper;
@@ -50,19 +55,36 @@ public class TelemetryStore {
         this.sessionsDir = telemetryRoot.resolve("sessions");
         this.totalsPath = telemetryRoot.resolve("totals.json");
         this.indexPath = telemetryRoot.resolve("index.json");
+        this.configuredAt = System.currentTimeMillis();
+        this.loaded = false;
+    }
+
+    // Callers hold the monitor
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
         load();
         startNewSessionIfNeeded();
     }
 
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
     public synchronized TelemetryTotals getTotals() {
+        ensureLoaded();
         return totals;
     }
 
     public synchronized TelemetrySession getCurrentSession() {
+        ensureLoaded();
         return currentSession;
     }
 
     public synchronized void updateConfig(TelemetryConfig config) {
+        ensureLoaded();
         if (config == null) {
             return;
         }
@@ -72,6 +94,7 @@ public class TelemetryStore {
     }
 
     public synchronized Map<String, Object> getStatusSnapshot() {
+        ensureLoaded();
         Map<String, Object> status = new LinkedHashMap<>();
         status.put("enabled", isEnabled());
         status.put("telemetryRoot", telemetryRoot != null ? telemetryRoot.toString() : null);
@@ -93,10 +116,12 @@ public class TelemetryStore {
     }
 
     public synchronized int pruneNow() {
+        ensureLoaded();
         return prune(true).deletedCount;
     }
 
     public synchronized void recordActivation(String agentId, int count) {
+        ensureLoaded();
         if (!isEnabled() || agentId == null || agentId.isBlank()) {
             return;
         }
@@ -111,6 +136,7 @@ public class TelemetryStore {
     }
 
     public synchronized void recordIssueAccess(String agentId) {
+        ensureLoaded();
         if (!isEnabled() || agentId == null || agentId.isBlank()) {
             return;
         }
@@ -124,6 +150,7 @@ public class TelemetryStore {
     }
 
     public synchronized void recordIssueDemotion(String agentId) {
+        ensureLoaded();
         if (!isEnabled() || agentId == null || agentId.isBlank()) {
             return;
         }
@@ -137,6 +164,7 @@ public class TelemetryStore {
     }
 
     public synchronized void recordTokens(String agentId, long tokensIn, long tokensOut) {
+        ensureLoaded();
         if (!isEnabled() || agentId == null || agentId.isBlank()) {
             return;
         }
@@ -161,6 +189,7 @@ public class TelemetryStore {
     }
 
     public synchronized void recordError(String agentId) {
+        ensureLoaded();
         if (!isEnabled()) {
             return;
         }
@@ -176,6 +205,7 @@ public class TelemetryStore {
     }
 
     public synchronized void recordConferenceEvent(String conferenceId, String agentId, String type) {
+        ensureLoaded();
         if (!isEnabled() || conferenceId == null || conferenceId.isBlank()) {
             return;
         }
@@ -232,7 +262,7 @@ public class TelemetryStore {
         if (text == null || text.isBlank()) {
             return 0;
         }
-        return Math.max(1, Math.round(text.length() / 4.0));
+        return Math.max(1, TokenEstimator.estimate(text));
     }
 
     private boolean isEnabled() {
@@ -273,7 +303,8 @@ public class TelemetryStore {
     }
 
     private void startNewSessionIfNeeded() {
-        long now = System.currentTimeMillis();
+        // The session still starts when the store was configured, not when it was first touched
+        long now = configuredAt;
         currentSessionId = formatSessionId(now);
         currentSession = new TelemetrySession();
         currentSession.setId(currentSessionId);
@@ -416,6 +447,14 @@ public class TelemetryStore {
         ensureSessionInIndex();
         saveAll();
         pruneIfNeeded();
+        EventBus bus = eventBus;
+        if (bus != null) {
+            // Copy the counters: the event is serialized later, on the subscriber's thread
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("sessionId", currentSessionId);
+            payload.put("totals", objectMapper.valueToTree(currentSession.getTotals()));
+            bus.publish(EventBus.TOPIC_TELEMETRY, "telemetry.updated", payload);
+        }
     }
 
     private void saveAll() {
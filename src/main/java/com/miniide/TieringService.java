@@ -15,29 +15,50 @@ import com.miniide.models.TierTaskResult;
 import com.miniide.models.TierTaskSnapshot;
 import com.miniide.storage.JsonStorage;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tier caps, promotion and demotion per (agent, model).
+ * <p>
+ * Rates over the recent-task windows come from a rolling accumulator per (agent, model), so a
+ * task result is evaluated in O(1). Tier events are appended to {@code tiers/events.jsonl}.
+ * Routine performance updates are written back to the agent registry at most every
+ * {@link #PERSIST_INTERVAL_MS}; tier changes and clamp starts are written immediately.
+ */
 public class TieringService {
+    private static final long PERSIST_INTERVAL_MS = 10_000L;
+
     private final Path policyPath;
     private final Path eventsPath;
+    private final Path legacyEventsPath;
     private final ObjectMapper objectMapper;
     private final AgentRegistry agentRegistry;
     private final AppLogger logger;
+    private final Map<String, TierWindow> windows = new ConcurrentHashMap<>();
     private TierPolicy policy;
+    private long lastPersistAt;
+    private Agent pendingPersist;
 
     public TieringService(Path workspaceRoot, ObjectMapper objectMapper, AgentRegistry agentRegistry) {
         this.objectMapper = objectMapper;
         this.agentRegistry = agentRegistry;
         this.logger = AppLogger.get();
         this.policyPath = workspaceRoot.resolve(".control-room").resolve("tiers").resolve("policy.json");
-        this.eventsPath = workspaceRoot.resolve(".control-room").resolve("tiers").resolve("events.json");
+        this.eventsPath = workspaceRoot.resolve(".control-room").resolve("tiers").resolve("events.jsonl");
+        this.legacyEventsPath = eventsPath.resolveSibling("events.json");
         this.policy = loadPolicy();
+        migrateLegacyEvents();
     }
 
     public TierPolicy getPolicy() {
@@ -48,6 +69,8 @@ public class TieringService {
         TierPolicy normalized = normalizePolicy(updates);
         policy = normalized;
         savePolicy(policy);
+        // Window sizes may have changed; accumulators rebuild from the stored recent tasks
+        windows.clear();
         return policy;
     }
 
@@ -76,9 +99,10 @@ public class TieringService {
         snapshot.setCapClampRemaining(perf.getCapClampRemaining());
         snapshot.setCapClampFactor(perf.getCapClampFactor());
         snapshot.setCooldownUntil(perf.getCooldownUntil());
-        snapshot.setAssistedRateLastN(computeAssistedRate(perf.getRecentTasks(), policy.getRateWindow()));
-        snapshot.setVerificationFailRateLastN(computeVerificationFailRate(perf.getRecentTasks(), policy.getRateWindow()));
-        snapshot.setWatchlistEventsLastW(computeWatchlistEvents(perf.getRecentTasks(), policy.getWatchlistWindow()));
+        TierWindow window = window(agentId, resolvedModel, perf.getRecentTasks());
+        snapshot.setAssistedRateLastN(window.assistedRate());
+        snapshot.setVerificationFailRateLastN(window.verificationFailRate());
+        snapshot.setWatchlistEventsLastW(window.watchlistEvents());
         snapshot.setCaps(caps);
         snapshot.setEffectiveCaps(effectiveCaps);
         return snapshot;
@@ -99,7 +123,7 @@ public class TieringService {
         return results;
     }
 
-    public TierEvaluation recordTaskResult(String agentId, String modelId, TierTaskResult result) {
+    public synchronized TierEvaluation recordTaskResult(String agentId, String modelId, TierTaskResult result) {
         if (result == null) {
             throw new IllegalArgumentException("Task result payload is required");
         }
@@ -174,17 +198,16 @@ public class TieringService {
         }
 
         List<TierTaskSnapshot> recent = perf.getRecentTasks();
-        if (recent == null) {
-            recent = new ArrayList<>();
-            perf.setRecentTasks(recent);
-        }
+        TierWindow window = window(agentId, resolvedModel, recent);
         recent.add(snapshot);
         trimRecentTasks(recent);
+        window.add(snapshot);
+        window.track(recent);
 
-        double assistedRate = computeAssistedRate(recent, policy.getRateWindow());
-        double verificationFailRate = computeVerificationFailRate(recent, policy.getRateWindow());
-        int watchlistEventsLastW = computeWatchlistEvents(recent, policy.getWatchlistWindow());
-        int failuresLastM = computeFailures(recent, policy.getDemotionFailureWindow());
+        double assistedRate = window.assistedRate();
+        double verificationFailRate = window.verificationFailRate();
+        int watchlistEventsLastW = window.watchlistEvents();
+        int failuresLastM = window.failures();
 
         boolean clampStarted = false;
         if (failure && perf.getCapClampRemaining() <= 0) {
@@ -237,7 +260,7 @@ public class TieringService {
         profile.setMaxSafeSteps(finalEffectiveCaps.getMaxSafeSteps());
         profile.setMaxTaskDosage(finalEffectiveCaps.getMaxSafeSteps());
 
-        agentRegistry.saveAgent(agent);
+        persist(agent, promoted || demoted || clampStarted, now);
 
         TierEvaluation evaluation = new TierEvaluation();
         evaluation.setAgentId(agentId);
@@ -260,6 +283,37 @@ public class TieringService {
         return evaluation;
     }
 
+    /**
+     * Writes out performance updates that were held back by the persist interval.
+     */
+    public synchronized void flush() {
+        if (pendingPersist != null) {
+            agentRegistry.saveAgent(pendingPersist);
+            pendingPersist = null;
+            lastPersistAt = System.currentTimeMillis();
+        }
+    }
+
+    private void persist(Agent agent, boolean immediate, long now) {
+        if (immediate || now - lastPersistAt >= PERSIST_INTERVAL_MS) {
+            agentRegistry.saveAgent(agent);
+            pendingPersist = null;
+            lastPersistAt = now;
+        } else {
+            pendingPersist = agent;
+        }
+    }
+
+    private TierWindow window(String agentId, String modelId, List<TierTaskSnapshot> recent) {
+        String key = agentId + "\u0000" + modelId;
+        TierWindow window = windows.get(key);
+        if (window == null || !window.tracks(recent)) {
+            window = new TierWindow(policy, recent);
+            windows.put(key, window);
+        }
+        return window;
+    }
+
     private TierPolicy loadPolicy() {
         if (Files.exists(policyPath)) {
             try {
@@ -460,62 +514,6 @@ public class TieringService {
         }
     }
 
-    private double computeAssistedRate(List<TierTaskSnapshot> recent, int window) {
-        if (recent == null || recent.isEmpty()) {
-            return 0.0;
-        }
-        int size = Math.min(window, recent.size());
-        int assisted = 0;
-        for (int i = recent.size() - size; i < recent.size(); i++) {
-            if (recent.get(i).isAssisted()) {
-                assisted++;
-            }
-        }
-        return size == 0 ? 0.0 : assisted / (double) size;
-    }
-
-    private double computeVerificationFailRate(List<TierTaskSnapshot> recent, int window) {
-        if (recent == null || recent.isEmpty()) {
-            return 0.0;
-        }
-        int size = Math.min(window, recent.size());
-        int failures = 0;
-        for (int i = recent.size() - size; i < recent.size(); i++) {
-            if (!recent.get(i).isVerified()) {
-                failures++;
-            }
-        }
-        return size == 0 ? 0.0 : failures / (double) size;
-    }
-
-    private int computeWatchlistEvents(List<TierTaskSnapshot> recent, int window) {
-        if (recent == null || recent.isEmpty()) {
-            return 0;
-        }
-        int size = Math.min(window, recent.size());
-        int events = 0;
-        for (int i = recent.size() - size; i < recent.size(); i++) {
-            if (recent.get(i).isWatchlistEvent()) {
-                events++;
-            }
-        }
-        return events;
-    }
-
-    private int computeFailures(List<TierTaskSnapshot> recent, int window) {
-        if (recent == null || recent.isEmpty()) {
-            return 0;
-        }
-        int size = Math.min(window, recent.size());
-        int failures = 0;
-        for (int i = recent.size() - size; i < recent.size(); i++) {
-            if (recent.get(i).isFailure()) {
-                failures++;
-            }
-        }
-        return failures;
-    }
-
     private boolean meetsPromotionCriteria(AgentPerformanceStats perf, double assistedRate,
                                            double verificationFailRate, int watchlistEvents, long now) {
         if (perf.getCapRunStreak() < policy.getCapRunStreakRequired()) {
@@ -566,15 +564,40 @@ public class TieringService {
             return;
         }
         try {
-            List<TierEvent> existing = JsonStorage.readJsonList(eventsPath.toString(), TierEvent[].class);
-            List<TierEvent> updated = new ArrayList<>(existing);
-            updated.add(event);
-            JsonStorage.writeJsonList(eventsPath.toString(), updated);
+            appendEvents(List.of(event));
         } catch (IOException e) {
             logger.warn("Failed to write tier event: " + e.getMessage());
         }
     }
 
+    private void appendEvents(List<TierEvent> events) throws IOException {
+        Files.createDirectories(eventsPath.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(eventsPath, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (TierEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Moves events from the old rewrite-per-event JSON array into the JSONL log once.
+     */
+    private void migrateLegacyEvents() {
+        if (!Files.exists(legacyEventsPath) || Files.exists(eventsPath)) {
+            return;
+        }
+        try {
+            List<TierEvent> legacy = JsonStorage.readJsonList(legacyEventsPath.toString(), TierEvent[].class);
+            appendEvents(legacy);
+            Files.delete(legacyEventsPath);
+            logger.info("Migrated " + legacy.size() + " tier event(s) to " + eventsPath);
+        } catch (IOException e) {
+            logger.warn("Failed to migrate tier events: " + e.getMessage());
+        }
+    }
+
     private String resolveModelId(Agent agent, String modelId) {
         if (modelId != null && !modelId.isBlank()) {
             return modelId.trim();
@@ -587,4 +610,98 @@ public class TieringService {
         }
         return null;
     }
+
+    /**
+     * Rolling counts over the last N recent tasks for each policy window. Mirrors
+     * {@link AgentPerformanceStats#getRecentTasks()} and rebuilds from it whenever that list
+     * was replaced or changed behind its back (registry reload, policy change).
+     */
+    private static final class TierWindow {
+        private final int rateWindow;
+        private final int watchlistWindow;
+        private final int failureWindow;
+        private final TierTaskSnapshot[] ring;
+        private int head;
+        private int count;
+        private int assistedInRate;
+        private int unverifiedInRate;
+        private int watchlistInWindow;
+        private int failuresInWindow;
+        private List<TierTaskSnapshot> tracked;
+        private int trackedSize;
+        private TierTaskSnapshot trackedLast;
+
+        private TierWindow(TierPolicy policy, List<TierTaskSnapshot> recent) {
+            this.rateWindow = policy.getRateWindow();
+            this.watchlistWindow = policy.getWatchlistWindow();
+            this.failureWindow = policy.getDemotionFailureWindow();
+            int capacity = Math.max(rateWindow, Math.max(watchlistWindow, failureWindow));
+            this.ring = new TierTaskSnapshot[capacity > 0 ? capacity : 20];
+            if (recent != null) {
+                for (int i = Math.max(0, recent.size() - ring.length); i < recent.size(); i++) {
+                    add(recent.get(i));
+                }
+            }
+            track(recent);
+        }
+
+        private boolean tracks(List<TierTaskSnapshot> recent) {
+            if (recent != tracked || recent == null) {
+                return false;
+            }
+            int size = recent.size();
+            return size == trackedSize && (size == 0 || recent.get(size - 1) == trackedLast);
+        }
+
+        private void track(List<TierTaskSnapshot> recent) {
+            tracked = recent;
+            trackedSize = recent != null ? recent.size() : 0;
+            trackedLast = trackedSize > 0 ? recent.get(trackedSize - 1) : null;
+        }
+
+        private void add(TierTaskSnapshot task) {
+            // The entry w-th from the end leaves window w once the new task is in
+            TierTaskSnapshot leavingRate = fromEnd(rateWindow - 1);
+            TierTaskSnapshot leavingWatchlist = fromEnd(watchlistWindow - 1);
+            TierTaskSnapshot leavingFailure = fromEnd(failureWindow - 1);
+            assistedInRate += flag(task.isAssisted()) - (leavingRate != null ? flag(leavingRate.isAssisted()) : 0);
+            unverifiedInRate += flag(!task.isVerified()) - (leavingRate != null ? flag(!leavingRate.isVerified()) : 0);
+            watchlistInWindow += flag(task.isWatchlistEvent())
+                - (leavingWatchlist != null ? flag(leavingWatchlist.isWatchlistEvent()) : 0);
+            failuresInWindow += flag(task.isFailure()) - (leavingFailure != null ? flag(leavingFailure.isFailure()) : 0);
+
+            ring[head] = task;
+            head = (head + 1) % ring.length;
+            count = Math.min(count + 1, ring.length);
+        }
+
+        private TierTaskSnapshot fromEnd(int offset) {
+            if (offset < 0 || offset >= count) {
+                return null;
+            }
+            return ring[Math.floorMod(head - 1 - offset, ring.length)];
+        }
+
+        private double assistedRate() {
+            int size = Math.min(rateWindow, count);
+            return size <= 0 ? 0.0 : assistedInRate / (double) size;
+        }
+
+        private double verificationFailRate() {
+            int size = Math.min(rateWindow, count);
+            return size <= 0 ? 0.0 : unverifiedInRate / (double) size;
+        }
+
+        private int watchlistEvents() {
+            return watchlistWindow <= 0 ? 0 : watchlistInWindow;
+        }
+
+        private int failures() {
+            return failureWindow <= 0 ? 0 : failuresInWindow;
+        }
+
+        private static int flag(boolean value) {
+            return value ? 1 : 0;
+        }
+    }
 }
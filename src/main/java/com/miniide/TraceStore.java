@@ -0,0 +1,263 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.metrics.TurnTracer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finished turn traces from {@link TurnTracer}, appended as one JSON line per turn to
+ * {@code .control-room/telemetry/traces/<date>.jsonl} next to the telemetry sessions. The most
+ * recent traces are also kept in memory so the UI can read them without touching disk.
+ */
+public class TraceStore {
+    private static final int RECENT_LIMIT = 200;
+    private static final int MAX_TRACE_FILES = 14;
+
+    private final ObjectMapper objectMapper;
+    private final Path tracesDir;
+    private final Deque<Map<String, Object>> recent = new ArrayDeque<>();
+    private String currentDay;
+
+    public TraceStore(Path workspaceRoot, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.tracesDir = workspaceRoot.resolve(".control-room").resolve("telemetry").resolve("traces");
+    }
+
+    public Path getTracesDir() {
+        return tracesDir;
+    }
+
+    public void record(TurnTracer.Trace trace) {
+        if (trace == null || trace.getRoot() == null) {
+            return;
+        }
+        Map<String, Object> record = toRecord(trace);
+        String line;
+        try {
+            line = objectMapper.writeValueAsString(record);
+        } catch (IOException e) {
+            return;
+        }
+        synchronized (this) {
+            recent.addFirst(record);
+            while (recent.size() > RECENT_LIMIT) {
+                recent.removeLast();
+            }
+            try {
+                Files.createDirectories(tracesDir);
+                String day = LocalDate.now(ZoneId.systemDefault()).toString();
+                Files.write(tracesDir.resolve(day + ".jsonl"), (line + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                if (!day.equals(currentDay)) {
+                    currentDay = day;
+                    pruneOldFiles();
+                }
+            } catch (IOException e) {
+                AppLogger.get().warn("Failed to write turn trace: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Newest first, without span trees. Blank filters match everything.
+     */
+    public synchronized List<Map<String, Object>> listRecent(int limit, String sessionId, String turnId) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> record : recent) {
+            if (out.size() >= limit) {
+                break;
+            }
+            if (!matches(record.get("sessionId"), sessionId) || !matches(record.get("turnId"), turnId)) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>(record);
+            row.remove("root");
+            out.add(row);
+        }
+        return out;
+    }
+
+    /**
+     * Looks up a trace by trace id or turn id: memory first, then the persisted files newest first.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> get(String id) throws IOException {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        synchronized (this) {
+            for (Map<String, Object> record : recent) {
+                if (id.equals(record.get("traceId")) || id.equals(record.get("turnId"))) {
+                    return record;
+                }
+            }
+        }
+        for (Path file : listTraceFiles()) {
+            Map<String, Object> found = null;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // Cheap substring check before parsing; later lines win for repeated turn ids
+                    if (line.isBlank() || !line.contains(id)) {
+                        continue;
+                    }
+                    JsonNode node = objectMapper.readTree(line);
+                    if (id.equals(node.path("traceId").asText(null)) || id.equals(node.path("turnId").asText(null))) {
+                        found = objectMapper.convertValue(node, Map.class);
+                    }
+                }
+            }
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flame-style breakdown of a trace: wall time per span path ("turn;tool.loop;agent.call"),
+     * with self time excluding children. Sorted by self time, largest first.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> flameSummary(Map<String, Object> record) {
+        Map<String, double[]> byPath = new TreeMap<>();
+        Object root = record != null ? record.get("root") : null;
+        if (root instanceof Map) {
+            collect((Map<String, Object>) root, "", byPath);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : byPath.entrySet()) {
+            double[] totals = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("path", entry.getKey());
+            row.put("count", (long) totals[0]);
+            row.put("totalMs", round(totals[1]));
+            row.put("selfMs", round(totals[2]));
+            rows.add(row);
+        }
+        rows.sort(Comparator.comparingDouble((Map<String, Object> row) -> (Double) row.get("selfMs")).reversed());
+        return rows;
+    }
+
+    /**
+     * Folded-stack text ("path selfMicros" per line) for flamegraph.pl / speedscope.
+     */
+    public static String foldedStacks(Map<String, Object> record) {
+        StringBuilder out = new StringBuilder();
+        for (Map<String, Object> row : flameSummary(record)) {
+            long micros = Math.round((Double) row.get("selfMs") * 1000.0);
+            if (micros > 0) {
+                out.append(row.get("path")).append(' ').append(micros).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collect(Map<String, Object> span, String prefix, Map<String, double[]> byPath) {
+        String path = prefix.isEmpty() ? String.valueOf(span.get("name")) : prefix + ";" + span.get("name");
+        double duration = toDouble(span.get("durationMs"));
+        double childTotal = 0;
+        Object children = span.get("children");
+        if (children instanceof List) {
+            for (Object child : (List<Object>) children) {
+                if (child instanceof Map) {
+                    childTotal += toDouble(((Map<String, Object>) child).get("durationMs"));
+                    collect((Map<String, Object>) child, path, byPath);
+                }
+            }
+        }
+        double[] totals = byPath.computeIfAbsent(path, k -> new double[3]);
+        totals[0] += 1;
+        totals[1] += duration;
+        totals[2] += Math.max(0, duration - childTotal);
+    }
+
+    private Map<String, Object> toRecord(TurnTracer.Trace trace) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("traceId", trace.getTraceId());
+        record.put("sessionId", trace.getSessionId());
+        record.put("taskId", trace.getTaskId());
+        record.put("turnId", trace.getTurnId());
+        record.put("agentId", trace.getAgentId());
+        record.put("startedAt", trace.getStartedAt());
+        record.put("durationMs", round(trace.getDurationNanos() / 1_000_000.0));
+        if (trace.getDroppedSpans() > 0) {
+            record.put("droppedSpans", trace.getDroppedSpans());
+        }
+        record.put("root", toNode(trace.getRoot(), trace.getRoot()));
+        return record;
+    }
+
+    private static Map<String, Object> toNode(TurnTracer.Span span, TurnTracer.Span root) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("name", span.getName());
+        node.put("offsetMs", round((span.getStartNanos() - root.getStartNanos()) / 1_000_000.0));
+        node.put("durationMs", round(span.getDurationNanos() / 1_000_000.0));
+        if (!span.getAttributes().isEmpty()) {
+            node.put("attributes", span.getAttributes());
+        }
+        if (!span.getChildren().isEmpty()) {
+            List<Map<String, Object>> children = new ArrayList<>(span.getChildren().size());
+            for (TurnTracer.Span child : span.getChildren()) {
+                children.add(toNode(child, root));
+            }
+            node.put("children", children);
+        }
+        return node;
+    }
+
+    private List<Path> listTraceFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(tracesDir)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tracesDir, "*.jsonl")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Date-named files sort chronologically; newest first
+        files.sort(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed());
+        return files;
+    }
+
+    private void pruneOldFiles() throws IOException {
+        List<Path> files = listTraceFiles();
+        Iterator<Path> iterator = files.listIterator(Math.min(files.size(), MAX_TRACE_FILES));
+        while (iterator.hasNext()) {
+            Files.deleteIfExists(iterator.next());
+        }
+    }
+
+    private static boolean matches(Object value, String filter) {
+        return filter == null || filter.isBlank() || filter.equals(value);
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
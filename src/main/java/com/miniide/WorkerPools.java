@@ -0,0 +1,128 @@
+package com.miniide;
+
+import com.miniide.metrics.MetricsRegistry;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pools for the HTTP server and for blocking work that should not hold a request thread.
+ * <p>
+ * Requests run on virtual threads when the JVM has them (Java 21+; looked up reflectively so the
+ * build still targets 17) and on a bounded platform pool otherwise. Long blocking work (agent
+ * turns, provider calls, pipeline runs) goes to named, bounded executors so one kind of load
+ * cannot starve the others. Every pool publishes saturation gauges through {@link MetricsRegistry}.
+ */
+public final class WorkerPools {
+
+    private static final int HTTP_MIN_THREADS = 8;
+    private static final int HTTP_MAX_THREADS = 200;
+    private static final int HTTP_IDLE_TIMEOUT_MS = 60_000;
+    private static final ExecutorService VIRTUAL_EXECUTOR = createVirtualExecutor();
+
+    private WorkerPools() {
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Jetty pool for the HTTP server. With virtual threads, Jetty keeps its selectors on the
+     * platform threads here and runs each request on a fresh virtual thread.
+     */
+    public static QueuedThreadPool httpThreadPool() {
+        QueuedThreadPool pool = new QueuedThreadPool(HTTP_MAX_THREADS, HTTP_MIN_THREADS, HTTP_IDLE_TIMEOUT_MS);
+        pool.setName("http");
+        if (VIRTUAL_EXECUTOR != null) {
+            pool.setVirtualThreadsExecutor(VIRTUAL_EXECUTOR);
+        }
+        MetricsRegistry metrics = MetricsRegistry.get();
+        metrics.gauge("http_pool_threads", "Platform threads in the HTTP pool", pool::getThreads);
+        metrics.gauge("http_pool_busy_threads", "HTTP pool threads running a job", pool::getBusyThreads);
+        metrics.gauge("http_pool_max_threads", "HTTP pool size limit", pool::getMaxThreads);
+        metrics.gauge("http_pool_queue_depth", "HTTP jobs waiting for a pool thread", pool::getQueueSize);
+        metrics.gauge("http_pool_virtual", "1 when requests run on virtual threads", () -> VIRTUAL_EXECUTOR != null ? 1 : 0);
+        return pool;
+    }
+
+    /**
+     * Fixed-size daemon pool with a bounded queue; submissions beyond it are rejected with
+     * {@link java.util.concurrent.RejectedExecutionException}. A non-positive
+     * {@code queueCapacity} means an unbounded queue (threads are still capped).
+     */
+    public static ThreadPoolExecutor bounded(String name, int threads, int queueCapacity) {
+        return create(name, threads, queueCapacity, false);
+    }
+
+    /**
+     * Like {@link #bounded} with no queue, but a saturated pool runs the task on the submitting
+     * thread instead of rejecting it.
+     */
+    public static ThreadPoolExecutor callerRunsWhenFull(String name, int threads) {
+        return create(name, threads, 0, true);
+    }
+
+    /**
+     * One virtual thread per task when the JVM has them, otherwise {@link #bounded} with an
+     * unbounded queue. For tasks that mostly wait on slow peers (e.g. socket writes to browsers).
+     */
+    public static ExecutorService virtualOrBounded(String name, int fallbackThreads) {
+        return VIRTUAL_EXECUTOR != null ? VIRTUAL_EXECUTOR : bounded(name, fallbackThreads, 0);
+    }
+
+    private static ThreadPoolExecutor create(String name, int threads, int queueCapacity, boolean callerRuns) {
+        AtomicInteger sequence = new AtomicInteger();
+        LongAdder rejected = new LongAdder();
+        RejectedExecutionHandler fallback = callerRuns
+            ? new ThreadPoolExecutor.CallerRunsPolicy()
+            : new ThreadPoolExecutor.AbortPolicy();
+        BlockingQueue<Runnable> queue;
+        if (callerRuns) {
+            queue = new SynchronousQueue<>();
+        } else if (queueCapacity > 0) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+        } else {
+            queue = new LinkedBlockingQueue<>();
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+            runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, pool) -> {
+                rejected.increment();
+                fallback.rejectedExecution(runnable, pool);
+            });
+        executor.allowCoreThreadTimeOut(true);
+
+        MetricsRegistry metrics = MetricsRegistry.get();
+        metrics.gauge("executor_active_threads", "Executor threads running a task", executor::getActiveCount, "pool", name);
+        metrics.gauge("executor_max_threads", "Executor size limit", executor::getMaximumPoolSize, "pool", name);
+        metrics.gauge("executor_queue_depth", "Tasks waiting for an executor thread", () -> executor.getQueue().size(), "pool", name);
+        metrics.gauge("executor_completed_total", "Tasks finished by the executor", executor::getCompletedTaskCount, "pool", name);
+        metrics.gauge("executor_rejected_total", "Tasks the executor was too full to take (rejected, or run by the caller)",
+            rejected::sum, "pool", name);
+        return executor;
+    }
+
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 17-20 (or preview disabled): fall back to the platform pool
+            return null;
+        }
+    }
+}
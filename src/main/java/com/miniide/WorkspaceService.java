@@ -1,5 +1,6 @@
 package com.miniide;
 
+import com.miniide.models.FileLineRange;
 import com.miniide.models.FileNode;
 import com.miniide.models.SceneSegment;
 import com.miniide.models.SearchResult;
@@ -12,9 +13,16 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -26,6 +34,22 @@ public class WorkspaceService {
     private final Path workspaceRoot;
     private final Path metadataPath;
     private final ObjectMapper mapper = new ObjectMapper();
+    private static final int LINE_INDEX_CACHE_SIZE = 256;
+    private final Map<Path, LineOffsetIndex> lineIndexCache = Collections.synchronizedMap(
+        new LinkedHashMap<Path, LineOffsetIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, LineOffsetIndex> eldest) {
+                return size() > LINE_INDEX_CACHE_SIZE;
+            }
+        });
+    // Content hashes recorded by delta saves, so the next delta's base check skips rehashing
+    private final Map<Path, ContentHash> contentHashCache = Collections.synchronizedMap(
+        new LinkedHashMap<Path, ContentHash>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, ContentHash> eldest) {
+                return size() > LINE_INDEX_CACHE_SIZE;
+            }
+        });
 
     public WorkspaceService(Path workspaceRoot) {
         this.workspaceRoot = workspaceRoot.toAbsolutePath().normalize();
@@ -204,6 +228,52 @@ public class WorkspaceService {
         return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
     }
 
+    /**
+     * Reads a window of lines without loading the whole file.
+     * Uses a cached line-offset index (rebuilt when size or mtime change) to seek straight
+     * to the first requested line; only the requested bytes are read.
+     *
+     * @param relativePath workspace-relative path to file
+     * @param startLine first line to return (1-based, clamped to 1)
+     * @param endLine last line to return (inclusive, clamped to the file length)
+     * @return the requested lines joined with '\n' plus the file's total line count
+     * @throws IOException if file doesn't exist or can't be read
+     */
+    public FileLineRange readLineRange(String relativePath, int startLine, int endLine) throws IOException {
+        Path path = resolvePath(relativePath);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("File not found: " + relativePath);
+        }
+        if (Files.isDirectory(path)) {
+            throw new IOException("Cannot read directory as file: " + relativePath);
+        }
+        LineOffsetIndex index = lineIndex(path);
+        int start = Math.max(1, startLine);
+        int end = Math.min(index.getLineCount(), Math.max(start, endLine));
+        String content = index.read(path, start, end);
+        return new FileLineRange(relativePath, start, Math.max(start, end), index.getLineCount(), index.getSize(), content);
+    }
+
+    private LineOffsetIndex lineIndex(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        LineOffsetIndex cached = lineIndexCache.get(path);
+        if (cached != null && cached.matches(attrs)) {
+            return cached;
+        }
+        LineOffsetIndex built = LineOffsetIndex.build(path);
+        lineIndexCache.put(path, built);
+        return built;
+    }
+
+    private void invalidateLineIndex(Path path) {
+        synchronized (lineIndexCache) {
+            lineIndexCache.keySet().removeIf(cached -> cached.startsWith(path));
+        }
+        synchronized (contentHashCache) {
+            contentHashCache.keySet().removeIf(cached -> cached.startsWith(path));
+        }
+    }
+
     /**
      * Writes content to a file, creating parent directories if needed.
      * Overwrites existing file content.
@@ -216,6 +286,7 @@ public class WorkspaceService {
         Path path = resolvePath(relativePath);
         Files.createDirectories(path.getParent());
         Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        invalidateLineIndex(path);
         log("Wrote file: " + relativePath);
     }
 
@@ -238,6 +309,7 @@ public class WorkspaceService {
         Files.createDirectories(path.getParent());
         String content = initialContent != null ? initialContent : "";
         Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        invalidateLineIndex(path);
         log("Created file: " + relativePath);
     }
 
@@ -280,6 +352,8 @@ public class WorkspaceService {
 
         Files.createDirectories(to.getParent());
         Files.move(from, to);
+        invalidateLineIndex(from);
+        invalidateLineIndex(to);
         log("Renamed: " + oldPath + " -> " + newPath);
     }
 
@@ -298,6 +372,7 @@ public class WorkspaceService {
         if (!Files.exists(path)) {
             throw new FileNotFoundException("Path not found: " + relativePath);
         }
+        invalidateLineIndex(path);
 
         if (Files.isDirectory(path)) {
             // Delete directory recursively
@@ -482,6 +557,92 @@ public class WorkspaceService {
         log("Applied patch to " + relativePath + " (" + edits.size() + " edits)");
     }
 
+    /**
+     * Applies line edits to a file saved at {@code baseHash} and atomically replaces it.
+     * Edits use {@link TextEdit} line numbers against the base content; lines are split on '\n'
+     * only, so the rest of the file is preserved byte-for-byte.
+     *
+     * @param relativePath workspace-relative path to file
+     * @param baseHash SHA-256 hex of the content the edits were computed against
+     * @param edits non-overlapping edits relative to the base content
+     * @return SHA-256 hex of the new content, to be sent as the next delta's base
+     * @throws IllegalStateException if the file no longer matches {@code baseHash}
+     * @throws IOException if file doesn't exist or can't be written
+     */
+    public synchronized String applyDelta(String relativePath, String baseHash, List<TextEdit> edits) throws IOException {
+        Path path = resolvePath(relativePath);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("File not found: " + relativePath);
+        }
+        if (Files.isDirectory(path)) {
+            throw new IOException("Cannot apply patch to directory: " + relativePath);
+        }
+        byte[] current = Files.readAllBytes(path);
+        String currentHash = contentHash(path, current);
+        if (baseHash == null || !baseHash.equalsIgnoreCase(currentHash)) {
+            throw new IllegalStateException("File changed since base revision: " + relativePath);
+        }
+        String patched = applyEditsToText(new String(current, StandardCharsets.UTF_8), edits);
+        byte[] bytes = patched.getBytes(StandardCharsets.UTF_8);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, bytes);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        invalidateLineIndex(path);
+
+        String newHash = sha256Hex(bytes);
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        contentHashCache.put(path, new ContentHash(attrs, newHash));
+        log("Applied delta to " + relativePath + " (" + (edits != null ? edits.size() : 0) + " edits)");
+        return newHash;
+    }
+
+    /**
+     * Applies edits to '\n'-separated text and joins the result back with '\n'.
+     */
+    public String applyEditsToText(String content, List<TextEdit> edits) {
+        List<String> lines = Arrays.asList((content != null ? content : "").split("\n", -1));
+        return String.join("\n", applyEditsInMemory(lines, edits));
+    }
+
+    public static String sha256Hex(String content) {
+        return sha256Hex((content != null ? content : "").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private String contentHash(Path path, byte[] current) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        ContentHash cached = contentHashCache.get(path);
+        if (cached != null && cached.matches(attrs)) {
+            return cached.hash;
+        }
+        String hash = sha256Hex(current);
+        contentHashCache.put(path, new ContentHash(attrs, hash));
+        return hash;
+    }
+
+    private static final class ContentHash {
+        private final long size;
+        private final long modifiedMillis;
+        private final String hash;
+
+        private ContentHash(BasicFileAttributes attrs, String hash) {
+            this.size = attrs.size();
+            this.modifiedMillis = attrs.lastModifiedTime().toMillis();
+            this.hash = hash;
+        }
+
+        private boolean matches(BasicFileAttributes attrs) {
+            return attrs.size() == size && attrs.lastModifiedTime().toMillis() == modifiedMillis;
+        }
+    }
+
     /**
      * Reads a file and returns its lines with UTF-8 encoding.
      */
@@ -523,6 +684,7 @@ public class WorkspaceService {
             Files.createDirectories(path.getParent());
         }
         Files.write(path, lines, StandardCharsets.UTF_8);
+        invalidateLineIndex(path);
     }
 
     private void applyEdit(List<String> lines, TextEdit edit) {
@@ -21,6 +21,7 @@ public class AuditController implements Controller {
         app.get("/api/audit/issues/{id}", this::listIssueAudit);
         app.get("/api/audit/issues/{id}/files/{filename}", this::getIssueAuditFile);
         app.get("/api/audit/sessions/{id}/receipts", this::listSessionReceipts);
+        app.get("/api/audit/sessions/{id}/receipts/{receiptId}", this::getSessionReceipt);
         app.get("/api/audit/sessions/{id}/tool-receipts", this::getSessionReceiptFile);
         app.post("/api/audit/sessions/{id}/link-issue", this::linkSessionToIssue);
     }
@@ -104,6 +105,25 @@ public class AuditController implements Controller {
         }
     }
 
+    private void getSessionReceipt(Context ctx) {
+        if (projectContext == null || projectContext.audit() == null) {
+            ctx.status(500).json(Map.of("error", "Audit store unavailable"));
+            return;
+        }
+        String sessionId = ctx.pathParam("id");
+        String receiptId = ctx.pathParam("receiptId");
+        try {
+            String line = projectContext.audit().readSessionReceipt(sessionId, receiptId);
+            if (line == null) {
+                ctx.status(404).json(Map.of("error", "receipt not found"));
+                return;
+            }
+            ctx.contentType("application/json").result(line);
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+
     private void getSessionReceiptFile(Context ctx) {
         if (projectContext == null || projectContext.audit() == null) {
             ctx.status(500).json(Map.of("error", "Audit store unavailable"));
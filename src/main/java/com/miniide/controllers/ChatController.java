@@ -3,18 +3,25 @@ package com.miniide.controllers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.AppLogger;
+import com.miniide.AgentEndpointRegistry;
 import com.miniide.AgentTurnGate;
+import com.miniide.ContextAssembler;
 import com.miniide.MemoryService;
 import com.miniide.IssueMemoryService;
 import com.miniide.ProjectContext;
 import com.miniide.TelemetryStore;
+import com.miniide.WorkerPools;
+import com.miniide.metrics.MetricsRegistry;
+import com.miniide.metrics.TurnTracer;
 import com.miniide.models.Agent;
+import com.miniide.models.AgentEndpointConfig;
 import com.miniide.models.Comment;
 import com.miniide.models.Issue;
 import com.miniide.models.MemoryItem;
 import com.miniide.models.TierAgentSnapshot;
 import com.miniide.models.TierPolicy;
 import com.miniide.providers.ProviderChatService;
+import com.miniide.providers.chat.OllamaResidencyManager;
 import com.miniide.prompt.PromptJsonValidator;
 import com.miniide.prompt.PromptValidationResult;
 import com.miniide.settings.SettingsService;
@@ -36,6 +43,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Controller for AI chat operations.
@@ -43,6 +54,8 @@ import java.util.Set;
 public class ChatController implements Controller {
 
     private static final AgentTurnGate AGENT_TURN_GATE = new AgentTurnGate();
+    // Turns block for the whole tool loop or playbook; they run here so request threads stay free
+    private final ExecutorService turnExecutor = WorkerPools.bounded("agent-turn", 8, 64);
     private final ProjectContext projectContext;
     private final SettingsService settingsService;
     private final ProviderChatService providerChatService;
@@ -52,6 +65,7 @@ public class ChatController implements Controller {
     private final AppLogger logger;
     private final ToolExecutionService toolExecutionService;
     private final ToolCallParser toolCallParser;
+    private final ContextAssembler contextAssembler;
     // Default cap for tool loop iterations per /api/ai/chat turn.
     // Conference Phase 1 often needs 4+ calls (e.g., locator + multiple reads),
     // so keep this high enough to avoid "last tool never runs" surprises.
@@ -78,14 +92,32 @@ public class ChatController implements Controller {
         this.toolExecutionService = new ToolExecutionService(projectContext, issueService, objectMapper);
         this.toolSchemaRegistry = buildToolSchemas();
         this.toolCallParser = new ToolCallParser(objectMapper, toolSchemaRegistry);
+        this.contextAssembler = new ContextAssembler(projectContext, issueService, memoryService);
+        MetricsRegistry.get().gauge("agent_turn_gate_waiting", "Agent turns queued behind the turn gate",
+            AGENT_TURN_GATE::waitingCount);
     }
 
     @Override
     public void registerRoutes(Javalin app) {
-        app.post("/api/ai/chat", this::aiChat);
-        app.post("/api/ai/chief/route", this::chiefRoute);
-        app.post("/api/ai/task/execute", this::executeTaskPacket);
-        app.post("/api/ai/playbook/scene", this::runScenePlaybook);
+        app.post("/api/ai/chat", ctx -> offload(ctx, this::aiChat));
+        app.post("/api/ai/chief/route", ctx -> offload(ctx, this::chiefRoute));
+        app.post("/api/ai/task/execute", ctx -> offload(ctx, this::executeTaskPacket));
+        app.post("/api/ai/playbook/scene", ctx -> offload(ctx, this::runScenePlaybook));
+    }
+
+    /**
+     * Runs {@code handler} on the agent-turn executor while Javalin holds the response open.
+     * A full queue is answered with 503.
+     */
+    private void offload(Context ctx, Consumer<Context> handler) {
+        CompletableFuture<Void> turn;
+        try {
+            turn = CompletableFuture.runAsync(() -> handler.accept(ctx), turnExecutor);
+        } catch (RejectedExecutionException e) {
+            ctx.status(503).json(Map.of("error", "Too many agent requests queued; try again shortly"));
+            return;
+        }
+        ctx.future(() -> turn);
     }
 
     private void aiChat(Context ctx) {
@@ -176,7 +208,11 @@ public class ChatController implements Controller {
                 // skipTools: bypass tool catalog, grounding, and tool loop entirely (for raw LLM calls like metadata extraction)
                 if (skipTools) {
                     final String rawPrompt = prompt;
-                    String response = callAgentWithGate(providerName, keyRef, agentEndpoint, rawPrompt, null);
+                    String response;
+                    try (TurnTracer.Span turnSpan = TurnTracer.beginTurn("chat.turn", conferenceId, taskId, turnId, agentId)) {
+                        turnSpan.attr("skipTools", true);
+                        response = callAgentWithGate(providerName, keyRef, agentEndpoint, rawPrompt, null);
+                    }
                     response = stripThinkingTags(response);
                     if (projectContext != null && projectContext.telemetry() != null) {
                         long tokensIn = TelemetryStore.estimateTokens(rawPrompt);
@@ -193,25 +229,20 @@ public class ChatController implements Controller {
 
                 if (skipToolCatalog) {
                     logger.info("Skipping prompt tool catalog (skipToolCatalog=true).");
-                } else {
-                    String toolCatalog = projectContext.promptTools() != null
-                        ? projectContext.promptTools().buildCatalogPrompt()
-                        : "";
-                    if (toolCatalog != null && !toolCatalog.isBlank()) {
-                        prompt = toolCatalog + "\n\n" + (prompt != null ? prompt : "");
-                    }
                 }
                 if (skipGrounding) {
                     logger.info("Skipping early grounding header (skipGrounding=true).");
-                } else {
-                    String grounding = buildEarlyGroundingHeader();
-                    if (grounding != null && !grounding.isBlank()) {
-                        prompt = grounding + "\n\n" + (prompt != null ? prompt : "");
+                }
+                ToolExecutionContext toolContext = new ToolExecutionContext(conferenceId, taskId, turnId, agentId);
+                String response;
+                try (TurnTracer.Span turnSpan = TurnTracer.beginTurn("chat.turn", conferenceId, taskId, turnId, agentId)) {
+                    try (TurnTracer.Span assembly = TurnTracer.span("prompt.assemble")) {
+                        prompt = withGrounding(prompt, message, agentId, agentEndpoint,
+                            toolPolicy != null ? toolPolicy.getAllowedTools() : null, !skipToolCatalog, !skipGrounding);
                     }
+                    response = runWithValidation(providerName, keyRef, agentEndpoint, prompt, expectSchema, toolContext, toolPolicy);
                 }
                 final String finalPrompt = prompt;
-                ToolExecutionContext toolContext = new ToolExecutionContext(conferenceId, taskId, turnId, agentId);
-                String response = runWithValidation(providerName, keyRef, agentEndpoint, finalPrompt, expectSchema, toolContext, toolPolicy);
             if (projectContext != null && projectContext.telemetry() != null) {
                 long tokensIn = TelemetryStore.estimateTokens(finalPrompt);
                 long tokensOut = TelemetryStore.estimateTokens(response);
@@ -251,10 +282,11 @@ public class ChatController implements Controller {
 
         int maxAttempts = 3;
         String currentPrompt = finalPrompt;
+        ToolPolicy schemaPolicy = ToolPolicy.withJsonFinal(toolPolicy);
         PromptValidationResult lastResult = null;
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             final String promptToSend = currentPrompt;
-            String response = runWithTools(providerName, apiKey, agentEndpoint, promptToSend, toolContext, toolPolicy);
+            String response = runWithTools(providerName, apiKey, agentEndpoint, promptToSend, toolContext, schemaPolicy);
             lastResult = validateBySchema(expectSchema, response);
             if (lastResult.isValid()) {
                 return response;
@@ -278,7 +310,8 @@ public class ChatController implements Controller {
         PromptValidationResult lastResult = null;
         String lastResponse = null;
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            String response = runWithTools(providerName, apiKey, agentEndpoint, currentPrompt, toolContext, null);
+            String response = runWithTools(providerName, apiKey, agentEndpoint, currentPrompt, toolContext,
+                ToolPolicy.withJsonFinal(null));
             lastResponse = response;
             lastResult = PromptJsonValidator.validateReceipt(response);
             if (lastResult.isValid()) {
@@ -294,11 +327,24 @@ public class ChatController implements Controller {
     private String runWithTools(String providerName, String apiKey,
                                 com.miniide.models.AgentEndpointConfig agentEndpoint,
                                 String prompt, ToolExecutionContext toolContext, ToolPolicy toolPolicy) {
+        // Root span for task/receipt turns; nests under chat.turn when called from aiChat
+        try (TurnTracer.Span loopSpan = toolContext != null
+            ? TurnTracer.beginTurn("tool.loop", toolContext.getSessionId(), toolContext.getTaskId(),
+                toolContext.getTurnId(), toolContext.getAgentId())
+            : TurnTracer.beginTurn("tool.loop", null, null, null, null)) {
+            return runToolLoop(providerName, apiKey, agentEndpoint, prompt, toolContext, toolPolicy);
+        }
+    }
+
+    private String runToolLoop(String providerName, String apiKey,
+                               com.miniide.models.AgentEndpointConfig agentEndpoint,
+                               String prompt, ToolExecutionContext toolContext, ToolPolicy toolPolicy) {
         String nonce = generateToolNonce();
         boolean requireToolCall = toolPolicy != null && toolPolicy.getRequireTool() != null
             ? toolPolicy.getRequireTool()
             : shouldRequireToolCall(prompt);
         boolean decisionMode = false;
+        boolean jsonFinal = toolPolicy != null && toolPolicy.isJsonFinal();
         int tierMaxToolSteps = resolveTierMaxToolSteps(agentEndpoint, toolContext);
         int maxToolSteps = tierMaxToolSteps;
         // Conferences are intentionally "tool-heavy" in Phase 1 (e.g., locator + multiple reads).
@@ -357,7 +403,7 @@ public class ChatController implements Controller {
                     return handleToolCallRejection(toolContext, decision.getErrorCode(), decision.getErrorDetail());
                 }
                 if (decision.isFinal()) {
-                    String finalPrompt = appendFinalResponseProtocol(currentPrompt);
+                    String finalPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal);
                     String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, finalPrompt, null);
                     finalResponse = stripThinkingTags(finalResponse);
                     ProviderError finalProviderError = parseProviderErrorResponse(finalResponse);
@@ -372,6 +418,9 @@ public class ChatController implements Controller {
                             + ": " + (finalProviderError.message != null ? finalProviderError.message : "unknown")
                             + (finalProviderError.code != null && !finalProviderError.code.isBlank() ? " [code=" + finalProviderError.code + "]" : "");
                     }
+                    if (jsonFinal && isJsonAnswer(finalResponse)) {
+                        return finalResponse;
+                    }
                     if (looksLikeToolCallAttempt(finalResponse)) {
                         // One retry: some models stay "stuck" emitting JSON/tool syntax even after being told to answer in prose.
                         String retryPrompt = finalPrompt
@@ -403,7 +452,7 @@ public class ChatController implements Controller {
                     return finalResponse;
                 }
                 if (toolCalls >= maxToolSteps) {
-                    String forcedPrompt = appendFinalResponseProtocol(currentPrompt)
+                    String forcedPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal)
                         + "\nTool step limit reached. Respond now without any tool calls.";
                     String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, forcedPrompt, null);
                     finalResponse = stripThinkingTags(finalResponse);
@@ -419,6 +468,9 @@ public class ChatController implements Controller {
                             + ": " + (forcedProviderError.message != null ? forcedProviderError.message : "unknown")
                             + (forcedProviderError.code != null && !forcedProviderError.code.isBlank() ? " [code=" + forcedProviderError.code + "]" : "");
                     }
+                    if (jsonFinal && isJsonAnswer(finalResponse)) {
+                        return finalResponse;
+                    }
                     if (looksLikeToolCallAttempt(finalResponse)) {
                         String retryPrompt = forcedPrompt
                             + "\n\nYour previous response was invalid. Respond in plain text only. "
@@ -461,7 +513,7 @@ public class ChatController implements Controller {
                 currentPrompt = append.prompt;
                 injectedBytes = append.injectedBytes;
                 if (append.exceededLimit) {
-                    String forcedPrompt = appendFinalResponseProtocol(currentPrompt)
+                    String forcedPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal)
                         + "\nTool output budget exhausted. Analyze the data you have and respond now without any tool calls.";
                     String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, forcedPrompt, null);
                     finalResponse = stripThinkingTags(finalResponse);
@@ -485,7 +537,7 @@ public class ChatController implements Controller {
                 requireToolCall = false;
                 decisionMode = true;
                 if (append.exceededLimit) {
-                    String forcedPrompt = appendFinalResponseProtocol(currentPrompt)
+                    String forcedPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal)
                         + "\nTool output budget exhausted. Analyze the data you have and respond now without any tool calls.";
                     String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, forcedPrompt, null);
                     finalResponse = stripThinkingTags(finalResponse);
@@ -513,7 +565,7 @@ public class ChatController implements Controller {
                         requireToolCall = false;
                         decisionMode = true;
                         if (append.exceededLimit) {
-                            String forcedPrompt = appendFinalResponseProtocol(currentPrompt)
+                            String forcedPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal)
                                 + "\nTool output budget exhausted. Analyze the data you have and respond now without any tool calls.";
                             String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, forcedPrompt, null);
                             finalResponse = stripThinkingTags(finalResponse);
@@ -537,7 +589,7 @@ public class ChatController implements Controller {
                         requireToolCall = false;
                         decisionMode = true;
                         if (append.exceededLimit) {
-                            String forcedPrompt = appendFinalResponseProtocol(currentPrompt)
+                            String forcedPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal)
                                 + "\nTool output budget exhausted. Analyze the data you have and respond now without any tool calls.";
                             String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, forcedPrompt, null);
                             finalResponse = stripThinkingTags(finalResponse);
@@ -568,7 +620,7 @@ public class ChatController implements Controller {
                     requireToolCall = false;
                     decisionMode = true;
                     if (append.exceededLimit) {
-                        String forcedPrompt = appendFinalResponseProtocol(currentPrompt)
+                        String forcedPrompt = appendFinalResponseProtocol(currentPrompt, jsonFinal)
                             + "\nTool output budget exhausted. Analyze the data you have and respond now without any tool calls.";
                         String finalResponse = callAgentWithGate(providerName, apiKey, agentEndpoint, forcedPrompt, null);
                         finalResponse = stripThinkingTags(finalResponse);
@@ -578,6 +630,10 @@ public class ChatController implements Controller {
                     continue;
                 }
             }
+            // Receipt/schema turns may answer with their JSON document straight away
+            if (jsonFinal && !requireToolCall && isJsonAnswer(response)) {
+                return response;
+            }
             if (parsed.getErrorCode() != null) {
                 if (requireToolCall && toolParseRetries < 1) {
                     toolParseRetries++;
@@ -831,11 +887,15 @@ public class ChatController implements Controller {
         return new ToolAppendResult(builder.toString(), total, exceeded);
     }
 
-    private String appendFinalResponseProtocol(String prompt) {
+    private String appendFinalResponseProtocol(String prompt, boolean jsonFinal) {
         StringBuilder builder = new StringBuilder();
         builder.append(prompt != null ? prompt : "");
         builder.append("\n\nFINAL RESPONSE REQUIRED:\n");
-        builder.append("Respond normally (no tools). Follow Evidence line rules exactly.");
+        if (jsonFinal) {
+            builder.append("Respond with the requested JSON object only (no tools, no decision envelope).");
+        } else {
+            builder.append("Respond normally (no tools). Follow Evidence line rules exactly.");
+        }
         return builder.toString();
     }
 
@@ -873,6 +933,24 @@ public class ChatController implements Controller {
         return builder.toString();
     }
 
+    /**
+     * A single JSON object that is neither a tool call nor a decision envelope: the final answer
+     * of a turn whose contract is a JSON document.
+     */
+    private boolean isJsonAnswer(String response) {
+        if (response == null) return false;
+        String trimmed = response.trim();
+        if (!trimmed.startsWith("{") || !trimmed.endsWith("}")) {
+            return false;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(trimmed);
+            return node != null && node.isObject() && !node.has("tool") && !node.has("action");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     private boolean looksLikeToolCallAttempt(String response) {
         if (response == null) return false;
         String trimmed = response.trim();
@@ -1395,8 +1473,10 @@ public class ChatController implements Controller {
             .arg("dry_run", com.miniide.tools.ToolArgSpec.Type.BOOLEAN, false)
         );
         registry.register(new ToolSchema("consistency_checker")
-            .arg("file_paths", com.miniide.tools.ToolArgSpec.Type.STRING_ARRAY, true)
+            .arg("file_paths", com.miniide.tools.ToolArgSpec.Type.STRING_ARRAY, false)
+            .arg("scope", com.miniide.tools.ToolArgSpec.Type.STRING, false, Set.of("files", "manuscript"))
             .arg("focus", com.miniide.tools.ToolArgSpec.Type.STRING, false, Set.of("characters", "terminology", "events", "general"))
+            .arg("max_entities", com.miniide.tools.ToolArgSpec.Type.INT, false)
             .arg("dry_run", com.miniide.tools.ToolArgSpec.Type.BOOLEAN, false)
         );
         registry.register(new ToolSchema("scene_draft_validator")
@@ -1442,12 +1522,28 @@ public class ChatController implements Controller {
     private static class ToolPolicy {
         private final java.util.Set<String> allowedTools;
         private final Boolean requireTool;
+        private final boolean jsonFinal;
 
         private ToolPolicy(java.util.Set<String> allowedTools, Boolean requireTool) {
+            this(allowedTools, requireTool, false);
+        }
+
+        private ToolPolicy(java.util.Set<String> allowedTools, Boolean requireTool, boolean jsonFinal) {
             this.allowedTools = allowedTools != null
                 ? java.util.Collections.unmodifiableSet(allowedTools)
                 : null;
             this.requireTool = requireTool;
+            this.jsonFinal = jsonFinal;
+        }
+
+        /**
+         * Same policy, but the final answer is itself a JSON document (receipt, task packet) and
+         * must not be mistaken for a malformed tool call.
+         */
+        private static ToolPolicy withJsonFinal(ToolPolicy policy) {
+            return policy != null
+                ? new ToolPolicy(policy.allowedTools, policy.requireTool, true)
+                : new ToolPolicy(null, null, true);
         }
 
         private java.util.Set<String> getAllowedTools() {
@@ -1457,6 +1553,10 @@ public class ChatController implements Controller {
         private Boolean getRequireTool() {
             return requireTool;
         }
+
+        private boolean isJsonFinal() {
+            return jsonFinal;
+        }
     }
 
     private static class ToolDecisionParseResult {
@@ -1579,18 +1679,7 @@ public class ChatController implements Controller {
 
         String packetJson = objectMapper.writeValueAsString(packet);
         String prompt = buildTaskExecutionPrompt(packetJson);
-        if (!skipToolCatalog) {
-            String toolCatalog = projectContext.promptTools() != null
-                ? projectContext.promptTools().buildCatalogPrompt()
-                : "";
-            if (toolCatalog != null && !toolCatalog.isBlank()) {
-                prompt = toolCatalog + "\n\n" + prompt;
-            }
-        }
-        String grounding = buildEarlyGroundingHeader();
-        if (grounding != null && !grounding.isBlank()) {
-            prompt = grounding + "\n\n" + prompt;
-        }
+        prompt = withGrounding(prompt, packetJson, agentId, endpoint, null, !skipToolCatalog, true);
 
         ToolExecutionContext toolContext = new ToolExecutionContext(null, packetId, packetId, agentId);
         ReceiptAttempt attempt = runReceiptWithValidation(provider, apiKey, endpoint, prompt, toolContext);
@@ -1639,8 +1728,16 @@ public class ChatController implements Controller {
                                      com.miniide.models.AgentEndpointConfig agentEndpoint,
                                      String prompt,
                                      com.fasterxml.jackson.databind.JsonNode responseFormat) {
-        try {
-            return AGENT_TURN_GATE.run(() -> providerChatService.chat(providerName, apiKey, agentEndpoint, prompt, responseFormat));
+        try (TurnTracer.Span callSpan = TurnTracer.span("agent.call")) {
+            callSpan.attr("provider", providerName).attr("model", agentEndpoint.getModel());
+            List<ProviderChatService.Target> pool = buildEndpointPool(providerName, apiKey, agentEndpoint);
+            boolean hedge = Boolean.TRUE.equals(agentEndpoint.getHedgeRequests());
+            String affinity = OllamaResidencyManager.affinityKey(agentEndpoint);
+            return AGENT_TURN_GATE.run(affinity, () -> {
+                try (TurnTracer.Span providerSpan = TurnTracer.span("provider.chat")) {
+                    return providerChatService.chat(pool, prompt, responseFormat, hedge);
+                }
+            });
         } catch (Exception e) {
             // Preserve the top-level message for UI, but include the root-cause detail
             // (e.g., provider HTTP 401/400 body) so failures are diagnosable.
@@ -1652,6 +1749,38 @@ public class ChatController implements Controller {
         }
     }
 
+    /**
+     * The agent's endpoint followed by its fallbacks, with keys resolved. Fallbacks whose key
+     * cannot be resolved are left out rather than failing the turn.
+     */
+    private List<ProviderChatService.Target> buildEndpointPool(String providerName, String apiKey,
+                                                              com.miniide.models.AgentEndpointConfig agentEndpoint) {
+        List<ProviderChatService.Target> pool = new ArrayList<>();
+        pool.add(new ProviderChatService.Target(providerName, apiKey, agentEndpoint));
+        List<com.miniide.models.AgentEndpointConfig> configured = AgentEndpointRegistry.endpointPool(agentEndpoint);
+        for (int i = 1; i < configured.size(); i++) {
+            com.miniide.models.AgentEndpointConfig fallback = configured.get(i);
+            String fallbackProvider = fallback.getProvider().trim().toLowerCase();
+            String fallbackKey = null;
+            try {
+                if (fallback.getApiKeyRef() != null && !fallback.getApiKeyRef().isBlank()) {
+                    fallbackKey = settingsService.resolveKey(fallback.getApiKeyRef());
+                }
+            } catch (Exception e) {
+                logger.warn("Skipping fallback endpoint " + fallbackProvider + "/" + fallback.getModel()
+                    + ": " + e.getMessage());
+                continue;
+            }
+            if (fallbackKey == null && requiresApiKey(fallbackProvider)) {
+                logger.warn("Skipping fallback endpoint " + fallbackProvider + "/" + fallback.getModel()
+                    + ": API key required");
+                continue;
+            }
+            pool.add(new ProviderChatService.Target(fallbackProvider, fallbackKey, fallback));
+        }
+        return pool;
+    }
+
     private String rootCauseMessage(Throwable t) {
         if (t == null) return null;
         Throwable cur = t;
@@ -1856,18 +1985,7 @@ public class ChatController implements Controller {
             }
 
             String prompt = buildChiefRouterPrompt(message, issueId, parentPacketId, clarificationChoice);
-            if (!skipToolCatalog) {
-                String toolCatalog = projectContext.promptTools() != null
-                    ? projectContext.promptTools().buildCatalogPrompt()
-                    : "";
-                if (toolCatalog != null && !toolCatalog.isBlank()) {
-                    prompt = toolCatalog + "\n\n" + prompt;
-                }
-            }
-            String grounding = buildEarlyGroundingHeader();
-            if (grounding != null && !grounding.isBlank()) {
-                prompt = grounding + "\n\n" + prompt;
-            }
+            prompt = withGrounding(prompt, message, chief.getId(), endpoint, null, !skipToolCatalog, true);
             ToolExecutionContext toolContext = new ToolExecutionContext(null, issueId, parentPacketId, chief.getId());
             String response = runWithValidation(provider, apiKey, endpoint, prompt, "task_packet", toolContext, null);
             if (response != null && response.startsWith("STOP_HOOK")) {
@@ -2027,16 +2145,7 @@ public class ChatController implements Controller {
         }
 
         String prompt = buildChiefRouterPrompt(message, issueId, parentPacketId, clarificationChoice);
-        String toolCatalog = projectContext.promptTools() != null
-            ? projectContext.promptTools().buildCatalogPrompt()
-            : "";
-        if (toolCatalog != null && !toolCatalog.isBlank()) {
-            prompt = toolCatalog + "\n\n" + prompt;
-        }
-        String grounding = buildEarlyGroundingHeader();
-        if (grounding != null && !grounding.isBlank()) {
-            prompt = grounding + "\n\n" + prompt;
-        }
+        prompt = withGrounding(prompt, message, chief.getId(), endpoint, null, true, true);
 
         ToolExecutionContext toolContext = new ToolExecutionContext(null, issueId, parentPacketId, chief.getId());
         String response = runWithValidation(provider, apiKey, endpoint, prompt, "task_packet", toolContext, null);
@@ -2799,85 +2908,16 @@ public class ChatController implements Controller {
         return null;
     }
 
-    private String buildEarlyGroundingHeader() {
-        if (issueService == null) {
-            return "";
-        }
-        List<Issue> agreed = issueService.listIssuesByEpistemicStatus("agreed");
-        if (agreed == null || agreed.isEmpty()) {
-            return "";
-        }
-        int limit = Math.min(agreed.size(), 10);
-        StringBuilder builder = new StringBuilder();
-        builder.append("Early Grounding (R1 + R3, epistemicStatus >= agreed):\n");
-        for (int i = 0; i < limit; i++) {
-            Issue issue = agreed.get(i);
-            if (issue == null) {
-                continue;
-            }
-            String title = safe(issue.getTitle());
-            String trace = issue.getSemanticTrace();
-            if (trace == null || trace.isBlank()) {
-                trace = buildSemanticTrace(issue);
-            }
-            String summary = issue.getCompressedSummary();
-            if (summary == null || summary.isBlank()) {
-                summary = buildCompressedSummary(issue);
-            }
-            builder.append("- #").append(issue.getId());
-            if (!title.isBlank()) {
-                builder.append(" ").append(truncate(title, 120));
-            }
-            builder.append("\n  R1: ").append(truncate(trace, 220));
-            builder.append("\n  R3: ").append(truncate(summary, 240)).append("\n");
-        }
-        return builder.toString().trim();
-    }
-
-    private String buildCompressedSummary(Issue issue) {
-        if (issue == null) {
-            return "";
-        }
-        String title = safe(issue.getTitle());
-        String bodySnippet = truncate(safe(issue.getBody()), 220);
-        StringBuilder summary = new StringBuilder();
-        if (!title.isBlank()) {
-            summary.append(title);
-        }
-        if (!bodySnippet.isBlank()) {
-            if (summary.length() > 0) summary.append(" - ");
-            summary.append(bodySnippet);
-        }
-        List<Comment> comments = issue.getComments();
-        if (comments != null && !comments.isEmpty()) {
-            String first = truncate(safe(comments.get(0).getBody()), 180);
-            String last = truncate(safe(comments.get(comments.size() - 1).getBody()), 180);
-            if (!first.isBlank()) {
-                summary.append(" | First: ").append(first);
-            }
-            if (!last.isBlank() && !last.equals(first)) {
-                summary.append(" | Last: ").append(last);
-            }
-        }
-        return summary.toString().trim();
-    }
-
-    private String buildSemanticTrace(Issue issue) {
-        if (issue == null) {
-            return "";
-        }
-        String title = safe(issue.getTitle());
-        String base = safe(issue.getResolutionSummary());
-        if (base.isBlank()) {
-            base = truncate(safe(issue.getBody()), 200);
-        }
-        if (base.isBlank()) {
-            base = truncate(title, 200);
-        }
-        if (title.isBlank()) {
-            return base;
-        }
-        return (title + ": " + base).trim();
+    /**
+     * Prepends agreed issues, prompt tools, matching memory and canon cards, ranked against
+     * {@code query} and cut to the endpoint's context budget.
+     */
+    private String withGrounding(String prompt, String query, String agentId, AgentEndpointConfig endpoint,
+                                 Set<String> allowedTools, boolean includeTools, boolean includeGrounding) {
+        Integer budget = endpoint != null ? endpoint.getContextBudgetTokens() : null;
+        ContextAssembler.Assembly assembly = contextAssembler.assemble(query, agentId, allowedTools, budget,
+            includeTools, includeGrounding);
+        return assembly.prependTo(prompt);
     }
 
     private String truncate(String text, int limit) {
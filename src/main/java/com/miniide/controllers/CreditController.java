@@ -87,7 +87,9 @@ public class CreditController implements Controller {
 
     private void listProfiles(Context ctx) {
         try {
-            ctx.json(creditStore.listProfiles());
+            ctx.json(creditStore.listProfiles(parseWindowDays(ctx)));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Controller.errorBody(e));
         } catch (Exception e) {
             ctx.status(500).json(Controller.errorBody(e));
         }
@@ -96,14 +98,28 @@ public class CreditController implements Controller {
     private void getProfile(Context ctx) {
         try {
             String agentId = ctx.pathParam("agentId");
-            var profile = creditStore.getProfile(agentId);
+            var profile = creditStore.getProfile(agentId, parseWindowDays(ctx));
             if (profile == null) {
                 ctx.status(404).json(Map.of("error", "Credit profile not found for agent: " + agentId));
                 return;
             }
             ctx.json(profile);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Controller.errorBody(e));
         } catch (Exception e) {
             ctx.status(500).json(Controller.errorBody(e));
         }
     }
+
+    private Integer parseWindowDays(Context ctx) {
+        String raw = ctx.queryParam("windowDays");
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        int days = Integer.parseInt(raw.trim());
+        if (days <= 0) {
+            throw new IllegalArgumentException("windowDays must be >= 1");
+        }
+        return days;
+    }
 }
@@ -0,0 +1,119 @@
+package com.miniide.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.AppLogger;
+import com.miniide.EventBus;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.sse.SseClient;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Server-sent event stream over the application {@link EventBus}.
+ * Handles: GET /api/events (SSE, ?topics=a,b&since=seq or Last-Event-ID), GET /api/events/status
+ */
+public class EventController implements Controller {
+
+    private final EventBus eventBus;
+    private final ObjectMapper objectMapper;
+    private final AppLogger logger;
+
+    public EventController(EventBus eventBus, ObjectMapper objectMapper) {
+        this.eventBus = eventBus;
+        this.objectMapper = objectMapper;
+        this.logger = AppLogger.get();
+    }
+
+    @Override
+    public void registerRoutes(Javalin app) {
+        app.get("/api/events/status", this::getStatus);
+        app.sse("/api/events", this::stream);
+    }
+
+    private void getStatus(Context ctx) {
+        ctx.json(Map.of(
+            "sequence", eventBus.latestSequence(),
+            "subscribers", eventBus.subscriberCount()
+        ));
+    }
+
+    private void stream(SseClient client) {
+        Context ctx = client.ctx();
+        Set<String> topics = parseTopics(ctx.queryParam("topics"));
+        long since = parseSequence(ctx.header("Last-Event-ID"), parseSequence(ctx.queryParam("since"), -1L));
+
+        client.keepAlive();
+        // Runs on the subscription's writer thread, never on the publisher's
+        EventBus.Subscription subscription = eventBus.subscribe(topics, since, new EventBus.Listener() {
+            @Override
+            public void onEvent(EventBus.Event event) {
+                if (client.terminated()) {
+                    throw new IllegalStateException("client disconnected");
+                }
+                client.sendEvent(event.getTopic(), toJson(event), String.valueOf(event.getSequence()));
+            }
+
+            @Override
+            public void onResync(long latestSequence, boolean dropped) {
+                // Replay can't bring the client up to date (evicted, server restarted, or the
+                // client fell too far behind); it should refetch once
+                if (!client.terminated()) {
+                    client.sendEvent("resync", toJson(Map.of("sequence", latestSequence)));
+                }
+                if (dropped) {
+                    client.close();
+                }
+            }
+        });
+        client.onClose(subscription::close);
+        if (logger != null) {
+            logger.info("Event stream opened (topics=" + (topics.isEmpty() ? "*" : String.join(",", topics))
+                + ", since=" + since + ")");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            if (value instanceof EventBus.Event event) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("sequence", event.getSequence());
+                body.put("topic", event.getTopic());
+                body.put("type", event.getType());
+                body.put("timestamp", event.getTimestamp());
+                body.put("payload", event.getPayload());
+                return objectMapper.writeValueAsString(body);
+            }
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            return "{}";
+        }
+    }
+
+    private Set<String> parseTopics(String raw) {
+        Set<String> topics = new LinkedHashSet<>();
+        if (raw == null || raw.isBlank()) {
+            return topics;
+        }
+        for (String topic : raw.split(",")) {
+            if (!topic.isBlank()) {
+                topics.add(topic.trim());
+            }
+        }
+        return topics;
+    }
+
+    private long parseSequence(String raw, long fallback) {
+        if (raw == null || raw.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(raw.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
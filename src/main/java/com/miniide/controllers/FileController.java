@@ -1,11 +1,16 @@
 package com.miniide.controllers;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.AppLogger;
+import com.miniide.LineOffsetIndex;
 import com.miniide.ProjectContext;
+import com.miniide.WorkspaceService;
+import com.miniide.models.FileLineRange;
 import com.miniide.models.SceneSegment;
 import com.miniide.models.SearchResult;
+import com.miniide.models.TextEdit;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
@@ -22,6 +27,8 @@ import java.util.Map;
  */
 public class FileController implements Controller {
 
+    private static final int DEFAULT_LINE_WINDOW = 500;
+
     private final ProjectContext projectContext;
     private final ObjectMapper objectMapper;
     private final AppLogger logger;
@@ -36,7 +43,9 @@ public class FileController implements Controller {
     public void registerRoutes(Javalin app) {
         app.get("/api/tree", this::getTree);
         app.get("/api/file", this::getFile);
+        app.get("/api/file/lines", this::getFileLines);
         app.put("/api/file", this::putFile);
+        app.patch("/api/file", this::patchFile);
         app.post("/api/file", this::createFile);
         app.delete("/api/file", this::deleteFile);
         app.post("/api/rename", this::renameFile);
@@ -49,10 +58,11 @@ public class FileController implements Controller {
 
     private void getTree(Context ctx) {
         try {
+            // Files can change on disk without going through the app, so tag by content
             if (projectContext.preparation() != null && projectContext.preparation().isVirtualReady()) {
-                ctx.json(projectContext.preparedWorkspace().getTree());
+                HttpCaching.jsonWithContentTag(ctx, objectMapper, projectContext.preparedWorkspace().getTree());
             } else {
-                ctx.json(projectContext.workspace().getTree(""));
+                HttpCaching.jsonWithContentTag(ctx, objectMapper, projectContext.workspace().getTree(""));
             }
         } catch (Exception e) {
             logger.error("Error getting tree: " + e.getMessage());
@@ -81,6 +91,43 @@ public class FileController implements Controller {
         }
     }
 
+    private void getFileLines(Context ctx) {
+        try {
+            String path = ctx.queryParam("path");
+            if (path == null || path.isEmpty()) {
+                ctx.status(400).json(Map.of("error", "Path parameter required"));
+                return;
+            }
+            int startLine = parseLine(ctx.queryParam("start"), 1);
+            int endLine = parseLine(ctx.queryParam("end"), startLine + DEFAULT_LINE_WINDOW - 1);
+            if (endLine < startLine) {
+                ctx.status(400).json(Map.of("error", "end must be >= start"));
+                return;
+            }
+            FileLineRange range;
+            if (projectContext.preparation() != null && projectContext.preparation().isVirtualReady()) {
+                String content = projectContext.preparedWorkspace().readFile(path);
+                range = LineOffsetIndex.slice(path, content, startLine, endLine);
+            } else {
+                range = projectContext.workspace().readLineRange(path, startLine, endLine);
+            }
+            ctx.json(range);
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(Map.of("error", "start and end must be integers"));
+        } catch (FileNotFoundException e) {
+            ctx.status(404).json(Controller.errorBody(e));
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+
+    private static int parseLine(String value, int fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        return Math.max(1, Integer.parseInt(value.trim()));
+    }
+
     private void putFile(Context ctx) {
         try {
             String path = ctx.queryParam("path");
@@ -95,7 +142,48 @@ public class FileController implements Controller {
                 projectContext.workspace().writeFile(path, content);
             }
             logger.info("File saved: " + path);
-            ctx.json(Map.of("success", true, "message", "File saved: " + path));
+            ctx.json(Map.of("success", true, "message", "File saved: " + path,
+                "hash", WorkspaceService.sha256Hex(content)));
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+
+    /**
+     * Delta save: body is {@code {"baseHash": "...", "edits": [TextEdit...]}}.
+     * Responds 409 when the file no longer matches baseHash; the editor then offers a reload
+     * rather than overwriting the newer content on disk.
+     */
+    private void patchFile(Context ctx) {
+        try {
+            String path = ctx.queryParam("path");
+            if (path == null || path.isEmpty()) {
+                ctx.status(400).json(Map.of("error", "Path parameter required"));
+                return;
+            }
+            JsonNode json = objectMapper.readTree(ctx.body());
+            String baseHash = json.path("baseHash").asText(null);
+            if (baseHash == null || baseHash.isBlank() || !json.path("edits").isArray()) {
+                ctx.status(400).json(Map.of("error", "baseHash and edits are required"));
+                return;
+            }
+            List<TextEdit> edits = objectMapper.convertValue(json.get("edits"), new TypeReference<List<TextEdit>>() {});
+            String hash;
+            if (projectContext.preparation() != null && projectContext.preparation().isVirtualReady()) {
+                WorkspaceService workspace = projectContext.workspace();
+                hash = projectContext.preparedWorkspace().applyDelta(path, baseHash,
+                    current -> workspace.applyEditsToText(current, edits));
+            } else {
+                hash = projectContext.workspace().applyDelta(path, baseHash, edits);
+            }
+            logger.info("File saved (delta, " + edits.size() + " edits): " + path);
+            ctx.json(Map.of("success", true, "message", "File saved: " + path, "hash", hash));
+        } catch (IllegalStateException e) {
+            ctx.status(409).json(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+        } catch (FileNotFoundException e) {
+            ctx.status(404).json(Controller.errorBody(e));
         } catch (Exception e) {
             ctx.status(500).json(Controller.errorBody(e));
         }
@@ -0,0 +1,86 @@
+package com.miniide.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Conditional GET helpers. Store-backed JSON lists are tagged from the store's modification
+ * stamp, so an unchanged list is answered with 304 before it is even built; resources without a
+ * stamp (the file tree, which can change on disk behind the app's back) are tagged from a hash
+ * of the serialized body instead, which still saves the transfer and the client-side re-render.
+ */
+final class HttpCaching {
+
+    // Stamps restart with the process; the epoch keeps tags handed out by an earlier run from matching
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private HttpCaching() {
+    }
+
+    /**
+     * Tags the response with {@code store}'s modification stamp and the request's query string.
+     * Returns true when the client already holds that version: the 304 is set and the caller
+     * should return without a body.
+     */
+    static boolean notModified(Context ctx, String store, long modStamp) {
+        String query = ctx.queryString();
+        String tag = "\"" + store + "-" + EPOCH + "-" + Long.toString(modStamp, 36)
+            + (query == null || query.isEmpty() ? "" : "-" + digest(query.getBytes(StandardCharsets.UTF_8), 8))
+            + "\"";
+        ctx.header("Cache-Control", "no-cache");
+        return notModified(ctx, tag);
+    }
+
+    /**
+     * Serializes {@code body} and sends it with a content-hash ETag, or a bare 304 when the
+     * client's copy has the same hash.
+     */
+    static void jsonWithContentTag(Context ctx, ObjectMapper mapper, Object body) throws Exception {
+        byte[] json = mapper.writeValueAsBytes(body);
+        ctx.header("Cache-Control", "no-cache");
+        if (notModified(ctx, "\"" + digest(json, 16) + "\"")) {
+            return;
+        }
+        ctx.contentType("application/json").result(json);
+    }
+
+    /**
+     * Sets {@code etag} on the response and, when it matches If-None-Match, the 304 status.
+     */
+    static boolean notModified(Context ctx, String etag) {
+        ctx.header("ETag", etag);
+        String header = ctx.header("If-None-Match");
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            // If-None-Match uses weak comparison
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                ctx.status(304);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hex SHA-256 prefix of {@code data}, {@code bytes} bytes long.
+     */
+    static String digest(byte[] data, int bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.miniide.AppLogger;
 import com.miniide.CircuitBreakerConfig;
 import com.miniide.CircuitBreakerValidator;
 import com.miniide.CreditStore;
+import com.miniide.IssueCompressionJob;
 import com.miniide.IssueCompressionService;
 import com.miniide.IssueMemoryService;
 import com.miniide.IssueInterestService;
@@ -33,6 +34,7 @@ public class IssueController implements Controller {
 
     private final IssueMemoryService issueService;
     private final IssueCompressionService compressionService;
+    private IssueCompressionJob compressionJob;
     private final ProjectContext projectContext;
     private final CreditStore creditStore;
     private final NotificationStore notificationStore;
@@ -90,6 +92,10 @@ public class IssueController implements Controller {
         this.circuitBreakerValidator = new CircuitBreakerValidator();
     }
 
+    public void setCompressionJob(IssueCompressionJob compressionJob) {
+        this.compressionJob = compressionJob;
+    }
+
     @Override
     public void registerRoutes(Javalin app) {
         app.get("/api/issues", this::getIssues);
@@ -102,6 +108,9 @@ public class IssueController implements Controller {
         app.post("/api/issues/{id}/revive", this::reviveIssue);
         app.post("/api/issues/decay", this::runIssueDecay);
         app.post("/api/issues/{id}/compress", this::compressIssue);
+        app.get("/api/issues/compress/batch", this::getBatchCompression);
+        app.post("/api/issues/compress/batch", this::startBatchCompression);
+        app.post("/api/issues/compress/batch/cancel", this::cancelBatchCompression);
     }
 
     private void createIssuePatch(Context ctx) {
@@ -141,6 +150,14 @@ public class IssueController implements Controller {
             String excludePersonalTags = ctx.queryParam("excludePersonalTags");
             Integer minInterestLevel = parseIntQuery(ctx, "minInterestLevel");
 
+            // Personal-tag filters read the interest store, which has no stamp of its own
+            boolean personalFilter = (personalTag != null && !personalTag.isBlank())
+                || (personalTags != null && !personalTags.isBlank())
+                || (excludePersonalTags != null && !excludePersonalTags.isBlank());
+            if (!personalFilter && HttpCaching.notModified(ctx, "issues", issueService.getModStamp())) {
+                return;
+            }
+
             List<Issue> issues;
 
             if (tag != null && !tag.isBlank()) {
@@ -417,6 +434,48 @@ public class IssueController implements Controller {
         }
     }
 
+    private void getBatchCompression(Context ctx) {
+        if (compressionJob == null) {
+            ctx.status(501).json(Map.of("error", "Compression service unavailable"));
+            return;
+        }
+        ctx.json(compressionJob.status());
+    }
+
+    private void startBatchCompression(Context ctx) {
+        try {
+            if (compressionJob == null) {
+                ctx.status(501).json(Map.of("error", "Compression service unavailable"));
+                return;
+            }
+            String agentId = null;
+            Integer concurrency = null;
+            Integer limit = null;
+            boolean force = false;
+            if (ctx.body() != null && !ctx.body().isBlank()) {
+                JsonNode json = objectMapper.readTree(ctx.body());
+                agentId = json.hasNonNull("agentId") ? json.get("agentId").asText(null) : null;
+                concurrency = json.hasNonNull("concurrency") ? json.get("concurrency").asInt() : null;
+                limit = json.hasNonNull("limit") ? json.get("limit").asInt() : null;
+                force = json.path("force").asBoolean(false);
+            }
+            ctx.status(202).json(compressionJob.start(agentId, concurrency, limit, force));
+        } catch (IllegalStateException e) {
+            ctx.status(409).json(Controller.errorBody(e));
+        } catch (Exception e) {
+            logger.error("Error starting batch compression: " + e.getMessage());
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+
+    private void cancelBatchCompression(Context ctx) {
+        if (compressionJob == null) {
+            ctx.status(501).json(Map.of("error", "Compression service unavailable"));
+            return;
+        }
+        ctx.json(Map.of("cancelled", compressionJob.cancel()));
+    }
+
     private Integer parseIntQuery(Context ctx, String key) {
         String raw = ctx.queryParam(key);
         if (raw == null || raw.isBlank()) {
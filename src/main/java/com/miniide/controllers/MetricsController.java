@@ -0,0 +1,32 @@
+package com.miniide.controllers;
+
+import com.miniide.metrics.MetricsRegistry;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+
+/**
+ * Exposes {@link MetricsRegistry}: Prometheus text by default (for scrapers), JSON with
+ * {@code ?format=json} (for the dashboard).
+ */
+public class MetricsController implements Controller {
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Override
+    public void registerRoutes(Javalin app) {
+        app.get("/api/metrics", this::getMetrics);
+    }
+
+    private void getMetrics(Context ctx) {
+        try {
+            MetricsRegistry metrics = MetricsRegistry.get();
+            if ("json".equalsIgnoreCase(ctx.queryParam("format"))) {
+                ctx.json(metrics.snapshot());
+                return;
+            }
+            ctx.contentType(PROMETHEUS_CONTENT_TYPE).result(metrics.toPrometheus());
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.AppLogger;
 import com.miniide.CreditStore;
 import com.miniide.IssueMemoryService;
+import com.miniide.PatchService;
 import com.miniide.PatchService.ApplyOutcome;
 import com.miniide.ProjectContext;
 import com.miniide.models.Comment;
@@ -58,7 +59,11 @@ public class PatchController implements Controller {
     }
 
     private void listPatches(Context ctx) {
-        List<PatchProposal> list = projectContext.patches().list();
+        PatchService patches = projectContext.patches();
+        if (HttpCaching.notModified(ctx, "patches", patches.getModStamp())) {
+            return;
+        }
+        List<PatchProposal> list = patches.list();
         ctx.json(Map.of("patches", list));
     }
 
@@ -87,6 +87,8 @@ public class PreparationController implements Controller {
             response.put("canonStatus", canon != null ? canon.getStatus() : null);
             response.put("canonReviewedAt", canon != null ? canon.getReviewedAt() : null);
             response.put("canonIndexedAt", canon != null ? canon.getIndexedAt() : null);
+            // Running or interrupted ingest (live updates arrive on the "preparation" event topic)
+            response.put("ingest", preparationService().getIngestProgress());
             ctx.json(response);
         } catch (Exception e) {
             ctx.status(500).json(Controller.errorBody(e));
@@ -286,6 +288,8 @@ public class PreparationController implements Controller {
             ctx.json(result);
         } catch (IllegalArgumentException e) {
             ctx.status(400).json(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            ctx.status(409).json(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             ctx.status(500).json(Controller.errorBody(e));
         }
@@ -3,6 +3,7 @@ package com.miniide.controllers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miniide.AppLogger;
+import com.miniide.providers.ProviderChatService;
 import com.miniide.providers.ProviderModelsService;
 import com.miniide.settings.AgentKeysMetadataFile;
 import com.miniide.settings.SecuritySettings;
@@ -19,13 +20,15 @@ public class SettingsController implements Controller {
 
     private final SettingsService settingsService;
     private final ProviderModelsService providerModelsService;
+    private final ProviderChatService providerChatService;
     private final ObjectMapper objectMapper;
     private final AppLogger logger;
 
     public SettingsController(SettingsService settingsService, ProviderModelsService providerModelsService,
-                             ObjectMapper objectMapper) {
+                             ProviderChatService providerChatService, ObjectMapper objectMapper) {
         this.settingsService = settingsService;
         this.providerModelsService = providerModelsService;
+        this.providerChatService = providerChatService;
         this.objectMapper = objectMapper;
         this.logger = AppLogger.get();
     }
@@ -40,6 +43,9 @@ public class SettingsController implements Controller {
         app.post("/api/settings/keys", this::addApiKey);
         app.delete("/api/settings/keys/{provider}/{id}", this::deleteApiKey);
         app.get("/api/providers/models", this::getProviderModels);
+        app.get("/api/providers/rate-limits", this::getRateLimits);
+        app.get("/api/providers/health", this::getEndpointHealth);
+        app.get("/api/providers/ollama/residency", this::getOllamaResidency);
     }
 
     private void getSecuritySettings(Context ctx) {
@@ -130,6 +136,18 @@ public class SettingsController implements Controller {
         }
     }
 
+    private void getRateLimits(Context ctx) {
+        ctx.json(Map.of("buckets", providerChatService.getRateLimiter().snapshot()));
+    }
+
+    private void getEndpointHealth(Context ctx) {
+        ctx.json(Map.of("endpoints", providerChatService.getHealthTracker().snapshot()));
+    }
+
+    private void getOllamaResidency(Context ctx) {
+        ctx.json(Map.of("servers", providerChatService.getResidencyManager().snapshot()));
+    }
+
     private void getProviderModels(Context ctx) {
         try {
             String provider = ctx.queryParam("provider");
@@ -0,0 +1,159 @@
+package com.miniide.controllers;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the app shell with content-hashed asset URLs.
+ * <p>
+ * {@code GET /} returns index.html with every local {@code src}/{@code href} rewritten to
+ * {@code /v/<hash>/<path>}, where the hash is taken from the file's bytes. Those URLs are served
+ * with a one-year immutable Cache-Control, so a reload costs a single revalidated request for the
+ * page itself; any change to a script or stylesheet changes its URL. Everything else under
+ * /public (icons, audio) is still served by Javalin's static handler.
+ */
+public class StaticAssetController implements Controller {
+
+    private static final String ROOT = "/public/";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final int HASH_BYTES = 6;
+    // Larger files (audio) are hashed on request but not kept in memory
+    private static final int MAX_CACHED_BYTES = 1024 * 1024;
+    private static final Pattern LOCAL_REF = Pattern.compile("(src|href)=\"([^\"#?:]+)\"");
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+        Map.entry("html", "text/html; charset=utf-8"),
+        Map.entry("js", "text/javascript; charset=utf-8"),
+        Map.entry("css", "text/css; charset=utf-8"),
+        Map.entry("json", "application/json"),
+        Map.entry("svg", "image/svg+xml"),
+        Map.entry("png", "image/png"),
+        Map.entry("ico", "image/x-icon"),
+        Map.entry("woff2", "font/woff2"),
+        Map.entry("mp3", "audio/mpeg")
+    );
+
+    private final Map<String, Asset> assets = new ConcurrentHashMap<>();
+    private volatile Asset index;
+
+    @Override
+    public void registerRoutes(Javalin app) {
+        app.get("/", this::getIndex);
+        app.get("/index.html", this::getIndex);
+        app.get("/v/{hash}/<path>", this::getVersioned);
+    }
+
+    private void getIndex(Context ctx) {
+        try {
+            Asset page = index();
+            if (page == null) {
+                ctx.status(404).json(Map.of("error", "index.html not found"));
+                return;
+            }
+            ctx.header("Cache-Control", "no-cache");
+            if (HttpCaching.notModified(ctx, "\"" + page.hash + "\"")) {
+                return;
+            }
+            ctx.contentType(CONTENT_TYPES.get("html")).result(page.bytes);
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+
+    /**
+     * GET /v/{hash}/{path}. A stale hash (an old page still open) gets the current bytes, marked
+     * for revalidation instead of immutable.
+     */
+    private void getVersioned(Context ctx) {
+        try {
+            String path = ctx.pathParam("path");
+            Asset asset = asset(path);
+            if (asset == null) {
+                ctx.status(404).json(Map.of("error", "Asset not found: " + path));
+                return;
+            }
+            ctx.header("Cache-Control", asset.hash.equals(ctx.pathParam("hash")) ? IMMUTABLE : "no-cache");
+            if (HttpCaching.notModified(ctx, "\"" + asset.hash + "\"")) {
+                return;
+            }
+            ctx.contentType(contentType(path)).result(asset.bytes);
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
+
+    private Asset index() throws IOException {
+        Asset page = index;
+        if (page != null) {
+            return page;
+        }
+        byte[] raw = read("index.html");
+        if (raw == null) {
+            return null;
+        }
+        Matcher matcher = LOCAL_REF.matcher(new String(raw, StandardCharsets.UTF_8));
+        StringBuilder html = new StringBuilder(raw.length + 1024);
+        while (matcher.find()) {
+            String path = matcher.group(2);
+            Asset asset = path.startsWith("/") ? null : asset(path);
+            String replacement = asset == null
+                ? matcher.group()
+                : matcher.group(1) + "=\"/v/" + asset.hash + "/" + path + "\"";
+            matcher.appendReplacement(html, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(html);
+        byte[] bytes = html.toString().getBytes(StandardCharsets.UTF_8);
+        page = new Asset(HttpCaching.digest(bytes, HASH_BYTES), bytes);
+        index = page;
+        return page;
+    }
+
+    private Asset asset(String path) throws IOException {
+        Asset cached = assets.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] bytes = read(path);
+        if (bytes == null) {
+            return null;
+        }
+        Asset asset = new Asset(HttpCaching.digest(bytes, HASH_BYTES), bytes);
+        if (bytes.length <= MAX_CACHED_BYTES) {
+            assets.put(path, asset);
+        }
+        return asset;
+    }
+
+    private byte[] read(String path) throws IOException {
+        // Stay inside /public on the classpath
+        if (path.isEmpty() || path.startsWith("/") || path.contains("\\") || path.contains("..")) {
+            return null;
+        }
+        try (InputStream in = StaticAssetController.class.getResourceAsStream(ROOT + path)) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    private static String contentType(String path) {
+        int dot = path.lastIndexOf('.');
+        String type = dot < 0 ? null : CONTENT_TYPES.get(path.substring(dot + 1).toLowerCase());
+        return type != null ? type : "application/octet-stream";
+    }
+
+    private static final class Asset {
+        private final String hash;
+        private final byte[] bytes;
+
+        private Asset(String hash, byte[] bytes) {
+            this.hash = hash;
+            this.bytes = bytes;
+        }
+    }
+}
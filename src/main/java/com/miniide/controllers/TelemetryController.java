@@ -3,12 +3,15 @@ package com.miniide.controllers;
 import com.miniide.ProjectContext;
 import com.miniide.TelemetryConfigStore;
 import com.miniide.TelemetryStore;
+import com.miniide.TraceStore;
 import com.miniide.models.TelemetryConfig;
 import com.miniide.models.TelemetrySession;
 import com.miniide.models.TelemetryTotals;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TelemetryController implements Controller {
@@ -29,6 +32,8 @@ public class TelemetryController implements Controller {
         app.post("/api/telemetry/prune", this::pruneNow);
         app.get("/api/telemetry/config", this::getConfig);
         app.put("/api/telemetry/config", this::updateConfig);
+        app.get("/api/telemetry/traces", this::listTraces);
+        app.get("/api/telemetry/traces/{id}", this::getTrace);
     }
 
     private TelemetryStore store() {
@@ -165,4 +170,50 @@ public class TelemetryController implements Controller {
             ctx.status(400).json(Map.of("error", "Invalid telemetry config"));
         }
     }
+
+    private void listTraces(Context ctx) {
+        TraceStore traces = projectContext != null ? projectContext.traces() : null;
+        if (traces == null) {
+            ctx.status(500).json(Map.of("error", "Trace store unavailable"));
+            return;
+        }
+        int limit = 50;
+        try {
+            String raw = ctx.queryParam("limit");
+            if (raw != null && !raw.isBlank()) {
+                limit = Math.max(1, Math.min(200, Integer.parseInt(raw.trim())));
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        List<Map<String, Object>> rows = traces.listRecent(limit, ctx.queryParam("sessionId"), ctx.queryParam("turnId"));
+        ctx.json(Map.of("traces", rows));
+    }
+
+    /**
+     * One turn's span tree plus its flame summary; {@code ?format=folded} returns folded stacks
+     * for flame graph tools instead.
+     */
+    private void getTrace(Context ctx) {
+        TraceStore traces = projectContext != null ? projectContext.traces() : null;
+        if (traces == null) {
+            ctx.status(500).json(Map.of("error", "Trace store unavailable"));
+            return;
+        }
+        try {
+            Map<String, Object> trace = traces.get(ctx.pathParam("id"));
+            if (trace == null) {
+                ctx.status(404).json(Map.of("error", "Trace not found"));
+                return;
+            }
+            if ("folded".equalsIgnoreCase(ctx.queryParam("format"))) {
+                ctx.contentType("text/plain; charset=utf-8").result(TraceStore.foldedStacks(trace));
+                return;
+            }
+            Map<String, Object> body = new LinkedHashMap<>(trace);
+            body.put("flame", TraceStore.flameSummary(trace));
+            ctx.json(body);
+        } catch (Exception e) {
+            ctx.status(500).json(Controller.errorBody(e));
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package com.miniide.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The active log file plus its rotated segments. The file rolls when it passes
+ * {@code maxBytes} or the local date changes; the closed segment is renamed to
+ * {@code <name>-<yyyyMMdd-HHmmss>.log}, gzipped, and only the newest {@code maxSegments}
+ * archives are kept. If archiving fails (disk full, file locked by a scanner) the current file is
+ * reopened and keeps growing, and rotation is retried after {@link #RETRY_NANOS}; segments renamed
+ * but not yet gzipped are compressed on the next successful archive. Not thread-safe:
+ * owned by the logger's writer thread.
+ */
+public final class RollingLogFile {
+
+    private static final DateTimeFormatter SEGMENT_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long RETRY_NANOS = 60_000_000_000L;
+
+    private final Path file;
+    private final String baseName;
+    private final long maxBytes;
+    private final int maxSegments;
+    private BufferedWriter writer;
+    private long bytes;
+    private LocalDate openedOn;
+    private long rotations;
+    private long rotationFailures;
+    private boolean rotationPending;
+    private long retryAt;
+
+    public RollingLogFile(Path file, long maxBytes, int maxSegments) throws IOException {
+        this.file = file;
+        String name = file.getFileName().toString();
+        this.baseName = name.endsWith(".log") ? name.substring(0, name.length() - 4) : name;
+        this.maxBytes = maxBytes;
+        this.maxSegments = maxSegments;
+        if (Files.exists(file) && Files.size(file) >= maxBytes) {
+            tryArchive();
+        }
+        open();
+    }
+
+    /**
+     * Appends text (already newline-terminated) to the buffer; {@link #flush} makes it durable.
+     */
+    public void write(String text) throws IOException {
+        if ((rotationPending || bytes >= maxBytes || !LocalDate.now(ZoneId.systemDefault()).equals(openedOn))
+            && (!rotationPending || System.nanoTime() - retryAt >= 0)) {
+            rotate();
+        }
+        writer.write(text);
+        // Log text is overwhelmingly ASCII; char count is close enough for the size trigger
+        bytes += text.length();
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+
+    public long getRotationFailures() {
+        return rotationFailures;
+    }
+
+    private void rotate() throws IOException {
+        try {
+            writer.close();
+            if (tryArchive()) {
+                rotations++;
+            }
+        } finally {
+            // Whatever happened above, later writes need an open file
+            open();
+        }
+    }
+
+    /**
+     * Archives the current file; on failure leaves it in place (or starts a fresh one if the
+     * rename already happened) and schedules a retry instead of failing the write.
+     */
+    private boolean tryArchive() {
+        try {
+            archive();
+            rotationPending = false;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            rotationFailures++;
+            rotationPending = true;
+            retryAt = System.nanoTime() + RETRY_NANOS;
+            System.err.println("Log rotation failed, retrying later: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        bytes = Files.size(file);
+        openedOn = LocalDate.now(ZoneId.systemDefault());
+    }
+
+    private void archive() throws IOException {
+        if (Files.exists(file) && Files.size(file) > 0) {
+            String stamp = LocalDateTime.now().format(SEGMENT_STAMP);
+            Path segment = file.resolveSibling(baseName + "-" + stamp + ".log");
+            for (int n = 1; Files.exists(segment) || Files.exists(gzipPath(segment)); n++) {
+                segment = file.resolveSibling(baseName + "-" + stamp + "-" + n + ".log");
+            }
+            Files.move(file, segment);
+        }
+        compressSegments();
+        prune();
+    }
+
+    /**
+     * Gzips every renamed segment still on disk: the one just rolled plus any left by an earlier
+     * archive that failed after the rename. A partial .gz from that attempt is overwritten.
+     */
+    private void compressSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.toAbsolutePath().getParent(), baseName + "-[0-9]*.log")) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        for (Path segment : segments) {
+            try (InputStream in = Files.newInputStream(segment);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipPath(segment)), 64 * 1024)) {
+                in.transferTo(out);
+            }
+            Files.delete(segment);
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.toAbsolutePath().getParent(), baseName + "-*.log.gz")) {
+            for (Path path : stream) {
+                archives.add(path);
+            }
+        }
+        // Timestamped names sort chronologically; newest first
+        archives.sort(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed());
+        for (int i = maxSegments; i < archives.size(); i++) {
+            Files.deleteIfExists(archives.get(i));
+        }
+    }
+
+    private static Path gzipPath(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + ".gz");
+    }
+}
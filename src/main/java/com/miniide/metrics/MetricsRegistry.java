@@ -0,0 +1,255 @@
+package com.miniide.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide counters, gauges and latency histograms, rendered as Prometheus text or JSON.
+ * <p>
+ * Metrics are looked up by name plus label pairs ({@code "route", "/api/files"}) and created on
+ * first use, so call sites need no registration step. Each family keeps at most
+ * {@link #MAX_SERIES_PER_FAMILY} label sets; further ones fold into an {@code _overflow} series.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    private static final int MAX_SERIES_PER_FAMILY = 500;
+    // Prometheus histogram bounds in seconds; the JSON view reports exact-ish quantiles instead
+    private static final double[] BUCKET_BOUNDS_SECONDS = {
+        0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300
+    };
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry get() {
+        return INSTANCE;
+    }
+
+    MetricsRegistry() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm_memory_heap_used_bytes", "Heap memory in use", () -> memory.getHeapMemoryUsage().getUsed());
+        gauge("jvm_threads_live", "Live JVM threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        gauge("process_uptime_seconds", "Seconds since JVM start",
+            () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+    /**
+     * @param labels alternating label names and values
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, "histogram").series(labels, Histogram::new).metric;
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").series(labels, LongAdder::new).metric;
+    }
+
+    /**
+     * Registers (or replaces) a gauge read at scrape time.
+     */
+    public void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        Family family = family(name, help, "gauge");
+        Series series = new Series(labelMap(labels), supplier);
+        family.series.put(labelKey(series.labels), series);
+    }
+
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Series series : family.series.values()) {
+                String labels = labelKey(series.labels);
+                if (series.metric instanceof Histogram) {
+                    Histogram histogram = (Histogram) series.metric;
+                    for (double bound : BUCKET_BOUNDS_SECONDS) {
+                        long micros = (long) (bound * 1_000_000L);
+                        sample(out, name + "_bucket", withLabel(labels, "le", format(bound)),
+                            histogram.countAtOrBelow(micros));
+                    }
+                    sample(out, name + "_bucket", withLabel(labels, "le", "+Inf"), histogram.count());
+                    sample(out, name + "_sum", labels, histogram.sumMicros() / 1_000_000.0);
+                    sample(out, name + "_count", labels, histogram.count());
+                } else if (series.metric instanceof LongAdder) {
+                    sample(out, name, labels, ((LongAdder) series.metric).sum());
+                } else if (series.metric instanceof DoubleSupplier) {
+                    sample(out, name, labels, read((DoubleSupplier) series.metric));
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * JSON-friendly view: histograms as count/mean/p50/p90/p99/max in milliseconds.
+     */
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> histograms = new ArrayList<>();
+        List<Map<String, Object>> counters = new ArrayList<>();
+        List<Map<String, Object>> gauges = new ArrayList<>();
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            for (Series series : entry.getValue().series.values()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("name", entry.getKey());
+                row.put("labels", series.labels);
+                if (series.metric instanceof Histogram) {
+                    Histogram histogram = (Histogram) series.metric;
+                    long count = histogram.count();
+                    row.put("count", count);
+                    row.put("meanMs", count > 0 ? round(histogram.sumMicros() / 1000.0 / count) : 0.0);
+                    row.put("p50Ms", round(histogram.quantileMicros(0.50) / 1000.0));
+                    row.put("p90Ms", round(histogram.quantileMicros(0.90) / 1000.0));
+                    row.put("p99Ms", round(histogram.quantileMicros(0.99) / 1000.0));
+                    row.put("maxMs", round(histogram.maxMicros() / 1000.0));
+                    histograms.add(row);
+                } else if (series.metric instanceof LongAdder) {
+                    row.put("value", ((LongAdder) series.metric).sum());
+                    counters.add(row);
+                } else if (series.metric instanceof DoubleSupplier) {
+                    row.put("value", read((DoubleSupplier) series.metric));
+                    gauges.add(row);
+                }
+            }
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("generatedAt", System.currentTimeMillis());
+        snapshot.put("histograms", histograms);
+        snapshot.put("counters", counters);
+        snapshot.put("gauges", gauges);
+        return snapshot;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(type, help));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + family.type + ", not a " + type);
+        }
+        return family;
+    }
+
+    private static Map<String, String> labelMap(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Metric labels must be name/value pairs");
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            map.put(labels[i], labels[i + 1] != null ? labels[i + 1] : "");
+        }
+        return map;
+    }
+
+    private static String labelKey(Map<String, String> labels) {
+        if (labels.isEmpty()) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder();
+        for (Map.Entry<String, String> entry : labels.entrySet()) {
+            if (key.length() > 0) {
+                key.append(',');
+            }
+            key.append(entry.getKey()).append("=\"").append(escape(entry.getValue())).append('"');
+        }
+        return key.toString();
+    }
+
+    // Same key as labelKey(labelMap(labels)), without building the map on the hot path
+    private static String labelKey(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(64);
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(labels[i]).append("=\"").append(escape(labels[i + 1] != null ? labels[i + 1] : "")).append('"');
+        }
+        return key.toString();
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String extra = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? extra : labels + "," + extra;
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double read(DoubleSupplier supplier) {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class Family {
+        private final String type;
+        private final String help;
+        private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+        private Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        private Series series(String[] labels, Supplier<Object> factory) {
+            String key = labelKey(labels);
+            Series existing = series.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            Map<String, String> map = labelMap(labels);
+            if (series.size() >= MAX_SERIES_PER_FAMILY) {
+                map.replaceAll((k, v) -> "_overflow");
+                key = labelKey(map);
+            }
+            Map<String, String> labelsForSeries = map;
+            return series.computeIfAbsent(key, k -> new Series(labelsForSeries, factory.get()));
+        }
+    }
+
+    private static final class Series {
+        private final Map<String, String> labels;
+        private final Object metric;
+
+        private Series(Map<String, String> labels, Object metric) {
+            this.labels = labels;
+            this.metric = metric;
+        }
+    }
+}
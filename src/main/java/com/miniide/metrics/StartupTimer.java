@@ -0,0 +1,146 @@
+package com.miniide.metrics;
+
+import com.miniide.AppLogger;
+import com.miniide.WorkerPools;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Phase timings for {@code Main}. Each phase records when it started (relative to the timer),
+ * how long it ran and on which thread, so overlapping {@link #async} phases are visible in the
+ * summary. {@link #finish} logs the table and publishes {@code startup_phase_seconds{phase}}
+ * plus {@code startup_ready_seconds} (JVM launch to ready) through {@link MetricsRegistry}.
+ */
+public final class StartupTimer {
+
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    private final long startedAt = System.nanoTime();
+    private final List<Phase> phases = new ArrayList<>();
+    private ExecutorService executor;
+
+    /**
+     * Runs {@code step} on the calling thread.
+     */
+    public void step(String name, Step step) throws Exception {
+        phase(name, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} on the calling thread and returns its result.
+     */
+    public <T> T phase(String name, Callable<T> work) throws Exception {
+        long begin = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            record(name, begin, System.nanoTime(), Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Starts {@code work} on the startup pool; pair with {@link #join}.
+     */
+    public <T> CompletableFuture<T> async(String name, Callable<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return phase(name, work);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor());
+    }
+
+    /**
+     * Waits for an {@link #async} phase, rethrowing its failure as-is.
+     */
+    public static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Logs the phase table and publishes the gauges. Phases recorded after this are ignored.
+     */
+    public void finish(AppLogger logger) {
+        long readyNanos = System.nanoTime() - startedAt;
+        double sinceLaunch = (System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()) / 1000.0;
+        List<Phase> snapshot;
+        synchronized (phases) {
+            snapshot = new ArrayList<>(phases);
+        }
+        snapshot.sort(Comparator.comparingLong(phase -> phase.offsetNanos));
+        MetricsRegistry metrics = MetricsRegistry.get();
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+            "Startup ready in %d ms (%.0f ms since JVM launch)", readyNanos / 1_000_000, sinceLaunch * 1000));
+        for (Phase phase : snapshot) {
+            summary.append(String.format(Locale.ROOT, "%n  %-24s +%5d ms %6d ms  [%s]",
+                phase.name, phase.offsetNanos / 1_000_000, phase.durationNanos / 1_000_000, phase.thread));
+            double seconds = phase.durationNanos / 1e9;
+            metrics.gauge("startup_phase_seconds", "Time spent in each startup phase", () -> seconds, "phase", phase.name);
+        }
+        metrics.gauge("startup_ready_seconds", "Time from JVM launch until the server was ready", () -> sinceLaunch);
+        if (logger != null) {
+            logger.info(summary.toString());
+        }
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private void record(String name, long begin, long end, String thread) {
+        synchronized (phases) {
+            phases.add(new Phase(name, begin - startedAt, end - begin, thread));
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+            executor = WorkerPools.bounded("startup", threads, 0);
+        }
+        return executor;
+    }
+
+    private static final class Phase {
+        private final String name;
+        private final long offsetNanos;
+        private final long durationNanos;
+        private final String thread;
+
+        private Phase(String name, long offsetNanos, long durationNanos, String thread) {
+            this.name = name;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+            this.thread = thread;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.miniide.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Per-turn span trees for the agent tool loop. A turn opens a root span with {@link #beginTurn};
+ * code further down the same thread opens children with {@link #span}, which is a no-op (and
+ * allocation-free) when no turn is being traced. Closing the root hands the finished
+ * {@link Trace} to the sink, normally {@code TraceStore}.
+ * <p>
+ * Spans are tied to the opening thread; work handed to other threads is only covered by the
+ * span that waits for it.
+ */
+public final class TurnTracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final Span NOOP = new Span(null, null, null);
+    // Guards against runaway loops producing unbounded trees; later spans are counted, not kept
+    private static final int MAX_SPANS_PER_TRACE = 2000;
+
+    private static volatile Consumer<Trace> sink;
+
+    private TurnTracer() {
+    }
+
+    public static void setSink(Consumer<Trace> traceSink) {
+        sink = traceSink;
+    }
+
+    /**
+     * Opens the root span for a turn, or a child span when a turn is already open on this thread
+     * (e.g. the tool loop running inside a chat turn).
+     */
+    public static Span beginTurn(String name, String sessionId, String taskId, String turnId, String agentId) {
+        Span parent = CURRENT.get();
+        if (parent != null) {
+            return parent.child(name);
+        }
+        Trace trace = new Trace(sessionId, taskId, turnId, agentId);
+        Span root = new Span(trace, null, name);
+        trace.root = root;
+        CURRENT.set(root);
+        return root;
+    }
+
+    /**
+     * Opens a child of the current span; returns a no-op span when no turn is traced.
+     */
+    public static Span span(String name) {
+        Span parent = CURRENT.get();
+        return parent != null ? parent.child(name) : NOOP;
+    }
+
+    public static boolean isTracing() {
+        return CURRENT.get() != null;
+    }
+
+    public static final class Span implements AutoCloseable {
+        private final Trace trace;
+        private final Span parent;
+        private final String name;
+        private final long startNanos;
+        private long endNanos;
+        private Map<String, String> attributes;
+        private final List<Span> children = new ArrayList<>(2);
+
+        private Span(Trace trace, Span parent, String name) {
+            this.trace = trace;
+            this.parent = parent;
+            this.name = name;
+            this.startNanos = trace != null ? System.nanoTime() : 0L;
+        }
+
+        private Span child(String childName) {
+            if (trace.spanCount >= MAX_SPANS_PER_TRACE) {
+                trace.droppedSpans++;
+                return NOOP;
+            }
+            trace.spanCount++;
+            Span child = new Span(trace, this, childName);
+            children.add(child);
+            CURRENT.set(child);
+            return child;
+        }
+
+        public Span attr(String key, Object value) {
+            if (trace != null && key != null && value != null) {
+                if (attributes == null) {
+                    attributes = new LinkedHashMap<>();
+                }
+                attributes.put(key, String.valueOf(value));
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (trace == null || endNanos != 0L) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            // Children left open by an exception path end with their parent
+            for (Span child : children) {
+                child.closeQuietly(endNanos);
+            }
+            if (parent != null) {
+                CURRENT.set(parent);
+                return;
+            }
+            CURRENT.remove();
+            trace.durationNanos = endNanos - startNanos;
+            Consumer<Trace> target = sink;
+            if (target != null) {
+                try {
+                    target.accept(trace);
+                } catch (RuntimeException ignored) {
+                    // Tracing must never fail a turn
+                }
+            }
+        }
+
+        private void closeQuietly(long at) {
+            if (endNanos == 0L) {
+                endNanos = at;
+                for (Span child : children) {
+                    child.closeQuietly(at);
+                }
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDurationNanos() {
+            return endNanos > 0L ? endNanos - startNanos : 0L;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes != null ? attributes : Collections.emptyMap();
+        }
+
+        public List<Span> getChildren() {
+            return children;
+        }
+    }
+
+    /**
+     * A finished turn: correlation ids plus the span tree.
+     */
+    public static final class Trace {
+        private final String traceId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        private final long startedAt = System.currentTimeMillis();
+        private final String sessionId;
+        private final String taskId;
+        private final String turnId;
+        private final String agentId;
+        private Span root;
+        private long durationNanos;
+        private int spanCount = 1;
+        private int droppedSpans;
+
+        private Trace(String sessionId, String taskId, String turnId, String agentId) {
+            this.sessionId = sessionId;
+            this.taskId = taskId;
+            this.turnId = turnId;
+            this.agentId = agentId;
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getTaskId() {
+            return taskId;
+        }
+
+        public String getTurnId() {
+            return turnId;
+        }
+
+        public String getAgentId() {
+            return agentId;
+        }
+
+        public Span getRoot() {
+            return root;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public int getDroppedSpans() {
+            return droppedSpans;
+        }
+    }
+}
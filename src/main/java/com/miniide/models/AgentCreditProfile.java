@@ -18,6 +18,12 @@ public class AgentCreditProfile {
     private int longestVerifiedStreak;
     private String reliabilityTier;
     private double recentDelta;
+    // Rollup over the trailing windowDays (UTC days, today included); null when no window was requested
+    private Integer windowDays;
+    private double windowCredits;
+    private int windowEvents;
+    private double windowVerificationRate;
+    private double windowPenaltyRate;
 
     public String getAgentId() {
         return agentId;
@@ -122,4 +128,44 @@ public class AgentCreditProfile {
     public void setRecentDelta(double recentDelta) {
         this.recentDelta = recentDelta;
     }
+
+    public Integer getWindowDays() {
+        return windowDays;
+    }
+
+    public void setWindowDays(Integer windowDays) {
+        this.windowDays = windowDays;
+    }
+
+    public double getWindowCredits() {
+        return windowCredits;
+    }
+
+    public void setWindowCredits(double windowCredits) {
+        this.windowCredits = windowCredits;
+    }
+
+    public int getWindowEvents() {
+        return windowEvents;
+    }
+
+    public void setWindowEvents(int windowEvents) {
+        this.windowEvents = windowEvents;
+    }
+
+    public double getWindowVerificationRate() {
+        return windowVerificationRate;
+    }
+
+    public void setWindowVerificationRate(double windowVerificationRate) {
+        this.windowVerificationRate = windowVerificationRate;
+    }
+
+    public double getWindowPenaltyRate() {
+        return windowPenaltyRate;
+    }
+
+    public void setWindowPenaltyRate(double windowPenaltyRate) {
+        this.windowPenaltyRate = windowPenaltyRate;
+    }
 }
@@ -2,6 +2,9 @@ package com.miniide.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AgentEndpointConfig {
 
@@ -18,6 +21,12 @@ public class AgentEndpointConfig {
     private Integer timeoutMs;
     private Integer maxRetries;
     private Boolean useProviderDefaults;
+    // Ordered alternates tried when this endpoint fails or its circuit is open; null leaves any stored pool untouched
+    private List<AgentEndpointConfig> fallbacks;
+    // Race the next healthy endpoint once this one runs past its p95 latency
+    private Boolean hedgeRequests;
+    // Token cap for the grounding prefix (issues, tools, memory, canon); null uses the default
+    private Integer contextBudgetTokens;
 
     public String getProvider() {
         return provider;
@@ -122,4 +131,50 @@ public class AgentEndpointConfig {
     public void setUseProviderDefaults(Boolean useProviderDefaults) {
         this.useProviderDefaults = useProviderDefaults;
     }
+
+    public List<AgentEndpointConfig> getFallbacks() {
+        return fallbacks;
+    }
+
+    public void setFallbacks(List<AgentEndpointConfig> fallbacks) {
+        this.fallbacks = fallbacks;
+    }
+
+    public Boolean getHedgeRequests() {
+        return hedgeRequests;
+    }
+
+    public void setHedgeRequests(Boolean hedgeRequests) {
+        this.hedgeRequests = hedgeRequests;
+    }
+
+    public Integer getContextBudgetTokens() {
+        return contextBudgetTokens;
+    }
+
+    public void setContextBudgetTokens(Integer contextBudgetTokens) {
+        this.contextBudgetTokens = contextBudgetTokens;
+    }
+
+    /**
+     * Shallow copy of the connection and sampling settings, without the fallback pool.
+     */
+    public AgentEndpointConfig copy() {
+        AgentEndpointConfig copy = new AgentEndpointConfig();
+        copy.provider = provider;
+        copy.model = model;
+        copy.baseUrl = baseUrl;
+        copy.apiKeyRef = apiKeyRef;
+        copy.temperature = temperature;
+        copy.topP = topP;
+        copy.topK = topK;
+        copy.minP = minP;
+        copy.repeatPenalty = repeatPenalty;
+        copy.maxOutputTokens = maxOutputTokens;
+        copy.timeoutMs = timeoutMs;
+        copy.maxRetries = maxRetries;
+        copy.useProviderDefaults = useProviderDefaults;
+        copy.contextBudgetTokens = contextBudgetTokens;
+        return copy;
+    }
 }
@@ -0,0 +1,60 @@
+package com.miniide.models;
+
+/**
+ * Summary of one session's tool_receipts.jsonl, kept current by AuditStore appends.
+ * sizeBytes doubles as a staleness check against the file on disk.
+ */
+public class AuditSessionIndexEntry {
+    private String sessionId;
+    private int receiptCount;
+    private long sizeBytes;
+    private long lastModified;
+    private String lastReceiptId;
+
+    public AuditSessionIndexEntry() {
+    }
+
+    public AuditSessionIndexEntry(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public int getReceiptCount() {
+        return receiptCount;
+    }
+
+    public void setReceiptCount(int receiptCount) {
+        this.receiptCount = receiptCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getLastReceiptId() {
+        return lastReceiptId;
+    }
+
+    public void setLastReceiptId(String lastReceiptId) {
+        this.lastReceiptId = lastReceiptId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.miniide.models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AuditSessionIndexFile {
+    private Map<String, AuditSessionIndexEntry> sessions = new LinkedHashMap<>();
+
+    public Map<String, AuditSessionIndexEntry> getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(Map<String, AuditSessionIndexEntry> sessions) {
+        this.sessions = sessions != null ? sessions : new LinkedHashMap<>();
+    }
+}
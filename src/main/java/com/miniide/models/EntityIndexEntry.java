@@ -0,0 +1,102 @@
+package com.miniide.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extraction results for one Story/Compendium file at a given revision stamp.
+ */
+public class EntityIndexEntry {
+    private String path;
+    private String stamp;
+    private int order;
+    private int wordCount;
+    private int charCount;
+    private String head;
+    private String indexedAt;
+    private Map<String, EntityMention> entities = new LinkedHashMap<>();
+    private Map<String, Integer> terms = new LinkedHashMap<>();
+    private List<String> events = new ArrayList<>();
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getStamp() {
+        return stamp;
+    }
+
+    public void setStamp(String stamp) {
+        this.stamp = stamp;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public void setWordCount(int wordCount) {
+        this.wordCount = wordCount;
+    }
+
+    public int getCharCount() {
+        return charCount;
+    }
+
+    public void setCharCount(int charCount) {
+        this.charCount = charCount;
+    }
+
+    public String getHead() {
+        return head;
+    }
+
+    public void setHead(String head) {
+        this.head = head;
+    }
+
+    public String getIndexedAt() {
+        return indexedAt;
+    }
+
+    public void setIndexedAt(String indexedAt) {
+        this.indexedAt = indexedAt;
+    }
+
+    public Map<String, EntityMention> getEntities() {
+        return entities;
+    }
+
+    public void setEntities(Map<String, EntityMention> entities) {
+        this.entities = entities != null ? entities : new LinkedHashMap<>();
+    }
+
+    public Map<String, Integer> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(Map<String, Integer> terms) {
+        this.terms = terms != null ? terms : new LinkedHashMap<>();
+    }
+
+    public List<String> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<String> events) {
+        this.events = events != null ? events : new ArrayList<>();
+    }
+}
@@ -0,0 +1,25 @@
+package com.miniide.models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EntityIndexFile {
+    private int version = 1;
+    private Map<String, EntityIndexEntry> files = new LinkedHashMap<>();
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public Map<String, EntityIndexEntry> getFiles() {
+        return files;
+    }
+
+    public void setFiles(Map<String, EntityIndexEntry> files) {
+        this.files = files != null ? files : new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,44 @@
+package com.miniide.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mentions of one entity inside one indexed file.
+ */
+public class EntityMention {
+    private int count;
+    private List<Integer> lines = new ArrayList<>();
+
+    public EntityMention() {
+    }
+
+    public EntityMention(int count, List<Integer> lines) {
+        this.count = count;
+        setLines(lines);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<Integer> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<Integer> lines) {
+        this.lines = lines != null ? lines : new ArrayList<>();
+    }
+
+    public int firstLine() {
+        return lines.isEmpty() ? 0 : lines.get(0);
+    }
+
+    public int lastLine() {
+        return lines.isEmpty() ? 0 : lines.get(lines.size() - 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.miniide.models;
+
+/**
+ * A window of lines read from a workspace file.
+ */
+public class FileLineRange {
+    private String path;
+    private int startLine;
+    private int endLine;
+    private int totalLines;
+    private long size;
+    private String content;
+
+    public FileLineRange() {
+    }
+
+    public FileLineRange(String path, int startLine, int endLine, int totalLines, long size, String content) {
+        this.path = path;
+        this.startLine = startLine;
+        this.endLine = endLine;
+        this.totalLines = totalLines;
+        this.size = size;
+        this.content = content;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getStartLine() {
+        return startLine;
+    }
+
+    public void setStartLine(int startLine) {
+        this.startLine = startLine;
+    }
+
+    public int getEndLine() {
+        return endLine;
+    }
+
+    public void setEndLine(int endLine) {
+        this.endLine = endLine;
+    }
+
+    public int getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(int totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
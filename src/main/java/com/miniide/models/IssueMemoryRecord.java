@@ -294,4 +294,44 @@ public class IssueMemoryRecord {
     public void setUpdatedAt(Long updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    /**
+     * Copy with its own tag and contradiction lists; every other field is immutable.
+     */
+    public IssueMemoryRecord copy() {
+        IssueMemoryRecord copy = new IssueMemoryRecord();
+        copy.agentId = agentId;
+        copy.issueId = issueId;
+        copy.interestLevel = interestLevel;
+        copy.lastAccessedAt = lastAccessedAt;
+        copy.lastAccessedAtActivation = lastAccessedAtActivation;
+        copy.lastRefreshedAt = lastRefreshedAt;
+        copy.accessCount = accessCount;
+        copy.appliedInWork = appliedInWork;
+        copy.wasUseful = wasUseful;
+        copy.accessWindowCount = accessWindowCount;
+        copy.accessWindowStartActivation = accessWindowStartActivation;
+        copy.leechReviewPending = leechReviewPending;
+        copy.leechMarked = leechMarked;
+        copy.leechNote = leechNote;
+        copy.leechFlaggedAt = leechFlaggedAt;
+        copy.leechConfirmedAt = leechConfirmedAt;
+        copy.leechConfirmedBy = leechConfirmedBy;
+        copy.leechDismissedAt = leechDismissedAt;
+        copy.deferredAccess = deferredAccess;
+        copy.deferredTriggerType = deferredTriggerType;
+        copy.deferredTriggerValue = deferredTriggerValue;
+        copy.deferredEscalateTo = deferredEscalateTo;
+        copy.deferredNotify = deferredNotify;
+        copy.deferredMessage = deferredMessage;
+        copy.deferredReason = deferredReason;
+        copy.deferredAt = deferredAt;
+        copy.deferredBy = deferredBy;
+        copy.note = note;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.leechContradictionIssueIds = leechContradictionIssueIds != null ? new ArrayList<>(leechContradictionIssueIds) : null;
+        copy.personalTags = personalTags != null ? new ArrayList<>(personalTags) : null;
+        return copy;
+    }
 }
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.miniide.AppLogger;
+import com.miniide.EventBus;
+import com.miniide.WorkerPools;
 import com.miniide.tools.ToolCall;
 import com.miniide.tools.ToolExecutionContext;
 import com.miniide.tools.ToolExecutionResult;
@@ -15,6 +17,8 @@ import java.security.MessageDigest;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -34,6 +38,10 @@ public class StepRunner {
     private final RecipeRegistry recipeRegistry;
     private final ObjectMapper objectMapper;
     private final AppLogger logger = AppLogger.get();
+    // Runs are long and mostly blocking; cap how many execute at once and how many may queue
+    private final ExecutorService runExecutor = WorkerPools.bounded("pipeline", 4, 64);
+
+    private volatile EventBus eventBus;
 
     /** Tracks cancellation requests by runId */
     private final ConcurrentHashMap<String, AtomicBoolean> cancelFlags = new ConcurrentHashMap<>();
@@ -48,9 +56,14 @@ public class StepRunner {
         this.objectMapper = objectMapper;
     }
 
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
     /**
      * Start a run asynchronously. Creates the manifest, then executes Phase A
-     * steps on a background thread.
+     * steps on the pipeline executor. If that executor's queue is full the run
+     * is recorded as failed straight away.
      *
      * @param recipeId the recipe to execute
      * @param args     initial task args (scene_path, canon_paths, etc.)
@@ -96,14 +109,16 @@ public class StepRunner {
         manifest.putNull("error");
 
         runStore.createRun(manifest);
+        publishRun("run.started", runId, manifest.deepCopy());
 
         AtomicBoolean cancelled = new AtomicBoolean(false);
         cancelFlags.put(runId, cancelled);
 
-        // Execute Phase A on a background thread
-        Thread runner = new Thread(() -> executePhaseA(runId, recipe, manifest, cancelled), "pipeline-" + runId);
-        runner.setDaemon(true);
-        runner.start();
+        try {
+            runExecutor.execute(() -> executePhaseA(runId, recipe, manifest, cancelled));
+        } catch (RejectedExecutionException e) {
+            completeRun(runId, manifest, "failed", "Pipeline queue is full; try again later");
+        }
 
         return runId;
     }
@@ -238,6 +253,7 @@ public class StepRunner {
             } catch (IOException e) {
                 logger.warn("Failed to append step record for " + stepId + ": " + e.getMessage());
             }
+            publishRun("run.step", runId, stepRecord);
 
             logger.info("Pipeline " + runId + " step " + stepId + " (" + toolName + ") completed");
         }
@@ -278,6 +294,7 @@ public class StepRunner {
         } catch (IOException e) {
             logger.warn("Failed to append failed step record for " + stepId + ": " + e.getMessage());
         }
+        publishRun("run.step", runId, stepRecord);
     }
 
     private void completeRun(String runId, ObjectNode manifest, String status, String error) {
@@ -295,6 +312,14 @@ public class StepRunner {
             logger.warn("Failed to update manifest for completion of " + runId + ": " + e.getMessage());
         }
         cancelFlags.remove(runId);
+        publishRun("run.completed", runId, manifest.deepCopy());
+    }
+
+    private void publishRun(String type, String runId, JsonNode payload) {
+        EventBus bus = eventBus;
+        if (bus != null) {
+            bus.publish(EventBus.TOPIC_RUNS, type, Map.of("runId", runId, "data", payload));
+        }
     }
 
     private static String sha256(String input) {
@@ -0,0 +1,109 @@
+package com.miniide.prompt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Okapi BM25 over a fixed set of short documents (k1 = 1.2, b = 0.75). Built once per set of
+ * inputs; scoring a query only touches the postings of its terms.
+ */
+public final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "in", "is", "it",
+        "its", "of", "on", "or", "that", "the", "this", "to", "was", "were", "will", "with", "you", "your",
+        "i", "we", "me", "my", "our", "do", "does", "can", "what", "which", "how", "please"
+    );
+
+    private final Map<String, List<int[]>> postings = new HashMap<>();
+    private final int[] lengths;
+    private final double averageLength;
+
+    public Bm25Index(List<String> documents) {
+        this.lengths = new int[documents.size()];
+        long total = 0;
+        for (int doc = 0; doc < documents.size(); doc++) {
+            Map<String, Integer> counts = new HashMap<>();
+            List<String> terms = tokenize(documents.get(doc));
+            for (String term : terms) {
+                counts.merge(term, 1, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(new int[] {doc, entry.getValue()});
+            }
+            lengths[doc] = terms.size();
+            total += terms.size();
+        }
+        this.averageLength = documents.isEmpty() ? 0 : (double) total / documents.size();
+    }
+
+    public int size() {
+        return lengths.length;
+    }
+
+    /**
+     * @return one score per document, 0 for documents sharing no term with the query
+     */
+    public double[] score(String query) {
+        double[] scores = new double[lengths.length];
+        if (lengths.length == 0) {
+            return scores;
+        }
+        Map<String, Integer> queryTerms = new HashMap<>();
+        for (String term : tokenize(query)) {
+            queryTerms.merge(term, 1, Integer::sum);
+        }
+        for (String term : queryTerms.keySet()) {
+            List<int[]> list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (lengths.length - list.size() + 0.5) / (list.size() + 0.5));
+            for (int[] posting : list) {
+                int doc = posting[0];
+                double tf = posting[1];
+                double norm = averageLength > 0 ? lengths[doc] / averageLength : 1.0;
+                scores[doc] += idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * norm));
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Lowercased letter/digit runs, without stop words or single characters. Plural "s" is
+     * folded so "scenes" matches "scene".
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length()) {
+            if (!Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < lower.length() && Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+            }
+            String term = lower.substring(start, i);
+            if (term.length() < 2 || STOP_WORDS.contains(term)) {
+                continue;
+            }
+            if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+                term = term.substring(0, term.length() - 1);
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+}
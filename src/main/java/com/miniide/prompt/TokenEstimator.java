@@ -0,0 +1,101 @@
+package com.miniide.prompt;
+
+/**
+ * Offline token count estimate shaped like BPE tokenizers (cl100k/o200k, Llama, Gemma): text
+ * is pre-split into words, digit runs, punctuation and whitespace the way those tokenizers do,
+ * and each piece is costed by how such vocabularies usually split it.
+ * <p>
+ * No vocabulary is bundled, so this is still an estimate, but unlike a flat chars/4 ratio it
+ * does not undercount punctuation-heavy JSON, numbers or non-Latin text.
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                // Runs of newlines are usually a single token
+                while (i < length && (text.charAt(i) == '\n' || text.charAt(i) == '\r')) {
+                    i++;
+                }
+                tokens++;
+            } else if (c == ' ' || c == '\t') {
+                int start = i;
+                while (i < length && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+                    i++;
+                }
+                // A single space merges into the following word; indentation runs become their own tokens
+                int run = i - start;
+                if (run > 1 || i >= length || !Character.isLetterOrDigit(text.charAt(i))) {
+                    tokens += Math.max(1, (run + 3) / 4);
+                }
+            } else if (c < 0x80 && Character.isLetter(c)) {
+                int start = i;
+                while (i < length && text.charAt(i) < 0x80 && Character.isLetter(text.charAt(i))) {
+                    i++;
+                }
+                tokens += wordTokens(i - start);
+            } else if (c >= '0' && c <= '9') {
+                int start = i;
+                while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                }
+                // Digit runs split into groups of up to three
+                tokens += (i - start + 2) / 3;
+            } else if (c < 0x80) {
+                // Punctuation: common pairs such as "{\"", "\"," or "()" usually merge
+                i++;
+                if (i < length && isPunctuation(text.charAt(i)) && text.charAt(i) != text.charAt(i - 1)) {
+                    i++;
+                }
+                tokens++;
+            } else if (Character.isIdeographic(c) || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.HIRAGANA
+                || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.KATAKANA
+                || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.HANGUL_SYLLABLES) {
+                i++;
+                tokens++;
+            } else if (Character.isHighSurrogate(c)) {
+                // Emoji and other astral characters take several byte-level tokens
+                i += 2;
+                tokens += 2;
+            } else {
+                // Accented Latin, Cyrillic, Greek...: a word splits into roughly two-char pieces
+                int start = i;
+                while (i < length && text.charAt(i) >= 0x80 && Character.isLetter(text.charAt(i))
+                    && !Character.isIdeographic(text.charAt(i))) {
+                    i++;
+                }
+                if (i == start) {
+                    i++;
+                    tokens++;
+                } else {
+                    tokens += Math.max(1, (i - start + 1) / 2);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static int wordTokens(int letters) {
+        if (letters <= 6) {
+            return 1;
+        }
+        if (letters <= 10) {
+            return 2;
+        }
+        return 2 + (letters - 7) / 4;
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c < 0x80 && !Character.isLetterOrDigit(c) && !Character.isWhitespace(c);
+    }
+}
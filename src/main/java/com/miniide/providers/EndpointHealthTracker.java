@@ -0,0 +1,189 @@
+package com.miniide.providers;
+
+import com.miniide.models.AgentEndpointConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling health per chat endpoint (provider + base URL + model): EWMA latency and error rate,
+ * a small latency window for p95, and a circuit breaker.
+ * <p>
+ * A circuit opens after {@link #OPEN_AFTER_CONSECUTIVE_FAILURES} straight failures, or when the
+ * error-rate EWMA passes {@link #OPEN_ERROR_RATE} with enough samples. It stays open for a
+ * cooldown that doubles on each re-open, then lets a single trial request through (half-open).
+ */
+public class EndpointHealthTracker {
+
+    private static final double ALPHA = 0.2;
+    private static final int LATENCY_WINDOW = 64;
+    private static final int MIN_SAMPLES_FOR_P95 = 10;
+    private static final int OPEN_AFTER_CONSECUTIVE_FAILURES = 3;
+    private static final double OPEN_ERROR_RATE = 0.5;
+    private static final int MIN_SAMPLES_FOR_ERROR_RATE = 5;
+    private static final long BASE_COOLDOWN_MS = 30_000L;
+    private static final long MAX_COOLDOWN_MS = 300_000L;
+    private static final long MIN_HEDGE_DELAY_MS = 250L;
+
+    private final Map<String, Health> health = new ConcurrentHashMap<>();
+
+    public static String key(AgentEndpointConfig endpoint) {
+        if (endpoint == null) {
+            return "";
+        }
+        String provider = endpoint.getProvider() != null ? endpoint.getProvider().trim().toLowerCase() : "";
+        String baseUrl = endpoint.getBaseUrl() != null ? endpoint.getBaseUrl().trim() : "";
+        return provider + "|" + baseUrl + "|" + (endpoint.getModel() != null ? endpoint.getModel() : "");
+    }
+
+    /**
+     * Whether a request may go to this endpoint now. An expired open circuit admits one trial
+     * request and stays closed to others until that trial reports back.
+     */
+    public boolean tryAcquire(String key) {
+        Health h = health.get(key);
+        if (h == null) {
+            return true;
+        }
+        synchronized (h) {
+            long now = System.currentTimeMillis();
+            if (h.openUntil <= 0) {
+                return true;
+            }
+            if (now < h.openUntil || h.trialInFlight) {
+                return false;
+            }
+            h.trialInFlight = true;
+            return true;
+        }
+    }
+
+    public boolean isOpen(String key) {
+        Health h = health.get(key);
+        if (h == null) {
+            return false;
+        }
+        synchronized (h) {
+            return h.openUntil > 0 && (System.currentTimeMillis() < h.openUntil || h.trialInFlight);
+        }
+    }
+
+    public void recordSuccess(String key, long latencyMs) {
+        Health h = health.computeIfAbsent(key, k -> new Health());
+        synchronized (h) {
+            h.sample(latencyMs, false);
+            h.consecutiveFailures = 0;
+            h.openUntil = 0L;
+            h.opens = 0;
+            h.trialInFlight = false;
+        }
+    }
+
+    public void recordFailure(String key, long latencyMs) {
+        Health h = health.computeIfAbsent(key, k -> new Health());
+        synchronized (h) {
+            h.sample(latencyMs, true);
+            h.consecutiveFailures++;
+            boolean trialFailed = h.trialInFlight;
+            h.trialInFlight = false;
+            boolean tripped = h.consecutiveFailures >= OPEN_AFTER_CONSECUTIVE_FAILURES
+                || (h.samples >= MIN_SAMPLES_FOR_ERROR_RATE && h.errorRate > OPEN_ERROR_RATE);
+            if (trialFailed || (tripped && h.openUntil <= 0)) {
+                long cooldown = Math.min(MAX_COOLDOWN_MS, BASE_COOLDOWN_MS << Math.min(h.opens, 4));
+                h.openUntil = System.currentTimeMillis() + cooldown;
+                h.opens++;
+            }
+        }
+    }
+
+    /**
+     * A request that was abandoned (e.g. lost a hedge race) says nothing about health, but must
+     * release a half-open trial slot it may hold.
+     */
+    public void recordAbandoned(String key) {
+        Health h = health.get(key);
+        if (h == null) {
+            return;
+        }
+        synchronized (h) {
+            h.trialInFlight = false;
+        }
+    }
+
+    /**
+     * How long to wait on this endpoint before hedging: its p95 latency, or -1 until there are
+     * enough samples to know it.
+     */
+    public long hedgeDelayMs(String key) {
+        Health h = health.get(key);
+        if (h == null) {
+            return -1L;
+        }
+        synchronized (h) {
+            long p95 = h.p95();
+            return p95 < 0 ? -1L : Math.max(MIN_HEDGE_DELAY_MS, p95);
+        }
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Health> entry : health.entrySet()) {
+            Health h = entry.getValue();
+            synchronized (h) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("endpoint", entry.getKey());
+                row.put("latencyEwmaMs", Math.round(h.latencyEwma));
+                row.put("latencyP95Ms", h.p95());
+                row.put("errorRate", h.errorRate);
+                row.put("samples", h.samples);
+                row.put("consecutiveFailures", h.consecutiveFailures);
+                row.put("circuit", h.openUntil <= 0 ? "closed" : (now < h.openUntil ? "open" : "half-open"));
+                row.put("openForMs", Math.max(0L, h.openUntil - now));
+                result.add(row);
+            }
+        }
+        result.sort((a, b) -> String.valueOf(a.get("endpoint")).compareTo(String.valueOf(b.get("endpoint"))));
+        return result;
+    }
+
+    private static final class Health {
+        private double latencyEwma;
+        private double errorRate;
+        private long samples;
+        private int consecutiveFailures;
+        private long openUntil;
+        private int opens;
+        private boolean trialInFlight;
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int latencyCount;
+        private int latencyNext;
+
+        private void sample(long latencyMs, boolean failed) {
+            latencyMs = Math.max(0L, latencyMs);
+            latencyEwma = samples == 0 ? latencyMs : ALPHA * latencyMs + (1 - ALPHA) * latencyEwma;
+            errorRate = samples == 0 ? (failed ? 1.0 : 0.0) : ALPHA * (failed ? 1.0 : 0.0) + (1 - ALPHA) * errorRate;
+            samples++;
+            if (!failed) {
+                // Failures are often fast refusals or full timeouts; neither says how long a good answer takes
+                latencies[latencyNext] = latencyMs;
+                latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+                latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+            }
+        }
+
+        private long p95() {
+            if (latencyCount < MIN_SAMPLES_FOR_P95) {
+                return -1L;
+            }
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(0.95 * latencyCount) - 1;
+            return sorted[Math.max(0, Math.min(index, latencyCount - 1))];
+        }
+    }
+}
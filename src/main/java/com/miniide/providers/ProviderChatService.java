@@ -1,11 +1,29 @@
 package com.miniide.providers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.AppLogger;
+import com.miniide.WorkerPools;
+import com.miniide.metrics.MetricsRegistry;
 import com.miniide.models.AgentEndpointConfig;
 import com.miniide.providers.chat.ChatProvider;
 import com.miniide.providers.chat.ChatProviderFactory;
+import com.miniide.providers.chat.OllamaResidencyManager;
+import com.miniide.providers.chat.ProviderHttpException;
+import com.miniide.providers.chat.ProviderRateLimiter;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for chat operations with AI providers.
@@ -13,12 +31,30 @@ import java.io.IOException;
  */
 public class ProviderChatService {
 
+    // Retries per endpoint when another endpoint in the pool can take over
+    private static final int FAILOVER_MAX_RETRIES = 1;
+
     private final ChatProviderFactory providerFactory;
+    private final EndpointHealthTracker healthTracker = new EndpointHealthTracker();
+    // When every hedge thread is busy the attempt runs on the caller, i.e. unhedged
+    private final ExecutorService hedgeExecutor = WorkerPools.callerRunsWhenFull("chat-hedge", 16);
 
     public ProviderChatService(ObjectMapper mapper) {
         this.providerFactory = new ChatProviderFactory(mapper);
     }
 
+    public EndpointHealthTracker getHealthTracker() {
+        return healthTracker;
+    }
+
+    public OllamaResidencyManager getResidencyManager() {
+        return providerFactory.getResidencyManager();
+    }
+
+    public ProviderRateLimiter getRateLimiter() {
+        return providerFactory.getRateLimiter();
+    }
+
     /**
      * Send a chat message to the specified provider.
      *
@@ -42,7 +78,7 @@ public class ProviderChatService {
         }
 
         ChatProvider chatProvider = providerFactory.getProvider(provider);
-        return chatProvider.chat(apiKey, endpoint, message);
+        return timed(provider, endpoint, () -> chatProvider.chat(apiKey, endpoint, message));
     }
 
     public String chat(String provider, String apiKey, AgentEndpointConfig endpoint, String message,
@@ -60,6 +96,242 @@ public class ProviderChatService {
         }
 
         ChatProvider chatProvider = providerFactory.getProvider(provider);
-        return chatProvider.chat(apiKey, endpoint, message, responseFormat);
+        return timed(provider, endpoint, () -> chatProvider.chat(apiKey, endpoint, message, responseFormat));
+    }
+
+    /**
+     * Records provider call latency by provider, model and outcome (ok, rate-limited, error).
+     */
+    private String timed(String provider, AgentEndpointConfig endpoint, ProviderCall call)
+        throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            String response = call.run();
+            outcome = "ok";
+            return response;
+        } catch (ProviderHttpException e) {
+            outcome = e.isRateLimited() ? "rate_limited" : "http_" + e.getStatusCode();
+            throw e;
+        } catch (InterruptedException e) {
+            outcome = "cancelled";
+            throw e;
+        } finally {
+            MetricsRegistry.get().histogram("provider_request_seconds", "Chat provider call latency",
+                    "provider", provider.trim().toLowerCase(), "model", endpoint.getModel(), "outcome", outcome)
+                .recordNanos(System.nanoTime() - started);
+        }
+    }
+
+    private interface ProviderCall {
+        String run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Send a chat message through an ordered endpoint pool. Endpoints with an open circuit are
+     * skipped; a failing endpoint hands over to the next one. With {@code hedge}, the next
+     * endpoint is also started once the current one runs past its p95 latency, and the first
+     * successful answer wins. Each attempt feeds the {@link EndpointHealthTracker}; caller errors
+     * (see {@link ProviderHttpException#isCallerError()}) do not count against the endpoint. They
+     * still fail over, since a fallback has its own provider, key and model, but targets that would
+     * send the identical request (same provider, key and model) are skipped.
+     *
+     * @throws IOException the caller error, or the last endpoint's failure when every endpoint failed
+     */
+    public String chat(List<Target> pool, String message, JsonNode responseFormat, boolean hedge)
+        throws IOException, InterruptedException {
+        if (pool == null || pool.isEmpty()) {
+            throw new IOException("Endpoint configuration is required.");
+        }
+        boolean failover = pool.size() > 1;
+        Set<String> rejected = new HashSet<>();
+        IOException last = null;
+        int attempted = 0;
+        int next = 0;
+        while (true) {
+            int index = nextAdmitted(pool, next, rejected);
+            if (index < 0) {
+                break;
+            }
+            next = index + 1;
+            Target current = pool.get(index);
+            attempted++;
+            int backupIndex = hedge ? nextAdmitted(pool, next, rejected) : -1;
+            long hedgeDelay = backupIndex >= 0 ? healthTracker.hedgeDelayMs(EndpointHealthTracker.key(current.endpoint)) : -1L;
+            if (hedgeDelay < 0) {
+                if (backupIndex >= 0) {
+                    // Not hedging after all; give back the trial slot nextAdmitted may have taken
+                    healthTracker.recordAbandoned(EndpointHealthTracker.key(pool.get(backupIndex).endpoint));
+                }
+                try {
+                    return attempt(current, message, responseFormat, failover);
+                } catch (IOException e) {
+                    if (isCallerError(e)) {
+                        rejected.add(requestIdentity(current));
+                    }
+                    last = e;
+                    continue;
+                }
+            }
+            next = backupIndex + 1;
+            attempted++;
+            try {
+                return hedged(current, pool.get(backupIndex), hedgeDelay, message, responseFormat, failover, rejected);
+            } catch (IOException e) {
+                last = e;
+            }
+        }
+        if (attempted == 0) {
+            // Every circuit is open; the primary is still a better answer than failing outright
+            return attempt(pool.get(0), message, responseFormat, failover);
+        }
+        throw last != null ? last : new IOException("Chat request failed");
+    }
+
+    private int nextAdmitted(List<Target> pool, int from, Set<String> rejected) {
+        for (int i = from; i < pool.size(); i++) {
+            Target target = pool.get(i);
+            if (rejected.contains(requestIdentity(target))) {
+                continue;
+            }
+            if (healthTracker.tryAcquire(EndpointHealthTracker.key(target.endpoint))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Races {@code primary} against {@code backup}. Targets that answer with a caller error are
+     * added to {@code rejected}; the other one is still awaited (or started) unless it would send
+     * the identical request.
+     */
+    private String hedged(Target primary, Target backup, long delayMs, String message,
+                          JsonNode responseFormat, boolean failover, Set<String> rejected)
+        throws IOException, InterruptedException {
+        CompletionService<String> completion = new ExecutorCompletionService<>(hedgeExecutor);
+        Map<Future<String>, Target> running = new HashMap<>();
+        running.put(completion.submit(() -> attempt(primary, message, responseFormat, failover)), primary);
+        boolean backupStarted = false;
+        IOException last = null;
+        try {
+            Future<String> done = completion.poll(delayMs, TimeUnit.MILLISECONDS);
+            if (done == null) {
+                AppLogger logger = AppLogger.get();
+                if (logger != null) {
+                    logger.info("Hedging chat request to " + EndpointHealthTracker.key(backup.endpoint)
+                        + " after " + delayMs + "ms");
+                }
+                running.put(completion.submit(() -> attempt(backup, message, responseFormat, failover)), backup);
+                backupStarted = true;
+                done = completion.take();
+            }
+            while (true) {
+                Target finished = running.remove(done);
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    last = cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+                }
+                if (isCallerError(last)) {
+                    rejected.add(requestIdentity(finished));
+                    Target other = finished == primary ? backup : primary;
+                    if (rejected.contains(requestIdentity(other))) {
+                        // The other target would send the identical request; the finally cancels it
+                        throw last;
+                    }
+                }
+                if (running.isEmpty()) {
+                    if (!backupStarted) {
+                        // Primary failed before the hedge delay; the backup is the normal failover
+                        backupStarted = true;
+                        return attempt(backup, message, responseFormat, failover);
+                    }
+                    throw last;
+                }
+                done = completion.take();
+            }
+        } finally {
+            for (Map.Entry<Future<String>, Target> loser : running.entrySet()) {
+                loser.getKey().cancel(true);
+            }
+            if (!backupStarted) {
+                healthTracker.recordAbandoned(EndpointHealthTracker.key(backup.endpoint));
+            }
+        }
+    }
+
+    private String attempt(Target target, String message, JsonNode responseFormat, boolean failover)
+        throws IOException, InterruptedException {
+        AgentEndpointConfig endpoint = target.endpoint;
+        if (failover) {
+            int retries = endpoint.getMaxRetries() != null ? endpoint.getMaxRetries() : Integer.MAX_VALUE;
+            if (retries > FAILOVER_MAX_RETRIES) {
+                endpoint = endpoint.copy();
+                endpoint.setMaxRetries(FAILOVER_MAX_RETRIES);
+            }
+        }
+        String key = EndpointHealthTracker.key(endpoint);
+        long started = System.currentTimeMillis();
+        try {
+            String response = chat(target.provider, target.apiKey, endpoint, message, responseFormat);
+            healthTracker.recordSuccess(key, System.currentTimeMillis() - started);
+            return response;
+        } catch (InterruptedException e) {
+            healthTracker.recordAbandoned(key);
+            throw e;
+        } catch (IOException e) {
+            if (Thread.currentThread().isInterrupted() || isCallerError(e)) {
+                // Neither says anything about the endpoint's health
+                healthTracker.recordAbandoned(key);
+            } else {
+                healthTracker.recordFailure(key, System.currentTimeMillis() - started);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            healthTracker.recordFailure(key, System.currentTimeMillis() - started);
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether a failure is the request's fault rather than the endpoint's. Only 5xx, 408, 429,
+     * timeouts and connection errors count toward the circuit breaker.
+     */
+    static boolean isCallerError(IOException e) {
+        return e instanceof ProviderHttpException && ((ProviderHttpException) e).isCallerError();
+    }
+
+    /**
+     * What a provider sees of a request apart from the message: after a caller error, another
+     * target with the same identity would be rejected the same way.
+     */
+    private static String requestIdentity(Target target) {
+        String provider = target.provider != null ? target.provider.trim().toLowerCase() : "";
+        return provider + "\n" + (target.apiKey != null ? target.apiKey : "") + "\n" + target.endpoint.getModel();
+    }
+
+    /**
+     * One endpoint of a pool with its resolved provider name and API key.
+     */
+    public static final class Target {
+        private final String provider;
+        private final String apiKey;
+        private final AgentEndpointConfig endpoint;
+
+        public Target(String provider, String apiKey, AgentEndpointConfig endpoint) {
+            this.provider = provider;
+            this.apiKey = apiKey;
+            this.endpoint = endpoint;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public AgentEndpointConfig getEndpoint() {
+            return endpoint;
+        }
     }
 }
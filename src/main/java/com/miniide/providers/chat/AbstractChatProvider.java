@@ -9,6 +9,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Abstract base class for chat providers with shared HTTP logic.
@@ -18,12 +20,22 @@ public abstract class AbstractChatProvider implements ChatProvider {
     protected final ObjectMapper mapper;
     protected final HttpClient httpClient;
     protected static final int DEFAULT_REQUEST_TIMEOUT_SECONDS = 300;
+    private static final Pattern QUERY_KEY = Pattern.compile("[?&]key=([^&]+)");
+
+    private ProviderRateLimiter rateLimiter;
 
     protected AbstractChatProvider(ObjectMapper mapper, HttpClient httpClient) {
         this.mapper = mapper;
         this.httpClient = httpClient;
     }
 
+    /**
+     * Shared budget tracker; requests go straight out when none is set.
+     */
+    public void setRateLimiter(ProviderRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
     /**
      * Send a JSON POST request and return the parsed response.
      */
@@ -34,11 +46,13 @@ public abstract class AbstractChatProvider implements ChatProvider {
 
     protected JsonNode sendJsonPost(String url, JsonNode payload, String bearerAuth, String anthropicKey, Integer timeoutMs)
         throws IOException, InterruptedException {
+        String body = mapper.writeValueAsString(payload);
+        Duration timeout = resolveTimeout(timeoutMs);
         HttpRequest.Builder builder = HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .timeout(resolveTimeout(timeoutMs))
+            .timeout(timeout)
             .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(payload)));
+            .POST(HttpRequest.BodyPublishers.ofString(body));
 
         if (bearerAuth != null && !bearerAuth.isBlank()) {
             builder.header("Authorization", bearerAuth);
@@ -48,12 +62,26 @@ public abstract class AbstractChatProvider implements ChatProvider {
             builder.header("anthropic-version", "2023-06-01");
         }
 
-        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
-        int status = response.statusCode();
-        if (status < 200 || status >= 300) {
-            throw new IOException("Chat request failed (" + status + "): " + response.body());
+        ProviderRateLimiter.Permit permit = null;
+        if (rateLimiter != null) {
+            permit = rateLimiter.acquire(getProviderName(), rateLimitCredential(url, bearerAuth, anthropicKey),
+                estimateTokens(body, payload), timeout.toMillis());
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            long retryAfterMs = permit != null
+                ? permit.onResponse(status, response.headers())
+                : ProviderRateLimiter.parseRetryAfterMs(response.headers(), System.currentTimeMillis());
+            if (status < 200 || status >= 300) {
+                throw new ProviderHttpException(status, response.body(), retryAfterMs);
+            }
+            return mapper.readTree(response.body());
+        } finally {
+            if (permit != null) {
+                permit.close();
+            }
         }
-        return mapper.readTree(response.body());
     }
 
     /**
@@ -75,7 +103,11 @@ public abstract class AbstractChatProvider implements ChatProvider {
                 if (attempt >= retries || !isRetryableChatFailure(e)) {
                     throw e;
                 }
-                sleepBackoff(attempt);
+                if (rateLimiter != null && e instanceof ProviderHttpException && ((ProviderHttpException) e).isRateLimited()) {
+                    // The bucket is now blocked until the provider's reset; the next attempt queues there
+                    continue;
+                }
+                sleepBackoff(attempt, e);
             }
         }
         throw lastIo != null ? lastIo : new IOException("Chat request failed");
@@ -83,22 +115,26 @@ public abstract class AbstractChatProvider implements ChatProvider {
 
     private boolean isRetryableChatFailure(IOException e) {
         if (e == null) return false;
+        // Retry provider 5xx/429 and common transient network errors.
+        if (e instanceof ProviderHttpException) {
+            return ((ProviderHttpException) e).isRetryable();
+        }
         String msg = e.getMessage() != null ? e.getMessage() : "";
-        // Retry common transient network errors and provider 5xx/429.
         if (msg.contains("EOF reached while reading")) return true;
         if (msg.contains("Connection reset")) return true;
         if (msg.contains("timed out") || msg.contains("Timeout")) return true;
-        java.util.regex.Matcher m = java.util.regex.Pattern.compile("\\((\\d{3})\\)").matcher(msg);
-        if (m.find()) {
-            try {
-                int code = Integer.parseInt(m.group(1));
-                return code == 429 || (code >= 500 && code <= 599);
-            } catch (NumberFormatException ignored) {
-            }
-        }
         return false;
     }
 
+    private void sleepBackoff(int attempt, IOException cause) throws InterruptedException {
+        long retryAfterMs = cause instanceof ProviderHttpException ? ((ProviderHttpException) cause).getRetryAfterMs() : -1L;
+        if (retryAfterMs >= 0 && rateLimiter == null) {
+            Thread.sleep(retryAfterMs);
+            return;
+        }
+        sleepBackoff(attempt);
+    }
+
     private void sleepBackoff(int attempt) throws InterruptedException {
         // Exponential-ish backoff with jitter: 350ms, 900ms, 1800ms, 2800ms, 4000ms...
         long base;
@@ -110,6 +146,39 @@ public abstract class AbstractChatProvider implements ChatProvider {
         Thread.sleep(Math.min(10_000, base + jitter));
     }
 
+    /**
+     * What identifies a rate-limit budget: the API key, or the endpoint itself for keyless local servers.
+     */
+    private String rateLimitCredential(String url, String bearerAuth, String anthropicKey) {
+        if (anthropicKey != null && !anthropicKey.isBlank()) {
+            return anthropicKey;
+        }
+        if (bearerAuth != null && !bearerAuth.isBlank()) {
+            return bearerAuth;
+        }
+        Matcher keyParam = QUERY_KEY.matcher(url);
+        if (keyParam.find()) {
+            return keyParam.group(1);
+        }
+        URI uri = URI.create(url);
+        return uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * Rough token cost for budget checks: ~4 chars per prompt token plus the requested output cap.
+     */
+    private long estimateTokens(String body, JsonNode payload) {
+        long tokens = body.length() / 4;
+        JsonNode maxTokens = payload.path("max_tokens");
+        if (maxTokens.isMissingNode()) {
+            maxTokens = payload.path("generationConfig").path("maxOutputTokens");
+        }
+        if (maxTokens.canConvertToLong()) {
+            tokens += maxTokens.asLong();
+        }
+        return tokens;
+    }
+
     protected Duration resolveTimeout(Integer timeoutMs) {
         if (timeoutMs != null && timeoutMs > 0) {
             return Duration.ofMillis(timeoutMs);
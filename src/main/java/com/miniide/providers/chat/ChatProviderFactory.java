@@ -1,6 +1,8 @@
 package com.miniide.providers.chat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.WorkerPools;
+
 import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Map;
@@ -14,13 +16,17 @@ public class ChatProviderFactory {
     private final ObjectMapper mapper;
     private final HttpClient httpClient;
     private final Map<String, ChatProvider> providerCache = new ConcurrentHashMap<>();
+    private final ProviderRateLimiter rateLimiter = new ProviderRateLimiter();
+    private final OllamaResidencyManager residencyManager;
 
     public ChatProviderFactory(ObjectMapper mapper) {
         this.mapper = mapper;
         this.httpClient = HttpClient.newBuilder()
             .version(HttpClient.Version.HTTP_1_1)
             .connectTimeout(Duration.ofSeconds(10))
+            .executor(WorkerPools.bounded("provider-http", 4, 0))
             .build();
+        this.residencyManager = new OllamaResidencyManager(mapper, httpClient);
     }
 
     /**
@@ -32,7 +38,26 @@ public class ChatProviderFactory {
             providerName = "custom";
         }
 
-        return providerCache.computeIfAbsent(providerName, this::createProvider);
+        return providerCache.computeIfAbsent(providerName, this::createLimitedProvider);
+    }
+
+    /**
+     * Rate-limit budgets shared by every provider from this factory.
+     */
+    public ProviderRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public OllamaResidencyManager getResidencyManager() {
+        return residencyManager;
+    }
+
+    private ChatProvider createLimitedProvider(String providerName) {
+        ChatProvider provider = createProvider(providerName);
+        if (provider instanceof AbstractChatProvider) {
+            ((AbstractChatProvider) provider).setRateLimiter(rateLimiter);
+        }
+        return provider;
     }
 
     private ChatProvider createProvider(String providerName) {
@@ -42,7 +67,9 @@ public class ChatProviderFactory {
             case "gemini":
                 return new GeminiChatProvider(mapper, httpClient);
             case "ollama":
-                return new OllamaChatProvider(mapper, httpClient);
+                OllamaChatProvider ollama = new OllamaChatProvider(mapper, httpClient);
+                ollama.setResidencyManager(residencyManager);
+                return ollama;
             case "openrouter":
                 return new OpenRouterChatProvider(mapper, httpClient);
             case "nanogpt":
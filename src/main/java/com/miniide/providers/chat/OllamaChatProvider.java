@@ -10,10 +10,16 @@ import java.net.http.HttpClient;
 
 public class OllamaChatProvider extends AbstractChatProvider {
 
+    private OllamaResidencyManager residencyManager;
+
     public OllamaChatProvider(ObjectMapper mapper, HttpClient httpClient) {
         super(mapper, httpClient);
     }
 
+    public void setResidencyManager(OllamaResidencyManager residencyManager) {
+        this.residencyManager = residencyManager;
+    }
+
     @Override
     public String getProviderName() {
         return "ollama";
@@ -22,11 +28,15 @@ public class OllamaChatProvider extends AbstractChatProvider {
     @Override
     public String chat(String apiKey, AgentEndpointConfig endpoint, String message)
         throws IOException, InterruptedException {
-        String url = normalizeBaseUrl(endpoint.getBaseUrl(), "http://localhost:11434") + "/api/chat";
+        String baseUrl = normalizeBaseUrl(endpoint.getBaseUrl(), OllamaResidencyManager.DEFAULT_BASE_URL);
+        String url = baseUrl + "/api/chat";
 
         ObjectNode payload = mapper.createObjectNode();
         payload.put("model", endpoint.getModel());
         payload.put("stream", false);
+        if (residencyManager != null) {
+            payload.put("keep_alive", residencyManager.recordUse(baseUrl, endpoint.getModel()));
+        }
 
         ArrayNode messages = payload.putArray("messages");
         ObjectNode msg = messages.addObject();
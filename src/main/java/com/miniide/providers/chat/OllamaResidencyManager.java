@@ -0,0 +1,314 @@
+package com.miniide.providers.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.miniide.AgentEndpointRegistry;
+import com.miniide.AgentRegistry;
+import com.miniide.AppLogger;
+import com.miniide.models.Agent;
+import com.miniide.models.AgentEndpointConfig;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps local Ollama models loaded for the agents that use them.
+ * <p>
+ * Tracks how often each (server, model) is used and turns that into a {@code keep_alive} for
+ * chat requests, so busy models stay resident and rarely used ones release memory. Resident
+ * models are read from {@code GET /api/ps} (cached briefly). On startup and workspace switch the
+ * enabled agents' models are warmed one at a time, most used first, capped per server so
+ * warm-up itself does not evict what is already loaded.
+ */
+public class OllamaResidencyManager {
+
+    public static final String DEFAULT_BASE_URL = "http://localhost:11434";
+
+    private static final long USAGE_WINDOW_MS = 60 * 60_000L;
+    private static final long RESIDENT_CACHE_MS = 5_000L;
+    private static final int MAX_WARM_MODELS_PER_SERVER = 2;
+    private static final Duration PS_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration WARM_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ObjectMapper mapper;
+    private final HttpClient httpClient;
+    private final Map<String, Deque<Long>> uses = new ConcurrentHashMap<>();
+    private final Map<String, ResidentSet> resident = new ConcurrentHashMap<>();
+    private final Set<String> warming = ConcurrentHashMap.newKeySet();
+    // One warm-up at a time: parallel loads are exactly the VRAM thrash this avoids
+    private final ExecutorService warmExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ollama-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OllamaResidencyManager(ObjectMapper mapper, HttpClient httpClient) {
+        this.mapper = mapper;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Turn-scheduling key for an endpoint: turns on the same local model share it. Null for
+     * anything that is not an Ollama endpoint, since remote providers have no load cost.
+     */
+    public static String affinityKey(AgentEndpointConfig endpoint) {
+        if (endpoint == null || endpoint.getProvider() == null
+            || !"ollama".equalsIgnoreCase(endpoint.getProvider().trim()) || endpoint.getModel() == null) {
+            return null;
+        }
+        return "ollama|" + normalizeBaseUrl(endpoint.getBaseUrl()) + "|" + normalizeModel(endpoint.getModel());
+    }
+
+    /**
+     * Records a request for this model and returns the keep_alive to send with it.
+     */
+    public String recordUse(String baseUrl, String model) {
+        String server = normalizeBaseUrl(baseUrl);
+        String name = normalizeModel(model);
+        long now = System.currentTimeMillis();
+        Deque<Long> history = uses.computeIfAbsent(server + "|" + name, k -> new ArrayDeque<>());
+        synchronized (history) {
+            history.addLast(now);
+            prune(history, now);
+        }
+        ResidentSet set = resident.get(server);
+        if (set != null) {
+            // The request itself loads the model
+            synchronized (set) {
+                set.models.add(name);
+            }
+        }
+        return keepAlive(server, name);
+    }
+
+    /**
+     * keep_alive scaled by use over the last hour: a model in steady use stays loaded between
+     * bursts; a model used once releases memory soon after.
+     */
+    public String keepAlive(String baseUrl, String model) {
+        int recent = recentUses(normalizeBaseUrl(baseUrl) + "|" + normalizeModel(model));
+        if (recent >= 10) {
+            return "2h";
+        }
+        if (recent >= 3) {
+            return "30m";
+        }
+        return "10m";
+    }
+
+    public boolean isResident(String baseUrl, String model) {
+        return residentModels(baseUrl).contains(normalizeModel(model));
+    }
+
+    /**
+     * Models currently loaded on the server, per {@code /api/ps}; empty if it cannot be reached.
+     */
+    public Set<String> residentModels(String baseUrl) {
+        String server = normalizeBaseUrl(baseUrl);
+        ResidentSet set = resident.computeIfAbsent(server, k -> new ResidentSet());
+        synchronized (set) {
+            long now = System.currentTimeMillis();
+            if (now - set.fetchedAt >= RESIDENT_CACHE_MS) {
+                set.fetchedAt = now;
+                try {
+                    set.models = fetchResident(server);
+                    set.reachable = true;
+                } catch (IOException e) {
+                    set.models = new HashSet<>();
+                    set.reachable = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new HashSet<>(set.models);
+        }
+    }
+
+    /**
+     * Loads the model in the background unless it is already resident or being loaded.
+     */
+    public void warm(String baseUrl, String model) {
+        String server = normalizeBaseUrl(baseUrl);
+        String name = normalizeModel(model);
+        String key = server + "|" + name;
+        if (!warming.add(key)) {
+            return;
+        }
+        warmExecutor.submit(() -> {
+            try {
+                if (isResident(server, name)) {
+                    return;
+                }
+                long started = System.currentTimeMillis();
+                ObjectNode payload = mapper.createObjectNode();
+                payload.put("model", model);
+                payload.put("keep_alive", keepAlive(server, name));
+                HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(server + "/api/generate"))
+                    .timeout(WARM_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(payload)))
+                    .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                log("Warmed Ollama model " + name + " on " + server + " (" + response.statusCode() + ", "
+                    + (System.currentTimeMillis() - started) + "ms)");
+                invalidate(server);
+            } catch (Exception e) {
+                log("Ollama warm-up failed for " + name + " on " + server + ": " + e.getMessage());
+            } finally {
+                warming.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Warms the models of enabled Ollama agents, most used first, at most
+     * {@link #MAX_WARM_MODELS_PER_SERVER} per server.
+     */
+    public void warmAgents(AgentRegistry agents, AgentEndpointRegistry endpoints) {
+        if (agents == null) {
+            return;
+        }
+        Map<String, Set<String>> modelsByServer = new LinkedHashMap<>();
+        Map<String, String> requestedNames = new LinkedHashMap<>();
+        for (Agent agent : agents.listEnabledAgents()) {
+            AgentEndpointConfig endpoint = endpoints != null ? endpoints.getEndpoint(agent.getId()) : null;
+            if (endpoint == null) {
+                endpoint = agent.getEndpoint();
+            }
+            if (affinityKey(endpoint) == null) {
+                continue;
+            }
+            String server = normalizeBaseUrl(endpoint.getBaseUrl());
+            String name = normalizeModel(endpoint.getModel());
+            modelsByServer.computeIfAbsent(server, k -> new LinkedHashSet<>()).add(name);
+            requestedNames.putIfAbsent(server + "|" + name, endpoint.getModel().trim());
+        }
+        for (Map.Entry<String, Set<String>> entry : modelsByServer.entrySet()) {
+            String server = entry.getKey();
+            List<String> ordered = new ArrayList<>(entry.getValue());
+            ordered.sort((a, b) -> Integer.compare(recentUses(server + "|" + b), recentUses(server + "|" + a)));
+            for (String name : ordered.subList(0, Math.min(MAX_WARM_MODELS_PER_SERVER, ordered.size()))) {
+                warm(server, requestedNames.get(server + "|" + name));
+            }
+        }
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, ResidentSet> entry : resident.entrySet()) {
+            ResidentSet set = entry.getValue();
+            synchronized (set) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("server", entry.getKey());
+                row.put("reachable", set.reachable);
+                row.put("resident", new ArrayList<>(set.models));
+                Map<String, Object> usage = new LinkedHashMap<>();
+                for (String key : uses.keySet()) {
+                    if (key.startsWith(entry.getKey() + "|")) {
+                        String model = key.substring(entry.getKey().length() + 1);
+                        usage.put(model, Map.of("usesLastHour", recentUses(key), "keepAlive", keepAlive(entry.getKey(), model)));
+                    }
+                }
+                row.put("usage", usage);
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private Set<String> fetchResident(String server) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(server + "/api/ps"))
+            .timeout(PS_TIMEOUT)
+            .GET()
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IOException("Ollama /api/ps failed (" + response.statusCode() + ")");
+        }
+        Set<String> models = new HashSet<>();
+        JsonNode list = mapper.readTree(response.body()).path("models");
+        if (list.isArray()) {
+            for (JsonNode model : list) {
+                String name = model.path("model").asText(model.path("name").asText(""));
+                if (!name.isBlank()) {
+                    models.add(normalizeModel(name));
+                }
+            }
+        }
+        return models;
+    }
+
+    private void invalidate(String server) {
+        ResidentSet set = resident.get(server);
+        if (set != null) {
+            synchronized (set) {
+                set.fetchedAt = 0L;
+            }
+        }
+    }
+
+    private int recentUses(String key) {
+        Deque<Long> history = uses.get(key);
+        if (history == null) {
+            return 0;
+        }
+        synchronized (history) {
+            prune(history, System.currentTimeMillis());
+            return history.size();
+        }
+    }
+
+    private static void prune(Deque<Long> history, long now) {
+        while (!history.isEmpty() && now - history.peekFirst() > USAGE_WINDOW_MS) {
+            history.removeFirst();
+        }
+    }
+
+    static String normalizeBaseUrl(String baseUrl) {
+        String url = (baseUrl == null || baseUrl.isBlank()) ? DEFAULT_BASE_URL : baseUrl.trim();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+
+    /**
+     * Ollama reports "llama3:latest" for a model requested as "llama3".
+     */
+    static String normalizeModel(String model) {
+        String name = model == null ? "" : model.trim();
+        return name.isEmpty() || name.contains(":") ? name : name + ":latest";
+    }
+
+    private void log(String message) {
+        AppLogger logger = AppLogger.get();
+        if (logger != null) {
+            logger.info(message);
+        }
+    }
+
+    private static final class ResidentSet {
+        private Set<String> models = new HashSet<>();
+        private long fetchedAt;
+        private boolean reachable;
+    }
+}
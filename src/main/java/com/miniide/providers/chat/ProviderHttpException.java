@@ -0,0 +1,48 @@
+package com.miniide.providers.chat;
+
+import java.io.IOException;
+
+/**
+ * Non-2xx response from a provider. The message keeps the "Chat request failed (status): body"
+ * form callers already surface; status and any Retry-After hint are available without parsing it.
+ */
+public class ProviderHttpException extends IOException {
+
+    private final int statusCode;
+    private final long retryAfterMs;
+
+    public ProviderHttpException(int statusCode, String body, long retryAfterMs) {
+        super("Chat request failed (" + statusCode + "): " + body);
+        this.statusCode = statusCode;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return delay the provider asked for, or -1 when it sent none
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    public boolean isRateLimited() {
+        return statusCode == 429;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || (statusCode >= 500 && statusCode <= 599);
+    }
+
+    /**
+     * A 4xx the caller caused (bad key, unknown model, context too long). The endpoint is up, so
+     * this does not count against its health, and retrying it with the same request will not
+     * help; a fallback with its own key or model still might. 408 and 429 are load signals, not
+     * caller errors.
+     */
+    public boolean isCallerError() {
+        return statusCode >= 400 && statusCode <= 499 && statusCode != 408 && statusCode != 429;
+    }
+}
@@ -0,0 +1,408 @@
+package com.miniide.providers.chat;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Request and token budgets per (provider, API key), shared by every chat provider built by one
+ * {@link ChatProviderFactory}.
+ * <p>
+ * Budgets are learned from the rate-limit headers providers return (OpenAI-style
+ * {@code x-ratelimit-*-requests/-tokens}, Anthropic {@code anthropic-ratelimit-*}, generic
+ * {@code x-ratelimit-limit/remaining/reset}) and from {@code Retry-After} on 429/503. While a
+ * bucket is exhausted or blocked, callers queue in arrival order on that bucket instead of each
+ * sleeping and retrying on its own. Keys are held only as a short SHA-256 fingerprint.
+ */
+public class ProviderRateLimiter {
+
+    private static final long MAX_SLEEP_MS = 1_000L;
+    // Used when a provider reports an empty bucket but no reset time
+    private static final long DEFAULT_RESET_MS = 1_000L;
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Waits until the bucket for this provider and credential has budget for one request of
+     * about {@code estimatedTokens}, then reserves it.
+     *
+     * @param maxWaitMs give up with an IOException if the wait would exceed this; 0 or less waits indefinitely
+     */
+    public Permit acquire(String provider, String credential, long estimatedTokens, long maxWaitMs)
+        throws IOException, InterruptedException {
+        String keyId = fingerprint(credential);
+        Bucket bucket = buckets.computeIfAbsent(provider + ":" + keyId, k -> new Bucket(provider, keyId));
+        long started = System.currentTimeMillis();
+        boolean throttled = false;
+
+        synchronized (bucket) {
+            bucket.waiting++;
+        }
+        try {
+            if (maxWaitMs > 0) {
+                if (!bucket.gate.tryLock(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Rate limited by " + provider + ": queue wait exceeded " + maxWaitMs + "ms");
+                }
+            } else {
+                bucket.gate.lockInterruptibly();
+            }
+            try {
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    long delay;
+                    synchronized (bucket) {
+                        delay = bucket.delayMs(now, estimatedTokens);
+                        if (delay <= 0) {
+                            bucket.reserve(estimatedTokens);
+                            break;
+                        }
+                    }
+                    if (maxWaitMs > 0 && (now - started) + delay > maxWaitMs) {
+                        throw new IOException("Rate limited by " + provider + ": budget frees in "
+                            + Math.max(1, (delay + 999) / 1000) + "s");
+                    }
+                    throttled = true;
+                    Thread.sleep(Math.min(delay, MAX_SLEEP_MS));
+                }
+            } finally {
+                bucket.gate.unlock();
+            }
+        } finally {
+            synchronized (bucket) {
+                bucket.waiting--;
+            }
+        }
+
+        if (throttled) {
+            long waited = System.currentTimeMillis() - started;
+            synchronized (bucket) {
+                bucket.throttledRequests++;
+                bucket.throttleMsTotal += waited;
+                bucket.lastThrottleMs = waited;
+            }
+        }
+        return new Permit(bucket);
+    }
+
+    /**
+     * Current budget and throttle counters per bucket, for the providers status endpoint.
+     */
+    public List<Map<String, Object>> snapshot() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Bucket bucket : buckets.values()) {
+            synchronized (bucket) {
+                bucket.refill(now);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("provider", bucket.provider);
+                entry.put("keyId", bucket.keyId);
+                entry.put("requestLimit", bucket.requestLimit);
+                entry.put("requestsRemaining", bucket.requestsRemaining);
+                entry.put("tokenLimit", bucket.tokenLimit);
+                entry.put("tokensRemaining", bucket.tokensRemaining);
+                entry.put("blockedForMs", Math.max(0L, bucket.blockedUntil - now));
+                entry.put("inFlight", bucket.inFlight);
+                entry.put("waiting", bucket.waiting);
+                entry.put("throttledRequests", bucket.throttledRequests);
+                entry.put("throttleMsTotal", bucket.throttleMsTotal);
+                entry.put("lastThrottleMs", bucket.lastThrottleMs);
+                entry.put("rateLimitedResponses", bucket.rateLimitedResponses);
+                result.add(entry);
+            }
+        }
+        result.sort((a, b) -> (a.get("provider") + ":" + a.get("keyId")).compareTo(b.get("provider") + ":" + b.get("keyId")));
+        return result;
+    }
+
+    /**
+     * Delay requested by Retry-After (or retry-after-ms), or -1 when absent or unparseable.
+     */
+    static long parseRetryAfterMs(HttpHeaders headers, long now) {
+        if (headers == null) {
+            return -1L;
+        }
+        Optional<String> millis = headers.firstValue("retry-after-ms");
+        if (millis.isPresent()) {
+            try {
+                return Math.max(0L, (long) Double.parseDouble(millis.get().trim()));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        Optional<String> value = headers.firstValue("retry-after");
+        if (value.isEmpty() || value.get().isBlank()) {
+            return -1L;
+        }
+        String raw = value.get().trim();
+        try {
+            return Math.max(0L, (long) (Double.parseDouble(raw) * 1000));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            long at = ZonedDateTime.parse(raw, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0L, at - now);
+        } catch (RuntimeException ignored) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Absolute reset time for a rate-limit reset header, which providers send as a duration
+     * ("6m0s", "20ms", "1.5"), epoch seconds or millis, or an RFC 3339 timestamp. -1 if unknown.
+     */
+    static long parseResetAt(String raw, long now) {
+        if (raw == null || raw.isBlank()) {
+            return -1L;
+        }
+        String value = raw.trim();
+        try {
+            double number = Double.parseDouble(value);
+            if (number > 1e12) {
+                return (long) number;
+            }
+            if (number > 1e9) {
+                return (long) (number * 1000);
+            }
+            return now + (long) (number * 1000);
+        } catch (NumberFormatException ignored) {
+        }
+        if (value.indexOf('T') > 0) {
+            try {
+                return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+            } catch (RuntimeException ignored) {
+                try {
+                    return Instant.parse(value).toEpochMilli();
+                } catch (RuntimeException alsoIgnored) {
+                    return -1L;
+                }
+            }
+        }
+        Matcher matcher = DURATION_PART.matcher(value);
+        double totalMs = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "h":
+                    totalMs += amount * 3_600_000;
+                    break;
+                case "m":
+                    totalMs += amount * 60_000;
+                    break;
+                case "s":
+                    totalMs += amount * 1000;
+                    break;
+                default:
+                    totalMs += amount;
+                    break;
+            }
+        }
+        return matched ? now + (long) totalMs : -1L;
+    }
+
+    private static String fingerprint(String credential) {
+        if (credential == null || credential.isBlank()) {
+            return "anonymous";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credential.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 4; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(credential.hashCode());
+        }
+    }
+
+    /**
+     * One reserved request. Report the response through {@link #onResponse} and close it when
+     * the call is finished.
+     */
+    public static final class Permit implements AutoCloseable {
+        private final Bucket bucket;
+        private boolean closed;
+
+        private Permit(Bucket bucket) {
+            this.bucket = bucket;
+        }
+
+        /**
+         * Feeds the response's rate-limit headers back into the bucket.
+         *
+         * @return the Retry-After delay the provider asked for, or -1
+         */
+        public long onResponse(int status, HttpHeaders headers) {
+            long now = System.currentTimeMillis();
+            long retryAfterMs = parseRetryAfterMs(headers, now);
+            synchronized (bucket) {
+                bucket.learn(headers, now);
+                if (status == 429) {
+                    bucket.rateLimitedResponses++;
+                    bucket.consecutiveRateLimits++;
+                    long delay = retryAfterMs >= 0 ? retryAfterMs : bucket.backoffMs();
+                    bucket.blockedUntil = Math.max(bucket.blockedUntil, now + delay);
+                } else if (status == 503 && retryAfterMs >= 0) {
+                    bucket.blockedUntil = Math.max(bucket.blockedUntil, now + retryAfterMs);
+                } else if (status >= 200 && status < 300) {
+                    bucket.consecutiveRateLimits = 0;
+                }
+            }
+            return retryAfterMs;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synchronized (bucket) {
+                bucket.inFlight--;
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final String provider;
+        private final String keyId;
+        // Fair, so queued callers are admitted in arrival order
+        private final ReentrantLock gate = new ReentrantLock(true);
+
+        // Budget fields: -1 means the provider has not told us
+        private long requestLimit = -1L;
+        private long requestsRemaining = -1L;
+        private long requestsResetAt = -1L;
+        private long tokenLimit = -1L;
+        private long tokensRemaining = -1L;
+        private long tokensResetAt = -1L;
+        private long blockedUntil;
+        private int consecutiveRateLimits;
+
+        private int inFlight;
+        private int waiting;
+        private long throttledRequests;
+        private long throttleMsTotal;
+        private long lastThrottleMs;
+        private long rateLimitedResponses;
+
+        private Bucket(String provider, String keyId) {
+            this.provider = provider;
+            this.keyId = keyId;
+        }
+
+        private long delayMs(long now, long tokens) {
+            refill(now);
+            long delay = Math.max(0L, blockedUntil - now);
+            if (requestsRemaining == 0) {
+                delay = Math.max(delay, requestsResetAt - now);
+            }
+            // A request larger than the whole window only needs a full bucket, not an impossible one
+            long needed = tokenLimit > 0 ? Math.min(tokens, tokenLimit) : tokens;
+            if (tokensRemaining >= 0 && tokensRemaining < needed) {
+                delay = Math.max(delay, tokensResetAt - now);
+            }
+            return delay;
+        }
+
+        private void reserve(long tokens) {
+            if (requestsRemaining > 0) {
+                requestsRemaining--;
+            }
+            if (tokensRemaining > 0) {
+                tokensRemaining = Math.max(0L, tokensRemaining - tokens);
+            }
+            inFlight++;
+        }
+
+        private void refill(long now) {
+            if (requestsResetAt >= 0 && now >= requestsResetAt) {
+                requestsRemaining = requestLimit;
+                requestsResetAt = -1L;
+            }
+            if (tokensResetAt >= 0 && now >= tokensResetAt) {
+                tokensRemaining = tokenLimit;
+                tokensResetAt = -1L;
+            }
+        }
+
+        private long backoffMs() {
+            int exponent = Math.min(6, Math.max(0, consecutiveRateLimits - 1));
+            return 1_000L << exponent;
+        }
+
+        private void learn(HttpHeaders headers, long now) {
+            if (headers == null) {
+                return;
+            }
+            long[] requests = read(headers, now,
+                new String[] {"x-ratelimit-limit-requests", "anthropic-ratelimit-requests-limit", "x-ratelimit-limit"},
+                new String[] {"x-ratelimit-remaining-requests", "anthropic-ratelimit-requests-remaining", "x-ratelimit-remaining"},
+                new String[] {"x-ratelimit-reset-requests", "anthropic-ratelimit-requests-reset", "x-ratelimit-reset"});
+            if (requests != null) {
+                if (requests[0] >= 0) {
+                    requestLimit = requests[0];
+                }
+                requestsRemaining = requests[1];
+                requestsResetAt = requests[2] >= 0 ? requests[2] : (requests[1] == 0 ? now + DEFAULT_RESET_MS : -1L);
+            }
+            long[] tokens = read(headers, now,
+                new String[] {"x-ratelimit-limit-tokens", "anthropic-ratelimit-tokens-limit"},
+                new String[] {"x-ratelimit-remaining-tokens", "anthropic-ratelimit-tokens-remaining"},
+                new String[] {"x-ratelimit-reset-tokens", "anthropic-ratelimit-tokens-reset"});
+            if (tokens != null) {
+                if (tokens[0] >= 0) {
+                    tokenLimit = tokens[0];
+                }
+                tokensRemaining = tokens[1];
+                tokensResetAt = tokens[2] >= 0 ? tokens[2] : (tokens[1] == 0 ? now + DEFAULT_RESET_MS : -1L);
+            }
+        }
+
+        /**
+         * @return {limit, remaining, resetAt} from the first header family present, or null
+         */
+        private static long[] read(HttpHeaders headers, long now, String[] limitNames,
+                                   String[] remainingNames, String[] resetNames) {
+            for (int i = 0; i < remainingNames.length; i++) {
+                long remaining = number(headers.firstValue(remainingNames[i]).orElse(null));
+                if (remaining < 0) {
+                    continue;
+                }
+                long limit = number(headers.firstValue(limitNames[i]).orElse(null));
+                long resetAt = parseResetAt(headers.firstValue(resetNames[i]).orElse(null), now);
+                return new long[] {limit, remaining, resetAt};
+            }
+            return null;
+        }
+
+        private static long number(String raw) {
+            if (raw == null || raw.isBlank()) {
+                return -1L;
+            }
+            try {
+                return Math.max(0L, (long) Double.parseDouble(raw.trim()));
+            } catch (NumberFormatException e) {
+                return -1L;
+            }
+        }
+    }
+}
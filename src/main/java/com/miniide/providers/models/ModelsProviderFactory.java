@@ -1,6 +1,8 @@
 package com.miniide.providers.models;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.WorkerPools;
+
 import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Locale;
@@ -21,6 +23,7 @@ public class ModelsProviderFactory {
         this.httpClient = HttpClient.newBuilder()
             .version(HttpClient.Version.HTTP_1_1)
             .connectTimeout(Duration.ofSeconds(10))
+            .executor(WorkerPools.bounded("models-http", 4, 0))
             .build();
     }
 
@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -26,12 +27,20 @@ public class JsonStorage {
         return Arrays.asList(items);
     }
 
+    /**
+     * Writes through a temp file in the same directory and an atomic rename, so readers and a
+     * crash mid-write never see a truncated file.
+     */
     public static void writeJsonList(String path, List<?> data) throws IOException {
-        Path filePath = Paths.get(path);
+        Path filePath = Paths.get(path).toAbsolutePath();
         Path parent = filePath.getParent();
-        if (parent != null) {
-            Files.createDirectories(parent);
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, filePath.getFileName().toString(), ".tmp");
+        try {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), data);
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        mapper.writerWithDefaultPrettyPrinter().writeValue(filePath.toFile(), data);
     }
 }
@@ -0,0 +1,113 @@
+package com.miniide.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a UTF-8 text file line by line from the end towards the start, touching only the
+ * chunks needed for the lines actually consumed. Used to tail append-only JSONL logs.
+ * <p>
+ * Lines are returned newest first, without the terminating '\n' (or "\r\n"). A file ending
+ * in a newline yields an empty line first, mirroring {@code split("\n", -1)}; callers that
+ * only want records should skip blank lines.
+ */
+public class ReverseLineReader implements Closeable {
+
+    private static final int CHUNK_BYTES = 8 * 1024;
+
+    private final FileChannel channel;
+    // File offset of buffer[0]; everything before it is still unread
+    private long bufferStart;
+    private byte[] buffer = new byte[0];
+    private int bufferLen;
+    // buffer[scanEnd..bufferLen) is known to contain no '\n'
+    private int scanEnd;
+    private long lastLineOffset = -1L;
+    private boolean exhausted;
+
+    public ReverseLineReader(Path file) throws IOException {
+        this(file, -1L);
+    }
+
+    /**
+     * @param endOffset read only bytes before this offset (e.g. a size recorded in an index);
+     *                  negative means the current end of file
+     */
+    public ReverseLineReader(Path file, long endOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        this.bufferStart = endOffset >= 0 ? Math.min(endOffset, size) : size;
+    }
+
+    /**
+     * @return the previous line, or null once the start of the file has been passed
+     */
+    public String readLine() throws IOException {
+        if (exhausted) {
+            return null;
+        }
+        while (true) {
+            for (int i = scanEnd - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    String line = decode(i + 1, bufferLen);
+                    lastLineOffset = bufferStart + i + 1;
+                    bufferLen = i;
+                    scanEnd = i;
+                    return line;
+                }
+            }
+            if (bufferStart == 0) {
+                exhausted = true;
+                lastLineOffset = 0L;
+                return decode(0, bufferLen);
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Byte offset of the start of the line most recently returned by {@link #readLine()}.
+     */
+    public long getLastLineOffset() {
+        return lastLineOffset;
+    }
+
+    private void fill() throws IOException {
+        int chunk = (int) Math.min(CHUNK_BYTES, bufferStart);
+        long readFrom = bufferStart - chunk;
+        byte[] next = new byte[chunk + bufferLen];
+        ByteBuffer target = ByteBuffer.wrap(next, 0, chunk);
+        long position = readFrom;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("File truncated while reading backwards");
+            }
+            position += read;
+        }
+        System.arraycopy(buffer, 0, next, chunk, bufferLen);
+        buffer = next;
+        bufferLen += chunk;
+        // Only the freshly read bytes still need scanning
+        scanEnd = chunk;
+        bufferStart = readFrom;
+    }
+
+    private String decode(int from, int to) {
+        int end = to;
+        if (end > from && buffer[end - 1] == '\r') {
+            end--;
+        }
+        return new String(buffer, from, end - from, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,163 @@
+package com.miniide.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic text extractors shared by the analysis tools and the manuscript entity index.
+ * Everything here is a pure function of the input text so results can be cached per file revision.
+ */
+public final class EntityExtractor {
+
+    static final Pattern EVENT_PATTERN = Pattern.compile(
+        "\\b(later|ago|before|after|during|yesterday|tomorrow|morning|evening|night|dawn|dusk"
+        + "|year|month|week|day|hour|minute|season|cycle|epoch"
+        + "|first|second|third|fourth|fifth|final|last"
+        + "|began|ended|arrived|departed|returned)\\b"
+    );
+
+    private static final Set<String> ENTITY_STOPWORDS = Set.of(
+        "the", "and", "but", "for", "not", "its", "this", "that",
+        "with", "from", "they", "them", "their", "there", "then",
+        "been", "were", "have", "had", "has", "will", "would",
+        "could", "should", "may", "might", "shall", "can",
+        "which", "where", "when", "what", "who", "whom",
+        "some", "any", "all", "each", "every", "both",
+        "many", "much", "more", "most", "other", "another"
+    );
+
+    static final Set<String> TERM_STOPWORDS = Set.of(
+        "the", "and", "that", "this", "with", "from", "have", "had",
+        "has", "was", "were", "been", "being", "would", "could",
+        "should", "will", "shall", "into", "also", "than", "then",
+        "them", "they", "their", "there", "here", "what", "when",
+        "where", "which", "while", "about", "just", "like", "over",
+        "such", "some", "more", "most", "other", "each", "every",
+        "much", "very", "does", "done", "didn", "hadn", "hasn",
+        "isn", "aren", "wasn", "weren", "couldn", "wouldn", "shouldn",
+        "through", "before", "after", "under", "between", "back",
+        "down", "still", "know", "said", "told"
+    );
+
+    private EntityExtractor() {
+    }
+
+    /**
+     * Distinct proper-noun entities in first-appearance order.
+     */
+    public static List<String> extractEntities(String content) {
+        return new ArrayList<>(extractEntityLines(content).keySet());
+    }
+
+    /**
+     * Proper-noun entities mapped to the 1-based line numbers of every mention, in first-appearance order.
+     * Capitalized words that do not start a sentence are merged into multi-word entities.
+     */
+    public static Map<String, List<Integer>> extractEntityLines(String content) {
+        Map<String, List<Integer>> mentions = new LinkedHashMap<>();
+        if (content == null || content.isEmpty()) {
+            return mentions;
+        }
+        String[] lines = content.split("\n");
+
+        for (int lineIdx = 0; lineIdx < lines.length; lineIdx++) {
+            String trimmed = lines[lineIdx].trim();
+            // Skip markdown headings and blank lines
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+            int lineNumber = lineIdx + 1;
+            String[] words = trimmed.split("\\s+");
+            StringBuilder multiWord = new StringBuilder();
+
+            for (int i = 0; i < words.length; i++) {
+                String word = words[i].replaceAll("[^a-zA-Z'-]", "");
+                if (word.isEmpty()) {
+                    flushEntity(multiWord, lineNumber, mentions);
+                    continue;
+                }
+
+                boolean isCapitalized = Character.isUpperCase(word.charAt(0)) && word.length() > 1;
+                boolean isSentenceStart = (i == 0) || (i > 0 && words[i - 1].matches(".*[.!?]$"));
+
+                if (isCapitalized && !isSentenceStart) {
+                    if (multiWord.length() > 0) multiWord.append(" ");
+                    multiWord.append(word);
+                } else {
+                    // Sentence starts and lowercase words both end any ongoing multi-word entity
+                    flushEntity(multiWord, lineNumber, mentions);
+                }
+            }
+            flushEntity(multiWord, lineNumber, mentions);
+        }
+        return mentions;
+    }
+
+    private static void flushEntity(StringBuilder multiWord, int lineNumber, Map<String, List<Integer>> mentions) {
+        if (multiWord.length() == 0) return;
+        String entity = multiWord.toString();
+        multiWord.setLength(0);
+        // Filter: skip very short, common words, articles
+        if (entity.length() <= 1) return;
+        if (ENTITY_STOPWORDS.contains(entity.toLowerCase(Locale.ROOT))) return;
+        mentions.computeIfAbsent(entity, k -> new ArrayList<>()).add(lineNumber);
+    }
+
+    /**
+     * Lowercased non-stopword terms (4+ letters) and their counts, in first-appearance order.
+     */
+    public static Map<String, Integer> extractTermFrequencies(String content) {
+        Map<String, Integer> freq = new LinkedHashMap<>();
+        if (content == null || content.isEmpty()) {
+            return freq;
+        }
+        String[] tokens = content.toLowerCase(Locale.ROOT).split("[^a-z]+");
+        for (String t : tokens) {
+            if (t.length() < 4 || TERM_STOPWORDS.contains(t)) continue;
+            freq.merge(t, 1, Integer::sum);
+        }
+        return freq;
+    }
+
+    /**
+     * Lines containing time or sequence markers, trimmed to quote length.
+     */
+    public static List<String> extractEventLines(String content) {
+        List<String> events = new ArrayList<>();
+        if (content == null || content.isEmpty()) {
+            return events;
+        }
+        String[] lines = content.split("\n");
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) continue;
+            String lower = trimmed.toLowerCase(Locale.ROOT);
+            if (EVENT_PATTERN.matcher(lower).find()) {
+                events.add(trimQuote(trimmed));
+            }
+        }
+        return events;
+    }
+
+    public static int countWords(String content) {
+        if (content == null || content.isBlank()) return 0;
+        int count = 0;
+        for (String w : content.split("\\s+")) {
+            if (!w.isBlank()) count++;
+        }
+        return count;
+    }
+
+    static String trimQuote(String text) {
+        if (text == null) return "";
+        String trimmed = text.trim();
+        if (trimmed.length() > 120) {
+            return trimmed.substring(0, 117) + "...";
+        }
+        return trimmed;
+    }
+}
@@ -4,10 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.miniide.AppLogger;
+import com.miniide.EntityIndexService;
 import com.miniide.IssueMemoryService;
+import com.miniide.LineOffsetIndex;
 import com.miniide.PreparedWorkspaceService;
 import com.miniide.ProjectContext;
 import com.miniide.WorkspaceService;
+import com.miniide.metrics.MetricsRegistry;
+import com.miniide.metrics.TurnTracer;
+import com.miniide.models.EntityIndexEntry;
+import com.miniide.models.FileLineRange;
 import com.miniide.models.FileNode;
 import com.miniide.models.Issue;
 
@@ -66,6 +72,21 @@ public class ToolExecutionService {
         if (call == null || call.getName() == null) {
             return ToolExecutionResult.error("Tool call missing name.", "missing-tool");
         }
+        long started = System.nanoTime();
+        String tool = isSupported(call.getName()) ? call.getName() : "unknown";
+        ToolExecutionResult result;
+        try (TurnTracer.Span span = TurnTracer.span("tool.execute")) {
+            span.attr("tool", tool);
+            result = executeTool(call, context);
+            span.attr("ok", result.isOk());
+        }
+        MetricsRegistry.get().histogram("tool_execution_seconds", "Tool execution latency by tool and outcome",
+                "tool", tool, "outcome", result.isOk() ? "ok" : (result.getError() != null ? result.getError() : "error"))
+            .recordNanos(System.nanoTime() - started);
+        return result;
+    }
+
+    private ToolExecutionResult executeTool(ToolCall call, ToolExecutionContext context) {
         String tool = call.getName();
         try {
             ToolRun run;
@@ -223,27 +244,24 @@ public class ToolExecutionService {
             return ToolRun.of(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
         }
 
-        String content = readFile(filePath);
-        if (content == null) {
+        FileLineRange range = readLineRange(filePath, startLine, endLine);
+        if (range == null) {
             root.put("error", "File not found or unreadable.");
             return ToolRun.of(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
         }
-        List<String> lines = List.of(content.split("\n", -1));
-        root.put("total_lines", lines.size());
-
-        int startIdx = Math.min(lines.size(), startLine - 1);
-        int endIdxExclusive = Math.min(lines.size(), endLine);
+        root.put("total_lines", range.getTotalLines());
 
-        StringBuilder excerpt = new StringBuilder();
-        for (int i = startIdx; i < endIdxExclusive; i++) {
-            int lineNo = i + 1;
-            if (includeLineNumbers) {
-                excerpt.append(lineNo).append(": ");
+        String excerpt = range.getContent();
+        if (includeLineNumbers && range.getStartLine() <= range.getTotalLines()) {
+            String[] lines = excerpt.split("\n", -1);
+            StringBuilder numbered = new StringBuilder();
+            for (int i = 0; i < lines.length; i++) {
+                numbered.append(range.getStartLine() + i).append(": ").append(lines[i]);
+                if (i < lines.length - 1) numbered.append("\n");
             }
-            excerpt.append(lines.get(i));
-            if (i < endIdxExclusive - 1) excerpt.append("\n");
+            excerpt = numbered.toString();
         }
-        root.put("excerpt", excerpt.toString());
+        root.put("excerpt", excerpt);
         return ToolRun.of(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
     }
 
@@ -763,23 +781,7 @@ public class ToolExecutionService {
     private String findLatestSessionWithReceipts() {
         if (projectContext == null || projectContext.audit() == null) return null;
         try {
-            Path sessionsRoot = projectContext.audit().getSessionsRoot();
-            if (sessionsRoot == null || !Files.exists(sessionsRoot)) return null;
-            Path newest = null;
-            long newestMs = -1;
-            try (var stream = Files.list(sessionsRoot)) {
-                for (Path dir : stream.toList()) {
-                    if (!Files.isDirectory(dir)) continue;
-                    Path receipts = dir.resolve("tool_receipts.jsonl");
-                    if (!Files.exists(receipts)) continue;
-                    long ms = Files.getLastModifiedTime(receipts).toMillis();
-                    if (ms > newestMs) {
-                        newestMs = ms;
-                        newest = dir;
-                    }
-                }
-            }
-            return newest != null ? newest.getFileName().toString() : null;
+            return projectContext.audit().findLatestSessionWithReceipts();
         } catch (Exception ignored) {
             return null;
         }
@@ -790,17 +792,8 @@ public class ToolExecutionService {
         if (projectContext == null || projectContext.audit() == null) return List.of();
         if (sessionId == null || sessionId.isBlank()) return List.of();
         try {
-            Path receipts = projectContext.audit().getSessionsRoot()
-                .resolve(sessionId.trim().replaceAll("[^a-zA-Z0-9._-]+", "_"))
-                .resolve("tool_receipts.jsonl");
-            if (!Files.exists(receipts)) {
-                return List.of();
-            }
-            List<String> lines = Files.readAllLines(receipts, StandardCharsets.UTF_8);
             List<Map<String, Object>> result = new ArrayList<>();
-            for (int i = Math.max(0, lines.size() - limit); i < lines.size(); i++) {
-                String line = lines.get(i);
-                if (line == null || line.isBlank()) continue;
+            for (String line : projectContext.audit().readRecentSessionReceipts(sessionId, limit)) {
                 try {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> node = objectMapper.readValue(line, Map.class);
@@ -1077,7 +1070,7 @@ public class ToolExecutionService {
             // Repeated words (non-stopwords, top 10)
             Map<String, Integer> freq = new java.util.LinkedHashMap<>();
             for (String t : tokens) {
-                if (t.length() < 4 || STOPWORDS.contains(t)) continue;
+                if (t.length() < 4 || EntityExtractor.TERM_STOPWORDS.contains(t)) continue;
                 freq.merge(t, 1, Integer::sum);
             }
             ArrayNode repeated = metrics.putArray("repeated_words");
@@ -1214,7 +1207,7 @@ public class ToolExecutionService {
 
         // Repeated words (top offenders)
         if (remaining > 0) {
-            Map<String, Integer> freq = extractTermFrequencies(content);
+            Map<String, Integer> freq = EntityExtractor.extractTermFrequencies(content);
             for (Map.Entry<String, Integer> e : freq.entrySet().stream()
                 .filter(en -> en.getValue() >= 4)
                 .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
@@ -1277,45 +1270,76 @@ public class ToolExecutionService {
 
     private ToolRun executeConsistencyChecker(Map<String, Object> args) throws IOException {
         List<String> filePaths = listArg(args, "file_paths");
+        String scope = stringArg(args, "scope", "files").toLowerCase(Locale.ROOT);
         String focus = stringArg(args, "focus", "general").toLowerCase(Locale.ROOT);
         boolean dryRun = boolArg(args, "dry_run", false);
+        int maxEntities = Math.max(1, Math.min(100, intArg(args, "max_entities", 20)));
+        boolean manuscriptScope = "manuscript".equals(scope);
 
-        if (filePaths == null || filePaths.isEmpty()) {
+        if (!manuscriptScope && (filePaths == null || filePaths.isEmpty())) {
             ObjectNode root = objectMapper.createObjectNode();
             root.put("tool", "consistency_checker");
-            root.put("error", "file_paths is required (provide at least 2 files).");
+            root.put("error", "file_paths is required (provide at least 2 files), or use scope \"manuscript\".");
             return ToolRun.of(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
         }
-        if (filePaths.size() > 10) {
-            ObjectNode root = objectMapper.createObjectNode();
-            root.put("tool", "consistency_checker");
-            root.put("error", "Too many files (" + filePaths.size() + "). Maximum is 10.");
-            return ToolRun.of(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
+
+        EntityIndexService entityIndex = projectContext != null ? projectContext.entityIndex() : null;
+        long indexStarted = System.currentTimeMillis();
+        int reindexed = 0;
+        if (entityIndex != null) {
+            reindexed = entityIndex.refresh();
+        }
+        long indexMs = System.currentTimeMillis() - indexStarted;
+        if (manuscriptScope) {
+            filePaths = entityIndex != null ? entityIndex.listPaths() : List.of();
         }
 
         if (dryRun) {
             ObjectNode root = objectMapper.createObjectNode();
             root.put("tool", "consistency_checker");
+            root.put("scope", manuscriptScope ? "manuscript" : "files");
             root.put("focus", focus);
             root.put("dry_run", true);
             root.put("file_count", filePaths.size());
             ArrayNode paths = root.putArray("file_paths");
-            filePaths.forEach(paths::add);
+            filePaths.stream().limit(50).forEach(paths::add);
+            if (filePaths.size() > 50) {
+                root.put("file_paths_truncated", true);
+            }
             return ToolRun.of(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root));
         }
 
-        // Read all files
+        // Small explicit sets still get content excerpts; larger sets are answered from the index alone
+        boolean includeContent = !manuscriptScope && filePaths.size() <= CONSISTENCY_CONTENT_FILE_LIMIT;
         Map<String, String> fileContents = new java.util.LinkedHashMap<>();
+        List<EntityIndexEntry> entries = new ArrayList<>();
+        int order = Integer.MAX_VALUE / 2;
         for (String path : filePaths) {
-            try {
-                String content = readFile(path);
-                if (content != null && !content.isBlank()) {
-                    fileContents.put(path, content);
+            EntityIndexEntry entry = entityIndex != null ? entityIndex.getEntry(path) : null;
+            String content = null;
+            if (entry == null || includeContent) {
+                try {
+                    content = readFile(path);
+                } catch (IOException ignored) {
                 }
-            } catch (IOException ignored) {}
+                if (content == null || content.isBlank()) {
+                    continue;
+                }
+            }
+            if (entry == null) {
+                // Outside Story/Compendium: extract on the fly without storing
+                entry = EntityIndexService.buildEntry(path, content, "", order++);
+            }
+            if (entry.getCharCount() == 0) {
+                continue;
+            }
+            entries.add(entry);
+            if (content != null) {
+                fileContents.put(entry.getPath(), content);
+            }
         }
 
-        if (fileContents.isEmpty()) {
+        if (entries.isEmpty()) {
             ObjectNode root = objectMapper.createObjectNode();
             root.put("tool", "consistency_checker");
             root.put("error", "No readable files found.");
@@ -1324,112 +1348,114 @@ public class ToolExecutionService {
 
         ObjectNode root = objectMapper.createObjectNode();
         root.put("tool", "consistency_checker");
+        root.put("scope", manuscriptScope ? "manuscript" : "files");
         root.put("focus", focus);
-        root.put("file_count", fileContents.size());
+        root.put("file_count", entries.size());
+        if (entityIndex != null) {
+            ObjectNode indexNode = root.putObject("index");
+            indexNode.put("indexed_files", entityIndex.size());
+            indexNode.put("reindexed_files", reindexed);
+            indexNode.put("refresh_ms", indexMs);
+        }
 
         boolean includeEntities = "general".equals(focus) || "characters".equals(focus);
         boolean includeTerms = "general".equals(focus) || "terminology".equals(focus);
         boolean includeEvents = "general".equals(focus) || "events".equals(focus);
 
-        // Per-file data + entity extraction
-        Map<String, List<String>> entitiesByFile = new java.util.LinkedHashMap<>();
-        Map<String, Map<String, Integer>> termsByFile = new java.util.LinkedHashMap<>();
-
         ArrayNode filesArray = root.putArray("files");
-        int contentBudget = Math.max(200, 2000 / fileContents.size());
+        int contentBudget = Math.max(200, 2000 / entries.size());
+        int perFileEntities = includeContent ? 30 : 10;
+        int perFileEvents = includeContent ? 10 : 3;
 
         ToolRun refCollector = ToolRun.of("");
 
-        for (Map.Entry<String, String> entry : fileContents.entrySet()) {
-            String path = entry.getKey();
-            String content = entry.getValue();
-
+        for (EntityIndexEntry entry : entries) {
+            String path = entry.getPath();
             ObjectNode fileNode = filesArray.addObject();
             fileNode.put("path", path);
+            fileNode.put("word_count", entry.getWordCount());
 
-            String[] words = content.split("\\s+");
-            int wc = 0;
-            for (String w : words) { if (!w.isBlank()) wc++; }
-            fileNode.put("word_count", wc);
-
-            // Extract entities (named proper nouns)
             if (includeEntities) {
-                List<String> entities = extractEntities(content);
-                entitiesByFile.put(path, entities);
                 ArrayNode entArr = fileNode.putArray("entities");
-                entities.stream().limit(30).forEach(entArr::add);
-            }
-
-            // Extract term frequencies (for cross-referencing)
-            if (includeTerms) {
-                Map<String, Integer> terms = extractTermFrequencies(content);
-                termsByFile.put(path, terms);
-            }
-
-            // Event markers
-            if (includeEvents) {
-                List<String> eventLines = extractEventLines(content);
-                if (!eventLines.isEmpty()) {
-                    ArrayNode evArr = fileNode.putArray("event_markers");
-                    eventLines.stream().limit(10).forEach(evArr::add);
+                entry.getEntities().keySet().stream().limit(perFileEntities).forEach(entArr::add);
+                if (!includeContent) {
+                    fileNode.put("entity_count", entry.getEntities().size());
                 }
             }
 
-            // Budget-aware content excerpt
-            String excerpt = content.length() > contentBudget
-                ? content.substring(0, contentBudget) : content;
-            fileNode.put("content", excerpt);
-            if (content.length() > contentBudget) {
-                fileNode.put("content_truncated", true);
-                fileNode.put("content_total_chars", content.length());
+            if (includeEvents && !entry.getEvents().isEmpty()) {
+                ArrayNode evArr = fileNode.putArray("event_markers");
+                entry.getEvents().stream().limit(perFileEvents).forEach(evArr::add);
             }
 
-            refCollector.fileRefs.add(buildFileRef(path, content,
-                content.length() > 200 ? content.substring(0, 200) : content));
-        }
-
-        // Cross-references: entities appearing in 2+ files
-        if (includeEntities && entitiesByFile.size() >= 2) {
-            // Build entity → {file → count} map
-            Map<String, Map<String, Integer>> entityIndex = new java.util.LinkedHashMap<>();
-            for (Map.Entry<String, List<String>> e : entitiesByFile.entrySet()) {
-                String path = e.getKey();
-                Map<String, Integer> freq = new java.util.LinkedHashMap<>();
-                for (String ent : e.getValue()) {
-                    freq.merge(ent, 1, Integer::sum);
-                }
-                for (Map.Entry<String, Integer> f : freq.entrySet()) {
-                    entityIndex.computeIfAbsent(f.getKey(), k -> new java.util.LinkedHashMap<>())
-                        .put(path, f.getValue());
+            String content = fileContents.get(path);
+            if (content != null) {
+                // Budget-aware content excerpt
+                String excerpt = content.length() > contentBudget
+                    ? content.substring(0, contentBudget) : content;
+                fileNode.put("content", excerpt);
+                if (content.length() > contentBudget) {
+                    fileNode.put("content_truncated", true);
+                    fileNode.put("content_total_chars", content.length());
                 }
-            }
-
+                refCollector.fileRefs.add(buildFileRef(path, content,
+                    content.length() > 200 ? content.substring(0, 200) : content));
+            } else if (refCollector.fileRefs.size() < CONSISTENCY_MAX_FILE_REFS && entry.getHead() != null) {
+                refCollector.fileRefs.add(buildFileRef(path, entry.getHead(), entry.getHead()));
+            }
+        }
+
+        // Cross-references: entities appearing in 2+ files, widest spread first
+        if (includeEntities && entries.size() >= 2) {
+            Map<String, EntityIndexService.EntityStats> stats = entityIndex != null
+                ? entityIndex.entityStats(manuscriptScope ? null : entries)
+                : Map.of();
+            List<EntityIndexService.EntityStats> shared = stats.values().stream()
+                .filter(s -> s.getFileCount() >= 2)
+                .sorted(Comparator.comparingInt(EntityIndexService.EntityStats::getFileCount).reversed()
+                    .thenComparing(Comparator.comparingInt(EntityIndexService.EntityStats::getMentionCount).reversed())
+                    .thenComparing(EntityIndexService.EntityStats::getEntity))
+                .limit(maxEntities)
+                .toList();
             ArrayNode crossRefs = root.putArray("cross_references");
-            int crossRefCount = 0;
-            for (Map.Entry<String, Map<String, Integer>> e : entityIndex.entrySet()) {
-                if (e.getValue().size() < 2) continue;
-                if (crossRefCount >= 20) break;
+            for (EntityIndexService.EntityStats s : shared) {
                 ObjectNode ref = crossRefs.addObject();
-                ref.put("entity", e.getKey());
+                ref.put("entity", s.getEntity());
+                ref.put("mention_count", s.getMentionCount());
                 ArrayNode refFiles = ref.putArray("files");
                 ArrayNode refCounts = ref.putArray("counts");
-                for (Map.Entry<String, Integer> f : e.getValue().entrySet()) {
+                for (Map.Entry<String, Integer> f : s.getFiles().entrySet()) {
+                    if (refFiles.size() >= 20) {
+                        ref.put("files_truncated", true);
+                        break;
+                    }
                     refFiles.add(f.getKey());
                     refCounts.add(f.getValue());
                 }
-                crossRefCount++;
+                ref.put("file_count", s.getFileCount());
+                ObjectNode first = ref.putObject("first_appearance");
+                first.put("path", s.getFirstPath());
+                first.put("line", s.getFirstLine());
+                ObjectNode last = ref.putObject("last_appearance");
+                last.put("path", s.getLastPath());
+                last.put("line", s.getLastLine());
+                ArrayNode coArr = ref.putArray("co_occurs_with");
+                for (Map.Entry<String, Integer> co : entityIndex.coOccurrences(
+                    s.getEntity(), manuscriptScope ? null : entries, 5)) {
+                    ObjectNode coNode = coArr.addObject();
+                    coNode.put("entity", co.getKey());
+                    coNode.put("shared_files", co.getValue());
+                }
             }
         }
 
         // Shared terms: non-stopwords appearing in 2+ files
-        if (includeTerms && termsByFile.size() >= 2) {
-            // Merge term frequencies across files
+        if (includeTerms && entries.size() >= 2) {
             Map<String, Map<String, Integer>> termIndex = new java.util.LinkedHashMap<>();
-            for (Map.Entry<String, Map<String, Integer>> e : termsByFile.entrySet()) {
-                String path = e.getKey();
-                for (Map.Entry<String, Integer> t : e.getValue().entrySet()) {
+            for (EntityIndexEntry entry : entries) {
+                for (Map.Entry<String, Integer> t : entry.getTerms().entrySet()) {
                     termIndex.computeIfAbsent(t.getKey(), k -> new java.util.LinkedHashMap<>())
-                        .put(path, t.getValue());
+                        .put(entry.getPath(), t.getValue());
                 }
             }
 
@@ -1446,7 +1472,8 @@ public class ToolExecutionService {
                     ObjectNode termNode = sharedTerms.addObject();
                     termNode.put("term", e.getKey());
                     ArrayNode termFiles = termNode.putArray("files");
-                    e.getValue().keySet().forEach(termFiles::add);
+                    e.getValue().keySet().stream().limit(20).forEach(termFiles::add);
+                    termNode.put("file_count", e.getValue().size());
                     termNode.put("total_count",
                         e.getValue().values().stream().mapToInt(Integer::intValue).sum());
                 });
@@ -1458,99 +1485,8 @@ public class ToolExecutionService {
         return result;
     }
 
-    private List<String> extractEntities(String content) {
-        // Extract proper nouns: capitalized words not at sentence starts, merged into multi-word entities
-        List<String> entities = new ArrayList<>();
-        Set<String> seen = new java.util.LinkedHashSet<>();
-        String[] lines = content.split("\n");
-
-        for (String line : lines) {
-            String trimmed = line.trim();
-            // Skip markdown headings and blank lines
-            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
-
-            String[] words = trimmed.split("\\s+");
-            StringBuilder multiWord = new StringBuilder();
-
-            for (int i = 0; i < words.length; i++) {
-                String word = words[i].replaceAll("[^a-zA-Z'-]", "");
-                if (word.isEmpty()) {
-                    flushEntity(multiWord, seen, entities);
-                    continue;
-                }
-
-                boolean isCapitalized = Character.isUpperCase(word.charAt(0)) && word.length() > 1;
-                boolean isSentenceStart = (i == 0) || (i > 0 && words[i - 1].matches(".*[.!?]$"));
-
-                if (isCapitalized && !isSentenceStart) {
-                    if (multiWord.length() > 0) multiWord.append(" ");
-                    multiWord.append(word);
-                } else if (isCapitalized && isSentenceStart && multiWord.length() > 0) {
-                    // Sentence start but we have an ongoing multi-word — flush and start fresh
-                    flushEntity(multiWord, seen, entities);
-                } else {
-                    flushEntity(multiWord, seen, entities);
-                }
-            }
-            flushEntity(multiWord, seen, entities);
-        }
-        return entities;
-    }
-
-    private void flushEntity(StringBuilder multiWord, Set<String> seen, List<String> entities) {
-        if (multiWord.length() == 0) return;
-        String entity = multiWord.toString();
-        multiWord.setLength(0);
-        // Filter: skip very short, common words, articles
-        if (entity.length() <= 1) return;
-        if (ENTITY_STOPWORDS.contains(entity.toLowerCase(Locale.ROOT))) return;
-        if (!seen.contains(entity)) {
-            seen.add(entity);
-            entities.add(entity);
-        }
-    }
-
-    private Map<String, Integer> extractTermFrequencies(String content) {
-        String[] tokens = content.toLowerCase(Locale.ROOT).split("[^a-z]+");
-        Map<String, Integer> freq = new java.util.LinkedHashMap<>();
-        for (String t : tokens) {
-            if (t.length() < 4 || STOPWORDS.contains(t)) continue;
-            freq.merge(t, 1, Integer::sum);
-        }
-        return freq;
-    }
-
-    private List<String> extractEventLines(String content) {
-        // Find lines containing time markers
-        List<String> events = new ArrayList<>();
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (trimmed.isEmpty()) continue;
-            String lower = trimmed.toLowerCase(Locale.ROOT);
-            if (EVENT_PATTERN.matcher(lower).find()) {
-                events.add(trimQuote(trimmed));
-            }
-        }
-        return events;
-    }
-
-    private static final java.util.regex.Pattern EVENT_PATTERN = java.util.regex.Pattern.compile(
-        "\\b(later|ago|before|after|during|yesterday|tomorrow|morning|evening|night|dawn|dusk"
-        + "|year|month|week|day|hour|minute|season|cycle|epoch"
-        + "|first|second|third|fourth|fifth|final|last"
-        + "|began|ended|arrived|departed|returned)\\b"
-    );
-
-    private static final Set<String> ENTITY_STOPWORDS = Set.of(
-        "the", "and", "but", "for", "not", "its", "this", "that",
-        "with", "from", "they", "them", "their", "there", "then",
-        "been", "were", "have", "had", "has", "will", "would",
-        "could", "should", "may", "might", "shall", "can",
-        "which", "where", "when", "what", "who", "whom",
-        "some", "any", "all", "each", "every", "both",
-        "many", "much", "more", "most", "other", "another"
-    );
+    private static final int CONSISTENCY_CONTENT_FILE_LIMIT = 10;
+    private static final int CONSISTENCY_MAX_FILE_REFS = 25;
 
     // ── scene_draft_validator ───────────────────────────────────────
 
@@ -1858,7 +1794,7 @@ public class ToolExecutionService {
                 entry.put("opening", opening);
                 entry.put("ending", ending);
 
-                List<String> entities = extractEntities(content);
+                List<String> entities = EntityExtractor.extractEntities(content);
                 ArrayNode entArr = entry.putArray("entities");
                 entities.stream().limit(20).forEach(entArr::add);
 
@@ -1993,7 +1929,7 @@ public class ToolExecutionService {
             String trimmed = raw.trim();
             if (trimmed.isEmpty()) continue;
             String lower = trimmed.toLowerCase(Locale.ROOT);
-            if (EVENT_PATTERN.matcher(lower).find() || TIME_PATTERN.matcher(lower).find()) {
+            if (EntityExtractor.EVENT_PATTERN.matcher(lower).find() || TIME_PATTERN.matcher(lower).find()) {
                 // IMPORTANT: Evidence validator checks quoted text exists verbatim in the file content.
                 // Do not append "..." here; if we must truncate, return a prefix-only excerpt.
                 markers.add(new TimeMarker(i + 1, quotePrefix(trimmed, 220)));
@@ -2331,19 +2267,6 @@ public class ToolExecutionService {
         "assembly", "butterfly", "bully", "fully", "tally"
     );
 
-    private static final Set<String> STOPWORDS = Set.of(
-        "the", "and", "that", "this", "with", "from", "have", "had",
-        "has", "was", "were", "been", "being", "would", "could",
-        "should", "will", "shall", "into", "also", "than", "then",
-        "them", "they", "their", "there", "here", "what", "when",
-        "where", "which", "while", "about", "just", "like", "over",
-        "such", "some", "more", "most", "other", "each", "every",
-        "much", "very", "does", "done", "didn", "hadn", "hasn",
-        "isn", "aren", "wasn", "weren", "couldn", "wouldn", "shouldn",
-        "through", "before", "after", "under", "between", "back",
-        "down", "still", "know", "said", "told"
-    );
-
     private String writeToolReceipt(ToolCall call, ToolRun run, ToolExecutionContext context) throws IOException {
         if (projectContext == null || projectContext.audit() == null) {
             return null;
@@ -2617,6 +2540,23 @@ public class ToolExecutionService {
         return workspace.readFile(relativePath);
     }
 
+    /**
+     * Reads only the requested window; on disk this goes through the workspace line index
+     * so large files are never loaded whole.
+     */
+    private FileLineRange readLineRange(String relativePath, int startLine, int endLine) throws IOException {
+        if (projectContext != null && projectContext.preparation() != null
+            && projectContext.preparation().isVirtualReady()) {
+            String content = projectContext.preparedWorkspace().readFile(relativePath);
+            return content == null ? null : LineOffsetIndex.slice(relativePath, content, startLine, endLine);
+        }
+        WorkspaceService workspace = projectContext != null ? projectContext.workspace() : null;
+        if (workspace == null) {
+            throw new IOException("Workspace unavailable.");
+        }
+        return workspace.readLineRange(relativePath, startLine, endLine);
+    }
+
     private String extractFirstSentence(String content) {
         if (content == null || content.isBlank()) return "";
         String trimmed = content.trim();
@@ -292,6 +292,20 @@
         async getSummary() {
             return api('/api/telemetry/summary');
         },
+        async getMetrics() {
+            return api('/api/metrics?format=json');
+        },
+        async listTraces(params = {}) {
+            const query = new URLSearchParams();
+            if (params.limit) query.set('limit', params.limit);
+            if (params.sessionId) query.set('sessionId', params.sessionId);
+            if (params.turnId) query.set('turnId', params.turnId);
+            const suffix = query.toString();
+            return api(`/api/telemetry/traces${suffix ? `?${suffix}` : ''}`);
+        },
+        async getTrace(id) {
+            return api(`/api/telemetry/traces/${encodeURIComponent(id)}`);
+        },
         async getStatus() {
             return api('/api/telemetry/status');
         },
@@ -328,11 +342,13 @@
 
     // Credit API
     const creditApi = {
-        async listProfiles() {
-            return api('/api/credits/profiles');
+        async listProfiles(windowDays) {
+            const query = windowDays ? `?windowDays=${encodeURIComponent(windowDays)}` : '';
+            return api(`/api/credits/profiles${query}`);
         },
-        async getProfile(agentId) {
-            return api(`/api/credits/profiles/${agentId}`);
+        async getProfile(agentId, windowDays) {
+            const query = windowDays ? `?windowDays=${encodeURIComponent(windowDays)}` : '';
+            return api(`/api/credits/profiles/${agentId}${query}`);
         },
         async listEvents(filters = {}) {
             const params = new URLSearchParams();
@@ -464,6 +480,10 @@
             if (baseUrl) params.set('baseUrl', baseUrl);
             if (keyRef) params.set('keyRef', keyRef);
             return api(`/api/providers/models?${params.toString()}`);
+        },
+
+        async rateLimits() {
+            return api('/api/providers/rate-limits');
         }
     };
 
@@ -694,6 +714,13 @@
                 body: content
             });
         },
+        async patchFile(path, baseHash, edits) {
+            return api(`/api/file?path=${encodeURIComponent(path)}`, {
+                method: 'PATCH',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ baseHash, edits })
+            });
+        },
         async createFile(path, type = 'file') {
             return api('/api/file', {
                 method: 'POST',
@@ -888,6 +915,37 @@
         }
     };
 
+    // Server push (GET /api/events, server-sent events). EventSource reconnects on its own and
+    // resends Last-Event-ID, so the server replays anything published while disconnected.
+    const EVENT_TOPICS = ['notifications', 'issues', 'patches', 'runs', 'telemetry', 'preparation'];
+    const eventsApi = {
+        subscribe(topics, handlers = {}) {
+            if (typeof EventSource === 'undefined') return () => {};
+            const wanted = topics && topics.length ? topics : EVENT_TOPICS;
+            const source = new EventSource(`/api/events?topics=${encodeURIComponent(wanted.join(','))}`);
+            wanted.forEach(topic => {
+                source.addEventListener(topic, (e) => {
+                    let event = null;
+                    try {
+                        event = JSON.parse(e.data);
+                    } catch (_) {
+                        return;
+                    }
+                    const handler = handlers[topic];
+                    if (handler) handler(event);
+                    window.dispatchEvent(new CustomEvent('control-room:event', { detail: event }));
+                });
+            });
+            source.addEventListener('resync', () => {
+                if (handlers.resync) handlers.resync();
+            });
+            return () => source.close();
+        },
+        async status() {
+            return api('/api/events/status');
+        }
+    };
+
     // Workspace actions API
     const workspaceActionsApi = {
         async open() {
@@ -921,6 +979,7 @@
     window.memoryApi = memoryApi;
     window.notificationsApi = notificationsApi;
     window.workspaceActionsApi = workspaceActionsApi;
+    window.eventsApi = eventsApi;
     window.versioningApi = versioningApi;
 
 })();
@@ -1799,6 +1799,27 @@
             confirmBtn.style.display = 'inline-flex';
         };
 
+        // Shows the server's ingest progress on the confirm button while an import request runs
+        const withIngestProgress = async (request) => {
+            const label = confirmBtn.textContent;
+            const stop = window.eventsApi
+                ? window.eventsApi.subscribe(['preparation'], {
+                    preparation: (event) => {
+                        const progress = event && event.payload;
+                        if (progress && progress.total) {
+                            confirmBtn.textContent = `Importing ${progress.processed}/${progress.total}...`;
+                        }
+                    }
+                })
+                : () => {};
+            try {
+                return await request();
+            } finally {
+                stop();
+                confirmBtn.textContent = label;
+            }
+        };
+
         const addFiles = (target, files) => {
             const existing = new Set(target.map(file => `${file.name}-${file.size}-${file.lastModified}`));
             files.forEach(file => {
@@ -2416,7 +2437,7 @@
                                 confirmBtn.disabled = false;
                                 return;
                             }
-                            await preparationApi.prepareIngest(formData);
+                            await withIngestProgress(() => preparationApi.prepareIngest(formData));
                             await refreshPreparationState();
                             if (loadFileTree) {
                                 await loadFileTree();
@@ -2584,7 +2605,7 @@
                                 confirmBtn.disabled = false;
                                 return;
                             }
-                            await preparationApi.prepareSupplementalIngest(formData);
+                            await withIngestProgress(() => preparationApi.prepareSupplementalIngest(formData));
                             await refreshPreparationState();
                             if (loadFileTree) {
                                 await loadFileTree();
@@ -3012,6 +3033,70 @@ async function showWorkspaceSwitcher() {
     const notificationStore = window.createNotificationStore();
     window.notificationStore = notificationStore;
 
+    // Live updates from /api/events replace refetching whole collections after background work
+    function initEventStream() {
+        if (!window.eventsApi) return;
+        window.eventsApi.subscribe(['notifications', 'issues', 'patches'], {
+            notifications: (event) => notificationStore.applyServerEvent(event),
+            issues: applyIssueEvent,
+            patches: () => {
+                if (document.getElementById('ai-actions-list')) {
+                    refreshAIActionsList();
+                }
+            },
+            resync: () => {
+                notificationStore.loadFromServer();
+                if (document.getElementById('issue-board-list')) {
+                    loadIssues();
+                }
+            }
+        });
+    }
+
+    function applyIssueEvent(event) {
+        const issues = state.issueBoard.issues;
+        if (!Array.isArray(issues) || !event) return;
+        const payload = event.payload || {};
+        const statusFilter = state.issueBoard.filters.status;
+        switch (event.type) {
+            case 'issue.created':
+                if (statusFilter === 'all' || statusFilter === payload.status) {
+                    issues.unshift(payload);
+                }
+                break;
+            case 'issue.updated': {
+                const index = issues.findIndex(issue => issue.id === payload.id);
+                if (index < 0) return;
+                issues[index] = payload;
+                break;
+            }
+            case 'issue.deleted': {
+                const index = issues.findIndex(issue => issue.id === payload.id);
+                if (index < 0) return;
+                issues.splice(index, 1);
+                break;
+            }
+            case 'issue.comment_added': {
+                const issue = issues.find(item => item.id === payload.issueId);
+                if (!issue) return;
+                issue.comments = Array.isArray(issue.comments) ? issue.comments : [];
+                issue.comments.push(payload.comment);
+                break;
+            }
+            case 'issues.reloaded':
+            case 'issues.decayed':
+                if (document.getElementById('issue-board-list')) {
+                    loadIssues();
+                }
+                return;
+            default:
+                return;
+        }
+        if (window.renderIssueBoardContent) {
+            window.renderIssueBoardContent();
+        }
+    }
+
     function initNotifications() {
         state.notifications.store = notificationStore;
 
@@ -3527,6 +3612,11 @@ async function showWorkspaceSwitcher() {
                 }
                 openNotificationCenter(notification.id);
                 break;
+            case 'reload-file':
+                if (payload.filePath && window.reloadOpenFile) {
+                    window.reloadOpenFile(payload.filePath);
+                }
+                break;
             case 'open-patch':
             case 'review-patch':
                 log(`Patch review requested: ${payload.patchId || 'unknown'}`, 'info');
@@ -9700,6 +9790,7 @@ async function showWorkspaceSwitcher() {
     window.initMemoryModeratorControls = initMemoryModeratorControls;
     window.initPromptToolsControls = initPromptToolsControls;
     window.initNotifications = initNotifications;
+    window.initEventStream = initEventStream;
     window.setViewMode = setViewMode;
     window.addChatMessage = addChatMessage;
     window.isEndpointWired = isEndpointWired;
@@ -22,6 +22,7 @@
         window.initMemoryModeratorControls();
         window.initPromptToolsControls();
         window.initNotifications();
+        window.initEventStream();
         window.initWorkbenchNewsfeedSubscription(); // Newsfeed updates
         window.loadFileTree();
         window.loadAgents();
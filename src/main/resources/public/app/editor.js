@@ -1320,11 +1320,14 @@
         const content = await api(`/api/file?path=${encodeURIComponent(path)}`);
         const model = monaco.editor.createModel(content, getLanguageForFile(path));
 
-        state.openFiles.set(path, {
+        const fileData = {
             model,
             content,
-            originalContent: content
-        });
+            originalContent: content,
+            baseHash: null
+        };
+        state.openFiles.set(path, fileData);
+        trackBaseHash(fileData, content);
     }
 
     // Force reload a file from disk (used after discarding changes)
@@ -1341,6 +1344,8 @@
             fileData.model.setValue(content);
             fileData.content = content;
             fileData.originalContent = content;
+            fileData.baseHash = null;
+            trackBaseHash(fileData, content);
 
             // Update dirty state
             updateTabDirtyState(path);
@@ -1572,6 +1577,99 @@
         }
     }
     
+    // SHA-256 of the saved content, matching WorkspaceService.sha256Hex; null when SubtleCrypto is unavailable
+    async function hashContent(content) {
+        if (!window.crypto || !window.crypto.subtle || typeof TextEncoder === 'undefined') return null;
+        const digest = await window.crypto.subtle.digest('SHA-256', new TextEncoder().encode(content));
+        return Array.from(new Uint8Array(digest)).map(b => b.toString(16).padStart(2, '0')).join('');
+    }
+
+    function trackBaseHash(fileData, content) {
+        hashContent(content).then(hash => {
+            if (fileData.originalContent === content) {
+                fileData.baseHash = hash;
+            }
+        }).catch(() => {});
+    }
+
+    // Single line-range edit (TextEdit shape) turning `before` into `after`, or null if unchanged.
+    // Server edits always replace at least one line, so pure insertions are anchored on the next line.
+    function computeLineDelta(before, after) {
+        const oldLines = before.split('\n');
+        const newLines = after.split('\n');
+        const maxPrefix = Math.min(oldLines.length, newLines.length);
+        let prefix = 0;
+        while (prefix < maxPrefix && oldLines[prefix] === newLines[prefix]) prefix++;
+        let suffix = 0;
+        while (suffix < oldLines.length - prefix && suffix < newLines.length - prefix
+            && oldLines[oldLines.length - 1 - suffix] === newLines[newLines.length - 1 - suffix]) {
+            suffix++;
+        }
+        let oldEnd = oldLines.length - suffix;
+        let newEnd = newLines.length - suffix;
+        if (prefix === oldEnd && prefix === newEnd) return null;
+        if (prefix === oldEnd && suffix > 0) {
+            oldEnd += 1;
+            newEnd += 1;
+        }
+        const replacement = newLines.slice(prefix, newEnd);
+        return {
+            startLine: prefix + 1,
+            endLine: Math.max(prefix + 1, oldEnd),
+            newText: replacement.length ? replacement.join('\n') : null
+        };
+    }
+
+    // Saves via PATCH /api/file (base hash + line delta) when possible, else a full PUT.
+    // A 409 means the file changed on disk since it was loaded; nothing is written and the
+    // error is marked `conflict` so callers can offer a reload instead of overwriting.
+    async function persistFile(path, file) {
+        const content = file.content;
+        let hash = null;
+        let saved = false;
+        if (file.baseHash && !content.includes('\r') && !file.originalContent.includes('\r')) {
+            const edit = computeLineDelta(file.originalContent, content);
+            try {
+                const result = await api(`/api/file?path=${encodeURIComponent(path)}`, {
+                    method: 'PATCH',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ baseHash: file.baseHash, edits: edit ? [edit] : [] })
+                });
+                hash = result && result.hash ? result.hash : null;
+                saved = true;
+            } catch (err) {
+                if (err.status === 409) {
+                    const conflict = new Error('File changed on disk since it was opened');
+                    conflict.status = 409;
+                    conflict.conflict = true;
+                    throw conflict;
+                }
+                // Older servers without PATCH support fall through to a full PUT
+                if (err.status !== 404 && err.status !== 405 && err.status !== 501) throw err;
+            }
+        }
+        if (!saved) {
+            const result = await api(`/api/file?path=${encodeURIComponent(path)}`, {
+                method: 'PUT',
+                headers: { 'Content-Type': 'text/plain' },
+                body: content
+            });
+            hash = result && result.hash ? result.hash : null;
+        }
+        file.baseHash = hash;
+        file.originalContent = content;
+    }
+
+    function reportSaveFailure(path, err) {
+        const store = getNotificationStore();
+        if (!store) return;
+        if (err && err.conflict) {
+            store.editorSaveConflict(path);
+        } else {
+            store.editorSaveFailure(path, err ? err.message : '');
+        }
+    }
+
     async function saveCurrentFile() {
         if (!state.activeFile) return;
     
@@ -1579,13 +1677,7 @@
         if (!file) return;
     
         try {
-            await api(`/api/file?path=${encodeURIComponent(state.activeFile)}`, {
-                method: 'PUT',
-                headers: { 'Content-Type': 'text/plain' },
-                body: file.content
-            });
-    
-            file.originalContent = file.content;
+            await persistFile(state.activeFile, file);
             updateDirtyStateForPath(state.activeFile);
             log(`Saved: ${state.activeFile}`, 'success');
             const store = getNotificationStore();
@@ -1597,10 +1689,7 @@
             }
         } catch (err) {
             log(`Failed to save: ${err.message}`, 'error');
-            const store = getNotificationStore();
-            if (store) {
-                store.editorSaveFailure(state.activeFile, err.message);
-            }
+            reportSaveFailure(state.activeFile, err);
         }
     }
     
@@ -1611,12 +1700,7 @@
         for (const [path, file] of state.openFiles) {
             if (file.content !== file.originalContent) {
                 try {
-                    await api(`/api/file?path=${encodeURIComponent(path)}`, {
-                        method: 'PUT',
-                        headers: { 'Content-Type': 'text/plain' },
-                        body: file.content
-                    });
-                    file.originalContent = file.content;
+                    await persistFile(path, file);
                     updateDirtyStateForPath(path);
                     log(`Saved: ${path}`, 'success');
                     savedCount += 1;
@@ -1627,10 +1711,7 @@
                 } catch (err) {
                     log(`Failed to save ${path}: ${err.message}`, 'error');
                     failedCount += 1;
-                    const store = getNotificationStore();
-                    if (store) {
-                        store.editorSaveFailure(path, err.message);
-                    }
+                    reportSaveFailure(path, err);
                 }
             }
         }
@@ -100,6 +100,12 @@
             return push('error', 'editor', `Save failed: ${filePath}`, details || '', 'blocking', true, 'Retry', null, 'editor');
         }
 
+        function editorSaveConflict(filePath) {
+            return push('error', 'editor', `Not saved: ${filePath} changed on disk`,
+                'Reload to pick up the disk version (your unsaved edits are discarded), or copy them out first.',
+                'blocking', true, 'Reload from disk', { kind: 'reload-file', filePath }, 'editor');
+        }
+
         function editorDiscardWarning(filePath) {
             return push('warning', 'editor', `Changes discarded in ${filePath}`, '', 'attention', false, '', null, 'editor');
         }
@@ -217,6 +223,38 @@
             return () => listeners.delete(listener);
         }
 
+        // Mirrors a server-side NotificationStore change pushed over /api/events
+        function applyServerEvent(event) {
+            if (!event || !event.type) return;
+            const payload = event.payload || {};
+            switch (event.type) {
+                case 'notification.created':
+                case 'notification.updated':
+                    if (!payload.id) return;
+                    applyDefaults(payload);
+                    notifications.set(payload.id, payload);
+                    break;
+                case 'notification.deleted':
+                    notifications.delete(payload.id);
+                    break;
+                case 'notifications.read_all':
+                    notifications.forEach(notification => {
+                        notification.read = true;
+                    });
+                    break;
+                case 'notifications.cleared':
+                    notifications.forEach((notification, id) => {
+                        if (!payload.errorsKept || notification.level !== 'error') {
+                            notifications.delete(id);
+                        }
+                    });
+                    break;
+                default:
+                    return;
+            }
+            emit();
+        }
+
         async function loadFromServer() {
             try {
                 const response = await fetch('/api/notifications');
@@ -234,6 +272,7 @@
 
         return {
             loadFromServer,
+            applyServerEvent,
             push,
             info,
             success,
@@ -241,6 +280,7 @@
             error,
             editorSaveSuccess,
             editorSaveFailure,
+            editorSaveConflict,
             editorDiscardWarning,
             editorSearchNoResults,
             issueCreated,
@@ -0,0 +1,105 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestJournalTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path dir;
+    private final Path path;
+
+    IngestJournalTest() throws IOException {
+        dir = Files.createTempDirectory("ingest-journal");
+        path = dir.resolve("ingest").resolve("progress.jsonl");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (var paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private IngestJournal.Header header(String ingestId, String salt) {
+        return new IngestJournal.Header(ingestId, salt, "ingest");
+    }
+
+    @Test
+    void sameIdAndSaltKeepsEntries() throws IOException {
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"))) {
+            journal.markCompleted("SCN-a", "a.md", "h1");
+            journal.markCompleted("SCN-b", "b.md", "h2");
+        }
+
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"))) {
+            assertEquals(2, journal.size());
+            assertTrue(journal.isCompleted("SCN-a"));
+            assertTrue(journal.isCompleted("SCN-b"));
+        }
+        IngestJournal.Header stored = IngestJournal.readHeader(path, mapper);
+        assertEquals("ing-1", stored.ingestId);
+        assertEquals("ingest", stored.mode);
+    }
+
+    @Test
+    void tornLastLineIsIgnored() throws IOException {
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"))) {
+            journal.markCompleted("SCN-a", "a.md", "h1");
+        }
+        Files.writeString(path, "{\"stableId\":\"SCN-b\",\"fi", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"))) {
+            assertEquals(1, journal.size());
+            assertFalse(journal.isCompleted("SCN-b"));
+            journal.markCompleted("SCN-c", "c.md", "h3");
+        }
+
+        // The entry written after the torn line survives the next resume
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"))) {
+            assertEquals(2, journal.size());
+            assertTrue(journal.isCompleted("SCN-c"));
+        }
+    }
+
+    @Test
+    void differentHeaderResetsFile() throws IOException {
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"))) {
+            journal.markCompleted("SCN-a", "a.md", "h1");
+        }
+
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-2"))) {
+            assertEquals(0, journal.size());
+        }
+        assertEquals("salt-2", IngestJournal.readHeader(path, mapper).projectSalt);
+
+        try (IngestJournal journal = IngestJournal.open(path, mapper, header("ing-2", "salt-2"))) {
+            assertEquals(0, journal.size());
+            assertFalse(journal.isCompleted("SCN-a"));
+        }
+        assertEquals("ing-2", IngestJournal.readHeader(path, mapper).ingestId);
+        assertEquals(1, Files.readAllLines(path, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    void deleteRemovesJournal() throws IOException {
+        IngestJournal journal = IngestJournal.open(path, mapper, header("ing-1", "salt-1"));
+        journal.markCompleted("SCN-a", "a.md", "h1");
+        journal.delete();
+
+        assertFalse(Files.exists(path));
+        assertNull(IngestJournal.readHeader(path, mapper));
+    }
+}
@@ -0,0 +1,83 @@
+package com.miniide;
+
+import com.miniide.models.MemoryItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryDecayTest {
+
+    private static final int AGENTS = 4;
+
+    private MemoryService seed(int count) {
+        MemoryService service = new MemoryService(null);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            MemoryItem item = service.createMemoryItem("agent-" + (i % AGENTS), "topic-" + i, 3, null, null);
+            if (i % 10 == 0) {
+                item.setLastAccessedAt(now - TimeUnit.DAYS.toMillis(20));
+            }
+        }
+        return service;
+    }
+
+    private MemoryService.DecaySettings settings() {
+        MemoryService.DecaySettings settings = new MemoryService.DecaySettings();
+        settings.setArchiveAfterMs(TimeUnit.DAYS.toMillis(14));
+        settings.setExpireAfterMs(TimeUnit.DAYS.toMillis(30));
+        return settings;
+    }
+
+    private static void assertSameIds(List<String> expected, List<String> actual) {
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    @Test
+    void tickAppliesWhatDryRunPredicted() {
+        MemoryService service = seed(200);
+        MemoryService.DecaySettings settings = settings();
+
+        MemoryService.DecayResult predicted = service.runDecay(settings, true);
+        MemoryService.DecayResult applied = service.runDecay(settings, false);
+
+        assertEquals(20, predicted.getArchivedIds().size());
+        assertSameIds(predicted.getArchivedIds(), applied.getArchivedIds());
+        assertSameIds(predicted.getExpiredIds(), applied.getExpiredIds());
+        assertSameIds(predicted.getDemotedIds(), applied.getDemotedIds());
+    }
+
+    @Test
+    void idleTickChangesNothing() {
+        MemoryService service = seed(200);
+        MemoryService.DecaySettings settings = settings();
+        service.runDecay(settings, false);
+
+        MemoryService.DecayResult idle = service.runDecay(settings, false);
+
+        assertTrue(idle.getArchivedIds().isEmpty());
+        assertTrue(idle.getExpiredIds().isEmpty());
+        assertTrue(idle.getDemotedIds().isEmpty());
+    }
+
+    @Test
+    void activationTickMatchesDryRun() {
+        MemoryService service = seed(200);
+        MemoryService.DecaySettings settings = settings();
+        service.runDecay(settings, false);
+
+        // Push one agent's items past the level-3 threshold (120 activations at weight 1.0)
+        for (int i = 0; i < 120; i++) {
+            service.recordAgentActivation("agent-1");
+        }
+        MemoryService.DecayResult predicted = service.runDecay(settings, true);
+        MemoryService.DecayResult applied = service.runDecay(settings, false);
+
+        assertFalse(predicted.getDemotedIds().isEmpty());
+        assertSameIds(predicted.getDemotedIds(), applied.getDemotedIds());
+        assertSameIds(predicted.getArchivedIds(), applied.getArchivedIds());
+    }
+}
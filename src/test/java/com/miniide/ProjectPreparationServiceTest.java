@@ -0,0 +1,200 @@
+package com.miniide;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.UploadedFile;
+import jakarta.servlet.http.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectPreparationServiceTest {
+
+    private final List<Path> workspaces = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        for (Path dir : workspaces) {
+            try (var paths = Files.walk(dir)) {
+                for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    private Path workspace() throws IOException {
+        Path dir = Files.createTempDirectory("prep-workspace");
+        workspaces.add(dir);
+        AppLogger.initialize(dir.resolve("test.log"), false);
+        return dir;
+    }
+
+    private static List<String> cardFiles(Path root) throws IOException {
+        Path cards = root.resolve(".control-room").resolve("canon").resolve("cards");
+        if (!Files.exists(cards)) {
+            return List.of();
+        }
+        try (var files = Files.list(cards)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static UploadedFile upload(String name) {
+        return upload(name, ("# " + name + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * An upload whose content cannot be read, or a readable one when {@code bytes} is given.
+     */
+    private static UploadedFile upload(String name, byte[] bytes) {
+        Part part = (Part) Proxy.newProxyInstance(Part.class.getClassLoader(), new Class<?>[] {Part.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                    case "getSubmittedFileName":
+                        return name;
+                    case "getInputStream":
+                        if (bytes == null) {
+                            throw new IOException("upload of " + name + " was cut off");
+                        }
+                        return new ByteArrayInputStream(bytes);
+                    case "getSize":
+                        return bytes != null ? (long) bytes.length : 0L;
+                    case "getHeaders":
+                    case "getHeaderNames":
+                        return Collections.emptyList();
+                    default:
+                        return null;
+                }
+            });
+        return new UploadedFile(part);
+    }
+
+    private static List<UploadedFile> uploads(int count) {
+        List<UploadedFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(upload(String.format("scene-%02d.md", i)));
+        }
+        return files;
+    }
+
+    @Test
+    void ingestInOrderDeliversInUploadOrder() throws IOException {
+        List<UploadedFile> files = uploads(24);
+        List<String> delivered = new ArrayList<>();
+        ProjectPreparationService.<String>ingestInOrder(files, file -> {
+            // Earlier files finish last, so completion order is the reverse of upload order
+            int index = Integer.parseInt(file.filename().substring(6, 8));
+            sleep(2L * (24 - index));
+            return file.filename().toUpperCase();
+        }, (file, result) -> {
+            assertEquals(file.filename().toUpperCase(), result);
+            delivered.add(file.filename());
+        });
+
+        List<String> expected = new ArrayList<>();
+        files.forEach(file -> expected.add(file.filename()));
+        assertEquals(expected, delivered);
+    }
+
+    @Test
+    void ingestInOrderSkipsMissingFiles() throws IOException {
+        List<UploadedFile> files = Arrays.asList(upload("a.md"), null, upload("b.md"));
+        List<String> delivered = new ArrayList<>();
+        ProjectPreparationService.<String>ingestInOrder(files, UploadedFile::filename, (file, result) -> delivered.add(result));
+
+        assertEquals(List.of("a.md", "b.md"), delivered);
+    }
+
+    @Test
+    void ingestInOrderStopsAtFirstFailure() {
+        List<UploadedFile> files = uploads(20);
+        List<String> delivered = new ArrayList<>();
+        AtomicInteger processed = new AtomicInteger();
+        IOException error = assertThrows(IOException.class, () ->
+            ProjectPreparationService.<String>ingestInOrder(files, file -> {
+                processed.incrementAndGet();
+                if (file.filename().equals("scene-03.md")) {
+                    throw new IOException("unreadable " + file.filename());
+                }
+                return file.filename();
+            }, (file, result) -> delivered.add(result)));
+
+        assertEquals("unreadable scene-03.md", error.getMessage());
+        assertEquals(List.of("scene-00.md", "scene-01.md", "scene-02.md"), delivered);
+        assertTrue(processed.get() < files.size(), "files past the read-ahead window were not started");
+    }
+
+    @Test
+    void failedIngestLeavesNoCardsBehind() throws IOException {
+        Path root = workspace();
+        ProjectPreparationService service = new ProjectPreparationService(root, new WorkspaceService(root), new ObjectMapper());
+        ProjectPreparationService.PrepareIngestPayload failing = new ProjectPreparationService.PrepareIngestPayload();
+        failing.canonFiles = new ArrayList<>(List.of(upload("Mara.md"), upload("Broken.md", null)));
+
+        assertThrows(IOException.class, () -> service.prepareIngest(failing));
+        assertEquals(List.of(), cardFiles(root));
+        assertFalse(service.isPrepared());
+
+        // A retry with other files starts over; Mara's staged card is not committed with it
+        ProjectPreparationService.PrepareIngestPayload retry = new ProjectPreparationService.PrepareIngestPayload();
+        retry.canonFiles = new ArrayList<>(List.of(upload("Harbor.md")));
+        ProjectPreparationService.PreparationResult result = service.prepareIngest(retry);
+
+        assertTrue(result.ok);
+        assertEquals(1, result.cardsCreated);
+        List<String> cards = cardFiles(root);
+        assertEquals(1, cards.size());
+        assertTrue(cards.get(0).contains("harbor"), cards.toString());
+        assertFalse(Files.exists(root.resolve(".control-room").resolve("ingest").resolve("staged-cards")));
+    }
+
+    @Test
+    void resumedIngestReusesStagedCards() throws IOException {
+        Path root = workspace();
+        ObjectMapper mapper = new ObjectMapper();
+        ProjectPreparationService service = new ProjectPreparationService(root, new WorkspaceService(root), mapper);
+        ProjectPreparationService.PrepareIngestPayload failing = new ProjectPreparationService.PrepareIngestPayload();
+        failing.canonFiles = new ArrayList<>(List.of(upload("Mara.md"), upload("Harbor.md", null)));
+        assertThrows(IOException.class, () -> service.prepareIngest(failing));
+
+        Path staged;
+        try (var files = Files.list(root.resolve(".control-room").resolve("ingest").resolve("staged-cards"))) {
+            staged = files.findFirst().orElseThrow();
+        }
+        var card = (com.fasterxml.jackson.databind.node.ObjectNode) mapper.readTree(staged.toFile());
+        card.put("title", "Mara (from the first attempt)");
+        mapper.writeValue(staged.toFile(), card);
+
+        ProjectPreparationService.PrepareIngestPayload retry = new ProjectPreparationService.PrepareIngestPayload();
+        retry.canonFiles = new ArrayList<>(List.of(upload("Mara.md"), upload("Harbor.md")));
+        assertTrue(service.prepareIngest(retry).ok);
+
+        Path committed = root.resolve(".control-room").resolve("canon").resolve("cards").resolve(staged.getFileName());
+        assertEquals("Mara (from the first attempt)", mapper.readTree(committed.toFile()).path("title").asText());
+        assertEquals(2, cardFiles(root).size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
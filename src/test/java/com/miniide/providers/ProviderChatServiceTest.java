@@ -0,0 +1,124 @@
+package com.miniide.providers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniide.models.AgentEndpointConfig;
+import com.miniide.providers.chat.ProviderHttpException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderChatServiceTest {
+
+    private static final String OK_BODY = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"fallback\"}}]}";
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+    }
+
+    private AgentEndpointConfig endpoint(int status, String body, AtomicInteger hits) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        servers.add(server);
+        AgentEndpointConfig endpoint = new AgentEndpointConfig();
+        endpoint.setProvider("custom");
+        endpoint.setModel("model-" + servers.size());
+        endpoint.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        endpoint.setMaxRetries(0);
+        return endpoint;
+    }
+
+    private List<ProviderChatService.Target> pool(AgentEndpointConfig... endpoints) {
+        List<ProviderChatService.Target> pool = new ArrayList<>();
+        for (AgentEndpointConfig endpoint : endpoints) {
+            pool.add(new ProviderChatService.Target("custom", null, endpoint));
+        }
+        return pool;
+    }
+
+    @Test
+    void classifiesCallerErrors() {
+        assertTrue(new ProviderHttpException(400, "context too long", -1).isCallerError());
+        assertTrue(new ProviderHttpException(401, "bad key", -1).isCallerError());
+        assertTrue(new ProviderHttpException(404, "unknown model", -1).isCallerError());
+        assertFalse(new ProviderHttpException(408, "timeout", -1).isCallerError());
+        assertFalse(new ProviderHttpException(429, "slow down", -1).isCallerError());
+        assertFalse(new ProviderHttpException(503, "unavailable", -1).isCallerError());
+        assertFalse(ProviderChatService.isCallerError(new IOException("connection refused")));
+    }
+
+    @Test
+    void callerErrorFailsOverWithoutCircuitImpact() throws Exception {
+        AtomicInteger primaryHits = new AtomicInteger();
+        AtomicInteger fallbackHits = new AtomicInteger();
+        AgentEndpointConfig primary = endpoint(401, "{\"error\":\"invalid api key\"}", primaryHits);
+        AgentEndpointConfig fallback = endpoint(200, OK_BODY, fallbackHits);
+        ProviderChatService service = new ProviderChatService(new ObjectMapper());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("fallback", service.chat(pool(primary, fallback), "hello", null, false));
+        }
+
+        assertEquals(4, primaryHits.get());
+        assertEquals(4, fallbackHits.get());
+        assertFalse(service.getHealthTracker().isOpen(EndpointHealthTracker.key(primary)));
+    }
+
+    @Test
+    void callerErrorSkipsTargetsSendingTheSameRequest() throws Exception {
+        AtomicInteger primaryHits = new AtomicInteger();
+        AtomicInteger mirrorHits = new AtomicInteger();
+        AgentEndpointConfig primary = endpoint(400, "{\"error\":\"context too long\"}", primaryHits);
+        AgentEndpointConfig mirror = endpoint(200, OK_BODY, mirrorHits);
+        mirror.setModel(primary.getModel());
+        ProviderChatService service = new ProviderChatService(new ObjectMapper());
+
+        ProviderHttpException error = assertThrows(ProviderHttpException.class,
+            () -> service.chat(pool(primary, mirror), "hello", null, false));
+
+        assertEquals(400, error.getStatusCode());
+        assertEquals(1, primaryHits.get());
+        assertEquals(0, mirrorHits.get());
+        assertFalse(service.getHealthTracker().isOpen(EndpointHealthTracker.key(primary)));
+    }
+
+    @Test
+    void serverErrorFailsOverAndOpensCircuit() throws Exception {
+        AtomicInteger primaryHits = new AtomicInteger();
+        AtomicInteger fallbackHits = new AtomicInteger();
+        AgentEndpointConfig primary = endpoint(503, "{\"error\":\"overloaded\"}", primaryHits);
+        AgentEndpointConfig fallback = endpoint(200, OK_BODY, fallbackHits);
+        ProviderChatService service = new ProviderChatService(new ObjectMapper());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("fallback", service.chat(pool(primary, fallback), "hello", null, false));
+        }
+
+        assertEquals(3, fallbackHits.get());
+        assertTrue(service.getHealthTracker().isOpen(EndpointHealthTracker.key(primary)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.miniide.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityExtractorTest {
+
+    @Test
+    void mergesMultiWordEntitiesAndRecordsLines() {
+        String text = "# Heading With Names\nThey met Captain Mara Voss at dawn.\nLater the crew followed Mara Voss inside.\n";
+        Map<String, List<Integer>> mentions = EntityExtractor.extractEntityLines(text);
+        assertEquals(List.of(2), mentions.get("Captain Mara Voss"));
+        assertEquals(List.of(3), mentions.get("Mara Voss"));
+        assertFalse(mentions.containsKey("Heading"));
+        assertFalse(mentions.containsKey("Names"));
+    }
+
+    @Test
+    void skipsSentenceStartsAndStopwords() {
+        String text = "The storm broke. Teodor ran. He shouted at The Guild and Teodor.";
+        List<String> entities = EntityExtractor.extractEntities(text);
+        assertEquals(List.of("The Guild", "Teodor"), entities);
+    }
+
+    @Test
+    void termFrequenciesIgnoreShortWordsAndStopwords() {
+        Map<String, Integer> freq = EntityExtractor.extractTermFrequencies("Lantern lantern LANTERN with the oil and wick");
+        assertEquals(Integer.valueOf(3), freq.get("lantern"));
+        assertNull(freq.get("with"));
+        assertNull(freq.get("oil"));
+    }
+
+    @Test
+    void eventLinesMatchTimeMarkers() {
+        List<String> events = EntityExtractor.extractEventLines("She waited.\nThree days later the ship returned.\n");
+        assertEquals(List.of("Three days later the ship returned."), events);
+    }
+}